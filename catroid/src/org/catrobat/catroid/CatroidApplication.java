@@ -27,6 +27,10 @@ import android.util.Log;
 
 import com.parrot.freeflight.settings.ApplicationSettings;
 
+import org.catrobat.catroid.io.ProjectSnapshot;
+
+import java.io.File;
+
 public class CatroidApplication extends Application {
 
 	private static final String TAG = CatroidApplication.class.getSimpleName();;
@@ -41,6 +45,7 @@ public class CatroidApplication extends Application {
 		super.onCreate();
 		Log.d(TAG, "CatroidApplication onCreate");
 		settings = new ApplicationSettings(this);
+		ProjectSnapshot.setSnapshotDirectory(new File(getCacheDir(), ProjectSnapshot.DIRECTORY_NAME));
 	}
 
 	public ApplicationSettings getParrotApplicationSettings() {
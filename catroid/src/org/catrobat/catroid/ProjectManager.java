@@ -49,6 +49,7 @@ import org.catrobat.catroid.exceptions.LoadingProjectException;
 import org.catrobat.catroid.exceptions.OutdatedVersionProjectException;
 import org.catrobat.catroid.io.LoadProjectTask;
 import org.catrobat.catroid.io.LoadProjectTask.OnLoadProjectCompleteListener;
+import org.catrobat.catroid.io.ProjectHeaderProbe;
 import org.catrobat.catroid.io.StorageHandler;
 import org.catrobat.catroid.transfers.CheckTokenTask;
 import org.catrobat.catroid.transfers.CheckTokenTask.OnCheckTokenCompleteListener;
@@ -102,6 +103,11 @@ public final class ProjectManager implements OnLoadProjectCompleteListener, OnCh
 
 	public void loadProject(String projectName, Context context) throws LoadingProjectException,
 			OutdatedVersionProjectException, CompatibilityProjectException {
+		ProjectHeaderProbe header = StorageHandler.getInstance().probeProject(projectName);
+		if (header != null && header.getCatrobatLanguageVersion() > Constants.CURRENT_CATROBAT_LANGUAGE_VERSION) {
+			throw new OutdatedVersionProjectException(context.getString(R.string.error_outdated_pocketcode_version));
+		}
+
 		fileChecksumContainer = new FileChecksumContainer();
 		Project oldProject = project;
 		MessageContainer.createBackup();
@@ -163,8 +169,13 @@ public final class ProjectManager implements OnLoadProjectCompleteListener, OnCh
 	private void localizeBackgroundSprite(Context context) {
 		// Set generic localized name on background sprite and move it to the back.
 		if (project.getSpriteList().size() > 0) {
+			// the localized name is only shown, a project that equals its code.xml stays clean
+			boolean projectWasDirty = project.isDirty();
 			project.getSpriteList().get(0).setName(context.getString(R.string.background));
 			project.getSpriteList().get(0).look.setZIndex(0);
+			if (!projectWasDirty) {
+				project.setClean();
+			}
 		}
 		MessageContainer.clearBackup();
 		currentSprite = null;
@@ -177,7 +188,11 @@ public final class ProjectManager implements OnLoadProjectCompleteListener, OnCh
 	}
 
 	public boolean canLoadProject(String projectName) {
-		return StorageHandler.getInstance().loadProject(projectName) != null;
+		ProjectHeaderProbe header = StorageHandler.getInstance().probeProject(projectName);
+		if (header == null) {
+			return StorageHandler.getInstance().loadProject(projectName) != null;
+		}
+		return header.getCatrobatLanguageVersion() <= Constants.CURRENT_CATROBAT_LANGUAGE_VERSION;
 	}
 
 	public void saveProject() {
@@ -301,6 +316,7 @@ public final class ProjectManager implements OnLoadProjectCompleteListener, OnCh
 		}
 
 		if (directoryRenamed) {
+			StorageHandler.getInstance().getProjectIndex().remove(project.getName());
 			project.setName(newProjectName);
 			saveProject();
 		}
@@ -25,9 +25,8 @@ package org.catrobat.catroid.camera;
 import android.annotation.TargetApi;
 import android.content.Context;
 import android.content.SharedPreferences;
-import android.graphics.Rect;
+import android.graphics.ImageFormat;
 import android.graphics.SurfaceTexture;
-import android.graphics.YuvImage;
 import android.hardware.Camera;
 import android.hardware.Camera.CameraInfo;
 import android.hardware.Camera.Parameters;
@@ -37,7 +36,6 @@ import android.util.Log;
 
 import org.catrobat.catroid.R;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
@@ -45,11 +43,14 @@ import java.util.List;
 public final class CameraManager implements Camera.PreviewCallback {
 
 	public static final int TEXTURE_NAME = 1;
+	// one buffer is filled by the camera while the other one is handed to the callbacks
+	private static final int NUMBER_OF_PREVIEW_BUFFERS = 2;
 	private static CameraManager instance;
 	private Camera camera;
 	private SurfaceTexture texture;
-	private List<JpgPreviewCallback> callbacks = new ArrayList<JpgPreviewCallback>();
-	private int previewFormat;
+	private List<PreviewFrameCallback> callbacks = new ArrayList<PreviewFrameCallback>();
+	private byte[][] previewBuffers;
+	private boolean previewBuffersQueued = false;
 	private int previewWidth;
 	private int previewHeight;
 	private int cameraID = 0;
@@ -135,13 +136,27 @@ public final class CameraManager implements Camera.PreviewCallback {
 			}
 		}
 		Parameters parameters = camera.getParameters();
-		previewFormat = parameters.getPreviewFormat();
 		previewWidth = parameters.getPreviewSize().width;
 		previewHeight = parameters.getPreviewSize().height;
+		addPreviewBuffers(previewWidth * previewHeight * ImageFormat.getBitsPerPixel(parameters.getPreviewFormat())
+				/ 8);
 		camera.startPreview();
 		return true;
 	}
 
+	private void addPreviewBuffers(int bufferSize) {
+		if (previewBuffersQueued) {
+			return;
+		}
+		if (previewBuffers == null || previewBuffers[0].length != bufferSize) {
+			previewBuffers = new byte[NUMBER_OF_PREVIEW_BUFFERS][bufferSize];
+		}
+		for (byte[] buffer : previewBuffers) {
+			camera.addCallbackBuffer(buffer);
+		}
+		previewBuffersQueued = true;
+	}
+
 	public void releaseCamera() {
 		if (camera == null) {
 			return;
@@ -150,37 +165,29 @@ public final class CameraManager implements Camera.PreviewCallback {
 		camera.stopPreview();
 		camera.release();
 		camera = null;
+		previewBuffersQueued = false;
 	}
 
-	public void addOnJpgPreviewFrameCallback(JpgPreviewCallback callback) {
+	public void addOnPreviewFrameCallback(PreviewFrameCallback callback) {
 		if (callbacks.contains(callback)) {
 			return;
 		}
 		callbacks.add(callback);
 	}
 
-	public void removeOnJpgPreviewFrameCallback(JpgPreviewCallback callback) {
+	public void removeOnPreviewFrameCallback(PreviewFrameCallback callback) {
 		callbacks.remove(callback);
 	}
 
 	@Override
 	public void onPreviewFrame(byte[] data, Camera camera) {
-		if (callbacks.size() == 0) {
+		if (data == null) {
 			return;
 		}
-		byte[] jpgData = getDecodeableBytesFromCameraFrame(data);
-		for (JpgPreviewCallback callback : callbacks) {
-			callback.onFrame(jpgData);
+		for (PreviewFrameCallback callback : callbacks) {
+			callback.onPreviewFrame(data, previewWidth, previewHeight);
 		}
-	}
-
-	private byte[] getDecodeableBytesFromCameraFrame(byte[] cameraData) {
-		byte[] decodableBytes;
-		YuvImage image = new YuvImage(cameraData, previewFormat, previewWidth, previewHeight, null);
-		ByteArrayOutputStream out = new ByteArrayOutputStream();
-		image.compressToJpeg(new Rect(0, 0, previewWidth, previewHeight), 50, out);
-		decodableBytes = out.toByteArray();
-		return decodableBytes;
+		camera.addCallbackBuffer(data);
 	}
 
 	@TargetApi(Build.VERSION_CODES.HONEYCOMB)
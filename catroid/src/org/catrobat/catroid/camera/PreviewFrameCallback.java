@@ -22,8 +22,15 @@
  */
 package org.catrobat.catroid.camera;
 
-public interface JpgPreviewCallback {
+public interface PreviewFrameCallback {
 
-	void onFrame(byte[] jpgData);
+	/**
+	 * Called on the camera thread for every preview frame. The buffer is handed back to the camera after all
+	 * callbacks returned, so its content must not be used after this call.
+	 *
+	 * @param nv21Data
+	 *            raw preview frame, the luma plane is the first width * height bytes
+	 */
+	void onPreviewFrame(byte[] nv21Data, int width, int height);
 
 }
@@ -35,10 +35,13 @@ public final class Constants {
 	public static final String APPLICATION_BUILD_NAME = ""; // updated from jenkins nightly/release build
 	public static final String PROJECTCODE_NAME = "code.xml";
 	public static final String PROJECTCODE_NAME_TMP = "tmp_" + PROJECTCODE_NAME;
+	public static final String PROJECTCODE_SNAPSHOT_NAME = "code.snapshot";
+	public static final String PROJECT_INDEX_FILE_NAME = ".project_index";
 
 	public static final String CATROBAT_EXTENSION = ".catrobat";
 	public static final String IMAGE_STANDARD_EXTENTION = ".png";
 	public static final String TEXT_TO_SPEECH_EXTENSION = ".wav";
+	public static final String HIT_MASK_EXTENSION = ".hitmask";
 
 	public static final String DEFAULT_ROOT = Environment.getExternalStorageDirectory().getAbsolutePath()
 			+ "/Pocket Code";
@@ -57,14 +60,6 @@ public final class Constants {
 
 	public static final int NO_POSITION = -1;
 
-	//Broadcast system:
-	public static final String ACTION_SPRITE_SEPARATOR = "#";
-	public static final String BROADCAST_NOTIFY_ACTION = "broadcast_notify";
-	public static final String START_SCRIPT = "start_script";
-	public static final String BROADCAST_SCRIPT = "broadcast_script";
-	public static final String OPENING_BRACE = "(";
-	public static final String CLOSING_BRACE = ")";
-
 	//Web:
 	public static final String BASE_URL_HTTPS = "https://www.pocketcode.org/";
 	public static final String CATROBAT_TERMS_OF_USE_URL = BASE_URL_HTTPS + "termsOfUse";
@@ -25,8 +25,13 @@ package org.catrobat.catroid.common;
 import java.io.FileNotFoundException;
 import java.io.Serializable;
 import java.util.HashMap;
+import java.util.Locale;
 import java.util.Map;
 
+/**
+ * Usage counters of the media files of a project, keyed by their checksum. Files are also found by their path, which
+ * is compared case insensitive.
+ */
 public class FileChecksumContainer implements Serializable {
 
 	private static final long serialVersionUID = 1L;
@@ -37,6 +42,7 @@ public class FileChecksumContainer implements Serializable {
 	}
 
 	private Map<String, FileInfo> checksumFileInfoMap = new HashMap<String, FileInfo>();
+	private Map<String, String> pathChecksumMap = new HashMap<String, String>();
 
 	public boolean addChecksum(String checksum, String path) {
 		if (checksumFileInfoMap.containsKey(checksum)) {
@@ -48,6 +54,9 @@ public class FileChecksumContainer implements Serializable {
 			fileInfo.usageCounter = 1;
 			fileInfo.path = path;
 			checksumFileInfoMap.put(checksum, fileInfo);
+			if (path != null) {
+				pathChecksumMap.put(getPathKey(path), checksum);
+			}
 			return true;
 		}
 	}
@@ -60,6 +69,13 @@ public class FileChecksumContainer implements Serializable {
 		return checksumFileInfoMap.get(checksum).path;
 	}
 
+	/**
+	 * @return null if no file with this path is in the container
+	 */
+	public String getChecksum(String filepath) {
+		return pathChecksumMap.get(getPathKey(filepath));
+	}
+
 	public int getUsage(String checksum) {
 		if (!checksumFileInfoMap.containsKey(checksum)) {
 			return 0;
@@ -69,14 +85,7 @@ public class FileChecksumContainer implements Serializable {
 	}
 
 	public void incrementUsage(String filepath) throws FileNotFoundException {
-		String checksum = null;
-		for (Map.Entry<String, FileInfo> entry : checksumFileInfoMap.entrySet()) {
-
-			if (entry.getValue().path.equalsIgnoreCase(filepath)) {
-				checksum = entry.getKey();
-				break;
-			}
-		}
+		String checksum = getChecksum(filepath);
 		if (checksum == null) {
 			throw new FileNotFoundException();
 		}
@@ -85,14 +94,7 @@ public class FileChecksumContainer implements Serializable {
 	}
 
 	public boolean decrementUsage(String filepath) throws FileNotFoundException {
-		String checksum = null;
-		for (Map.Entry<String, FileInfo> entry : checksumFileInfoMap.entrySet()) {
-
-			if (entry.getValue().path.equalsIgnoreCase(filepath)) {
-				checksum = entry.getKey();
-				break;
-			}
-		}
+		String checksum = getChecksum(filepath);
 		if (checksum == null) {
 			throw new FileNotFoundException();
 		}
@@ -100,8 +102,13 @@ public class FileChecksumContainer implements Serializable {
 		fileInfo.usageCounter--;
 		if (fileInfo.usageCounter < 1) {
 			checksumFileInfoMap.remove(checksum);
+			pathChecksumMap.remove(getPathKey(fileInfo.path));
 			return true;
 		}
 		return false;
 	}
+
+	private static String getPathKey(String path) {
+		return path.toLowerCase(Locale.US);
+	}
 }
@@ -36,7 +36,9 @@ import org.catrobat.catroid.ProjectManager;
 import org.catrobat.catroid.utils.ImageEditing;
 import org.catrobat.catroid.utils.Utils;
 
+import java.io.File;
 import java.io.FileNotFoundException;
+import java.io.IOException;
 import java.io.Serializable;
 
 public class LookData implements Serializable, Cloneable {
@@ -54,6 +56,7 @@ public class LookData implements Serializable, Cloneable {
 	private transient Pixmap pixmap = null;
 	private transient Pixmap originalPixmap = null;
 	private transient TextureRegion region = null;
+	private transient LookHitMask hitMask = null;
 
 	@Override
 	public LookData clone() {
@@ -72,14 +75,19 @@ public class LookData implements Serializable, Cloneable {
 	}
 
 	public void resetLookData() {
+		disposePixmap();
 		pixmap = null;
 		originalPixmap = null;
-		region = null;
+		hitMask = null;
+		if (region != null) {
+			LookTextureCache.getInstance().releaseTextureRegion(this, region);
+			region = null;
+		}
 	}
 
 	public TextureRegion getTextureRegion() {
 		if (region == null) {
-			region = new TextureRegion(new Texture(getPixmap()));
+			region = LookTextureCache.getInstance().obtainTextureRegion(this);
 		}
 		return region;
 	}
@@ -99,6 +107,48 @@ public class LookData implements Serializable, Cloneable {
 		this.pixmap = pixmap;
 	}
 
+	/**
+	 * Frees the decoded image, it is loaded from the image file again when needed. Pixmaps without an image file
+	 * are kept.
+	 */
+	public void disposePixmap() {
+		if (fileName == null) {
+			return;
+		}
+		if (pixmap != null) {
+			pixmap.dispose();
+			pixmap = null;
+		}
+		if (originalPixmap != null) {
+			originalPixmap.dispose();
+			originalPixmap = null;
+		}
+	}
+
+	public LookHitMask getHitMask() {
+		if (hitMask != null) {
+			return hitMask;
+		}
+
+		String absolutePath = getAbsolutePath();
+		if (absolutePath == null) {
+			hitMask = LookHitMask.create(getPixmap());
+			return hitMask;
+		}
+
+		File imageFile = new File(absolutePath);
+		hitMask = LookHitMask.load(imageFile);
+		if (hitMask == null) {
+			hitMask = LookHitMask.create(getPixmap());
+			try {
+				hitMask.save(imageFile);
+			} catch (IOException ioException) {
+				Log.e(TAG, "Couldn't save hit mask of " + fileName, ioException);
+			}
+		}
+		return hitMask;
+	}
+
 	public Pixmap getOriginalPixmap() {
 		if (originalPixmap == null) {
 			originalPixmap = new Pixmap(Gdx.files.absolute(getAbsolutePath()));
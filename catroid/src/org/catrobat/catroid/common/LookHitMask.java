@@ -0,0 +1,171 @@
+/*
+ * Catroid: An on-device visual programming system for Android devices
+ * Copyright (C) 2010-2014 The Catrobat Team
+ * (<http://developer.catrobat.org/credits>)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * An additional term exception under section 7 of the GNU Affero
+ * General Public License, version 3, is available at
+ * http://developer.catrobat.org/license_additional_term
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.catrobat.catroid.common;
+
+import android.util.Log;
+
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Pixmap.Format;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * One bit per pixel of a look image, set where the image is opaque enough to be touched. The mask is stored next to
+ * the image, so the image does not have to be decoded again to build it.
+ */
+public final class LookHitMask {
+	private static final String TAG = LookHitMask.class.getSimpleName();
+
+	public static final int ALPHA_THRESHOLD = 10;
+
+	private static final int FILE_MAGIC = 0x43484d31;
+
+	private final int width;
+	private final int height;
+	private final byte[] bits;
+
+	LookHitMask(int width, int height, byte[] bits) {
+		this.width = width;
+		this.height = height;
+		this.bits = bits;
+	}
+
+	public static LookHitMask create(Pixmap pixmap) {
+		int width = pixmap.getWidth();
+		int height = pixmap.getHeight();
+		byte[] bits = new byte[getNumberOfBytes(width, height)];
+
+		if (pixmap.getFormat() == Format.RGBA8888) {
+			ByteBuffer pixels = pixmap.getPixels();
+			int position = pixels.position();
+			for (int index = 0; index < width * height; index++) {
+				if ((pixels.get(position + index * 4 + 3) & 0xFF) > ALPHA_THRESHOLD) {
+					bits[index >> 3] |= 1 << (index & 7);
+				}
+			}
+		} else {
+			for (int y = 0; y < height; y++) {
+				for (int x = 0; x < width; x++) {
+					if ((pixmap.getPixel(x, y) & 0x000000FF) > ALPHA_THRESHOLD) {
+						int index = y * width + x;
+						bits[index >> 3] |= 1 << (index & 7);
+					}
+				}
+			}
+		}
+		return new LookHitMask(width, height, bits);
+	}
+
+	/**
+	 * @return the mask stored for the image, or null if there is none or it is older than the image
+	 */
+	public static LookHitMask load(File imageFile) {
+		File maskFile = getMaskFile(imageFile);
+		if (!maskFile.exists()) {
+			return null;
+		}
+
+		DataInputStream input = null;
+		try {
+			input = new DataInputStream(new BufferedInputStream(new FileInputStream(maskFile)));
+			if (input.readInt() != FILE_MAGIC || input.readLong() != imageFile.length()
+					|| input.readLong() != imageFile.lastModified()) {
+				return null;
+			}
+			int width = input.readInt();
+			int height = input.readInt();
+			if (width < 0 || height < 0) {
+				return null;
+			}
+			byte[] bits = new byte[getNumberOfBytes(width, height)];
+			input.readFully(bits);
+			return new LookHitMask(width, height, bits);
+		} catch (IOException ioException) {
+			Log.w(TAG, "Couldn't read hit mask " + maskFile.getName(), ioException);
+			return null;
+		} finally {
+			closeQuietly(input);
+		}
+	}
+
+	public void save(File imageFile) throws IOException {
+		DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(
+				getMaskFile(imageFile))));
+		try {
+			output.writeInt(FILE_MAGIC);
+			output.writeLong(imageFile.length());
+			output.writeLong(imageFile.lastModified());
+			output.writeInt(width);
+			output.writeInt(height);
+			output.write(bits);
+		} finally {
+			output.close();
+		}
+	}
+
+	public static File getMaskFile(File imageFile) {
+		return new File(imageFile.getPath() + Constants.HIT_MASK_EXTENSION);
+	}
+
+	/**
+	 * @param y counted from the top of the image
+	 */
+	public boolean isOpaque(int x, int y) {
+		if (x < 0 || y < 0 || x >= width || y >= height) {
+			return false;
+		}
+		int index = y * width + x;
+		return (bits[index >> 3] & (1 << (index & 7))) != 0;
+	}
+
+	public int getWidth() {
+		return width;
+	}
+
+	public int getHeight() {
+		return height;
+	}
+
+	private static int getNumberOfBytes(int width, int height) {
+		return (width * height + 7) / 8;
+	}
+
+	private static void closeQuietly(DataInputStream input) {
+		if (input == null) {
+			return;
+		}
+		try {
+			input.close();
+		} catch (IOException ioException) {
+			Log.w(TAG, "Couldn't close hit mask", ioException);
+		}
+	}
+}
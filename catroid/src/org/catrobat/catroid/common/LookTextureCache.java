@@ -0,0 +1,204 @@
+/*
+ * Catroid: An on-device visual programming system for Android devices
+ * Copyright (C) 2010-2014 The Catrobat Team
+ * (<http://developer.catrobat.org/credits>)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * An additional term exception under section 7 of the GNU Affero
+ * General Public License, version 3, is available at
+ * http://developer.catrobat.org/license_additional_term
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.catrobat.catroid.common;
+
+import android.util.Log;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Pixmap.Format;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.Texture.TextureFilter;
+import com.badlogic.gdx.graphics.g2d.PixmapPacker;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+
+import org.catrobat.catroid.content.Sprite;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+
+/**
+ * Shares the textures of look images between all LookData objects with the same checksum. Images which fit are
+ * packed into shared atlas pages when the stage starts, so sprites using them do not need a texture bind of their
+ * own. All other images get a texture of their own, which is disposed as soon as no LookData uses it anymore.
+ * Has to be used from the OpenGL thread only.
+ */
+public final class LookTextureCache {
+	private static final String TAG = LookTextureCache.class.getSimpleName();
+	private static final LookTextureCache INSTANCE = new LookTextureCache();
+
+	public static final int ATLAS_PAGE_SIZE = 1024;
+	private static final int ATLAS_PADDING = 2;
+	private static final int MAXIMUM_PACKED_IMAGE_SIZE = ATLAS_PAGE_SIZE / 2;
+
+	private final HashMap<String, CachedTexture> cachedTextures = new HashMap<String, CachedTexture>();
+	private final ArrayList<PixmapPacker> packers = new ArrayList<PixmapPacker>();
+	private final ArrayList<TextureAtlas> atlases = new ArrayList<TextureAtlas>();
+
+	private LookTextureCache() {
+	}
+
+	public static LookTextureCache getInstance() {
+		return INSTANCE;
+	}
+
+	/**
+	 * Packs the images of all looks of the given sprites into atlas pages. Looks which are already cached or too
+	 * large for a page are skipped.
+	 */
+	public void packLookData(List<Sprite> sprites) {
+		PixmapPacker newPacker = new PixmapPacker(ATLAS_PAGE_SIZE, ATLAS_PAGE_SIZE, Format.RGBA8888, ATLAS_PADDING,
+				false);
+		HashSet<String> packedChecksums = new HashSet<String>();
+
+		for (Sprite sprite : sprites) {
+			for (LookData lookData : sprite.getLookDataList()) {
+				String checksum = lookData.getChecksum();
+				if (checksum == null || cachedTextures.containsKey(checksum) || packedChecksums.contains(checksum)) {
+					continue;
+				}
+				int[] measure = lookData.getMeasure();
+				if (measure[0] > MAXIMUM_PACKED_IMAGE_SIZE || measure[1] > MAXIMUM_PACKED_IMAGE_SIZE) {
+					continue;
+				}
+				try {
+					newPacker.pack(checksum, lookData.getPixmap());
+					packedChecksums.add(checksum);
+				} catch (GdxRuntimeException gdxRuntimeException) {
+					Log.e(TAG, "Couldn't pack look " + lookData.getLookFileName(), gdxRuntimeException);
+				}
+				// the image is decoded anyway, so the hit mask is built now if it is not stored yet
+				lookData.getHitMask();
+				lookData.disposePixmap();
+			}
+		}
+
+		if (packedChecksums.isEmpty()) {
+			newPacker.dispose();
+			return;
+		}
+
+		// the packer keeps the page pixmaps, the atlas textures are reloaded from them after a context loss
+		TextureAtlas atlas = newPacker.generateTextureAtlas(TextureFilter.Nearest, TextureFilter.Nearest, false);
+		packers.add(newPacker);
+		atlases.add(atlas);
+
+		for (String checksum : packedChecksums) {
+			cachedTextures.put(checksum, new CachedTexture(atlas.findRegion(checksum), true));
+		}
+	}
+
+	/**
+	 * @return the texture region of the look image, every call has to be paired with a call of
+	 *         {@link #releaseTextureRegion(LookData, TextureRegion)}
+	 */
+	public TextureRegion obtainTextureRegion(LookData lookData) {
+		String checksum = lookData.getChecksum();
+		if (checksum == null) {
+			return new TextureRegion(new Texture(lookData.getPixmap()));
+		}
+
+		CachedTexture cachedTexture = cachedTextures.get(checksum);
+		if (cachedTexture == null) {
+			cachedTexture = new CachedTexture(new TextureRegion(new Texture(Gdx.files.absolute(lookData
+					.getAbsolutePath()))), false);
+			cachedTextures.put(checksum, cachedTexture);
+		}
+		cachedTexture.referenceCount++;
+		return cachedTexture.region;
+	}
+
+	public void releaseTextureRegion(LookData lookData, TextureRegion region) {
+		String checksum = lookData.getChecksum();
+		if (checksum == null) {
+			region.getTexture().dispose();
+			return;
+		}
+
+		CachedTexture cachedTexture = cachedTextures.get(checksum);
+		if (cachedTexture == null || cachedTexture.region != region) {
+			// already disposed by clear()
+			return;
+		}
+
+		cachedTexture.referenceCount--;
+		if (cachedTexture.referenceCount <= 0 && !cachedTexture.isPacked) {
+			cachedTextures.remove(checksum);
+			region.getTexture().dispose();
+		}
+	}
+
+	public int getReferenceCount(String checksum) {
+		CachedTexture cachedTexture = cachedTextures.get(checksum);
+		return cachedTexture == null ? 0 : cachedTexture.referenceCount;
+	}
+
+	public boolean isPacked(String checksum) {
+		CachedTexture cachedTexture = cachedTextures.get(checksum);
+		return cachedTexture != null && cachedTexture.isPacked;
+	}
+
+	public int getNumberOfAtlasPages() {
+		int numberOfPages = 0;
+		for (TextureAtlas atlas : atlases) {
+			numberOfPages += atlas.getTextures().size();
+		}
+		return numberOfPages;
+	}
+
+	/**
+	 * Disposes all cached textures and atlas pages, LookData objects still holding a region must not draw it
+	 * anymore.
+	 */
+	public void clear() {
+		for (CachedTexture cachedTexture : cachedTextures.values()) {
+			if (!cachedTexture.isPacked) {
+				cachedTexture.region.getTexture().dispose();
+			}
+		}
+		cachedTextures.clear();
+
+		for (TextureAtlas atlas : atlases) {
+			atlas.dispose();
+		}
+		atlases.clear();
+		for (PixmapPacker packer : packers) {
+			packer.dispose();
+		}
+		packers.clear();
+	}
+
+	private static class CachedTexture {
+		private final TextureRegion region;
+		private final boolean isPacked;
+		private int referenceCount = 0;
+
+		CachedTexture(TextureRegion region, boolean isPacked) {
+			this.region = region;
+			this.isPacked = isPacked;
+		}
+	}
+}
@@ -30,9 +30,19 @@ public class ProjectData implements Serializable {
 
 	public String projectName;
 	public long lastUsed;
+	public long size;
+	public String screenshotPath;
+	public float catrobatLanguageVersion;
 
 	public ProjectData(String projectName, long lastUsed) {
 		this.projectName = projectName;
 		this.lastUsed = lastUsed;
 	}
+
+	public ProjectData(ProjectData projectData) {
+		this(projectData.projectName, projectData.lastUsed);
+		size = projectData.size;
+		screenshotPath = projectData.screenshotPath;
+		catrobatLanguageVersion = projectData.catrobatLanguageVersion;
+	}
 }
@@ -0,0 +1,84 @@
+/*
+ * Catroid: An on-device visual programming system for Android devices
+ * Copyright (C) 2010-2014 The Catrobat Team
+ * (<http://developer.catrobat.org/credits>)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * An additional term exception under section 7 of the GNU Affero
+ * General Public License, version 3, is available at
+ * http://developer.catrobat.org/license_additional_term
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.catrobat.catroid.content;
+
+import com.badlogic.gdx.scenes.scene2d.Action;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+
+/**
+ * Collects the actions which have to be restarted before the next tick of the stage. Every action is queued at
+ * most once, no matter how often its restart was requested during a tick.
+ */
+public class ActionRestartQueue {
+
+	private ArrayList<Action> queuedActions = new ArrayList<Action>();
+	private ArrayList<Action> restartingActions = new ArrayList<Action>();
+	private final HashSet<Action> queuedActionSet = new HashSet<Action>();
+
+	public boolean add(Action action) {
+		if (!queuedActionSet.add(action)) {
+			return false;
+		}
+		queuedActions.add(action);
+		return true;
+	}
+
+	public boolean contains(Action action) {
+		return queuedActionSet.contains(action);
+	}
+
+	public boolean isEmpty() {
+		return queuedActions.isEmpty();
+	}
+
+	public int size() {
+		return queuedActions.size();
+	}
+
+	/**
+	 * Restarts all queued actions in the order they were queued. Restarts requested while draining are kept for the
+	 * next call.
+	 */
+	public void restartActions() {
+		if (queuedActions.isEmpty()) {
+			return;
+		}
+
+		ArrayList<Action> actionsToRestart = queuedActions;
+		queuedActions = restartingActions;
+		restartingActions = actionsToRestart;
+		queuedActionSet.clear();
+
+		for (int index = 0; index < actionsToRestart.size(); index++) {
+			actionsToRestart.get(index).restart();
+		}
+		actionsToRestart.clear();
+	}
+
+	public void clear() {
+		queuedActions.clear();
+		queuedActionSet.clear();
+	}
+}
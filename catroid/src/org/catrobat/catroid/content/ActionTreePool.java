@@ -0,0 +1,90 @@
+/*
+ * Catroid: An on-device visual programming system for Android devices
+ * Copyright (C) 2010-2014 The Catrobat Team
+ * (<http://developer.catrobat.org/credits>)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * An additional term exception under section 7 of the GNU Affero
+ * General Public License, version 3, is available at
+ * http://developer.catrobat.org/license_additional_term
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.catrobat.catroid.content;
+
+import com.badlogic.gdx.scenes.scene2d.Action;
+
+import java.util.HashMap;
+
+/**
+ * Keeps action trees which are built once per stage start, so they can be restarted instead of being built again
+ * from the bricks of their script. Counts how often a requested tree was found in the pool.
+ */
+public class ActionTreePool<K, T extends Action> {
+
+	private final HashMap<K, T> actions = new HashMap<K, T>();
+	private int hitCount = 0;
+	private int missCount = 0;
+
+	/**
+	 * @return the pooled action tree for the key, or null if it has to be built and put to the pool
+	 */
+	public T obtain(K key) {
+		T action = actions.get(key);
+		if (action == null) {
+			missCount++;
+		} else {
+			hitCount++;
+		}
+		return action;
+	}
+
+	public void put(K key, T action) {
+		actions.put(key, action);
+	}
+
+	public boolean contains(K key) {
+		return actions.containsKey(key);
+	}
+
+	public int size() {
+		return actions.size();
+	}
+
+	public void clear() {
+		actions.clear();
+	}
+
+	public void resetStatistics() {
+		hitCount = 0;
+		missCount = 0;
+	}
+
+	public int getHitCount() {
+		return hitCount;
+	}
+
+	public int getMissCount() {
+		return missCount;
+	}
+
+	public float getHitRate() {
+		int requestCount = hitCount + missCount;
+		return requestCount == 0 ? 0f : (float) hitCount / requestCount;
+	}
+
+	@Override
+	public String toString() {
+		return "pooled trees: " + actions.size() + ", hits: " + hitCount + ", misses: " + missCount;
+	}
+}
@@ -22,186 +22,202 @@
  */
 package org.catrobat.catroid.content;
 
-import android.util.Log;
-
 import com.badlogic.gdx.scenes.scene2d.Action;
 import com.badlogic.gdx.scenes.scene2d.actions.SequenceAction;
-import com.google.common.collect.ArrayListMultimap;
-import com.google.common.collect.Multimap;
 
-import org.catrobat.catroid.ProjectManager;
-import org.catrobat.catroid.common.BroadcastSequenceMap;
 import org.catrobat.catroid.common.BroadcastWaitSequenceMap;
-import org.catrobat.catroid.common.Constants;
+import org.catrobat.catroid.content.BroadcastEvent.BroadcastType;
+import org.catrobat.catroid.content.BroadcastReceiverRegistry.Receiver;
 import org.catrobat.catroid.content.actions.BroadcastNotifyAction;
 import org.catrobat.catroid.content.actions.ExtendedActions;
 
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.List;
 
 public final class BroadcastHandler {
 
-	private static Multimap<String, String> actionsToRestartMap = ArrayListMultimap.create();
-	private static HashMap<Action, Script> actionScriptMap = new HashMap<Action, Script>();
-	private static HashMap<Script, Sprite> scriptSpriteMap = new HashMap<Script, Sprite>();
-	private static HashMap<String, Action> stringActionMap = new HashMap<String, Action>();
-
-	private static final String TAG = "BroadcastHandler";
-
 	private BroadcastHandler() {
 		throw new AssertionError();
 	}
 
-	public static void doHandleBroadcastEvent(Look look, String broadcastMessage) {
-		if (!BroadcastSequenceMap.containsKey(broadcastMessage)) {
-			return;
+	/**
+	 * Delivers the event to the receivers registered for its message only, each receiver script is started on the
+	 * look of the sprite it belongs to. Receivers which are already running are restarted through the restart queue
+	 * of the stage, or right away if the sender is not on a stage and has no restart queue.
+	 */
+	public static void handleBroadcastEvent(BroadcastEvent event, BroadcastReceiverRegistry registry,
+			ActionRestartQueue restartQueue) {
+		if (event.getType().equals(BroadcastType.broadcastWait)) {
+			doHandleBroadcastFromWaiterEvent(event, event.getBroadcastMessage(), registry, restartQueue);
+		} else {
+			doHandleBroadcastEvent(event.getBroadcastMessage(), registry, restartQueue);
 		}
+	}
 
-		for (SequenceAction action : BroadcastSequenceMap.get(broadcastMessage)) {
-			Script scriptOfAction = actionScriptMap.get(action);
+	private static void doHandleBroadcastEvent(String broadcastMessage, BroadcastReceiverRegistry registry,
+			ActionRestartQueue restartQueue) {
+		List<Receiver> receivers = registry.getReceivers(broadcastMessage);
+		if (receivers.isEmpty()) {
+			return;
+		}
 
-			if (!handleAction(action, scriptOfAction)) {
-				addOrRestartAction(look, action);
+		for (Receiver receiver : receivers) {
+			if (!handleAction(receiver, restartQueue)) {
+				addOrRestartAction(receiver.getSprite().look, receiver.getAction(), restartQueue);
 			}
 		}
 
 		if (BroadcastWaitSequenceMap.containsKey(broadcastMessage)) {
 			for (SequenceAction action : BroadcastWaitSequenceMap.get(broadcastMessage)) {
-				addOrRestartAction(look, action);
+				addOrRestartAction(getReceiverLook(registry, action), action, restartQueue);
 			}
 			BroadcastWaitSequenceMap.getCurrentBroadcastEvent().resetEventAndResumeScript();
 		}
 	}
 
-	public static void doHandleBroadcastFromWaiterEvent(Look look, BroadcastEvent event, String broadcastMessage) {
-		if (!BroadcastSequenceMap.containsKey(broadcastMessage)) {
+	private static void doHandleBroadcastFromWaiterEvent(BroadcastEvent event, String broadcastMessage,
+			BroadcastReceiverRegistry registry, ActionRestartQueue restartQueue) {
+		if (registry.getReceivers(broadcastMessage).isEmpty()) {
 			return;
 		}
 
 		if (!BroadcastWaitSequenceMap.containsKey(broadcastMessage)) {
-			addBroadcastMessageToBroadcastWaitSequenceMap(look, event, broadcastMessage);
+			addBroadcastMessageToBroadcastWaitSequenceMap(event, broadcastMessage, registry, restartQueue);
 		} else {
 			if (BroadcastWaitSequenceMap.getCurrentBroadcastEvent() == event
 					&& BroadcastWaitSequenceMap.getCurrentBroadcastEvent() != null) {
 				for (SequenceAction action : BroadcastWaitSequenceMap.get(broadcastMessage)) {
 					BroadcastWaitSequenceMap.getCurrentBroadcastEvent().resetNumberOfFinishedReceivers();
-					addOrRestartAction(look, action);
+					addOrRestartAction(getReceiverLook(registry, action), action, restartQueue);
 				}
 			} else {
 				if (BroadcastWaitSequenceMap.getCurrentBroadcastEvent() != null) {
 					BroadcastWaitSequenceMap.getCurrentBroadcastEvent().resetEventAndResumeScript();
 				}
-				addBroadcastMessageToBroadcastWaitSequenceMap(look, event, broadcastMessage);
+				addBroadcastMessageToBroadcastWaitSequenceMap(event, broadcastMessage, registry, restartQueue);
 			}
 		}
 	}
 
-	private static void addOrRestartAction(Look look, Action action) {
+	private static void addOrRestartAction(Look look, Action action, ActionRestartQueue restartQueue) {
 		if (action.getActor() == null) {
 			if (!look.getActions().contains(action, false)) {
 				look.addAction(action);
 			}
 		} else {
-			if (!Look.actionsToRestartContains(action)) {
-				Look.actionsToRestartAdd(action);
-			}
+			restartAction(action, restartQueue);
 		}
 	}
 
-	private static void addBroadcastMessageToBroadcastWaitSequenceMap(Look look, BroadcastEvent event,
-			String broadcastMessage) {
+	/**
+	 * Without a stage nothing iterates over the actions of the looks while the broadcast is handled, so the action
+	 * can be restarted right away.
+	 */
+	private static void restartAction(Action action, ActionRestartQueue restartQueue) {
+		if (restartQueue == null) {
+			action.restart();
+		} else {
+			restartQueue.add(action);
+		}
+	}
+
+	private static void addBroadcastMessageToBroadcastWaitSequenceMap(BroadcastEvent event, String broadcastMessage,
+			BroadcastReceiverRegistry registry, ActionRestartQueue restartQueue) {
 		ArrayList<SequenceAction> actionList = new ArrayList<SequenceAction>();
 		BroadcastWaitSequenceMap.setCurrentBroadcastEvent(event);
-		for (SequenceAction action : BroadcastSequenceMap.get(broadcastMessage)) {
-			SequenceAction broadcastWaitAction = ExtendedActions.sequence(action,
-					ExtendedActions.broadcastNotify(event));
-			Script receiverScript = actionScriptMap.get(action);
-			actionScriptMap.put(broadcastWaitAction, receiverScript);
-			Sprite receiverSprite = scriptSpriteMap.get(receiverScript);
-			String actionName = broadcastWaitAction.toString() + Constants.ACTION_SPRITE_SEPARATOR + receiverSprite.getName() + receiverSprite.getScriptIndex(receiverScript);
-			stringActionMap.put(actionName, broadcastWaitAction);
-			if (!handleActionFromBroadcastWait(look, broadcastWaitAction)) {
-				event.raiseNumberOfReceivers();
+		for (Receiver receiver : registry.getReceivers(broadcastMessage)) {
+			Look look = receiver.getSprite().look;
+			SequenceAction broadcastWaitAction = obtainBroadcastWaitAction(look, receiver.getAction(), event);
+			registry.setBroadcastWaitAction(receiver, broadcastWaitAction);
+			if (!handleActionFromBroadcastWait(look, broadcastWaitAction, restartQueue)) {
 				actionList.add(broadcastWaitAction);
-				addOrRestartAction(look, broadcastWaitAction);
+				addOrRestartAction(look, broadcastWaitAction, restartQueue);
 			}
 		}
-		if (actionList.size() > 0) {
-			BroadcastWaitSequenceMap.put(broadcastMessage, actionList);
+		registry.addWaitingReceivers(event, actionList);
+	}
+
+	/**
+	 * Takes the sequence for the receiver action from the pool of the receiver look. A pooled sequence that is still
+	 * running keeps notifying its own event, a new one is built for this event instead.
+	 */
+	private static SequenceAction obtainBroadcastWaitAction(Look look, SequenceAction action, BroadcastEvent event) {
+		ActionTreePool<Action, SequenceAction> waitActionPool = look.getBroadcastWaitActionPool();
+		SequenceAction broadcastWaitAction = waitActionPool.obtain(action);
+		if (broadcastWaitAction == null) {
+			broadcastWaitAction = ExtendedActions.sequence(action, ExtendedActions.broadcastNotify(event));
+			waitActionPool.put(action, broadcastWaitAction);
+		} else if (broadcastWaitAction.getActor() != null) {
+			broadcastWaitAction = ExtendedActions.sequence(action, ExtendedActions.broadcastNotify(event));
+		} else {
+			broadcastWaitAction.restart();
+			((BroadcastNotifyAction) broadcastWaitAction.getActions().get(1)).setEvent(event);
 		}
+		return broadcastWaitAction;
 	}
 
-	private static boolean handleAction(Action action, Script scriptOfAction) {
-		Sprite spriteOfAction = scriptSpriteMap.get(scriptOfAction);
-		String actionToHandle = action.toString() + Constants.ACTION_SPRITE_SEPARATOR + spriteOfAction.getName() + spriteOfAction.getScriptIndex(scriptOfAction);
+	/**
+	 * Builds the sequence which runs the receiver action for a broadcast-wait and notifies the waiting script
+	 * afterwards, so it can be restarted from the pool of the receiver look when the broadcast is received.
+	 */
+	public static void prepareBroadcastWaitAction(Look look, SequenceAction action) {
+		look.getBroadcastWaitActionPool().put(action,
+				ExtendedActions.sequence(action, ExtendedActions.broadcastNotify(null)));
+	}
 
-		if (!actionsToRestartMap.containsKey(actionToHandle)) {
+	/**
+	 * Restarts the running instances of the receiver, i.e. its action and the broadcast-wait sequence last created
+	 * for it.
+	 *
+	 * @return false if the action is not running yet and has to be added to the look
+	 */
+	private static boolean handleAction(Receiver receiver, ActionRestartQueue restartQueue) {
+		if (receiver.getAction().getActor() == null) {
 			return false;
 		}
-		for (String actionString : actionsToRestartMap.get(actionToHandle)) {
-			Action actionOfLook = stringActionMap.get(actionString);
-			if (actionOfLook == null) {
-				Log.d(TAG, "Action of look is skipped with action: " + actionString + ". It is probably a BroadcastNotify-Action that must not be restarted yet");
-				continue;
-			}
-			if (actionOfLook.getActor() == null) {
-				return false;
-			}
-			Look.actionsToRestartAdd(actionOfLook);
+		restartAction(receiver.getAction(), restartQueue);
+
+		Action broadcastWaitAction = receiver.getBroadcastWaitAction();
+		if (broadcastWaitAction == null) {
+			return true;
+		}
+		if (broadcastWaitAction.getActor() == null) {
+			return false;
 		}
+		restartAction(broadcastWaitAction, restartQueue);
 		return true;
 	}
 
 	private static boolean handleActionFromBroadcastWait(Look look,
-			SequenceAction sequenceActionWithBroadcastNotifyAction) {
+			SequenceAction sequenceActionWithBroadcastNotifyAction, ActionRestartQueue restartQueue) {
 		Action actualAction = sequenceActionWithBroadcastNotifyAction.getActions().get(0);
 
-		for (Sprite sprites : ProjectManager.getInstance().getCurrentProject().getSpriteList()) {
-			for (Action actionOfLook : sprites.look.getActions()) {
-				Action actualActionOfLook = null;
-				if (actionOfLook instanceof SequenceAction && ((SequenceAction) actionOfLook).getActions().size > 0) {
-					actualActionOfLook = ((SequenceAction) actionOfLook).getActions().get(0);
-				}
-				if (sequenceActionWithBroadcastNotifyAction == actionOfLook) {
+		for (Action actionOfLook : look.getActions()) {
+			Action actualActionOfLook = null;
+			if (actionOfLook instanceof SequenceAction && ((SequenceAction) actionOfLook).getActions().size > 0) {
+				actualActionOfLook = ((SequenceAction) actionOfLook).getActions().get(0);
+			}
+			if (sequenceActionWithBroadcastNotifyAction == actionOfLook) {
+				((BroadcastNotifyAction) ((SequenceAction) actionOfLook).getActions().get(1)).getEvent()
+						.resetNumberOfFinishedReceivers();
+				restartAction(actionOfLook, restartQueue);
+				return true;
+			} else {
+				if (actualActionOfLook != null && actualActionOfLook == actualAction) {
 					((BroadcastNotifyAction) ((SequenceAction) actionOfLook).getActions().get(1)).getEvent()
-							.resetNumberOfFinishedReceivers();
-					Look.actionsToRestartAdd(actionOfLook);
-					return true;
+							.resetEventAndResumeScript();
+					restartAction(actionOfLook, restartQueue);
+					return false;
 				} else {
-					if (actualActionOfLook != null && actualActionOfLook == actualAction) {
-						((BroadcastNotifyAction) ((SequenceAction) actionOfLook).getActions().get(1)).getEvent()
-								.resetEventAndResumeScript();
-						Look.actionsToRestartAdd(actionOfLook);
-						return false;
-					} else {
-						addOrRestartAction(look, sequenceActionWithBroadcastNotifyAction);
-						return false;
-					}
+					addOrRestartAction(look, sequenceActionWithBroadcastNotifyAction, restartQueue);
+					return false;
 				}
 			}
 		}
 		return false;
 	}
 
-	public static void clearActionMaps() {
-		actionsToRestartMap.clear();
-		actionScriptMap.clear();
-		stringActionMap.clear();
-	}
-
-	public static Multimap<String, String> getActionsToRestartMap() {
-		return actionsToRestartMap;
-	}
-
-	public static HashMap<Action, Script> getActionScriptMap() {
-		return actionScriptMap;
-	}
-
-	public static HashMap<Script, Sprite> getScriptSpriteMapMap() {
-		return scriptSpriteMap;
-	}
-
-	public static HashMap<String, Action> getStringActionMap() {
-		return stringActionMap;
+	private static Look getReceiverLook(BroadcastReceiverRegistry registry, Action action) {
+		return registry.getReceiver(action).getSprite().look;
 	}
 }
@@ -0,0 +1,118 @@
+/*
+ * Catroid: An on-device visual programming system for Android devices
+ * Copyright (C) 2010-2014 The Catrobat Team
+ * (<http://developer.catrobat.org/credits>)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * An additional term exception under section 7 of the GNU Affero
+ * General Public License, version 3, is available at
+ * http://developer.catrobat.org/license_additional_term
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.catrobat.catroid.content;
+
+import com.badlogic.gdx.scenes.scene2d.Action;
+import com.badlogic.gdx.scenes.scene2d.actions.SequenceAction;
+
+import org.catrobat.catroid.common.BroadcastWaitSequenceMap;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * The receiver scripts of the broadcast messages of a project, registered when the sprites create their script
+ * actions for the stage. A broadcast only reaches the receivers registered for its message, and a broadcast-wait
+ * only waits for the receivers it started.
+ */
+public class BroadcastReceiverRegistry {
+
+	private final HashMap<String, List<Receiver>> receiversByMessage = new HashMap<String, List<Receiver>>();
+	private final HashMap<Action, Receiver> receiversByAction = new HashMap<Action, Receiver>();
+
+	public void register(String broadcastMessage, Sprite sprite, SequenceAction action) {
+		List<Receiver> receivers = receiversByMessage.get(broadcastMessage);
+		if (receivers == null) {
+			receivers = new ArrayList<Receiver>();
+			receiversByMessage.put(broadcastMessage, receivers);
+		}
+		Receiver receiver = new Receiver(sprite, action);
+		receivers.add(receiver);
+		receiversByAction.put(action, receiver);
+	}
+
+	public List<Receiver> getReceivers(String broadcastMessage) {
+		List<Receiver> receivers = receiversByMessage.get(broadcastMessage);
+		return receivers == null ? Collections.<Receiver> emptyList() : receivers;
+	}
+
+	/**
+	 * @return the receiver the action or a broadcast-wait sequence built for it belongs to, null if the action is
+	 *         not registered
+	 */
+	public Receiver getReceiver(Action action) {
+		return receiversByAction.get(action);
+	}
+
+	/**
+	 * Remembers the broadcast-wait sequence started last for the receiver, it is restarted together with the
+	 * receiver action when the receiver gets a plain broadcast.
+	 */
+	void setBroadcastWaitAction(Receiver receiver, SequenceAction broadcastWaitAction) {
+		receiver.broadcastWaitAction = broadcastWaitAction;
+		receiversByAction.put(broadcastWaitAction, receiver);
+	}
+
+	/**
+	 * Makes the event wait for the given broadcast-wait sequences of its receivers.
+	 */
+	void addWaitingReceivers(BroadcastEvent event, List<SequenceAction> broadcastWaitActions) {
+		for (int index = 0; index < broadcastWaitActions.size(); index++) {
+			event.raiseNumberOfReceivers();
+		}
+		if (!broadcastWaitActions.isEmpty()) {
+			BroadcastWaitSequenceMap.put(event.getBroadcastMessage(), new ArrayList<SequenceAction>(
+					broadcastWaitActions));
+		}
+	}
+
+	public void clear() {
+		receiversByMessage.clear();
+		receiversByAction.clear();
+	}
+
+	public static final class Receiver {
+		private final Sprite sprite;
+		private final SequenceAction action;
+		private SequenceAction broadcastWaitAction;
+
+		private Receiver(Sprite sprite, SequenceAction action) {
+			this.sprite = sprite;
+			this.action = action;
+		}
+
+		public Sprite getSprite() {
+			return sprite;
+		}
+
+		public SequenceAction getAction() {
+			return action;
+		}
+
+		public SequenceAction getBroadcastWaitAction() {
+			return broadcastWaitAction;
+		}
+	}
+}
@@ -61,6 +61,9 @@ public class BroadcastScript extends Script implements BroadcastMessage {
 	}
 
 	public void setBroadcastMessage(String broadcastMessage) {
+		if (this.receivedMessage != null && !this.receivedMessage.equals(broadcastMessage)) {
+			setDirty();
+		}
 		MessageContainer.removeReceiverScript(this.receivedMessage, this);
 		this.receivedMessage = broadcastMessage;
 		MessageContainer.addMessage(this.receivedMessage, this);
@@ -22,39 +22,39 @@
  */
 package org.catrobat.catroid.content;
 
-import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
-import com.badlogic.gdx.graphics.glutils.ShaderProgram;
 import com.badlogic.gdx.scenes.scene2d.Action;
 import com.badlogic.gdx.scenes.scene2d.Actor;
 import com.badlogic.gdx.scenes.scene2d.InputEvent;
 import com.badlogic.gdx.scenes.scene2d.InputListener;
 import com.badlogic.gdx.scenes.scene2d.Touchable;
 import com.badlogic.gdx.scenes.scene2d.actions.ParallelAction;
+import com.badlogic.gdx.scenes.scene2d.actions.SequenceAction;
 import com.badlogic.gdx.scenes.scene2d.ui.Image;
 import com.badlogic.gdx.scenes.scene2d.utils.TextureRegionDrawable;
 import com.badlogic.gdx.utils.Array;
 
 import org.catrobat.catroid.common.LookData;
-
-import java.util.ArrayList;
-import java.util.Iterator;
+import org.catrobat.catroid.common.LookHitMask;
+import org.catrobat.catroid.stage.BrightnessShader;
 
 public class Look extends Image {
 	private static final float DEGREE_UI_OFFSET = 90.0f;
-	private static ArrayList<Action> actionsToRestart = new ArrayList<Action>();
 	public boolean visible = true;
 	protected boolean imageChanged = false;
-	protected boolean brightnessChanged = false;
 	protected LookData lookData;
 	protected Sprite sprite;
 	protected float alpha = 1f;
 	protected float brightness = 1f;
-	protected Pixmap pixmap;
+	protected LookHitMask hitMask;
 	private ParallelAction whenParallelAction;
 	private boolean allActionsAreFinished = false;
-	private BrightnessContrastShader shader;
+	private TextureRegionDrawable lookDrawable;
+	private ActionRestartQueue actionRestartQueue;
+	private final ActionTreePool<Action, SequenceAction> broadcastWaitActionPool =
+			new ActionTreePool<Action, SequenceAction>();
 
 	public Look(Sprite sprite) {
 		this.sprite = sprite;
@@ -78,26 +78,6 @@ public class Look extends Image {
 				return false;
 			}
 		});
-
-		this.addListener(new BroadcastListener() {
-			@Override
-			public void handleBroadcastEvent(BroadcastEvent event, String broadcastMessage) {
-				doHandleBroadcastEvent(broadcastMessage);
-			}
-
-			@Override
-			public void handleBroadcastFromWaiterEvent(BroadcastEvent event, String broadcastMessage) {
-				doHandleBroadcastFromWaiterEvent(event, broadcastMessage);
-			}
-		});
-	}
-
-	public static boolean actionsToRestartContains(Action action) {
-		return Look.actionsToRestart.contains(action);
-	}
-
-	public static void actionsToRestartAdd(Action action) {
-		Look.actionsToRestart.add(action);
 	}
 
 	public Look copyLookForSprite(final Sprite cloneSprite) {
@@ -124,7 +104,7 @@ public class Look extends Image {
 		y = (getHeight() - 1) - y;
 
 		if (x >= 0 && x < getWidth() && y >= 0 && y < getHeight()
-				&& ((pixmap != null && ((pixmap.getPixel((int) x, (int) y) & 0x000000FF) > 10)))) {
+				&& hitMask != null && hitMask.isOpaque((int) x, (int) y)) {
 			if (whenParallelAction == null) {
 				sprite.createWhenScriptActionSequence("Tapped");
 			} else {
@@ -136,22 +116,28 @@ public class Look extends Image {
 		return false;
 	}
 
-	public void createBrightnessContrastShader() {
-		shader = new BrightnessContrastShader();
-		shader.setBrightness(brightness);
-	}
-
 	@Override
 	public void draw(SpriteBatch batch, float parentAlpha) {
 		checkImageChanged();
-		batch.setShader(shader);
 		if (alpha == 0.0f) {
 			setVisible(false);
 		} else {
 			setVisible(true);
 		}
 		if (this.visible && this.getDrawable() != null) {
-			super.draw(batch, this.alpha);
+			if (BrightnessShader.isEnabled()) {
+				Color color = getColor();
+				float red = color.r;
+				float green = color.g;
+				float blue = color.b;
+				BrightnessShader.setBrightnessColor(color, brightness);
+				super.draw(batch, this.alpha);
+				color.r = red;
+				color.g = green;
+				color.b = blue;
+			} else {
+				super.draw(batch, this.alpha);
+			}
 		}
 	}
 
@@ -161,12 +147,6 @@ public class Look extends Image {
 		allActionsAreFinished = false;
 		int finishedCount = 0;
 
-		for (Iterator<Action> iterator = Look.actionsToRestart.iterator(); iterator.hasNext();) {
-			Action actionToRestart = iterator.next();
-			actionToRestart.restart();
-			iterator.remove();
-		}
-
 		for (int i = 0, n = actions.size; i < n; i++) {
 			Action action = actions.get(i);
 			if (action.act(delta)) {
@@ -193,22 +173,25 @@ public class Look extends Image {
 				return;
 			}
 
-			pixmap = lookData.getPixmap();
-			float newX = getX() - (pixmap.getWidth() - getWidth()) / 2f;
-			float newY = getY() - (pixmap.getHeight() - getHeight()) / 2f;
+			TextureRegion region = lookData.getTextureRegion();
+			hitMask = lookData.getHitMask();
+			// the texture and the hit mask are all the stage needs of the image
+			lookData.disposePixmap();
+
+			float newX = getX() - (region.getRegionWidth() - getWidth()) / 2f;
+			float newY = getY() - (region.getRegionHeight() - getHeight()) / 2f;
 
 			setPosition(newX, newY);
-			setSize(pixmap.getWidth(), pixmap.getHeight());
+			setSize(region.getRegionWidth(), region.getRegionHeight());
 			setOrigin(getWidth() / 2f, getHeight() / 2f);
 
-			if (brightnessChanged) {
-				shader.setBrightness(brightness);
-				brightnessChanged = false;
+			if (lookDrawable == null) {
+				lookDrawable = new TextureRegionDrawable(region);
+			} else {
+				lookDrawable.setRegion(region);
 			}
-
-			TextureRegion region = lookData.getTextureRegion();
-			TextureRegionDrawable drawable = new TextureRegionDrawable(region);
-			setDrawable(drawable);
+			setDrawable(lookDrawable);
+			invalidate();
 
 			imageChanged = false;
 		}
@@ -245,6 +228,26 @@ public class Look extends Image {
 		whenParallelAction = action;
 	}
 
+	/**
+	 * @return the queue of the stage this look is acting on, broadcasts sent by the look restart their running
+	 *         receivers through it
+	 */
+	public ActionRestartQueue getActionRestartQueue() {
+		return actionRestartQueue;
+	}
+
+	public void setActionRestartQueue(ActionRestartQueue actionRestartQueue) {
+		this.actionRestartQueue = actionRestartQueue;
+	}
+
+	/**
+	 * @return the broadcast-wait sequences of the receiver scripts of this look, the look is created anew for every
+	 *         stage, so the pool is never shared between stages
+	 */
+	public ActionTreePool<Action, SequenceAction> getBroadcastWaitActionPool() {
+		return broadcastWaitActionPool;
+	}
+
 	public float getXInUserInterfaceDimensionUnit() {
 		return getX() + getWidth() / 2f;
 	}
@@ -351,57 +354,9 @@ public class Look extends Image {
 		}
 
 		brightness = percent / 100f;
-		brightnessChanged = true;
-		imageChanged = true;
 	}
 
 	public void changeBrightnessInUserInterfaceDimensionUnit(float changePercent) {
 		setBrightnessInUserInterfaceDimensionUnit(getBrightnessInUserInterfaceDimensionUnit() + changePercent);
 	}
-
-	private void doHandleBroadcastEvent(String broadcastMessage) {
-		BroadcastHandler.doHandleBroadcastEvent(this, broadcastMessage);
-	}
-
-	private void doHandleBroadcastFromWaiterEvent(BroadcastEvent event, String broadcastMessage) {
-		BroadcastHandler.doHandleBroadcastFromWaiterEvent(this, event, broadcastMessage);
-	}
-
-	private class BrightnessContrastShader extends ShaderProgram {
-
-		private static final String VERTEX_SHADER = "attribute vec4 " + ShaderProgram.POSITION_ATTRIBUTE + ";\n"
-				+ "attribute vec4 " + ShaderProgram.COLOR_ATTRIBUTE + ";\n" + "attribute vec2 "
-				+ ShaderProgram.TEXCOORD_ATTRIBUTE + "0;\n" + "uniform mat4 u_projTrans;\n" + "varying vec4 v_color;\n"
-				+ "varying vec2 v_texCoords;\n" + "\n" + "void main()\n" + "{\n" + " v_color = "
-				+ ShaderProgram.COLOR_ATTRIBUTE + ";\n" + " v_texCoords = " + ShaderProgram.TEXCOORD_ATTRIBUTE + "0;\n"
-				+ " gl_Position = u_projTrans * " + ShaderProgram.POSITION_ATTRIBUTE + ";\n" + "}\n";
-		private static final String FRAGMENT_SHADER = "#ifdef GL_ES\n" + "#define LOWP lowp\n"
-				+ "precision mediump float;\n" + "#else\n" + "#define LOWP \n" + "#endif\n"
-				+ "varying LOWP vec4 v_color;\n" + "varying vec2 v_texCoords;\n" + "uniform sampler2D u_texture;\n"
-				+ "uniform float brightness;\n" + "uniform float contrast;\n" + "void main()\n" + "{\n"
-				+ " vec4 color = v_color * texture2D(u_texture, v_texCoords);\n" + " color.rgb /= color.a;\n"
-				+ " color.rgb = ((color.rgb - 0.5) * max(contrast, 0.0)) + 0.5;\n" //apply contrast
-				+ " color.rgb += brightness;\n" //apply brightness
-				+ " color.rgb *= color.a;\n" + " gl_FragColor = color;\n" + "}";
-
-		private static final String BRIGHTNESS_STRING_IN_SHADER = "brightness";
-		private static final String CONTRAST_STRING_IN_SHADER = "contrast";
-
-		public BrightnessContrastShader() {
-			super(VERTEX_SHADER, FRAGMENT_SHADER);
-			ShaderProgram.pedantic = false;
-			if (isCompiled()) {
-				begin();
-				setUniformf(BRIGHTNESS_STRING_IN_SHADER, 0.0f);
-				setUniformf(CONTRAST_STRING_IN_SHADER, 1.0f);
-				end();
-			}
-		}
-
-		public void setBrightness(float brightness) {
-			begin();
-			setUniformf(BRIGHTNESS_STRING_IN_SHADER, brightness - 1f);
-			end();
-		}
-	}
 }
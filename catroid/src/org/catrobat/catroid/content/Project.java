@@ -53,7 +53,12 @@ public class Project implements Serializable {
 	@XStreamAlias("variables")
 	private UserVariablesContainer userVariables = null;
 
+	// a loaded project equals its code.xml, only new projects start out dirty
+	private transient boolean dirty;
+	private transient BroadcastReceiverRegistry broadcastReceiverRegistry;
+
 	public Project(Context context, String name) {
+		dirty = true;
 		xmlHeader.setProgramName(name);
 		xmlHeader.setDescription("");
 
@@ -92,12 +97,12 @@ public class Project implements Serializable {
 			return;
 		}
 		spriteList.add(sprite);
-
+		dirty = true;
 	}
 
 	public synchronized boolean removeSprite(Sprite sprite) {
+		dirty = true;
 		return spriteList.remove(sprite);
-
 	}
 
 	public List<Sprite> getSpriteList() {
@@ -128,6 +133,14 @@ public class Project implements Serializable {
 		return xmlHeader.getScreenMode();
 	}
 
+	public void setTurboMode(boolean turboMode) {
+		xmlHeader.setTurboMode(turboMode);
+	}
+
+	public boolean isTurboMode() {
+		return xmlHeader.isTurboMode();
+	}
+
 	public float getCatrobatLanguageVersion() {
 		return xmlHeader.getCatrobatLanguageVersion();
 	}
@@ -161,6 +174,40 @@ public class Project implements Serializable {
 		}
 	}
 
+	/**
+	 * Marks the project as changed in a way the project cannot see itself, e.g. when a look or sound file was
+	 * replaced on disk.
+	 */
+	public void setDirty() {
+		dirty = true;
+	}
+
+	/**
+	 * @return true if the project may differ from its last saved or loaded version
+	 */
+	public synchronized boolean isDirty() {
+		if (dirty || xmlHeader.isDirty() || (userVariables != null && userVariables.isDirty())) {
+			return true;
+		}
+		for (Sprite sprite : spriteList) {
+			if (sprite.isDirty()) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	public synchronized void setClean() {
+		dirty = false;
+		xmlHeader.setClean();
+		if (userVariables != null) {
+			userVariables.setClean();
+		}
+		for (Sprite sprite : spriteList) {
+			sprite.setClean();
+		}
+	}
+
 	// default constructor for XMLParser
 	public Project() {
 	}
@@ -169,6 +216,13 @@ public class Project implements Serializable {
 		return userVariables;
 	}
 
+	public BroadcastReceiverRegistry getBroadcastReceiverRegistry() {
+		if (broadcastReceiverRegistry == null) {
+			broadcastReceiverRegistry = new BroadcastReceiverRegistry();
+		}
+		return broadcastReceiverRegistry;
+	}
+
 	public void removeUnusedBroadcastMessages() {
 		List<String> usedMessages = new ArrayList<String>();
 		for (Sprite currentSprite : spriteList) {
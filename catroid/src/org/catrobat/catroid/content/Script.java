@@ -49,6 +49,7 @@ public abstract class Script implements Serializable {
 	protected transient ScriptBrick brick;
 
 	private transient volatile boolean paused;
+	private transient boolean dirty;
 
 	public Script() {
 		brickList = new ArrayList<Brick>();
@@ -129,12 +130,14 @@ public abstract class Script implements Serializable {
 	public void addBrick(Brick brick) {
 		if (brick != null) {
 			brickList.add(brick);
+			dirty = true;
 		}
 	}
 
 	public void addBrick(int position, Brick brick) {
 		if (brick != null) {
 			brickList.add(position, brick);
+			dirty = true;
 		}
 	}
 
@@ -154,10 +157,37 @@ public abstract class Script implements Serializable {
 		for (Brick brick : toRemove) {
 			brickList.remove(brick);
 		}
+		if (!toRemove.isEmpty()) {
+			dirty = true;
+		}
 	}
 
 	public void removeBrick(Brick brick) {
 		brickList.remove(brick);
+		dirty = true;
+	}
+
+	public void setDirty() {
+		dirty = true;
+	}
+
+	public boolean isDirty() {
+		if (dirty) {
+			return true;
+		}
+		for (Brick brick : brickList) {
+			if (brick.isDirty()) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	public void setClean() {
+		dirty = false;
+		for (Brick brick : brickList) {
+			brick.setClean();
+		}
 	}
 
 	public ArrayList<Brick> getBrickList() {
@@ -30,8 +30,6 @@ import com.badlogic.gdx.scenes.scene2d.actions.SequenceAction;
 import com.thoughtworks.xstream.annotations.XStreamAsAttribute;
 
 import org.catrobat.catroid.ProjectManager;
-import org.catrobat.catroid.common.BroadcastSequenceMap;
-import org.catrobat.catroid.common.Constants;
 import org.catrobat.catroid.common.FileChecksumContainer;
 import org.catrobat.catroid.common.LookData;
 import org.catrobat.catroid.common.SoundInfo;
@@ -45,7 +43,7 @@ import org.catrobat.catroid.formulaeditor.UserVariablesContainer;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
+import java.util.Locale;
 
 public class Sprite implements Serializable, Cloneable {
 	private static final long serialVersionUID = 1L;
@@ -61,6 +59,8 @@ public class Sprite implements Serializable, Cloneable {
 	private ArrayList<SoundInfo> soundList;
 	private ArrayList<UserBrick> userBricks;
 	private transient int newUserBrickNext = 1;
+	private transient boolean dirty;
+	private transient ActionTreePool<String, ParallelAction> whenActionPool;
 
 	public Sprite(String name) {
 		this.name = name;
@@ -95,6 +95,7 @@ public class Sprite implements Serializable, Cloneable {
 	private void init() {
 		look = new Look(this);
 		isPaused = false;
+		whenActionPool = new ActionTreePool<String, ParallelAction>();
 		if (soundList == null) {
 			soundList = new ArrayList<SoundInfo>();
 		}
@@ -126,6 +127,7 @@ public class Sprite implements Serializable, Cloneable {
 		}
 
 		userBricks.remove(brickToRemove);
+		dirty = true;
 	}
 
 	public UserBrick addUserBrick(UserBrick brick) {
@@ -133,6 +135,7 @@ public class Sprite implements Serializable, Cloneable {
 			userBricks = new ArrayList<UserBrick>();
 		}
 		userBricks.add(brick);
+		dirty = true;
 		return brick;
 	}
 
@@ -143,53 +146,33 @@ public class Sprite implements Serializable, Cloneable {
 		return userBricks;
 	}
 
-	public void createStartScriptActionSequenceAndPutToMap(Map<String, List<String>> scriptActions) {
-		for (int scriptCounter = 0; scriptCounter < scriptList.size(); scriptCounter++) {
-			Script script = scriptList.get(scriptCounter);
+	public void createStartScriptActionSequenceAndPutToMap() {
+		look.getBroadcastWaitActionPool().clear();
+		for (Script script : scriptList) {
 			if (script instanceof StartScript) {
 				Action sequenceAction = createActionSequence(script);
 				look.addAction(sequenceAction);
-				BroadcastHandler.getActionScriptMap().put(sequenceAction, script);
-				BroadcastHandler.getScriptSpriteMapMap().put(script, this);
-				String actionName = sequenceAction.toString() + Constants.ACTION_SPRITE_SEPARATOR + name + scriptCounter;
-				if (scriptActions.containsKey(Constants.START_SCRIPT)) {
-					scriptActions.get(Constants.START_SCRIPT).add(actionName);
-					BroadcastHandler.getStringActionMap().put(actionName, sequenceAction);
-				} else {
-					List<String> startScriptList = new ArrayList<String>();
-					startScriptList.add(actionName);
-					scriptActions.put(Constants.START_SCRIPT, startScriptList);
-					BroadcastHandler.getStringActionMap().put(actionName, sequenceAction);
-				}
 			}
 			if (script instanceof BroadcastScript) {
 				BroadcastScript broadcastScript = (BroadcastScript) script;
 				SequenceAction action = createActionSequence(broadcastScript);
-				BroadcastHandler.getActionScriptMap().put(action, script);
-				BroadcastHandler.getScriptSpriteMapMap().put(script, this);
-				putBroadcastSequenceAction(broadcastScript.getBroadcastMessage(), action);
-				String actionName = action.toString() + Constants.ACTION_SPRITE_SEPARATOR + name + scriptCounter;
-
-				if (scriptActions.containsKey(Constants.BROADCAST_SCRIPT)) {
-					scriptActions.get(Constants.BROADCAST_SCRIPT).add(actionName);
-					BroadcastHandler.getStringActionMap().put(actionName, action);
-				} else {
-					List<String> broadcastScriptList = new ArrayList<String>();
-					broadcastScriptList.add(actionName);
-					scriptActions.put(Constants.BROADCAST_SCRIPT, broadcastScriptList);
-					BroadcastHandler.getStringActionMap().put(actionName, action);
-				}
+				ProjectManager.getInstance().getCurrentProject().getBroadcastReceiverRegistry()
+						.register(broadcastScript.getBroadcastMessage(), this, action);
+				BroadcastHandler.prepareBroadcastWaitAction(look, action);
 			}
 		}
+		createWhenScriptActionSequencesAndPutToPool();
 	}
 
-	private void putBroadcastSequenceAction(String broadcastMessage, SequenceAction action) {
-		if (BroadcastSequenceMap.containsKey(broadcastMessage)) {
-			BroadcastSequenceMap.get(broadcastMessage).add(action);
-		} else {
-			ArrayList<SequenceAction> actionList = new ArrayList<SequenceAction>();
-			actionList.add(action);
-			BroadcastSequenceMap.put(broadcastMessage, actionList);
+	private void createWhenScriptActionSequencesAndPutToPool() {
+		whenActionPool.clear();
+		for (Script script : scriptList) {
+			if (script instanceof WhenScript) {
+				String action = ((WhenScript) script).getAction();
+				if (!whenActionPool.contains(getWhenActionKey(action))) {
+					whenActionPool.put(getWhenActionKey(action), createWhenParallelAction(action));
+				}
+			}
 		}
 	}
 
@@ -204,9 +187,8 @@ public class Sprite implements Serializable, Cloneable {
 		}
 		UserVariablesContainer userVariables = currentProject.getUserVariables();
 		List<UserVariable> originalSpriteVariables = userVariables.getOrCreateVariableListForSprite(this);
-		List<UserVariable> clonedSpriteVariables = userVariables.getOrCreateVariableListForSprite(cloneSprite);
 		for (UserVariable variable : originalSpriteVariables) {
-			clonedSpriteVariables.add(new UserVariable(variable.getName(), variable.getValue()));
+			userVariables.addSpriteUserVariableToSprite(cloneSprite, variable.getName()).setValue(variable.getValue());
 		}
 
 		ArrayList<LookData> cloneLookList = new ArrayList<LookData>();
@@ -290,6 +272,18 @@ public class Sprite implements Serializable, Cloneable {
 	}
 
 	public void createWhenScriptActionSequence(String action) {
+		ParallelAction whenParallelAction = whenActionPool.obtain(getWhenActionKey(action));
+		if (whenParallelAction == null) {
+			whenParallelAction = createWhenParallelAction(action);
+			whenActionPool.put(getWhenActionKey(action), whenParallelAction);
+		} else {
+			whenParallelAction.restart();
+		}
+		look.setWhenParallelAction(whenParallelAction);
+		look.addAction(whenParallelAction);
+	}
+
+	private ParallelAction createWhenParallelAction(String action) {
 		ParallelAction whenParallelAction = ExtendedActions.parallel();
 		for (Script s : scriptList) {
 			if (s instanceof WhenScript && (((WhenScript) s).getAction().equalsIgnoreCase(action))) {
@@ -298,8 +292,15 @@ public class Sprite implements Serializable, Cloneable {
 
 			}
 		}
-		look.setWhenParallelAction(whenParallelAction);
-		look.addAction(whenParallelAction);
+		return whenParallelAction;
+	}
+
+	private String getWhenActionKey(String action) {
+		return action.toLowerCase(Locale.US);
+	}
+
+	public ActionTreePool<String, ParallelAction> getWhenActionPool() {
+		return whenActionPool;
 	}
 
 	private SequenceAction createActionSequence(Script s) {
@@ -327,19 +328,23 @@ public class Sprite implements Serializable, Cloneable {
 	}
 
 	public void setName(String name) {
+		if (this.name == null ? name != null : !this.name.equals(name)) {
+			dirty = true;
+		}
 		this.name = name;
 	}
 
 	public void addScript(Script script) {
 		if (script != null && !scriptList.contains(script)) {
 			scriptList.add(script);
-
+			dirty = true;
 		}
 	}
 
 	public void addScript(int index, Script script) {
 		if (script != null && !scriptList.contains(script)) {
 			scriptList.add(index, script);
+			dirty = true;
 		}
 	}
 
@@ -371,9 +376,11 @@ public class Sprite implements Serializable, Cloneable {
 
 	public void removeAllScripts() {
 		scriptList.clear();
+		dirty = true;
 	}
 
 	public boolean removeScript(Script script) {
+		dirty = true;
 		return scriptList.remove(script);
 	}
 
@@ -383,6 +390,7 @@ public class Sprite implements Serializable, Cloneable {
 
 	public void setLookDataList(ArrayList<LookData> list) {
 		lookList = list;
+		dirty = true;
 	}
 
 	public ArrayList<SoundInfo> getSoundList() {
@@ -391,6 +399,45 @@ public class Sprite implements Serializable, Cloneable {
 
 	public void setSoundList(ArrayList<SoundInfo> list) {
 		soundList = list;
+		dirty = true;
+	}
+
+	/**
+	 * Marks the sprite as changed, e.g. because one of its bricks, looks or sounds was edited in place.
+	 */
+	public void setDirty() {
+		dirty = true;
+	}
+
+	public boolean isDirty() {
+		if (dirty) {
+			return true;
+		}
+		for (Script script : scriptList) {
+			if (script.isDirty()) {
+				return true;
+			}
+		}
+		if (userBricks != null) {
+			for (UserBrick userBrick : userBricks) {
+				if (userBrick.getDefinitionBrick().isDirty()) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	public void setClean() {
+		dirty = false;
+		for (Script script : scriptList) {
+			script.setClean();
+		}
+		if (userBricks != null) {
+			for (UserBrick userBrick : userBricks) {
+				userBrick.getDefinitionBrick().setClean();
+			}
+		}
 	}
 
 	public int getRequiredResources() {
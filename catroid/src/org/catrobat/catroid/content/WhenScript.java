@@ -62,6 +62,7 @@ public class WhenScript extends Script {
 	public void setAction(int position) {
 		this.position = position;
 		this.action = ACTIONS[position];
+		setDirty();
 	}
 
 	public String getAction() {
@@ -27,6 +27,8 @@ import com.thoughtworks.xstream.annotations.XStreamAlias;
 import org.catrobat.catroid.common.ScreenModes;
 
 import java.io.Serializable;
+import java.util.Arrays;
+import java.util.List;
 
 public class XmlHeader implements Serializable {
 
@@ -41,6 +43,7 @@ public class XmlHeader implements Serializable {
 	public int virtualScreenHeight = 0;
 	@XStreamAlias("screenMode")
 	public ScreenModes screenMode = ScreenModes.STRETCH;
+	private boolean turboMode = false;
 
 	private float catrobatLanguageVersion;
 
@@ -67,6 +70,9 @@ public class XmlHeader implements Serializable {
 	@SuppressWarnings("unused")
 	private String userHandle = "";
 
+	// the header has public fields, so its values are compared instead of tracking every write
+	private transient List<Object> savedValues;
+
 	public XmlHeader() {
 	}
 
@@ -157,4 +163,27 @@ public class XmlHeader implements Serializable {
 	ScreenModes getScreenMode() {
 		return this.screenMode;
 	}
+
+	boolean isTurboMode() {
+		return turboMode;
+	}
+
+	void setTurboMode(boolean turboMode) {
+		this.turboMode = turboMode;
+	}
+
+	boolean isDirty() {
+		return !getValues().equals(savedValues);
+	}
+
+	void setClean() {
+		savedValues = getValues();
+	}
+
+	private List<Object> getValues() {
+		return Arrays.<Object> asList(programName, description, virtualScreenWidth, virtualScreenHeight, screenMode,
+				turboMode, catrobatLanguageVersion, applicationBuildName, applicationBuildNumber, applicationName,
+				applicationVersion, dateTimeUpload, deviceName, mediaLicense, platform, platformVersion,
+				programLicense, remixOf, tags, url, userHandle);
+	}
 }
@@ -27,9 +27,7 @@ import com.badlogic.gdx.scenes.scene2d.Action;
 import org.catrobat.catroid.ProjectManager;
 import org.catrobat.catroid.content.BroadcastEvent;
 import org.catrobat.catroid.content.BroadcastEvent.BroadcastType;
-import org.catrobat.catroid.content.Sprite;
-
-import java.util.List;
+import org.catrobat.catroid.content.BroadcastHandler;
 
 public class BroadcastAction extends Action {
 
@@ -39,10 +37,8 @@ public class BroadcastAction extends Action {
 	@Override
 	public boolean act(float delta) {
 		if (executeOnce) {
-			List<Sprite> sprites = ProjectManager.getInstance().getCurrentProject().getSpriteList();
-			for (Sprite spriteOfList : sprites) {
-				spriteOfList.look.fire(event);
-			}
+			BroadcastHandler.handleBroadcastEvent(event, ProjectManager.getInstance().getCurrentProject()
+					.getBroadcastReceiverRegistry(), event.getSenderSprite().look.getActionRestartQueue());
 			executeOnce = false;
 		}
 		if (event.getRun() || event.getNumberOfReceivers() == 0) {
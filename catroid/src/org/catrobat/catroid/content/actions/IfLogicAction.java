@@ -94,6 +94,14 @@ public class IfLogicAction extends Action {
 		this.elseAction = elseAction;
 	}
 
+	public Action getIfAction() {
+		return ifAction;
+	}
+
+	public Action getElseAction() {
+		return elseAction;
+	}
+
 	public void setIfCondition(Formula ifCondition) {
 		this.ifCondition = ifCondition;
 	}
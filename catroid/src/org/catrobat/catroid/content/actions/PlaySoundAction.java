@@ -36,7 +36,7 @@ public class PlaySoundAction extends TemporalAction {
 	@Override
 	protected void update(float percent) {
 		if (sound != null && sprite.getSoundList().contains(sound) && sound.getAbsolutePath() != null) {
-			SoundManager.getInstance().playSoundFile(sound.getAbsolutePath());
+			SoundManager.getInstance().playSound(sound);
 		}
 	}
 
@@ -24,9 +24,15 @@ package org.catrobat.catroid.content.actions;
 
 import android.util.Log;
 
+import com.badlogic.gdx.scenes.scene2d.Action;
+import com.badlogic.gdx.scenes.scene2d.actions.DelegateAction;
+import com.badlogic.gdx.scenes.scene2d.actions.ParallelAction;
+import com.badlogic.gdx.utils.Array;
+
 import org.catrobat.catroid.content.Sprite;
 import org.catrobat.catroid.formulaeditor.Formula;
 import org.catrobat.catroid.formulaeditor.InterpretationException;
+import org.catrobat.catroid.stage.TurboModeScheduler;
 
 public class RepeatAction extends com.badlogic.gdx.scenes.scene2d.actions.RepeatAction {
 
@@ -39,6 +45,17 @@ public class RepeatAction extends com.badlogic.gdx.scenes.scene2d.actions.Repeat
 	private static final float LOOP_DELAY = 0.02f;
 	private float currentTime = 0f;
 	private boolean isForeverRepeat = false;
+	private boolean isTurboLoop = false;
+	private long turboModeFrame = -1;
+	private long turboModeTimeUsedNanos = 0L;
+
+	// loops containing these actions keep the loop delay in turbo mode, they move a sprite or robot or wait
+	private static final Class<?>[] MOTION_AND_WAIT_ACTIONS = { BroadcastAction.class, ChangeXByNAction.class,
+			ChangeYByNAction.class, ComeToFrontAction.class, GlideToAction.class, GoNStepsBackAction.class,
+			IfOnEdgeBounceAction.class, MoveNStepsAction.class, PointInDirectionAction.class, PointToAction.class,
+			SetXAction.class, SetYAction.class, TurnLeftAction.class, TurnRightAction.class, WaitAction.class,
+			DroneFlipAction.class, DroneMoveAction.class, DroneTakeoffAction.class, LegoNxtMotorActionAction.class,
+			LegoNxtMotorTurnAngleAction.class };
 
 	@Override
 	public boolean act(float delta) {
@@ -52,6 +69,7 @@ public class RepeatAction extends com.badlogic.gdx.scenes.scene2d.actions.Repeat
                 repeatCountValue = 0;
                 Log.d(getClass().getSimpleName(), "Formula interpretation for this specific Brick failed.", interpretationException);
             }
+			isTurboLoop = TurboModeScheduler.isEnabled() && isTurboModeCapable(action);
 		}
 
 		if (!isCurrentLoopInitialized) {
@@ -67,6 +85,9 @@ public class RepeatAction extends com.badlogic.gdx.scenes.scene2d.actions.Repeat
 		if (executedCount >= repeatCountValue && !isForeverRepeat) {
 			return true;
 		}
+		if (isTurboLoop) {
+			return actInTurboMode(delta);
+		}
 		if (action.act(delta) && currentTime >= LOOP_DELAY) {
 
 			executedCount++;
@@ -82,6 +103,67 @@ public class RepeatAction extends com.badlogic.gdx.scenes.scene2d.actions.Repeat
 		return false;
 	}
 
+	/**
+	 * Runs iterations until the loop's own share of the frame's time budget is used up, summed over all act calls
+	 * of the frame.
+	 */
+	private boolean actInTurboMode(float delta) {
+		long frame = TurboModeScheduler.getFrameCount();
+		if (turboModeFrame != frame) {
+			turboModeFrame = frame;
+			turboModeTimeUsedNanos = 0L;
+			TurboModeScheduler.registerLoop();
+		}
+		long startNanos = System.nanoTime();
+		long deadlineNanos = startNanos + TurboModeScheduler.getLoopTimeBudgetNanos() - turboModeTimeUsedNanos;
+		float iterationDelta = delta;
+		try {
+			do {
+				if (action.act(iterationDelta)) {
+					executedCount++;
+					TurboModeScheduler.countIteration();
+					if (executedCount >= repeatCountValue && !isForeverRepeat) {
+						return true;
+					}
+					action.restart();
+				}
+				iterationDelta = 0f;
+			} while (TurboModeScheduler.hasTimeLeft(deadlineNanos));
+			return false;
+		} finally {
+			turboModeTimeUsedNanos += System.nanoTime() - startNanos;
+		}
+	}
+
+	static boolean isTurboModeCapable(Action action) {
+		if (action == null) {
+			return true;
+		}
+		if (action instanceof ParallelAction) {
+			Array<Action> childActions = ((ParallelAction) action).getActions();
+			for (int index = 0; index < childActions.size; index++) {
+				if (!isTurboModeCapable(childActions.get(index))) {
+					return false;
+				}
+			}
+			return true;
+		}
+		if (action instanceof DelegateAction) {
+			return isTurboModeCapable(((DelegateAction) action).getAction());
+		}
+		if (action instanceof IfLogicAction) {
+			IfLogicAction ifLogicAction = (IfLogicAction) action;
+			return isTurboModeCapable(ifLogicAction.getIfAction())
+					&& isTurboModeCapable(ifLogicAction.getElseAction());
+		}
+		for (Class<?> actionClass : MOTION_AND_WAIT_ACTIONS) {
+			if (actionClass.isInstance(action)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
 	@Override
 	public void restart() {
 		isCurrentLoopInitialized = false;
@@ -34,11 +34,19 @@ public class SetXAction extends TemporalAction {
 
 	private Sprite sprite;
 	private Formula xPosition;
+	private Float constantX = null;
 
 	@Override
 	protected void update(float delta) {
+		if (constantX != null) {
+			sprite.look.setXInUserInterfaceDimensionUnit(constantX);
+			return;
+		}
 		try {
 			Float newX = xPosition == null ? Float.valueOf(0f) : xPosition.interpretFloat(sprite);
+			if (xPosition != null && xPosition.isConstant()) {
+				constantX = newX;
+			}
 			sprite.look.setXInUserInterfaceDimensionUnit(newX);
 		} catch (InterpretationException interpretationException) {
 			Log.d(getClass().getSimpleName(), "Formula interpretation for this specific Brick failed.", interpretationException);
@@ -51,6 +59,7 @@ public class SetXAction extends TemporalAction {
 
 	public void setX(Formula x) {
 		this.xPosition = x;
+		constantX = null;
 	}
 
 }
@@ -34,11 +34,19 @@ public class SetYAction extends TemporalAction {
 
 	private Sprite sprite;
 	private Formula yPosition;
+	private Float constantY = null;
 
 	@Override
 	protected void update(float delta) {
+		if (constantY != null) {
+			sprite.look.setYInUserInterfaceDimensionUnit(constantY);
+			return;
+		}
 		try {
 			Float newY = yPosition == null ? Float.valueOf(0f) : yPosition.interpretFloat(sprite);
+			if (yPosition != null && yPosition.isConstant()) {
+				constantY = newY;
+			}
 			sprite.look.setYInUserInterfaceDimensionUnit(newY);
 		} catch (InterpretationException interpretationException) {
 			Log.d(getClass().getSimpleName(), "Formula interpretation for this specific Brick failed.", interpretationException);
@@ -51,6 +59,7 @@ public class SetYAction extends TemporalAction {
 
 	public void setY(Formula y) {
 		this.yPosition = y;
+		constantY = null;
 	}
 
 }
@@ -34,11 +34,19 @@ public class WaitAction extends TemporalAction {
 
 	private Sprite sprite;
 	private Formula duration;
+	private Float constantDuration = null;
 
 	@Override
 	protected void begin() {
+		if (constantDuration != null) {
+			super.setDuration(constantDuration);
+			return;
+		}
 		try {
 			Float newDuration = duration == null ? Float.valueOf(0f) : duration.interpretFloat(sprite);
+			if (duration != null && duration.isConstant()) {
+				constantDuration = newDuration;
+			}
 			super.setDuration(newDuration);
 		} catch (InterpretationException interpretationException) {
 			Log.d(getClass().getSimpleName(), "Formula interpretation for this specific Brick failed.", interpretationException);
@@ -47,6 +55,7 @@ public class WaitAction extends TemporalAction {
 
 	public void setDelay(Formula delay) {
 		this.duration = delay;
+		constantDuration = null;
 	}
 
 	public void setSprite(Sprite sprite) {
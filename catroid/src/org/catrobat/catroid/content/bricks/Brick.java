@@ -94,4 +94,10 @@ public interface Brick extends Serializable, Cloneable {
 	void setAnimationState(boolean animationState);
 
 	void setAlpha(int alphaFull);
+
+	boolean isDirty();
+
+	void setDirty();
+
+	void setClean();
 }
@@ -39,11 +39,13 @@ public class BrickBaseType implements Brick {
 	private static final long serialVersionUID = 1L;
 	private static final String TAG = BrickBaseType.class.getSimpleName();
 	protected transient View view;
+	private transient int viewLayoutId;
 	protected transient CheckBox checkbox;
 	protected transient boolean checked = false;
 	protected transient BrickAdapter adapter;
 	protected transient int alphaValue = 255;
 	public transient boolean animationState = false;
+	private transient boolean dirty;
 
 	@Override
 	public boolean isChecked() {
@@ -118,7 +120,9 @@ public class BrickBaseType implements Brick {
 
 	@Override
 	public Brick clone() throws CloneNotSupportedException {
-		return (Brick) super.clone();
+		BrickBaseType clonedBrick = (BrickBaseType) super.clone();
+		clonedBrick.view = null;
+		return clonedBrick;
 	}
 
 	@Override
@@ -131,6 +135,19 @@ public class BrickBaseType implements Brick {
 		return null;
 	}
 
+	/**
+	 * Returns the view of this brick if it was inflated from the same layout and context and is not shown anywhere
+	 * at the moment, otherwise a newly inflated view. getView binds the returned view completely, so a reused view
+	 * only saves the inflation when the adapter binds this brick again.
+	 */
+	protected View inflateView(Context context, int layoutId) {
+		if (view == null || viewLayoutId != layoutId || view.getContext() != context || view.getParent() != null) {
+			view = View.inflate(context, layoutId, null);
+			viewLayoutId = layoutId;
+		}
+		return view;
+	}
+
 	@Override
 	public List<SequenceAction> addActionToSequence(Sprite sprite, SequenceAction sequence) {
 		return null;
@@ -152,4 +169,31 @@ public class BrickBaseType implements Brick {
 		alphaValue = newAlpha;
 	}
 
+	@Override
+	public boolean isDirty() {
+		return dirty;
+	}
+
+	@Override
+	public void setDirty() {
+		dirty = true;
+	}
+
+	@Override
+	public void setClean() {
+		dirty = false;
+	}
+
+	/**
+	 * Marks this brick dirty if a value chosen in its view differs from the stored one.
+	 *
+	 * @return newValue, to be assigned to the edited field
+	 */
+	protected <T> T markDirtyIfChanged(T oldValue, T newValue) {
+		if (oldValue == null ? newValue != null : !oldValue.equals(newValue)) {
+			dirty = true;
+		}
+		return newValue;
+	}
+
 }
@@ -93,7 +93,7 @@ public class BroadcastBrick extends BrickBaseType implements BroadcastMessage {
 		if (view == null) {
 			alphaValue = 255;
 		}
-		view = View.inflate(context, R.layout.brick_broadcast, null);
+		view = inflateView(context, R.layout.brick_broadcast);
 		view = getViewWithAlpha(alphaValue);
 		setCheckboxView(R.id.brick_broadcast_checkbox);
 
@@ -126,7 +126,7 @@ public class BroadcastBrick extends BrickBaseType implements BroadcastMessage {
 				if (selectedMessage.equals(context.getString(R.string.new_broadcast_message))) {
 					showNewMessageDialog(broadcastSpinner);
 				} else {
-					broadcastMessage = selectedMessage;
+					broadcastMessage = markDirtyIfChanged(broadcastMessage, selectedMessage);
 					adapterView = parent;
 				}
 			}
@@ -200,7 +200,7 @@ public class BroadcastBrick extends BrickBaseType implements BroadcastMessage {
 					return false;
 				}
 
-				broadcastMessage = newMessage;
+				broadcastMessage = markDirtyIfChanged(broadcastMessage, newMessage);
 				MessageContainer.addMessage(broadcastMessage);
 				setSpinnerSelection(spinner);
 				return true;
@@ -97,7 +97,7 @@ public class BroadcastReceiverBrick extends ScriptBrick implements BroadcastMess
 			MessageContainer.addMessage(getBroadcastMessage());
 		}
 
-		view = View.inflate(context, R.layout.brick_broadcast_receive, null);
+		view = inflateView(context, R.layout.brick_broadcast_receive);
 		view = getViewWithAlpha(alphaValue);
 		setCheckboxView(R.id.brick_broadcast_receive_checkbox);
 
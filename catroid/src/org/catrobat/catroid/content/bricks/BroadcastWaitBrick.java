@@ -71,7 +71,7 @@ public class BroadcastWaitBrick extends BroadcastBrick implements BroadcastMessa
 		if (view == null) {
 			alphaValue = 255;
 		}
-		view = View.inflate(context, R.layout.brick_broadcast_wait, null);
+		view = inflateView(context, R.layout.brick_broadcast_wait);
 		view = getViewWithAlpha(alphaValue);
 		setCheckboxView(R.id.brick_broadcast_wait_checkbox);
 
@@ -104,7 +104,7 @@ public class BroadcastWaitBrick extends BroadcastBrick implements BroadcastMessa
 				if (selectedMessage.equals(context.getString(R.string.new_broadcast_message))) {
 					showNewMessageDialog(broadcastSpinner);
 				} else {
-					broadcastMessage = selectedMessage;
+					broadcastMessage = markDirtyIfChanged(broadcastMessage, selectedMessage);
 					adapterView = parent;
 				}
 			}
@@ -77,7 +77,7 @@ public class ChangeBrightnessByNBrick extends FormulaBrick implements OnClickLis
 			return view;
 		}
 
-		view = View.inflate(context, R.layout.brick_change_brightness, null);
+		view = inflateView(context, R.layout.brick_change_brightness);
 		view = getViewWithAlpha(alphaValue);
 
 		setCheckboxView(R.id.brick_change_brightness_checkbox);
@@ -78,7 +78,7 @@ public class ChangeGhostEffectByNBrick extends FormulaBrick implements OnClickLi
 			return view;
 		}
 
-		view = View.inflate(context, R.layout.brick_change_ghost_effect, null);
+		view = inflateView(context, R.layout.brick_change_ghost_effect);
 		view = getViewWithAlpha(alphaValue);
 
 		setCheckboxView(R.id.brick_change_ghost_effect_checkbox);
@@ -77,7 +77,7 @@ public class ChangeSizeByNBrick extends FormulaBrick implements OnClickListener
 			return view;
 		}
 
-		view = View.inflate(context, R.layout.brick_change_size_by_n, null);
+		view = inflateView(context, R.layout.brick_change_size_by_n);
 		view = getViewWithAlpha(alphaValue);
 
 		setCheckboxView(R.id.brick_change_size_by_checkbox);
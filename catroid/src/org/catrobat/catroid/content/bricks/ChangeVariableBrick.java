@@ -102,7 +102,7 @@ public class ChangeVariableBrick extends FormulaBrick implements OnClickListener
 			return view;
 		}
 
-		view = View.inflate(context, R.layout.brick_change_variable_by, null);
+		view = inflateView(context, R.layout.brick_change_variable_by);
 		view = getViewWithAlpha(alphaValue);
 		setCheckboxView(R.id.brick_change_variable_checkbox);
 		final Brick brickInstance = this;
@@ -174,13 +174,13 @@ public class ChangeVariableBrick extends FormulaBrick implements OnClickListener
 							NewVariableDialog.DIALOG_FRAGMENT_TAG);
 				}
 				((UserVariableAdapterWrapper) parent.getAdapter()).resetIsTouchInDropDownView();
-				userVariable = (UserVariable) parent.getItemAtPosition(position);
+				userVariable = markDirtyIfChanged(userVariable, (UserVariable) parent.getItemAtPosition(position));
 				adapterView = parent;
 			}
 
 			@Override
 			public void onNothingSelected(AdapterView<?> arg0) {
-				userVariable = null;
+				userVariable = markDirtyIfChanged(userVariable, null);
 			}
 		});
 
@@ -291,10 +291,11 @@ public class ChangeVariableBrick extends FormulaBrick implements OnClickListener
 			variableSpinner.setSelection(userVariableAdapterWrapper.getPositionOfItem(userVariable), true);
 		} else if (newUserVariable != null) {
 			variableSpinner.setSelection(userVariableAdapterWrapper.getPositionOfItem(newUserVariable), true);
-			userVariable = newUserVariable;
+			userVariable = markDirtyIfChanged(userVariable, newUserVariable);
 		} else {
 			variableSpinner.setSelection(userVariableAdapterWrapper.getCount() - 1, true);
-			userVariable = userVariableAdapterWrapper.getItem(userVariableAdapterWrapper.getCount() - 1);
+			userVariable = markDirtyIfChanged(userVariable,
+					userVariableAdapterWrapper.getItem(userVariableAdapterWrapper.getCount() - 1));
 		}
 	}
 
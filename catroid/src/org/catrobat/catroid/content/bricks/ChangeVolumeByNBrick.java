@@ -78,7 +78,7 @@ public class ChangeVolumeByNBrick extends FormulaBrick implements OnClickListene
 			return view;
 		}
 
-		view = View.inflate(context, R.layout.brick_change_volume_by, null);
+		view = inflateView(context, R.layout.brick_change_volume_by);
 		view = getViewWithAlpha(alphaValue);
 
 		setCheckboxView(R.id.brick_change_volume_by_checkbox);
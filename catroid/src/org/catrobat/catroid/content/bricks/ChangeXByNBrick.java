@@ -77,7 +77,7 @@ public class ChangeXByNBrick extends FormulaBrick implements OnClickListener {
 			return view;
 		}
 
-		view = View.inflate(context, R.layout.brick_change_x, null);
+		view = inflateView(context, R.layout.brick_change_x);
 		view = getViewWithAlpha(alphaValue);
 
 		setCheckboxView(R.id.brick_change_x_checkbox);
@@ -76,7 +76,7 @@ public class ChangeYByNBrick extends FormulaBrick implements OnClickListener {
 		if (animationState) {
 			return view;
 		}
-		view = View.inflate(context, R.layout.brick_change_y, null);
+		view = inflateView(context, R.layout.brick_change_y);
 		view = getViewWithAlpha(alphaValue);
 
 		setCheckboxView(R.id.brick_change_y_checkbox);
@@ -56,7 +56,7 @@ public class ClearGraphicEffectBrick extends BrickBaseType {
 		if (animationState) {
 			return view;
 		}
-		view = View.inflate(context, R.layout.brick_clear_graphic_effect, null);
+		view = inflateView(context, R.layout.brick_clear_graphic_effect);
 		view = getViewWithAlpha(alphaValue);
 
 		setCheckboxView(R.id.brick_clear_graphic_effect_checkbox);
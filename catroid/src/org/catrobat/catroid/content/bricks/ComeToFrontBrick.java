@@ -56,7 +56,7 @@ public class ComeToFrontBrick extends BrickBaseType {
 			return view;
 		}
 
-		view = View.inflate(context, R.layout.brick_go_to_front, null);
+		view = inflateView(context, R.layout.brick_go_to_front);
 		view = getViewWithAlpha(alphaValue);
 
 		setCheckboxView(R.id.brick_go_to_front_checkbox);
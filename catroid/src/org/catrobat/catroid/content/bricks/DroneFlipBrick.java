@@ -75,7 +75,7 @@ public class DroneFlipBrick extends BrickBaseType {
 		if (view == null) {
 			alphaValue = 255;
 		}
-		view = View.inflate(context, R.layout.brick_drone_flip, null);
+		view = inflateView(context, R.layout.brick_drone_flip);
 		view = getViewWithAlpha(alphaValue);
 
 		setCheckboxView(R.id.brick_drone_flip_checkbox);
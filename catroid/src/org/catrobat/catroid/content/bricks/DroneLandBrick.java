@@ -75,7 +75,7 @@ public class DroneLandBrick extends BrickBaseType {
 		if (view == null) {
 			alphaValue = 255;
 		}
-		view = View.inflate(context, R.layout.brick_drone_land, null);
+		view = inflateView(context, R.layout.brick_drone_land);
 		view = getViewWithAlpha(alphaValue);
 
 		setCheckboxView(R.id.brick_drone_land_checkbox);
@@ -91,7 +91,7 @@ public abstract class DroneMoveBrick extends FormulaBrick implements OnClickList
 			return view;
 		}
 
-		view = View.inflate(context, R.layout.brick_drone_move, null);
+		view = inflateView(context, R.layout.brick_drone_move);
 		view = getViewWithAlpha(alphaValue);
 
 		setCheckboxView(R.id.brick_drone_move_checkbox);
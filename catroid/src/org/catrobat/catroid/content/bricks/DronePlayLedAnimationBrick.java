@@ -70,7 +70,7 @@ public class DronePlayLedAnimationBrick extends BrickBaseType {
 		if (view == null) {
 			alphaValue = 255;
 		}
-		view = View.inflate(context, R.layout.brick_drone_play_led_animation, null);
+		view = inflateView(context, R.layout.brick_drone_play_led_animation);
 		view = getViewWithAlpha(alphaValue);
 
 		setCheckboxView(R.id.brick_drone_play_led_animation_checkbox);
@@ -70,7 +70,7 @@ public class DroneTakeOffBrick extends BrickBaseType {
 		if (view == null) {
 			alphaValue = 255;
 		}
-		view = View.inflate(context, R.layout.brick_drone_takeoff, null);
+		view = inflateView(context, R.layout.brick_drone_takeoff);
 		view = getViewWithAlpha(alphaValue);
 
 		setCheckboxView(R.id.brick_drone_takeoff_checkbox);
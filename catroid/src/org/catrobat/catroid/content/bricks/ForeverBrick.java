@@ -68,7 +68,7 @@ public class ForeverBrick extends BrickBaseType implements LoopBeginBrick {
 		if (animationState) {
 			return view;
 		}
-		view = View.inflate(context, R.layout.brick_forever, null);
+		view = inflateView(context, R.layout.brick_forever);
 		view = getViewWithAlpha(alphaValue);
 
 		setCheckboxView(R.id.brick_forever_checkbox);
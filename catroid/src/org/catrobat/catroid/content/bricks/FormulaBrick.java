@@ -24,7 +24,9 @@ package org.catrobat.catroid.content.bricks;
 
 import org.catrobat.catroid.formulaeditor.Formula;
 
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
 
 public abstract class FormulaBrick extends BrickBaseType {
 
@@ -41,11 +43,19 @@ public abstract class FormulaBrick extends BrickBaseType {
 	public void setFormulaWithBrickField(BrickField brickField, Formula formula) throws IllegalArgumentException {
 		if (formulaMap != null && formulaMap.containsKey(brickField)) {
 			formulaMap.replace(brickField, formula);
+			setDirty();
 		} else {
 			throw new IllegalArgumentException("Incompatible Brick Field : " + brickField.toString());
 		}
 	}
 
+	public List<Formula> getFormulas() {
+		if (formulaMap == null) {
+			return new ArrayList<Formula>();
+		}
+		return new ArrayList<Formula>(formulaMap.values());
+	}
+
 	protected void addAllowedBrickField(BrickField brickField) {
 		if (formulaMap == null) {
 			formulaMap = new ConcurrentFormulaHashMap();
@@ -53,6 +63,27 @@ public abstract class FormulaBrick extends BrickBaseType {
 		formulaMap.putIfAbsent(brickField, new Formula(0));
 	}
 
+	@Override
+	public boolean isDirty() {
+		if (super.isDirty()) {
+			return true;
+		}
+		for (Formula formula : getFormulas()) {
+			if (formula.isDirty()) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	@Override
+	public void setClean() {
+		super.setClean();
+		for (Formula formula : getFormulas()) {
+			formula.setClean();
+		}
+	}
+
 	@Override
 	public Brick clone() throws CloneNotSupportedException {
 		FormulaBrick clonedBrick = (FormulaBrick) super.clone();
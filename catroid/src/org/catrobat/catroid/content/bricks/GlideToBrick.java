@@ -96,7 +96,7 @@ public class GlideToBrick extends FormulaBrick implements OnClickListener {
 		if (animationState) {
 			return view;
 		}
-		view = View.inflate(context, R.layout.brick_glide_to, null);
+		view = inflateView(context, R.layout.brick_glide_to);
 		view = getViewWithAlpha(alphaValue);
 
 		setCheckboxView(R.id.brick_glide_to_checkbox);
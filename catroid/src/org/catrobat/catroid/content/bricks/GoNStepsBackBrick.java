@@ -80,7 +80,7 @@ public class GoNStepsBackBrick extends FormulaBrick implements OnClickListener {
 		if (animationState) {
 			return view;
 		}
-		view = View.inflate(context, R.layout.brick_go_back, null);
+		view = inflateView(context, R.layout.brick_go_back);
 		view = getViewWithAlpha(alphaValue);
 
 		setCheckboxView(R.id.brick_go_back_checkbox);
@@ -56,7 +56,7 @@ public class HideBrick extends BrickBaseType {
 		if (animationState) {
 			return view;
 		}
-		view = View.inflate(context, R.layout.brick_hide, null);
+		view = inflateView(context, R.layout.brick_hide);
 		view = getViewWithAlpha(alphaValue);
 
 		setCheckboxView(R.id.brick_hide_checkbox);
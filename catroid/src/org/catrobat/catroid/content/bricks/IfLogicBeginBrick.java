@@ -110,7 +110,7 @@ public class IfLogicBeginBrick extends FormulaBrick implements NestingBrick, OnC
 			alphaValue = 255;
 		}
 
-		view = View.inflate(context, R.layout.brick_if_begin_if, null);
+		view = inflateView(context, R.layout.brick_if_begin_if);
 		view = getViewWithAlpha(alphaValue);
 
 		setCheckboxView(R.id.brick_if_begin_checkbox);
@@ -56,7 +56,7 @@ public class IfOnEdgeBounceBrick extends BrickBaseType {
 		if (animationState) {
 			return view;
 		}
-		view = View.inflate(context, R.layout.brick_if_on_edge_bounce, null);
+		view = inflateView(context, R.layout.brick_if_on_edge_bounce);
 		view = getViewWithAlpha(alphaValue);
 
 		setCheckboxView(R.id.brick_if_on_edge_bounce_checkbox);
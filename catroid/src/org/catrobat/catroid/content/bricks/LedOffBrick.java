@@ -56,7 +56,7 @@ public class LedOffBrick extends BrickBaseType {
 			alphaValue = 0xFF;
 		}
 
-		view = View.inflate(context, R.layout.brick_led_off, null);
+		view = inflateView(context, R.layout.brick_led_off);
 		view = getViewWithAlpha(alphaValue);
 
 		setCheckboxView(R.id.brick_led_off_checkbox);
@@ -56,7 +56,7 @@ public class LedOnBrick extends BrickBaseType {
 			alphaValue = 0xFF;
 		}
 
-		view = View.inflate(context, R.layout.brick_led_on, null);
+		view = inflateView(context, R.layout.brick_led_on);
 		view = getViewWithAlpha(alphaValue);
 
 		setCheckboxView(R.id.brick_led_on_checkbox);
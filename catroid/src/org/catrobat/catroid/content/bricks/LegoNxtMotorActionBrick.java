@@ -128,7 +128,7 @@ public class LegoNxtMotorActionBrick extends FormulaBrick implements OnClickList
 			alphaValue = 255;
 		}
 
-		view = View.inflate(context, R.layout.brick_nxt_motor_action, null);
+		view = inflateView(context, R.layout.brick_nxt_motor_action);
 		view = getViewWithAlpha(alphaValue);
 		setCheckboxView(R.id.brick_nxt_motor_action_checkbox);
 
@@ -170,7 +170,7 @@ public class LegoNxtMotorActionBrick extends FormulaBrick implements OnClickList
 			@Override
 			public void onItemSelected(AdapterView<?> arg0, View arg1, int position, long arg3) {
 				motorEnum = Motor.values()[position];
-				motor = motorEnum.name();
+				motor = markDirtyIfChanged(motor, motorEnum.name());
 				adapterView = arg0;
 			}
 
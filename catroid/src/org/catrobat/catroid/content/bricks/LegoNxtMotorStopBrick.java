@@ -105,7 +105,7 @@ public class LegoNxtMotorStopBrick extends BrickBaseType implements OnItemSelect
 		if (view == null) {
 			alphaValue = 255;
 		}
-		view = View.inflate(context, R.layout.brick_nxt_motor_stop, null);
+		view = inflateView(context, R.layout.brick_nxt_motor_stop);
 		view = getViewWithAlpha(alphaValue);
 
 		setCheckboxView(R.id.brick_nxt_motor_stop_checkbox);
@@ -141,7 +141,7 @@ public class LegoNxtMotorStopBrick extends BrickBaseType implements OnItemSelect
 	@Override
 	public void onItemSelected(AdapterView<?> parent, View view, int position, long id) {
 		motorEnum = Motor.values()[position];
-		motor = motorEnum.name();
+		motor = markDirtyIfChanged(motor, motorEnum.name());
 		adapterView = parent;
 	}
 
@@ -128,7 +128,7 @@ public class LegoNxtMotorTurnAngleBrick extends FormulaBrick implements OnClickL
 		if (view == null) {
 			alphaValue = 255;
 		}
-		view = View.inflate(context, R.layout.brick_nxt_motor_turn_angle, null);
+		view = inflateView(context, R.layout.brick_nxt_motor_turn_angle);
 		view = getViewWithAlpha(alphaValue);
 
 		setCheckboxView(R.id.brick_nxt_motor_turn_checkbox);
@@ -171,7 +171,7 @@ public class LegoNxtMotorTurnAngleBrick extends FormulaBrick implements OnClickL
 			@Override
 			public void onItemSelected(AdapterView<?> arg0, View arg1, int position, long arg3) {
 				motorEnum = Motor.values()[position];
-				motor = motorEnum.name();
+				motor = markDirtyIfChanged(motor, motorEnum.name());
 				adapterView = arg0;
 			}
 
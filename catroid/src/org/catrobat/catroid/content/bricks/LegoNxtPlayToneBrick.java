@@ -94,7 +94,7 @@ public class LegoNxtPlayToneBrick extends FormulaBrick implements OnClickListene
 		if (view == null) {
 			alphaValue = 255;
 		}
-		view = View.inflate(context, R.layout.brick_nxt_play_tone, null);
+		view = inflateView(context, R.layout.brick_nxt_play_tone);
 		view = getViewWithAlpha(alphaValue);
 
 		setCheckboxView(R.id.brick_nxt_play_tone_checkbox);
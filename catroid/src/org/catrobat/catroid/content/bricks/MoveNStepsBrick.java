@@ -82,7 +82,7 @@ public class MoveNStepsBrick extends FormulaBrick implements OnClickListener {
 		if (animationState) {
 			return view;
 		}
-		view = View.inflate(context, R.layout.brick_move_n_steps, null);
+		view = inflateView(context, R.layout.brick_move_n_steps);
 		view = getViewWithAlpha(alphaValue);
 
 		setCheckboxView(R.id.brick_move_n_steps_checkbox);
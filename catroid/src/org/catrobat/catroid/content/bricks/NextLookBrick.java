@@ -76,7 +76,7 @@ public class NextLookBrick extends BrickBaseType {
 		if (animationState) {
 			return view;
 		}
-		view = View.inflate(context, R.layout.brick_next_look, null);
+		view = inflateView(context, R.layout.brick_next_look);
 		view = getViewWithAlpha(alphaValue);
 
 		setCheckboxView(R.id.brick_next_look_checkbox);
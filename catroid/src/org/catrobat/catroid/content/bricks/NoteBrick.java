@@ -67,7 +67,7 @@ public class NoteBrick extends FormulaBrick implements OnClickListener{
 			return view;
 		}
 
-		view = View.inflate(context, R.layout.brick_note, null);
+		view = inflateView(context, R.layout.brick_note);
 		view = getViewWithAlpha(alphaValue);
 
 		setCheckboxView(R.id.brick_note_checkbox);
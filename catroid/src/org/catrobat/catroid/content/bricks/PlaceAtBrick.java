@@ -87,7 +87,7 @@ public class PlaceAtBrick extends FormulaBrick implements OnClickListener {
 			return view;
 		}
 
-		view = View.inflate(context, R.layout.brick_place_at, null);
+		view = inflateView(context, R.layout.brick_place_at);
 		view = getViewWithAlpha(alphaValue);
 
 		setCheckboxView(R.id.brick_place_at_checkbox);
@@ -87,7 +87,7 @@ public class PlaySoundBrick extends BrickBaseType implements OnItemSelectedListe
 			return view;
 		}
 
-		view = View.inflate(context, R.layout.brick_play_sound, null);
+		view = inflateView(context, R.layout.brick_play_sound);
 		view = getViewWithAlpha(alphaValue);
 
 		setCheckboxView(R.id.brick_play_sound_checkbox);
@@ -191,9 +191,9 @@ public class PlaySoundBrick extends BrickBaseType implements OnItemSelectedListe
 	@Override
 	public void onItemSelected(AdapterView<?> parent, View arg1, int position, long arg3) {
 		if (position == 0) {
-			sound = null;
+			sound = markDirtyIfChanged(sound, null);
 		} else {
-			sound = (SoundInfo) parent.getItemAtPosition(position);
+			sound = markDirtyIfChanged(sound, (SoundInfo) parent.getItemAtPosition(position));
 			oldSelectedSound = sound;
 		}
 		adapterView = parent;
@@ -334,7 +334,7 @@ public class PlaySoundBrick extends BrickBaseType implements OnItemSelectedListe
 
 	@Override
 	public void onSoundInfoListChangedAfterNew(SoundInfo soundInfo) {
-		sound = soundInfo;
+		sound = markDirtyIfChanged(sound, soundInfo);
 		oldSelectedSound = soundInfo;
 	}
 }
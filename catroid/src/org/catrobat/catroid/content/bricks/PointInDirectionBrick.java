@@ -94,7 +94,7 @@ public class PointInDirectionBrick extends FormulaBrick implements View.OnClickL
 		if (animationState) {
 			return view;
 		}
-		view = View.inflate(context, R.layout.brick_point_in_direction, null);
+		view = inflateView(context, R.layout.brick_point_in_direction);
 		view = getViewWithAlpha(alphaValue);
 		setCheckboxView(R.id.brick_point_in_direction_checkbox);
 
@@ -132,7 +132,7 @@ public class PointToBrick extends BrickBaseType {
 				String itemSelected = parent.getSelectedItem().toString();
 
 				if (itemSelected.equals(context.getString(R.string.new_broadcast_message))) {
-					pointedObject = null;
+					pointedObject = markDirtyIfChanged(pointedObject, null);
 				} else {
 					final ArrayList<Sprite> spriteList = (ArrayList<Sprite>) ProjectManager.getInstance()
 							.getCurrentProject().getSpriteList();
@@ -140,7 +140,7 @@ public class PointToBrick extends BrickBaseType {
 					for (Sprite sprite : spriteList) {
 						String spriteName = sprite.getName();
 						if (spriteName.equals(itemSelected)) {
-							pointedObject = sprite;
+							pointedObject = markDirtyIfChanged(pointedObject, sprite);
 							break;
 						}
 					}
@@ -357,7 +357,7 @@ public class PointToBrick extends BrickBaseType {
 			Project project = ProjectManager.getInstance().getCurrentProject();
 			for (Sprite sprite : project.getSpriteList()) {
 				if (sprite.getName().equals(newSpriteName)) {
-					pointedObject = sprite;
+					pointedObject = markDirtyIfChanged(pointedObject, sprite);
 				}
 			}
 
@@ -90,7 +90,7 @@ public class RepeatBrick extends FormulaBrick implements LoopBeginBrick, OnClick
 			return view;
 		}
 
-		view = View.inflate(context, R.layout.brick_repeat, null);
+		view = inflateView(context, R.layout.brick_repeat);
 		view = getViewWithAlpha(alphaValue);
 
 		setCheckboxView(R.id.brick_repeat_checkbox);
@@ -77,7 +77,7 @@ public class SetBrightnessBrick extends FormulaBrick implements OnClickListener
 			return view;
 		}
 
-		view = View.inflate(context, R.layout.brick_set_brightness, null);
+		view = inflateView(context, R.layout.brick_set_brightness);
 		view = getViewWithAlpha(alphaValue);
 
 		setCheckboxView(R.id.brick_set_brightness_checkbox);
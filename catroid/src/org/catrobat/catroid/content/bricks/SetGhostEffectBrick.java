@@ -77,7 +77,7 @@ public class SetGhostEffectBrick extends FormulaBrick implements OnClickListener
 			return view;
 		}
 
-		view = View.inflate(context, R.layout.brick_set_ghost_effect, null);
+		view = inflateView(context, R.layout.brick_set_ghost_effect);
 		view = getViewWithAlpha(alphaValue);
 
 		setCheckboxView(R.id.brick_set_ghost_effect_checkbox);
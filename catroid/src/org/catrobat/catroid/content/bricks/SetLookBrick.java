@@ -95,7 +95,7 @@ public class SetLookBrick extends BrickBaseType implements OnLookDataListChanged
 			return view;
 		}
 		final Brick brickInstance = this;
-		view = View.inflate(context, R.layout.brick_set_look, null);
+		view = inflateView(context, R.layout.brick_set_look);
 		view = getViewWithAlpha(alphaValue);
 
 		setCheckboxView(R.id.brick_set_look_checkbox);
@@ -129,9 +129,9 @@ public class SetLookBrick extends BrickBaseType implements OnLookDataListChanged
 			@Override
 			public void onItemSelected(AdapterView<?> parent, View view, int position, long id) {
 				if (position == 0) {
-					look = null;
+					look = markDirtyIfChanged(look, null);
 				} else {
-					look = (LookData) parent.getItemAtPosition(position);
+					look = markDirtyIfChanged(look, (LookData) parent.getItemAtPosition(position));
 					oldSelectedLook = look;
 					adapterView = parent;
 				}
@@ -345,7 +345,7 @@ public class SetLookBrick extends BrickBaseType implements OnLookDataListChanged
 
 	@Override
 	public void onLookDataListChangedAfterNew(LookData lookData) {
-		look = lookData;
+		look = markDirtyIfChanged(look, lookData);
 		oldSelectedLook = lookData;
 	}
 }
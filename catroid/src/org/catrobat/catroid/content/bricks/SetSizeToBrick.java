@@ -77,7 +77,7 @@ public class SetSizeToBrick extends FormulaBrick implements OnClickListener {
 			return view;
 		}
 
-		view = View.inflate(context, R.layout.brick_set_size_to, null);
+		view = inflateView(context, R.layout.brick_set_size_to);
 		view = getViewWithAlpha(alphaValue);
 
 		setCheckboxView(R.id.brick_set_size_to_checkbox);
@@ -101,7 +101,7 @@ public class SetVariableBrick extends FormulaBrick implements OnClickListener, N
 			alphaValue = 255;
 		}
 
-		view = View.inflate(context, R.layout.brick_set_variable, null);
+		view = inflateView(context, R.layout.brick_set_variable);
 		view = getViewWithAlpha(alphaValue);
 		setCheckboxView(R.id.brick_set_variable_checkbox);
 
@@ -171,13 +171,13 @@ public class SetVariableBrick extends FormulaBrick implements OnClickListener, N
 							NewVariableDialog.DIALOG_FRAGMENT_TAG);
 				}
 				((UserVariableAdapterWrapper) parent.getAdapter()).resetIsTouchInDropDownView();
-				userVariable = (UserVariable) parent.getItemAtPosition(position);
+				userVariable = markDirtyIfChanged(userVariable, (UserVariable) parent.getItemAtPosition(position));
 				adapterView = parent;
 			}
 
 			@Override
 			public void onNothingSelected(AdapterView<?> arg0) {
-				userVariable = null;
+				userVariable = markDirtyIfChanged(userVariable, null);
 			}
 		});
 
@@ -279,10 +279,11 @@ public class SetVariableBrick extends FormulaBrick implements OnClickListener, N
 			variableSpinner.setSelection(userVariableAdapterWrapper.getPositionOfItem(userVariable), true);
 		} else if (newUserVariable != null) {
 			variableSpinner.setSelection(userVariableAdapterWrapper.getPositionOfItem(newUserVariable), true);
-			userVariable = newUserVariable;
+			userVariable = markDirtyIfChanged(userVariable, newUserVariable);
 		} else {
 			variableSpinner.setSelection(userVariableAdapterWrapper.getCount() - 1, true);
-			userVariable = userVariableAdapterWrapper.getItem(userVariableAdapterWrapper.getCount() - 1);
+			userVariable = markDirtyIfChanged(userVariable,
+					userVariableAdapterWrapper.getItem(userVariableAdapterWrapper.getCount() - 1));
 		}
 	}
 
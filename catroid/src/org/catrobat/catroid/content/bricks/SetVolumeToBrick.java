@@ -76,7 +76,7 @@ public class SetVolumeToBrick extends FormulaBrick implements OnClickListener {
 		if (animationState) {
 			return view;
 		}
-		view = View.inflate(context, R.layout.brick_set_volume_to, null);
+		view = inflateView(context, R.layout.brick_set_volume_to);
 		view = getViewWithAlpha(alphaValue);
 
 		setCheckboxView(R.id.brick_set_volume_to_checkbox);
@@ -77,7 +77,7 @@ public class SetXBrick extends FormulaBrick implements OnClickListener {
 			return view;
 		}
 
-		view = View.inflate(context, R.layout.brick_set_x, null);
+		view = inflateView(context, R.layout.brick_set_x);
 		view = getViewWithAlpha(alphaValue);
 
 		setCheckboxView(R.id.brick_set_x_checkbox);
@@ -76,7 +76,7 @@ public class SetYBrick extends FormulaBrick implements OnClickListener {
 		if (animationState) {
 			return view;
 		}
-		view = View.inflate(context, R.layout.brick_set_y, null);
+		view = inflateView(context, R.layout.brick_set_y);
 		view = getViewWithAlpha(alphaValue);
 
 		setCheckboxView(R.id.brick_set_y_checkbox);
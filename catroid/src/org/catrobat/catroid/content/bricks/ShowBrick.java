@@ -55,7 +55,7 @@ public class ShowBrick extends BrickBaseType {
 		if (animationState) {
 			return view;
 		}
-		view = View.inflate(context, R.layout.brick_show, null);
+		view = inflateView(context, R.layout.brick_show);
 		view = getViewWithAlpha(alphaValue);
 		setCheckboxView(R.id.brick_show_checkbox);
 
@@ -74,7 +74,7 @@ public class SpeakBrick extends FormulaBrick implements OnClickListener {
 		if (animationState) {
 			return view;
 		}
-		view = View.inflate(context, R.layout.brick_speak, null);
+		view = inflateView(context, R.layout.brick_speak);
 		view = getViewWithAlpha(alphaValue);
 
 		setCheckboxView(R.id.brick_speak_checkbox);
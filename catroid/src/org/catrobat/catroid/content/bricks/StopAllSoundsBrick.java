@@ -55,7 +55,7 @@ public class StopAllSoundsBrick extends BrickBaseType {
 		if (animationState) {
 			return view;
 		}
-		view = View.inflate(context, R.layout.brick_stop_all_sounds, null);
+		view = inflateView(context, R.layout.brick_stop_all_sounds);
 		view = getViewWithAlpha(alphaValue);
 		setCheckboxView(R.id.brick_stop_all_sounds_checkbox);
 
@@ -77,7 +77,7 @@ public class TurnLeftBrick extends FormulaBrick implements OnClickListener {
 		if (animationState) {
 			return view;
 		}
-		view = View.inflate(context, R.layout.brick_turn_left, null);
+		view = inflateView(context, R.layout.brick_turn_left);
 		view = getViewWithAlpha(alphaValue);
 
 		setCheckboxView(R.id.brick_turn_left_checkbox);
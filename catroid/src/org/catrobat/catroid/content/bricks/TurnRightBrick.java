@@ -77,7 +77,7 @@ public class TurnRightBrick extends FormulaBrick implements OnClickListener {
 			return view;
 		}
 
-		view = View.inflate(context, R.layout.brick_turn_right, null);
+		view = inflateView(context, R.layout.brick_turn_right);
 		view = getViewWithAlpha(alphaValue);
 
 		setCheckboxView(R.id.brick_turn_right_checkbox);
@@ -337,6 +337,33 @@ public class UserBrick extends BrickBaseType implements OnClickListener {
 
 	public void setDefinitionBrick(UserScriptDefinitionBrick definitionBrick) {
 		this.definitionBrick = definitionBrick;
+		setDirty();
+	}
+
+	// the definition is checked through the user brick list of the sprite, so recursive user bricks end here
+	@Override
+	public boolean isDirty() {
+		if (super.isDirty()) {
+			return true;
+		}
+		if (userBrickParameters != null) {
+			for (Formula formula : getFormulas()) {
+				if (formula.isDirty()) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	@Override
+	public void setClean() {
+		super.setClean();
+		if (userBrickParameters != null) {
+			for (Formula formula : getFormulas()) {
+				formula.setClean();
+			}
+		}
 	}
 
 	public UserScriptDefinitionBrickElements getUserScriptDefinitionBrickElements(){
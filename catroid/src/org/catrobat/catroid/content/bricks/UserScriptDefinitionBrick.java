@@ -276,6 +276,7 @@ public class UserScriptDefinitionBrick extends ScriptBrick implements OnClickLis
 
 	public void setUserScript(StartScript script) {
 		this.script = script;
+		setDirty();
 	}
 
 	public Bitmap getWithBorder(int radius, Bitmap bitmap, int color) {
@@ -427,5 +428,19 @@ public class UserScriptDefinitionBrick extends ScriptBrick implements OnClickLis
 
 	public void setUserScriptDefinitionBrickElements(UserScriptDefinitionBrickElements userScriptDefinitionBrickElements) {
 		this.userScriptDefinitionBrickElements = userScriptDefinitionBrickElements;
+		setDirty();
+	}
+
+	@Override
+	public boolean isDirty() {
+		return super.isDirty() || (script != null && script.isDirty());
+	}
+
+	@Override
+	public void setClean() {
+		super.setClean();
+		if (script != null) {
+			script.setClean();
+		}
 	}
 }
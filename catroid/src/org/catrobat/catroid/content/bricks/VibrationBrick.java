@@ -80,7 +80,7 @@ public class VibrationBrick extends FormulaBrick implements OnClickListener {
 			return view;
 		}
 
-		view = View.inflate(context, R.layout.brick_vibration, null);
+		view = inflateView(context, R.layout.brick_vibration);
 		view = getViewWithAlpha(alphaValue);
 
 		setCheckboxView(R.id.brick_vibration_checkbox);
@@ -89,7 +89,7 @@ public class WaitBrick extends FormulaBrick implements OnClickListener {
 			return view;
 		}
 
-		view = View.inflate(context, R.layout.brick_wait, null);
+		view = inflateView(context, R.layout.brick_wait);
 		view = getViewWithAlpha(alphaValue);
 
 		setCheckboxView(R.id.brick_wait_checkbox);
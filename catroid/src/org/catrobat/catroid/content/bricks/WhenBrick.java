@@ -66,7 +66,7 @@ public class WhenBrick extends ScriptBrick {
 			return view;
 		}
 
-		view = View.inflate(context, R.layout.brick_when, null);
+		view = inflateView(context, R.layout.brick_when);
 
 		setCheckboxView(R.id.brick_when_checkbox);
 
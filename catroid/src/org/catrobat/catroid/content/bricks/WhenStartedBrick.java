@@ -67,7 +67,7 @@ public class WhenStartedBrick extends ScriptBrick {
 			return view;
 
 		}
-		view = View.inflate(context, R.layout.brick_when_started, null);
+		view = inflateView(context, R.layout.brick_when_started);
 
 		setCheckboxView(R.id.brick_when_started_checkbox);
 
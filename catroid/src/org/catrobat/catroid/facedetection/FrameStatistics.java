@@ -0,0 +1,83 @@
+/*
+ * Catroid: An on-device visual programming system for Android devices
+ * Copyright (C) 2010-2014 The Catrobat Team
+ * (<http://developer.catrobat.org/credits>)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * An additional term exception under section 7 of the GNU Affero
+ * General Public License, version 3, is available at
+ * http://developer.catrobat.org/license_additional_term
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.catrobat.catroid.facedetection;
+
+/**
+ * Counts processed and skipped preview frames and the time from the arrival of a frame to its detection result.
+ */
+public class FrameStatistics {
+	// weight of the newest frame in the average latency
+	private static final float LATENCY_SMOOTHING = 0.1f;
+
+	private long processedFrames;
+	private long skippedFrames;
+	private long lastLatencyMillis;
+	private long maxLatencyMillis;
+	private float averageLatencyMillis;
+
+	public synchronized void onFrameSkipped() {
+		skippedFrames++;
+	}
+
+	public synchronized void onFrameProcessed(long latencyMillis) {
+		averageLatencyMillis = processedFrames == 0 ? latencyMillis : averageLatencyMillis + LATENCY_SMOOTHING
+				* (latencyMillis - averageLatencyMillis);
+		processedFrames++;
+		lastLatencyMillis = latencyMillis;
+		maxLatencyMillis = Math.max(maxLatencyMillis, latencyMillis);
+	}
+
+	public synchronized void reset() {
+		processedFrames = 0;
+		skippedFrames = 0;
+		lastLatencyMillis = 0;
+		maxLatencyMillis = 0;
+		averageLatencyMillis = 0;
+	}
+
+	public synchronized long getProcessedFrames() {
+		return processedFrames;
+	}
+
+	public synchronized long getSkippedFrames() {
+		return skippedFrames;
+	}
+
+	public synchronized long getLastLatencyMillis() {
+		return lastLatencyMillis;
+	}
+
+	public synchronized long getMaxLatencyMillis() {
+		return maxLatencyMillis;
+	}
+
+	public synchronized float getAverageLatencyMillis() {
+		return averageLatencyMillis;
+	}
+
+	@Override
+	public synchronized String toString() {
+		return String.format("%d frames processed, %d skipped, latency last %d ms, average %.1f ms, max %d ms",
+				processedFrames, skippedFrames, lastLatencyMillis, averageLatencyMillis, maxLatencyMillis);
+	}
+}
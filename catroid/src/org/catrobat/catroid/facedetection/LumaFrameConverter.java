@@ -0,0 +1,158 @@
+/*
+ * Catroid: An on-device visual programming system for Android devices
+ * Copyright (C) 2010-2014 The Catrobat Team
+ * (<http://developer.catrobat.org/credits>)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * An additional term exception under section 7 of the GNU Affero
+ * General Public License, version 3, is available at
+ * http://developer.catrobat.org/license_additional_term
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.catrobat.catroid.facedetection;
+
+/**
+ * Turns the luma plane of NV21 camera preview frames into small, rotated RGB_565 gray images for the face detector.
+ * Downscaling, rotation and mirroring happen in one pass, the output array is reused for every frame.
+ */
+public class LumaFrameConverter {
+	private final int maxDetectionSize;
+
+	private int previewWidth;
+	private int previewHeight;
+	private int scale;
+	private int scaledWidth;
+	private int scaledHeight;
+	private int rotation;
+	private boolean mirror;
+	private int width;
+	private int height;
+	private short[] pixels;
+
+	/**
+	 * @param maxDetectionSize
+	 *            the longer side of the output is scaled down to at most this size
+	 */
+	public LumaFrameConverter(int maxDetectionSize) {
+		this.maxDetectionSize = maxDetectionSize;
+	}
+
+	/**
+	 * @param rotation
+	 *            clockwise rotation of the frame in degrees, a multiple of 90
+	 * @param mirror
+	 *            whether the rotated frame is mirrored horizontally
+	 */
+	public void configure(int previewWidth, int previewHeight, int rotation, boolean mirror) {
+		if (rotation % 90 != 0) {
+			throw new IllegalArgumentException("Rotation must be a multiple of 90 degrees, was " + rotation);
+		}
+		this.previewWidth = previewWidth;
+		this.previewHeight = previewHeight;
+		this.rotation = (rotation % 360 + 360) % 360;
+		this.mirror = mirror;
+
+		scale = getScaleFactor(previewWidth, previewHeight, maxDetectionSize);
+		// the detector needs an even width, which is the scaled height after a rotation by 90 degrees
+		scaledWidth = (previewWidth / scale) & ~1;
+		scaledHeight = (previewHeight / scale) & ~1;
+		boolean swapSides = this.rotation == 90 || this.rotation == 270;
+		width = swapSides ? scaledHeight : scaledWidth;
+		height = swapSides ? scaledWidth : scaledHeight;
+
+		if (pixels == null || pixels.length != width * height) {
+			pixels = new short[width * height];
+		}
+	}
+
+	public boolean isConfiguredFor(int previewWidth, int previewHeight, int rotation, boolean mirror) {
+		return pixels != null && this.previewWidth == previewWidth && this.previewHeight == previewHeight
+				&& this.rotation == (rotation % 360 + 360) % 360 && this.mirror == mirror;
+	}
+
+	public int getWidth() {
+		return width;
+	}
+
+	public int getHeight() {
+		return height;
+	}
+
+	public int getScale() {
+		return scale;
+	}
+
+	/**
+	 * Converts the frame into the reused pixel array, which is returned. Each output pixel is the average luma of
+	 * the scale x scale block it covers.
+	 */
+	public short[] convert(byte[] nv21Data) {
+		if (nv21Data.length < previewWidth * previewHeight) {
+			throw new IllegalArgumentException("Frame has " + nv21Data.length + " bytes, expected at least "
+					+ previewWidth * previewHeight);
+		}
+
+		int blockSize = scale * scale;
+		int index = 0;
+		for (int y = 0; y < height; y++) {
+			for (int x = 0; x < width; x++) {
+				int targetX = mirror ? width - 1 - x : x;
+				int sourceX;
+				int sourceY;
+				switch (rotation) {
+					case 90:
+						sourceX = y;
+						sourceY = scaledHeight - 1 - targetX;
+						break;
+					case 180:
+						sourceX = scaledWidth - 1 - targetX;
+						sourceY = scaledHeight - 1 - y;
+						break;
+					case 270:
+						sourceX = scaledWidth - 1 - y;
+						sourceY = targetX;
+						break;
+					default:
+						sourceX = targetX;
+						sourceY = y;
+						break;
+				}
+
+				int lumaSum = 0;
+				int rowStart = sourceY * scale * previewWidth + sourceX * scale;
+				for (int blockY = 0; blockY < scale; blockY++) {
+					int offset = rowStart + blockY * previewWidth;
+					for (int blockX = 0; blockX < scale; blockX++) {
+						lumaSum += nv21Data[offset + blockX] & 0xFF;
+					}
+				}
+				pixels[index++] = toRgb565(lumaSum / blockSize);
+			}
+		}
+		return pixels;
+	}
+
+	public static int getScaleFactor(int previewWidth, int previewHeight, int maxDetectionSize) {
+		int longerSide = Math.max(previewWidth, previewHeight);
+		int scale = 1;
+		while (longerSide / scale > maxDetectionSize) {
+			scale++;
+		}
+		return scale;
+	}
+
+	public static short toRgb565(int luma) {
+		return (short) (((luma >> 3) << 11) | ((luma >> 2) << 5) | (luma >> 3));
+	}
+}
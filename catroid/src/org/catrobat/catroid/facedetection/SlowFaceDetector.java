@@ -24,66 +24,158 @@ package org.catrobat.catroid.facedetection;
 
 import android.graphics.Bitmap;
 import android.graphics.Bitmap.Config;
-import android.graphics.BitmapFactory;
-import android.graphics.Canvas;
-import android.graphics.Matrix;
-import android.graphics.Paint;
 import android.graphics.Point;
 import android.graphics.PointF;
 import android.media.FaceDetector;
 import android.media.FaceDetector.Face;
+import android.util.Log;
 
 import org.catrobat.catroid.camera.CameraManager;
-import org.catrobat.catroid.camera.JpgPreviewCallback;
+import org.catrobat.catroid.camera.PreviewFrameCallback;
 
-public class SlowFaceDetector extends org.catrobat.catroid.facedetection.FaceDetector implements JpgPreviewCallback {
+import java.nio.ShortBuffer;
 
+public class SlowFaceDetector extends org.catrobat.catroid.facedetection.FaceDetector implements
+		PreviewFrameCallback {
+
+	private static final String TAG = SlowFaceDetector.class.getSimpleName();
 	private static final int NUMBER_OF_FACES = 1;
+	private static final int MAX_DETECTION_SIZE = 320;
+
+	private final LumaFrameConverter frameConverter = new LumaFrameConverter(MAX_DETECTION_SIZE);
+	private final FrameStatistics frameStatistics = new FrameStatistics();
+	private final Object frameLock = new Object();
+
+	// guarded by frameLock, the converted pixels are only touched by the camera thread while no detection runs
+	private Thread detectionThread;
+	private boolean detectionRunning = false;
+	private short[] framePixels;
+	private long frameArrivalTime;
+
+	// only used by the detection thread
+	private Bitmap detectionBitmap;
+	private FaceDetector detector;
+	private final Face[] faces = new Face[NUMBER_OF_FACES];
 
 	@Override
 	public boolean startFaceDetection() {
-		CameraManager.getInstance().addOnJpgPreviewFrameCallback(this);
-		return CameraManager.getInstance().startCamera();
+		synchronized (frameLock) {
+			if (detectionThread != null) {
+				return true;
+			}
+			frameStatistics.reset();
+			detectionThread = new Thread(new Runnable() {
+				@Override
+				public void run() {
+					detectFacesUntilStopped();
+				}
+			}, TAG);
+			detectionThread.start();
+		}
+		CameraManager.getInstance().addOnPreviewFrameCallback(this);
+		boolean started = CameraManager.getInstance().startCamera();
+		if (!started) {
+			stopFaceDetection();
+		}
+		return started;
 	}
 
 	@Override
 	public void stopFaceDetection() {
-		CameraManager.getInstance().removeOnJpgPreviewFrameCallback(this);
+		CameraManager.getInstance().removeOnPreviewFrameCallback(this);
 		CameraManager.getInstance().releaseCamera();
+
+		Thread thread;
+		synchronized (frameLock) {
+			thread = detectionThread;
+			detectionThread = null;
+			detectionRunning = false;
+		}
+		if (thread == null) {
+			return;
+		}
+		thread.interrupt();
+		try {
+			thread.join();
+		} catch (InterruptedException interruptedException) {
+			Thread.currentThread().interrupt();
+		}
+		Log.d(TAG, frameStatistics.toString());
+	}
+
+	public FrameStatistics getFrameStatistics() {
+		return frameStatistics;
 	}
 
 	@Override
-	public void onFrame(byte[] data) {
-		Bitmap preview = BitmapFactory.decodeByteArray(data, 0, data.length);
-		detectFaces(preview);
-		preview.recycle();
+	public void onPreviewFrame(byte[] nv21Data, int width, int height) {
+		long arrivalTime = System.nanoTime();
+		synchronized (frameLock) {
+			if (detectionThread == null) {
+				return;
+			}
+			if (detectionRunning) {
+				frameStatistics.onFrameSkipped();
+				return;
+			}
+		}
+
+		int rotation = CameraManager.getInstance().getOrientation();
+		boolean mirror = CameraManager.getInstance().isFacingBack();
+		if (!frameConverter.isConfiguredFor(width, height, rotation, mirror)) {
+			frameConverter.configure(width, height, rotation, mirror);
+		}
+		short[] pixels = frameConverter.convert(nv21Data);
+
+		synchronized (frameLock) {
+			framePixels = pixels;
+			frameArrivalTime = arrivalTime;
+			detectionRunning = true;
+			frameLock.notifyAll();
+		}
 	}
 
-	private void detectFaces(Bitmap bitmap) {
-		if (bitmap == null) {
-			return;
+	private void detectFacesUntilStopped() {
+		try {
+			while (true) {
+				short[] pixels;
+				long arrivalTime;
+				synchronized (frameLock) {
+					while (!detectionRunning) {
+						frameLock.wait();
+					}
+					pixels = framePixels;
+					arrivalTime = frameArrivalTime;
+				}
+
+				detectFaces(pixels, frameConverter.getWidth(), frameConverter.getHeight());
+				frameStatistics.onFrameProcessed((System.nanoTime() - arrivalTime) / 1000000);
+
+				synchronized (frameLock) {
+					detectionRunning = false;
+				}
+			}
+		} catch (InterruptedException interruptedException) {
+			Log.d(TAG, "Face detection stopped");
+		} finally {
+			if (detectionBitmap != null) {
+				detectionBitmap.recycle();
+				detectionBitmap = null;
+			}
+			detector = null;
+		}
+	}
+
+	private void detectFaces(short[] pixels, int width, int height) {
+		if (detectionBitmap == null || detectionBitmap.getWidth() != width || detectionBitmap.getHeight() != height) {
+			if (detectionBitmap != null) {
+				detectionBitmap.recycle();
+			}
+			detectionBitmap = Bitmap.createBitmap(width, height, Config.RGB_565);
+			detector = new FaceDetector(width, height, NUMBER_OF_FACES);
 		}
-		int height = bitmap.getWidth();
-		int width = bitmap.getHeight();
-
-		Matrix rotateAndInvertX = new Matrix();
-		int rotationAngle = CameraManager.getInstance().getOrientation();
-		boolean invertX = CameraManager.getInstance().isFacingBack();
-		rotateAndInvertX.postRotate(rotationAngle);
-		rotateAndInvertX.postScale(invertX ? -1 : 1, 1);
-		Bitmap portraitBitmap = Bitmap.createBitmap(bitmap, 0, 0, bitmap.getWidth(), bitmap.getHeight(),
-				rotateAndInvertX, true);
-		Bitmap rgb565Bitmap = Bitmap.createBitmap(width, height, Config.RGB_565);
-		Paint paint = new Paint();
-		paint.setDither(true);
-
-		Canvas canvas = new Canvas();
-		canvas.setBitmap(rgb565Bitmap);
-		canvas.drawBitmap(portraitBitmap, 0, 0, paint);
-
-		FaceDetector detector = new FaceDetector(width, height, NUMBER_OF_FACES);
-		Face[] faces = new Face[NUMBER_OF_FACES];
-		int numberOfFaces = detector.findFaces(rgb565Bitmap, faces);
+		detectionBitmap.copyPixelsFromBuffer(ShortBuffer.wrap(pixels, 0, width * height));
+		int numberOfFaces = detector.findFaces(detectionBitmap, faces);
 
 		boolean detected = numberOfFaces > 0;
 		onFaceDetected(detected);
@@ -93,7 +185,6 @@ public class SlowFaceDetector extends org.catrobat.catroid.facedetection.FaceDet
 			float eyeDistance = faces[0].eyesDistance();
 			onFaceFound(centerPoint, eyeDistance, width, height);
 		}
-
 	}
 
 	private void onFaceFound(PointF centerPoint, float eyeDistance, int detectionWidth, int detectionHeight) {
@@ -0,0 +1,566 @@
+/*
+ * Catroid: An on-device visual programming system for Android devices
+ * Copyright (C) 2010-2014 The Catrobat Team
+ * (<http://developer.catrobat.org/credits>)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * An additional term exception under section 7 of the GNU Affero
+ * General Public License, version 3, is available at
+ * http://developer.catrobat.org/license_additional_term
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.catrobat.catroid.formulaeditor;
+
+import org.catrobat.catroid.ProjectManager;
+import org.catrobat.catroid.content.Sprite;
+import org.catrobat.catroid.content.bricks.UserBrick;
+import org.catrobat.catroid.formulaeditor.FormulaElement.ElementType;
+
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Numeric evaluation tree compiled from a {@link FormulaElement} tree. Operators, functions and sensors are resolved
+ * and number literals are parsed once at compile time, intermediate results are primitive doubles.
+ * <p/>
+ * Subtrees without sensors, user variables and random numbers are folded into constants. Subtrees occurring more
+ * than once in a formula share one node which is evaluated only once per interpretation.
+ * <p/>
+ * Only formulas whose result is always a number are compiled. Everything that may produce a string (string literals,
+ * string functions, LENGTH) is left to {@link FormulaElement#interpretRecursive(Sprite)}. User variables holding a
+ * string at runtime raise {@link #NON_NUMERIC_VALUE}, the caller then falls back to the interpreter.
+ */
+final class CompiledFormula {
+
+	static final NonNumericValueException NON_NUMERIC_VALUE = new NonNumericValueException();
+
+	private Node root;
+	private int interpretationCount = 0;
+
+	private Map<FormulaElement, String> subexpressionKeys;
+	private Map<String, Integer> subexpressionCounts;
+	private Map<String, Node> sharedSubexpressions;
+
+	private CompiledFormula() {
+	}
+
+	/**
+	 * @return the compiled formula or null if the tree contains elements which are not purely numeric
+	 */
+	static CompiledFormula compile(FormulaElement formulaTree) {
+		CompiledFormula compiledFormula = new CompiledFormula();
+		compiledFormula.subexpressionKeys = new IdentityHashMap<FormulaElement, String>();
+		compiledFormula.subexpressionCounts = new HashMap<String, Integer>();
+		compiledFormula.sharedSubexpressions = new HashMap<String, Node>();
+
+		compiledFormula.countSubexpressions(formulaTree);
+		compiledFormula.root = compiledFormula.compileElement(formulaTree);
+
+		compiledFormula.subexpressionKeys = null;
+		compiledFormula.subexpressionCounts = null;
+		compiledFormula.sharedSubexpressions = null;
+
+		if (compiledFormula.root == null) {
+			return null;
+		}
+		return compiledFormula;
+	}
+
+	double interpret(Sprite sprite) {
+		interpretationCount++;
+		return root.evaluate(sprite);
+	}
+
+	boolean isConstant() {
+		return root instanceof ConstantNode;
+	}
+
+	private String countSubexpressions(FormulaElement element) {
+		if (element == null) {
+			return "";
+		}
+
+		String key = element.getElementType() + ":" + element.getValue() + "("
+				+ countSubexpressions(element.getLeftChild()) + "," + countSubexpressions(element.getRightChild())
+				+ ")";
+		subexpressionKeys.put(element, key);
+		Integer count = subexpressionCounts.get(key);
+		subexpressionCounts.put(key, count == null ? 1 : count + 1);
+		return key;
+	}
+
+	private Node compileElement(FormulaElement element) {
+		if (element == null) {
+			return null;
+		}
+
+		String key = subexpressionKeys.get(element);
+		Node sharedNode = sharedSubexpressions.get(key);
+		if (sharedNode != null) {
+			return sharedNode;
+		}
+
+		Node node = createNode(element);
+		if (node != null && !(node instanceof ConstantNode) && !(node instanceof SharedNode)
+				&& node.isDeterministic() && subexpressionCounts.get(key) > 1) {
+			node = new SharedNode(node);
+			sharedSubexpressions.put(key, node);
+		}
+		return node;
+	}
+
+	private Node createNode(FormulaElement element) {
+		switch (element.getElementType()) {
+			case NUMBER:
+				return compileNumber(element.getValue());
+			case BRACKET:
+				return compileElement(element.getRightChild());
+			case OPERATOR:
+				return compileOperator(element);
+			case FUNCTION:
+				return compileFunction(element);
+			case SENSOR:
+				Sensors sensor = Sensors.getSensorByValue(element.getValue());
+				return sensor == null ? null : new SensorNode(sensor);
+			case USER_VARIABLE:
+				return new UserVariableNode(element.getValue());
+			default:
+				return null;
+		}
+	}
+
+	private static Node compileNumber(String value) {
+		if (value == null) {
+			return null;
+		}
+		try {
+			return new ConstantNode(normalize(Double.parseDouble(value)));
+		} catch (NumberFormatException numberFormatException) {
+			return null;
+		}
+	}
+
+	private Node compileOperator(FormulaElement element) {
+		Operators operator = Operators.getOperatorByValue(element.getValue());
+		if (operator == null) {
+			return null;
+		}
+
+		Node right = compileElement(element.getRightChild());
+		if (right == null) {
+			return null;
+		}
+
+		if (element.getLeftChild() == null) {
+			if (operator == Operators.MINUS || operator == Operators.LOGICAL_NOT) {
+				return fold(new UnaryOperatorNode(operator, right), right, null);
+			}
+			return null;
+		}
+
+		Node left = compileElement(element.getLeftChild());
+		if (left == null || operator == Operators.MOD || operator == Operators.LOGICAL_NOT) {
+			return null;
+		}
+		return fold(new BinaryOperatorNode(operator, left, right), left, right);
+	}
+
+	private Node compileFunction(FormulaElement element) {
+		Functions function = Functions.getFunctionByValue(element.getValue());
+		if (function == null || function.returnType != ElementType.NUMBER || function == Functions.LENGTH) {
+			return null;
+		}
+
+		switch (function) {
+			case PI:
+			case TRUE:
+			case FALSE:
+				return fold(new FunctionNode(function, null, null, false), null, null);
+			default:
+				break;
+		}
+
+		Node left = compileElement(element.getLeftChild());
+		if (left == null) {
+			return null;
+		}
+
+		switch (function) {
+			case RAND:
+			case MOD:
+			case MAX:
+			case MIN:
+				Node right = compileElement(element.getRightChild());
+				if (right == null) {
+					return null;
+				}
+				boolean hasDecimalBound = function == Functions.RAND
+						&& (isDecimalNumberLiteral(element.getLeftChild()) || isDecimalNumberLiteral(element
+								.getRightChild()));
+				return fold(new FunctionNode(function, left, right, hasDecimalBound), left, right);
+			default:
+				return fold(new FunctionNode(function, left, null, false), left, null);
+		}
+	}
+
+	private static Node fold(Node node, Node left, Node right) {
+		boolean isLeftConstant = left == null || left instanceof ConstantNode;
+		boolean isRightConstant = right == null || right instanceof ConstantNode;
+		if (isLeftConstant && isRightConstant && node.isDeterministic()) {
+			return new ConstantNode(node.evaluate(null));
+		}
+		return node;
+	}
+
+	private static boolean isDecimalNumberLiteral(FormulaElement element) {
+		return element.getElementType() == ElementType.NUMBER && element.getValue().contains(".");
+	}
+
+	private static double normalize(double value) {
+		if (value == Double.NEGATIVE_INFINITY) {
+			return -Double.MAX_VALUE;
+		}
+		if (value == Double.POSITIVE_INFINITY) {
+			return Double.MAX_VALUE;
+		}
+		return value;
+	}
+
+	private static boolean isInteger(double value) {
+		return Math.abs(value) - (int) Math.abs(value) < Double.MIN_VALUE;
+	}
+
+	static final class NonNumericValueException extends RuntimeException {
+		private static final long serialVersionUID = 1L;
+
+		private NonNumericValueException() {
+			super("User variable holds a non numeric value");
+		}
+
+		@Override
+		public synchronized Throwable fillInStackTrace() {
+			return this;
+		}
+	}
+
+	private abstract static class Node {
+		abstract double evaluate(Sprite sprite);
+
+		boolean isDeterministic() {
+			return true;
+		}
+	}
+
+	private final class SharedNode extends Node {
+		private final Node node;
+		private int evaluatedInInterpretation = -1;
+		private double value;
+
+		SharedNode(Node node) {
+			this.node = node;
+		}
+
+		@Override
+		double evaluate(Sprite sprite) {
+			if (evaluatedInInterpretation != interpretationCount) {
+				value = node.evaluate(sprite);
+				evaluatedInInterpretation = interpretationCount;
+			}
+			return value;
+		}
+	}
+
+	private static final class ConstantNode extends Node {
+		private final double value;
+
+		ConstantNode(double value) {
+			this.value = value;
+		}
+
+		@Override
+		double evaluate(Sprite sprite) {
+			return value;
+		}
+	}
+
+	private static final class UserVariableNode extends Node {
+		private final String name;
+
+		private UserVariablesContainer resolvedContainer = null;
+		private int resolvedStructureVersion;
+		private Sprite resolvedSprite;
+		private UserBrick resolvedUserBrick;
+		private UserVariable resolvedVariable;
+
+		UserVariableNode(String name) {
+			this.name = name;
+		}
+
+		@Override
+		double evaluate(Sprite sprite) {
+			UserVariable userVariable = resolve(sprite);
+			if (userVariable == null) {
+				return FormulaElement.NOT_EXISTING_USER_VARIABLE_INTERPRETATION_VALUE;
+			}
+
+			Object value = userVariable.getValue();
+			if (value instanceof Double) {
+				return normalize((Double) value);
+			}
+			throw NON_NUMERIC_VALUE;
+		}
+
+		private UserVariable resolve(Sprite sprite) {
+			ProjectManager projectManager = ProjectManager.getInstance();
+			UserVariablesContainer userVariables = projectManager.getCurrentProject().getUserVariables();
+			UserBrick currentUserBrick = projectManager.getCurrentUserBrick();
+
+			if (userVariables != resolvedContainer || userVariables.getStructureVersion() != resolvedStructureVersion
+					|| sprite != resolvedSprite || currentUserBrick != resolvedUserBrick
+					|| (resolvedVariable != null && !name.equals(resolvedVariable.getName()))) {
+				resolvedVariable = userVariables.getUserVariable(name, sprite);
+				resolvedContainer = userVariables;
+				resolvedStructureVersion = userVariables.getStructureVersion();
+				resolvedSprite = sprite;
+				resolvedUserBrick = currentUserBrick;
+			}
+			return resolvedVariable;
+		}
+	}
+
+	private static final class SensorNode extends Node {
+		private final Sensors sensor;
+
+		SensorNode(Sensors sensor) {
+			this.sensor = sensor;
+		}
+
+		@Override
+		double evaluate(Sprite sprite) {
+			if (!sensor.isObjectSensor) {
+				return normalize(SensorHandler.getSensorValue(sensor));
+			}
+
+			switch (sensor) {
+				case OBJECT_BRIGHTNESS:
+					return sprite.look.getBrightnessInUserInterfaceDimensionUnit();
+				case OBJECT_GHOSTEFFECT:
+					return sprite.look.getTransparencyInUserInterfaceDimensionUnit();
+				case OBJECT_LAYER:
+					return sprite.look.getZIndex();
+				case OBJECT_ROTATION:
+					return sprite.look.getDirectionInUserInterfaceDimensionUnit();
+				case OBJECT_SIZE:
+					return sprite.look.getSizeInUserInterfaceDimensionUnit();
+				case OBJECT_X:
+					return sprite.look.getXInUserInterfaceDimensionUnit();
+				case OBJECT_Y:
+					return sprite.look.getYInUserInterfaceDimensionUnit();
+				default:
+					return 0d;
+			}
+		}
+	}
+
+	private static final class UnaryOperatorNode extends Node {
+		private final Operators operator;
+		private final Node child;
+
+		UnaryOperatorNode(Operators operator, Node child) {
+			this.operator = operator;
+			this.child = child;
+		}
+
+		@Override
+		double evaluate(Sprite sprite) {
+			double value = child.evaluate(sprite);
+			if (operator == Operators.MINUS) {
+				return -value;
+			}
+			return value == 0d ? 1d : 0d;
+		}
+
+		@Override
+		boolean isDeterministic() {
+			return child.isDeterministic();
+		}
+	}
+
+	private static final class BinaryOperatorNode extends Node {
+		private final Operators operator;
+		private final Node left;
+		private final Node right;
+
+		BinaryOperatorNode(Operators operator, Node left, Node right) {
+			this.operator = operator;
+			this.left = left;
+			this.right = right;
+		}
+
+		@Override
+		double evaluate(Sprite sprite) {
+			return normalize(calculate(left.evaluate(sprite), right.evaluate(sprite)));
+		}
+
+		@Override
+		boolean isDeterministic() {
+			return left.isDeterministic() && right.isDeterministic();
+		}
+
+		private double calculate(double leftValue, double rightValue) {
+			switch (operator) {
+				case PLUS:
+					return leftValue + rightValue;
+				case MINUS:
+					return leftValue - rightValue;
+				case MULT:
+					return leftValue * rightValue;
+				case DIVIDE:
+					return leftValue / rightValue;
+				case POW:
+					return Math.pow(leftValue, rightValue);
+				case EQUAL:
+					return Double.compare(leftValue, rightValue) == 0 ? 1d : 0d;
+				case NOT_EQUAL:
+					return Double.compare(leftValue, rightValue) == 0 ? 0d : 1d;
+				case GREATER_THAN:
+					return Double.compare(leftValue, rightValue) > 0 ? 1d : 0d;
+				case GREATER_OR_EQUAL:
+					return Double.compare(leftValue, rightValue) >= 0 ? 1d : 0d;
+				case SMALLER_THAN:
+					return Double.compare(leftValue, rightValue) < 0 ? 1d : 0d;
+				case SMALLER_OR_EQUAL:
+					return Double.compare(leftValue, rightValue) <= 0 ? 1d : 0d;
+				case LOGICAL_AND:
+					return (leftValue * rightValue) != 0d ? 1d : 0d;
+				case LOGICAL_OR:
+					return leftValue != 0d || rightValue != 0d ? 1d : 0d;
+				default:
+					return 0d;
+			}
+		}
+	}
+
+	private static final class FunctionNode extends Node {
+		private final Functions function;
+		private final Node left;
+		private final Node right;
+		private final boolean hasDecimalBound;
+
+		FunctionNode(Functions function, Node left, Node right, boolean hasDecimalBound) {
+			this.function = function;
+			this.left = left;
+			this.right = right;
+			this.hasDecimalBound = hasDecimalBound;
+		}
+
+		@Override
+		double evaluate(Sprite sprite) {
+			return normalize(calculate(sprite));
+		}
+
+		@Override
+		boolean isDeterministic() {
+			return function != Functions.RAND && (left == null || left.isDeterministic())
+					&& (right == null || right.isDeterministic());
+		}
+
+		private double calculate(Sprite sprite) {
+			switch (function) {
+				case PI:
+					return Math.PI;
+				case TRUE:
+					return 1d;
+				case FALSE:
+					return 0d;
+				default:
+					break;
+			}
+
+			double leftValue = left.evaluate(sprite);
+			switch (function) {
+				case SIN:
+					return Math.sin(Math.toRadians(leftValue));
+				case COS:
+					return Math.cos(Math.toRadians(leftValue));
+				case TAN:
+					return Math.tan(Math.toRadians(leftValue));
+				case LN:
+					return Math.log(leftValue);
+				case LOG:
+					return Math.log10(leftValue);
+				case SQRT:
+					return Math.sqrt(leftValue);
+				case ABS:
+					return Math.abs(leftValue);
+				case ROUND:
+					return Math.round(leftValue);
+				case ARCSIN:
+					return Math.toDegrees(Math.asin(leftValue));
+				case ARCCOS:
+					return Math.toDegrees(Math.acos(leftValue));
+				case ARCTAN:
+					return Math.toDegrees(Math.atan(leftValue));
+				case EXP:
+					return Math.exp(leftValue);
+				default:
+					break;
+			}
+
+			double rightValue = right.evaluate(sprite);
+			switch (function) {
+				case RAND:
+					return random(leftValue, rightValue);
+				case MOD:
+					return modulo(leftValue, rightValue);
+				case MAX:
+					return Math.max(leftValue, rightValue);
+				case MIN:
+					return Math.min(leftValue, rightValue);
+				default:
+					return 0d;
+			}
+		}
+
+		private double random(double leftValue, double rightValue) {
+			double minimum = Math.min(leftValue, rightValue);
+			double maximum = Math.max(leftValue, rightValue);
+			double randomDouble = minimum + (Math.random() * (maximum - minimum));
+
+			if (isInteger(minimum) && isInteger(maximum) && !hasDecimalBound) {
+				if ((Math.abs(randomDouble) - (int) Math.abs(randomDouble)) >= 0.5) {
+					return (double) (int) randomDouble + 1;
+				}
+				return (int) randomDouble;
+			}
+			return randomDouble;
+		}
+
+		private double modulo(double dividend, double divisor) {
+			if (dividend == 0 || divisor == 0) {
+				return dividend;
+			}
+
+			if (divisor > 0) {
+				while (dividend < 0) {
+					dividend += Math.abs(divisor);
+				}
+			} else if (dividend > 0) {
+				return (dividend % divisor) + divisor;
+			}
+			return dividend % divisor;
+		}
+	}
+}
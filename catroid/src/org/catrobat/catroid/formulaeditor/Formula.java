@@ -34,6 +34,7 @@ import org.catrobat.catroid.content.Sprite;
 import org.catrobat.catroid.formulaeditor.FormulaElement.ElementType;
 
 import java.io.Serializable;
+import java.util.Locale;
 
 public class Formula implements Serializable {
 
@@ -42,6 +43,12 @@ public class Formula implements Serializable {
 	private transient Integer formulaTextFieldId = null;
 	private transient InternFormula internFormula = null;
 	private transient String displayText = null;
+	// extern string generated for externDisplayLocale, guarded by this and dropped whenever the formula changes
+	private transient String externDisplayString = null;
+	private transient Locale externDisplayLocale = null;
+	private transient CompiledFormula compiledFormula = null;
+	private transient boolean isCompiled = false;
+	private transient boolean dirty = false;
 
 	public Object readResolve() {
 
@@ -50,6 +57,8 @@ public class Formula implements Serializable {
 		}
 
 		internFormula = new InternFormula(formulaTree.getInternTokenList());
+		invalidateCompiledFormula();
+		getCompiledFormula();
 
 		return this;
 	}
@@ -87,10 +96,12 @@ public class Formula implements Serializable {
 		}
 	}
 
-	public void updateVariableReferences(String oldName, String newName, Context context) {
+	public synchronized void updateVariableReferences(String oldName, String newName, Context context) {
 		internFormula.updateVariableReferences(oldName, newName, context);
 		formulaTree.updateVariableReferences(oldName, newName, context);
 		displayText = null;
+		externDisplayString = null;
+		invalidateCompiledFormula();
 	}
 
 	public Formula(String value) {
@@ -103,30 +114,58 @@ public class Formula implements Serializable {
 	}
 
 	public Boolean interpretBoolean(Sprite sprite) throws InterpretationException{
-		int result = interpretDouble(sprite).intValue();
+		int result = (int) interpretDoubleValue(sprite);
 		return result != 0 ? true : false;
 	}
 
 	public Integer interpretInteger(Sprite sprite) throws InterpretationException {
-		Double returnValue = interpretDouble(sprite);
-		return returnValue.intValue();
+		return (int) interpretDoubleValue(sprite);
 	}
 
 	public Double interpretDouble(Sprite sprite) throws InterpretationException {
-        try{
-            Double returnValue = (Double) formulaTree.interpretRecursive(sprite);
-            if (returnValue.isNaN()) {
-                throw new InterpretationException("NaN in interpretDouble()");
-            }
-            return returnValue;
-        }catch(ClassCastException classCastException){
-            throw new InterpretationException("Couldn't interpret Formula.", classCastException);
-        }
+		return interpretDoubleValue(sprite);
 	}
 
 	public Float interpretFloat(Sprite sprite) throws InterpretationException{
-		Double returnValue = interpretDouble(sprite);
-		return returnValue.floatValue();
+		return (float) interpretDoubleValue(sprite);
+	}
+
+	private double interpretDoubleValue(Sprite sprite) throws InterpretationException {
+		CompiledFormula compiled = getCompiledFormula();
+		if (compiled != null) {
+			try {
+				double returnValue = compiled.interpret(sprite);
+				if (Double.isNaN(returnValue)) {
+					throw new InterpretationException("NaN in interpretDouble()");
+				}
+				return returnValue;
+			} catch (CompiledFormula.NonNumericValueException nonNumericValueException) {
+				// a user variable holds a string, only the interpreter knows how to treat it here
+			}
+		}
+
+		try {
+			Double returnValue = (Double) formulaTree.interpretRecursive(sprite);
+			if (returnValue.isNaN()) {
+				throw new InterpretationException("NaN in interpretDouble()");
+			}
+			return returnValue;
+		} catch (ClassCastException classCastException) {
+			throw new InterpretationException("Couldn't interpret Formula.", classCastException);
+		}
+	}
+
+	private CompiledFormula getCompiledFormula() {
+		if (!isCompiled) {
+			compiledFormula = CompiledFormula.compile(formulaTree);
+			isCompiled = true;
+		}
+		return compiledFormula;
+	}
+
+	private void invalidateCompiledFormula() {
+		compiledFormula = null;
+		isCompiled = false;
 	}
 
 	public String interpretString(Sprite sprite) throws InterpretationException{
@@ -143,10 +182,22 @@ public class Formula implements Serializable {
 		return formulaTree.interpretRecursive(sprite);
 	}
 
-	public void setRoot(FormulaElement formula) {
+	public synchronized void setRoot(FormulaElement formula) {
 		displayText = null;
+		externDisplayString = null;
 		formulaTree = formula;
 		internFormula = new InternFormula(formula.getInternTokenList());
+		invalidateCompiledFormula();
+		getCompiledFormula();
+		dirty = true;
+	}
+
+	public boolean isDirty() {
+		return dirty;
+	}
+
+	public void setClean() {
+		dirty = false;
 	}
 
 	public FormulaElement getRoot() {
@@ -157,16 +208,25 @@ public class Formula implements Serializable {
 		formulaTextFieldId = id;
 	}
 
-	public String getDisplayString(Context context) {
+	/**
+	 * Returns the formula as shown in brick views. The extern string is generated once per locale and reused until
+	 * the formula changes, so it can be prepared in the background before the bricks are bound.
+	 */
+	public synchronized String getDisplayString(Context context) {
 		if (displayText != null) {
 			return displayText;
 		}
+		if (context == null) {
+			return internFormula.getExternFormulaString();
+		}
 
-		if (context != null) {
+		Locale locale = context.getResources().getConfiguration().locale;
+		if (externDisplayString == null || !locale.equals(externDisplayLocale)) {
 			internFormula.generateExternFormulaStringAndInternExternMapping(context);
+			externDisplayString = internFormula.getExternFormulaString();
+			externDisplayLocale = locale;
 		}
-		return internFormula.getExternFormulaString();
-
+		return externDisplayString;
 	}
 
 	public void refreshTextField(View view) {
@@ -216,6 +276,15 @@ public class Formula implements Serializable {
 		return formulaTree.isSingleNumberFormula();
 	}
 
+	/**
+	 * @return true if the formula contains no sensors, user variables or random numbers, so every interpretation
+	 *         yields the same number
+	 */
+	public boolean isConstant() {
+		CompiledFormula compiled = getCompiledFormula();
+		return compiled != null && compiled.isConstant();
+	}
+
 	@Override
 	public Formula clone() {
 		if (formulaTree != null) {
@@ -225,8 +294,9 @@ public class Formula implements Serializable {
 		return new Formula(0);
 	}
 
-	public void removeVariableReferences(String name, Context context) {
+	public synchronized void removeVariableReferences(String name, Context context) {
 		internFormula.removeVariableReferences(name, context);
+		externDisplayString = null;
 
 	}
 
@@ -621,6 +621,14 @@ public class FormulaElement implements Serializable {
 		return parent;
 	}
 
+	FormulaElement getLeftChild() {
+		return leftChild;
+	}
+
+	FormulaElement getRightChild() {
+		return rightChild;
+	}
+
 	public void setRightChild(FormulaElement rightChild) {
 		this.rightChild = rightChild;
 		this.rightChild.parent = this;
@@ -23,7 +23,6 @@
 package org.catrobat.catroid.formulaeditor;
 
 import android.content.Context;
-import android.util.Log;
 
 import org.catrobat.catroid.R;
 
@@ -121,8 +120,6 @@ public class InternToExternGenerator {
 	}
 
 	public void generateExternStringAndMapping(List<InternToken> internTokenFormula) {
-		Log.i("info", "generateExternStringAndMapping:enter");
-
 		List<InternToken> internTokenList = new LinkedList<InternToken>();
 
 		for (InternToken internToken : internTokenFormula) {
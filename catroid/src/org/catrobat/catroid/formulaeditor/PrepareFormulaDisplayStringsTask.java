@@ -0,0 +1,69 @@
+/*
+ * Catroid: An on-device visual programming system for Android devices
+ * Copyright (C) 2010-2014 The Catrobat Team
+ * (<http://developer.catrobat.org/credits>)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * An additional term exception under section 7 of the GNU Affero
+ * General Public License, version 3, is available at
+ * http://developer.catrobat.org/license_additional_term
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.catrobat.catroid.formulaeditor;
+
+import android.content.Context;
+import android.os.AsyncTask;
+
+import org.catrobat.catroid.content.Sprite;
+import org.catrobat.catroid.content.bricks.Brick;
+import org.catrobat.catroid.content.bricks.FormulaBrick;
+import org.catrobat.catroid.content.bricks.UserBrick;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Generates the display strings of all formulas of a sprite in the background, so that binding the brick views
+ * finds them cached.
+ */
+public class PrepareFormulaDisplayStringsTask extends AsyncTask<Void, Void, Void> {
+
+	private final Context context;
+	private final List<Formula> formulas = new ArrayList<Formula>();
+
+	public PrepareFormulaDisplayStringsTask(Context context, Sprite sprite) {
+		this.context = context.getApplicationContext();
+		// the bricks are collected here because they may be edited on the UI thread while the task runs
+		for (int scriptIndex = 0; scriptIndex < sprite.getNumberOfScripts(); scriptIndex++) {
+			for (Brick brick : sprite.getScript(scriptIndex).getBrickList()) {
+				if (brick instanceof FormulaBrick) {
+					formulas.addAll(((FormulaBrick) brick).getFormulas());
+				} else if (brick instanceof UserBrick) {
+					formulas.addAll(((UserBrick) brick).getFormulas());
+				}
+			}
+		}
+	}
+
+	@Override
+	protected Void doInBackground(Void... params) {
+		for (Formula formula : formulas) {
+			if (isCancelled()) {
+				break;
+			}
+			formula.getDisplayString(context);
+		}
+		return null;
+	}
+}
@@ -52,7 +52,11 @@ public class UserVariable implements Serializable {
 		return name;
 	}
 
-	public void setName(String name) {
+	/**
+	 * Use {@link UserVariablesContainer#renameUserVariable(UserVariable, String)}, the container has to rebuild its
+	 * name index.
+	 */
+	void setName(String name) {
 		this.name = name;
 	}
 
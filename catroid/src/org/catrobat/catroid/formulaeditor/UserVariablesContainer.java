@@ -54,6 +54,13 @@ public class UserVariablesContainer implements Serializable {
 	@SuppressLint("UseSparseArrays")
 	private Map<Integer, List<UserVariable>> userBrickVariables = new HashMap<Integer, List<UserVariable>>();
 
+	private transient int structureVersion = 0;
+	private transient int indexedStructureVersion = 0;
+	private transient int savedStructureVersion = 0;
+	private transient Map<String, UserVariable> projectVariableIndex;
+	private transient Map<Sprite, Map<String, UserVariable>> spriteVariableIndex;
+	private transient Map<Integer, Map<String, UserVariable>> userBrickVariableIndex;
+
 	public UserVariablesContainer() {
 		projectVariables = new ArrayList<UserVariable>();
 		spriteVariables = new HashMap<Sprite, List<UserVariable>>();
@@ -72,27 +79,96 @@ public class UserVariablesContainer implements Serializable {
 	}
 
 	public UserVariable getUserVariable(String userVariableName, Sprite sprite) {
-		UserVariable userVariable;
-		userVariable = findUserVariable(userVariableName, getOrCreateVariableListForSprite(sprite));
+		return findIndexedUserVariable(userVariableName, sprite);
+	}
+
+	/**
+	 * Changes whenever variables are added, deleted, renamed or moved between sprites and user bricks. Lookups
+	 * resolved against an older version have to be resolved again.
+	 */
+	int getStructureVersion() {
+		return structureVersion;
+	}
+
+	/**
+	 * @return true if variables were added, deleted or renamed since {@link #setClean()}
+	 */
+	public boolean isDirty() {
+		return getStructureVersion() != savedStructureVersion;
+	}
+
+	public void setClean() {
+		savedStructureVersion = getStructureVersion();
+	}
+
+	private UserVariable findIndexedUserVariable(String userVariableName, Sprite sprite) {
+		if (projectVariableIndex == null || indexedStructureVersion != structureVersion) {
+			rebuildVariableIndex();
+		}
+
+		UserVariable userVariable = getFromIndex(spriteVariableIndex.get(sprite), userVariableName);
 		if (userVariable == null) {
-			userVariable = findUserVariable(userVariableName, projectVariables);
+			userVariable = projectVariableIndex.get(userVariableName);
 		}
-		if (userVariable == null && ProjectManager.getInstance().getCurrentUserBrick() != null) {
-			int id = ProjectManager.getInstance().getCurrentUserBrick().getUserBrickId();
-			userVariable = findUserVariable(userVariableName, getOrCreateVariableListForUserBrick(id));
+		UserBrick currentUserBrick = ProjectManager.getInstance().getCurrentUserBrick();
+		if (userVariable == null && currentUserBrick != null) {
+			userVariable = getFromIndex(userBrickVariableIndex.get(currentUserBrick.getUserBrickId()),
+					userVariableName);
 		}
 		return userVariable;
 	}
 
+	private UserVariable getFromIndex(Map<String, UserVariable> index, String userVariableName) {
+		return index == null ? null : index.get(userVariableName);
+	}
+
+	private void rebuildVariableIndex() {
+		projectVariableIndex = createVariableIndex(projectVariables);
+
+		spriteVariableIndex = new HashMap<Sprite, Map<String, UserVariable>>();
+		for (Map.Entry<Sprite, List<UserVariable>> entry : spriteVariables.entrySet()) {
+			spriteVariableIndex.put(entry.getKey(), createVariableIndex(entry.getValue()));
+		}
+
+		userBrickVariableIndex = new HashMap<Integer, Map<String, UserVariable>>();
+		for (Map.Entry<Integer, List<UserVariable>> entry : userBrickVariables.entrySet()) {
+			userBrickVariableIndex.put(entry.getKey(), createVariableIndex(entry.getValue()));
+		}
+
+		indexedStructureVersion = structureVersion;
+	}
+
+	private Map<String, UserVariable> createVariableIndex(List<UserVariable> variables) {
+		Map<String, UserVariable> index = new HashMap<String, UserVariable>();
+		if (variables == null) {
+			return index;
+		}
+		for (UserVariable variable : variables) {
+			if (!index.containsKey(variable.getName())) {
+				index.put(variable.getName(), variable);
+			}
+		}
+		return index;
+	}
+
 	public List<UserVariable> getProjectVariables() {
 
 		return projectVariables;
 	}
 
+	public void renameUserVariable(UserVariable userVariable, String newName) {
+		if (userVariable.getName() == null ? newName == null : userVariable.getName().equals(newName)) {
+			return;
+		}
+		userVariable.setName(newName);
+		structureVersion++;
+	}
+
 	public UserVariable addUserBrickUserVariableToUserBrick(int userBrickId, String userVariableName, Object userVariableValue) {
 		List<UserVariable> varList = getOrCreateVariableListForUserBrick(userBrickId);
 		UserVariable userVariableToAdd = new UserVariable(userVariableName, userVariableValue);
 		varList.add(userVariableToAdd);
+		structureVersion++;
 		return userVariableToAdd;
 	}
 
@@ -105,12 +181,14 @@ public class UserVariablesContainer implements Serializable {
 		List<UserVariable> varList = getOrCreateVariableListForSprite(sprite);
 		UserVariable userVariableToAdd = new UserVariable(userVariableName);
 		varList.add(userVariableToAdd);
+		structureVersion++;
 		return userVariableToAdd;
 	}
 
 	public UserVariable addProjectUserVariable(String userVariableName) {
 		UserVariable userVariableToAdd = new UserVariable(userVariableName);
 		projectVariables.add(userVariableToAdd);
+		structureVersion++;
 		return userVariableToAdd;
 	}
 
@@ -132,6 +210,7 @@ public class UserVariablesContainer implements Serializable {
 			UserVariable variableToDelete = findUserVariable(userVariableName, context);
 			if (variableToDelete != null) {
 				context.remove(variableToDelete);
+				structureVersion++;
 				if (currentUserBrick != null) {
 					UserScriptDefinitionBrickElements currentElements = currentUserBrick.getUserScriptDefinitionBrickElements();
 					for (int id = 0; id < currentElements.getUserScriptDefinitionBrickElementList().size(); id++) {
@@ -153,6 +232,7 @@ public class UserVariablesContainer implements Serializable {
 		UserVariable variableToDelete = findUserVariable(userVariableName, context);
 		if (variableToDelete != null) {
 			context.remove(variableToDelete);
+			structureVersion++;
 		}
 	}
 
@@ -173,6 +253,7 @@ public class UserVariablesContainer implements Serializable {
 			variables.clear();
 		}
 		userBrickVariables.remove(userBrickId);
+		structureVersion++;
 	}
 
 	public List<UserVariable> getOrCreateVariableListForSprite(Sprite sprite) {
@@ -191,6 +272,7 @@ public class UserVariablesContainer implements Serializable {
 			variables.clear();
 		}
 		spriteVariables.remove(sprite);
+		structureVersion++;
 	}
 
 	public UserVariable getUserVariable(String name, int userBrickId, Sprite currentSprite) {
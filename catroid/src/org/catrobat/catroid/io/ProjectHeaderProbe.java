@@ -0,0 +1,161 @@
+/*
+ * Catroid: An on-device visual programming system for Android devices
+ * Copyright (C) 2010-2014 The Catrobat Team
+ * (<http://developer.catrobat.org/credits>)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * An additional term exception under section 7 of the GNU Affero
+ * General Public License, version 3, is available at
+ * http://developer.catrobat.org/license_additional_term
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.catrobat.catroid.io;
+
+import android.util.Log;
+import android.util.Xml;
+
+import com.google.common.base.Charsets;
+
+import org.xmlpull.v1.XmlPullParser;
+import org.xmlpull.v1.XmlPullParserException;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Reads the header of a code.xml without deserializing the project. The header is the first child of the program
+ * element, so parsing stops after the first few hundred bytes.
+ */
+public final class ProjectHeaderProbe {
+	private static final String TAG = ProjectHeaderProbe.class.getSimpleName();
+
+	private static final String PROGRAM_TAG = "program";
+	private static final String HEADER_TAG = "header";
+	private static final String LANGUAGE_VERSION_TAG = "catrobatLanguageVersion";
+	private static final String PROGRAM_NAME_TAG = "programName";
+	private static final String SCREEN_WIDTH_TAG = "screenWidth";
+	private static final String SCREEN_HEIGHT_TAG = "screenHeight";
+
+	private static final int BUFFER_SIZE = 1024;
+
+	private float catrobatLanguageVersion;
+	private String programName;
+	private int screenWidth;
+	private int screenHeight;
+
+	private ProjectHeaderProbe() {
+	}
+
+	/**
+	 * @return null if the file has no readable header
+	 */
+	public static ProjectHeaderProbe probe(File codeFile) {
+		if (!codeFile.isFile()) {
+			return null;
+		}
+
+		InputStream inputStream = null;
+		try {
+			inputStream = new BufferedInputStream(new FileInputStream(codeFile), BUFFER_SIZE);
+			XmlPullParser parser = Xml.newPullParser();
+			parser.setInput(inputStream, Charsets.UTF_8.name());
+			return readHeader(parser);
+		} catch (XmlPullParserException xmlPullParserException) {
+			Log.w(TAG, "Couldn't parse header of " + codeFile.getAbsolutePath(), xmlPullParserException);
+		} catch (IOException ioException) {
+			Log.w(TAG, "Couldn't read header of " + codeFile.getAbsolutePath(), ioException);
+		} catch (NumberFormatException numberFormatException) {
+			Log.w(TAG, "Invalid header in " + codeFile.getAbsolutePath(), numberFormatException);
+		} finally {
+			if (inputStream != null) {
+				try {
+					inputStream.close();
+				} catch (IOException ioException) {
+					Log.w(TAG, "Couldn't close " + codeFile.getName(), ioException);
+				}
+			}
+		}
+		return null;
+	}
+
+	private static ProjectHeaderProbe readHeader(XmlPullParser parser) throws XmlPullParserException, IOException {
+		if (parser.nextTag() != XmlPullParser.START_TAG || !PROGRAM_TAG.equals(parser.getName())) {
+			return null;
+		}
+
+		while (parser.nextTag() == XmlPullParser.START_TAG) {
+			if (!HEADER_TAG.equals(parser.getName())) {
+				skipElement(parser);
+				continue;
+			}
+
+			ProjectHeaderProbe header = new ProjectHeaderProbe();
+			boolean hasLanguageVersion = false;
+			while (parser.nextTag() == XmlPullParser.START_TAG) {
+				String name = parser.getName();
+				if (LANGUAGE_VERSION_TAG.equals(name)) {
+					header.catrobatLanguageVersion = Float.parseFloat(parser.nextText().trim());
+					hasLanguageVersion = true;
+				} else if (PROGRAM_NAME_TAG.equals(name)) {
+					header.programName = parser.nextText();
+				} else if (SCREEN_WIDTH_TAG.equals(name)) {
+					header.screenWidth = Integer.parseInt(parser.nextText().trim());
+				} else if (SCREEN_HEIGHT_TAG.equals(name)) {
+					header.screenHeight = Integer.parseInt(parser.nextText().trim());
+				} else {
+					skipElement(parser);
+				}
+			}
+			return hasLanguageVersion ? header : null;
+		}
+		return null;
+	}
+
+	private static void skipElement(XmlPullParser parser) throws XmlPullParserException, IOException {
+		int depth = 1;
+		while (depth > 0) {
+			switch (parser.next()) {
+				case XmlPullParser.START_TAG:
+					depth++;
+					break;
+				case XmlPullParser.END_TAG:
+					depth--;
+					break;
+				case XmlPullParser.END_DOCUMENT:
+					throw new XmlPullParserException("Unexpected end of document");
+				default:
+					break;
+			}
+		}
+	}
+
+	public float getCatrobatLanguageVersion() {
+		return catrobatLanguageVersion;
+	}
+
+	public String getProgramName() {
+		return programName;
+	}
+
+	public int getScreenWidth() {
+		return screenWidth;
+	}
+
+	public int getScreenHeight() {
+		return screenHeight;
+	}
+}
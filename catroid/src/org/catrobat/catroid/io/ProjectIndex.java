@@ -0,0 +1,333 @@
+/*
+ * Catroid: An on-device visual programming system for Android devices
+ * Copyright (C) 2010-2014 The Catrobat Team
+ * (<http://developer.catrobat.org/credits>)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * An additional term exception under section 7 of the GNU Affero
+ * General Public License, version 3, is available at
+ * http://developer.catrobat.org/license_additional_term
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.catrobat.catroid.io;
+
+import android.util.Log;
+
+import org.catrobat.catroid.common.Constants;
+import org.catrobat.catroid.common.ProjectData;
+import org.catrobat.catroid.stage.StageListener;
+import org.catrobat.catroid.utils.UtilFile;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Name, size, last change, screenshot and language version of every project in the root directory. The index is
+ * stored in the root directory and kept up to date when projects are saved, copied, renamed, downloaded or deleted,
+ * so the project list does not have to walk the project directories.
+ */
+public class ProjectIndex {
+	private static final String TAG = ProjectIndex.class.getSimpleName();
+
+	private static final int FILE_MAGIC = 0x43504931;
+
+	public static final float UNKNOWN_LANGUAGE_VERSION = 0f;
+
+	private final File rootDirectory;
+	private final File indexFile;
+	private Map<String, ProjectData> projects;
+	private boolean validated;
+
+	public ProjectIndex(File rootDirectory) {
+		this.rootDirectory = rootDirectory;
+		indexFile = new File(rootDirectory, Constants.PROJECT_INDEX_FILE_NAME);
+	}
+
+	/**
+	 * @return copies of the entries of all projects, including projects that were added to the root directory by
+	 *         other means
+	 */
+	public synchronized List<ProjectData> getProjectDataList() {
+		ensureLoaded();
+		if (synchronizeWithRootDirectory()) {
+			write();
+		}
+
+		List<ProjectData> projectDataList = new ArrayList<ProjectData>(projects.size());
+		for (ProjectData projectData : projects.values()) {
+			projectDataList.add(new ProjectData(projectData));
+		}
+		return projectDataList;
+	}
+
+	public synchronized ProjectData getProjectData(String projectName) {
+		ensureLoaded();
+		ProjectData projectData = projects.get(projectName);
+		return projectData == null ? null : new ProjectData(projectData);
+	}
+
+	/**
+	 * Names are compared case sensitive, even if the file system is not.
+	 */
+	public synchronized boolean contains(String projectName) {
+		ensureLoaded();
+		boolean codeFileExists = getCodeFile(projectName).exists();
+
+		if (projects.containsKey(projectName)) {
+			if (!codeFileExists) {
+				projects.remove(projectName);
+				write();
+			}
+			return codeFileExists;
+		}
+
+		if (codeFileExists && synchronizeWithRootDirectory()) {
+			write();
+		}
+		return projects.containsKey(projectName);
+	}
+
+	/**
+	 * Reads size, last change and screenshot of the project from its directory. Only the entry of this project is
+	 * touched, the other projects are checked when the whole list is needed.
+	 */
+	public synchronized void update(String projectName, float catrobatLanguageVersion) {
+		ensureRead();
+		if (!getCodeFile(projectName).exists()) {
+			remove(projectName);
+			return;
+		}
+		projects.put(projectName, readProjectData(projectName, catrobatLanguageVersion));
+		write();
+	}
+
+	/**
+	 * Looks up the screenshot of an indexed project again, e.g. after the stage saved a new one.
+	 */
+	public synchronized void updateScreenshot(String projectName) {
+		ensureRead();
+		ProjectData projectData = projects.get(projectName);
+		if (projectData == null) {
+			return;
+		}
+		String screenshotPath = findScreenshotPath(getProjectDirectory(projectName));
+		boolean changed = screenshotPath == null ? projectData.screenshotPath != null : !screenshotPath
+				.equals(projectData.screenshotPath);
+		if (changed) {
+			projectData.screenshotPath = screenshotPath;
+			write();
+		}
+	}
+
+	public synchronized void remove(String projectName) {
+		ensureRead();
+		if (projects.remove(projectName) != null) {
+			write();
+		}
+	}
+
+	private boolean ensureRead() {
+		if (projects != null) {
+			return true;
+		}
+		projects = new HashMap<String, ProjectData>();
+		return read();
+	}
+
+	private void ensureLoaded() {
+		if (validated) {
+			return;
+		}
+		validated = true;
+
+		boolean changed = !ensureRead();
+
+		Iterator<Map.Entry<String, ProjectData>> iterator = projects.entrySet().iterator();
+		while (iterator.hasNext()) {
+			Map.Entry<String, ProjectData> entry = iterator.next();
+			File codeFile = getCodeFile(entry.getKey());
+			if (!codeFile.exists()) {
+				iterator.remove();
+				changed = true;
+			} else if (codeFile.lastModified() != entry.getValue().lastUsed) {
+				// changed while the app was not running
+				entry.setValue(readProjectData(entry.getKey(), entry.getValue().catrobatLanguageVersion));
+				changed = true;
+			}
+		}
+
+		changed |= synchronizeWithRootDirectory();
+		if (changed) {
+			write();
+		}
+	}
+
+	/**
+	 * Adds projects whose directories are not indexed yet and drops entries whose directories are gone. Indexed
+	 * projects are trusted, so this costs one directory listing plus one check per unknown directory.
+	 *
+	 * @return true if the index changed
+	 */
+	private boolean synchronizeWithRootDirectory() {
+		String[] directoryNames = rootDirectory.list();
+		if (directoryNames == null) {
+			boolean changed = !projects.isEmpty();
+			projects.clear();
+			return changed;
+		}
+
+		boolean changed = false;
+		Set<String> projectNames = new HashSet<String>();
+		for (String directoryName : directoryNames) {
+			String projectName = UtilFile.decodeSpecialCharsForFileSystem(directoryName);
+			projectNames.add(projectName);
+			if (!projects.containsKey(projectName)
+					&& new File(new File(rootDirectory, directoryName), Constants.PROJECTCODE_NAME).isFile()) {
+				projects.put(projectName, readProjectData(projectName, UNKNOWN_LANGUAGE_VERSION));
+				changed = true;
+			}
+		}
+
+		changed |= projects.keySet().retainAll(projectNames);
+		return changed;
+	}
+
+	private ProjectData readProjectData(String projectName, float catrobatLanguageVersion) {
+		File projectDirectory = getProjectDirectory(projectName);
+		File codeFile = getCodeFile(projectName);
+		ProjectData projectData = new ProjectData(projectName, codeFile.lastModified());
+		projectData.size = UtilFile.getSizeOfFileOrDirectoryInByte(projectDirectory);
+		projectData.catrobatLanguageVersion = catrobatLanguageVersion;
+		if (catrobatLanguageVersion == UNKNOWN_LANGUAGE_VERSION) {
+			ProjectHeaderProbe header = ProjectHeaderProbe.probe(codeFile);
+			if (header != null) {
+				projectData.catrobatLanguageVersion = header.getCatrobatLanguageVersion();
+			}
+		}
+
+		projectData.screenshotPath = findScreenshotPath(projectDirectory);
+		return projectData;
+	}
+
+	private String findScreenshotPath(File projectDirectory) {
+		File screenshot = new File(projectDirectory, StageListener.SCREENSHOT_MANUAL_FILE_NAME);
+		if (!(screenshot.exists() && screenshot.length() > 0)) {
+			screenshot = new File(projectDirectory, StageListener.SCREENSHOT_AUTOMATIC_FILE_NAME);
+		}
+		return screenshot.exists() ? screenshot.getAbsolutePath() : null;
+	}
+
+	private File getProjectDirectory(String projectName) {
+		return new File(rootDirectory, UtilFile.encodeSpecialCharsForFileSystem(projectName));
+	}
+
+	private File getCodeFile(String projectName) {
+		return new File(getProjectDirectory(projectName), Constants.PROJECTCODE_NAME);
+	}
+
+	/**
+	 * @return false if there was no readable index
+	 */
+	private boolean read() {
+		if (!indexFile.exists()) {
+			return false;
+		}
+
+		DataInputStream input = null;
+		try {
+			input = new DataInputStream(new BufferedInputStream(new FileInputStream(indexFile)));
+			if (input.readInt() != FILE_MAGIC) {
+				return false;
+			}
+			int numberOfProjects = input.readInt();
+			for (int index = 0; index < numberOfProjects; index++) {
+				ProjectData projectData = new ProjectData(input.readUTF(), input.readLong());
+				projectData.size = input.readLong();
+				projectData.screenshotPath = input.readBoolean() ? input.readUTF() : null;
+				projectData.catrobatLanguageVersion = input.readFloat();
+				projects.put(projectData.projectName, projectData);
+			}
+			return true;
+		} catch (IOException ioException) {
+			Log.w(TAG, "Couldn't read project index, rebuilding it", ioException);
+			projects.clear();
+			return false;
+		} finally {
+			if (input != null) {
+				try {
+					input.close();
+				} catch (IOException ioException) {
+					Log.w(TAG, "Couldn't close project index", ioException);
+				}
+			}
+		}
+	}
+
+	private void write() {
+		if (!rootDirectory.exists()) {
+			return;
+		}
+
+		File tmpIndexFile = new File(indexFile.getPath() + ".tmp");
+		DataOutputStream output = null;
+		try {
+			output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmpIndexFile)));
+			output.writeInt(FILE_MAGIC);
+			output.writeInt(projects.size());
+			for (ProjectData projectData : projects.values()) {
+				output.writeUTF(projectData.projectName);
+				output.writeLong(projectData.lastUsed);
+				output.writeLong(projectData.size);
+				output.writeBoolean(projectData.screenshotPath != null);
+				if (projectData.screenshotPath != null) {
+					output.writeUTF(projectData.screenshotPath);
+				}
+				output.writeFloat(projectData.catrobatLanguageVersion);
+			}
+			output.close();
+			output = null;
+
+			if (indexFile.exists() && !indexFile.delete()) {
+				Log.e(TAG, "Could not delete " + indexFile.getName());
+			}
+			if (!tmpIndexFile.renameTo(indexFile)) {
+				Log.e(TAG, "Could not rename " + tmpIndexFile.getName());
+			}
+		} catch (IOException ioException) {
+			Log.e(TAG, "Couldn't write project index", ioException);
+		} finally {
+			if (output != null) {
+				try {
+					output.close();
+				} catch (IOException ioException) {
+					Log.w(TAG, "Couldn't close project index", ioException);
+				}
+				tmpIndexFile.delete();
+			}
+		}
+	}
+}
@@ -28,9 +28,7 @@ import android.graphics.Bitmap;
 import android.widget.ImageView;
 
 import org.catrobat.catroid.R;
-import org.catrobat.catroid.stage.StageListener;
 import org.catrobat.catroid.utils.ImageEditing;
-import org.catrobat.catroid.utils.Utils;
 
 import java.io.File;
 import java.util.Collections;
@@ -44,10 +42,12 @@ public class ProjectScreenshotLoader {
 
 	private class ScreenshotData {
 		public String projectName;
+		public String screenshotPath;
 		public ImageView imageView;
 
-		public ScreenshotData(String projectName, ImageView imageView) {
+		public ScreenshotData(String projectName, String screenshotPath, ImageView imageView) {
 			this.projectName = projectName;
+			this.screenshotPath = screenshotPath;
 			this.imageView = imageView;
 		}
 	}
@@ -77,7 +77,11 @@ public class ProjectScreenshotLoader {
 		this.context = context;
 	}
 
-	public void loadAndShowScreenshot(String projectName, ImageView imageView) {
+	/**
+	 * @param screenshotPath path of the screenshot as stored in the {@link ProjectIndex}, null if the project has
+	 *            none
+	 */
+	public void loadAndShowScreenshot(String projectName, String screenshotPath, ImageView imageView) {
 		imageViews.put(imageView, projectName);
 		Bitmap bitmap = imageCache.get(projectName);
 		if (bitmap != null) {
@@ -86,7 +90,7 @@ public class ProjectScreenshotLoader {
 			//set a dummy or null in the meantime
 			imageView.setImageBitmap(null);
 			//queue the loading and showing process
-			ScreenshotData screenshotData = new ScreenshotData(projectName, imageView);
+			ScreenshotData screenshotData = new ScreenshotData(projectName, screenshotPath, imageView);
 			executorService.submit(new ScreenshotLoader(screenshotData));
 		}
 	}
@@ -105,19 +109,11 @@ public class ProjectScreenshotLoader {
 			}
 			Activity uiActivity = (Activity) projectScreenshotData.imageView.getContext();
 
-			String pathOfScreenshot = Utils.buildPath(Utils.buildProjectPath(projectScreenshotData.projectName),
-					StageListener.SCREENSHOT_MANUAL_FILE_NAME);
-			File projectImageFile = new File(pathOfScreenshot);
-
-			if (!(projectImageFile.exists() && projectImageFile.length() > 0)) {
-				projectImageFile.delete();
-				pathOfScreenshot = Utils.buildPath(Utils.buildProjectPath(projectScreenshotData.projectName),
-						StageListener.SCREENSHOT_AUTOMATIC_FILE_NAME);
-				projectImageFile = new File(pathOfScreenshot);
-			}
+			String pathOfScreenshot = projectScreenshotData.screenshotPath;
 
 			final Bitmap projectImage;
-			if (!projectImageFile.exists() || ImageEditing.getImageDimensions(pathOfScreenshot)[0] < 0) {
+			if (pathOfScreenshot == null || !new File(pathOfScreenshot).exists()
+					|| ImageEditing.getImageDimensions(pathOfScreenshot)[0] < 0) {
 				projectImage = null;
 			} else {
 				int width = context.getResources().getDimensionPixelSize(R.dimen.project_thumbnail_width);
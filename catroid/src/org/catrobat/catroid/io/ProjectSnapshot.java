@@ -0,0 +1,276 @@
+/*
+ * Catroid: An on-device visual programming system for Android devices
+ * Copyright (C) 2010-2014 The Catrobat Team
+ * (<http://developer.catrobat.org/credits>)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * An additional term exception under section 7 of the GNU Affero
+ * General Public License, version 3, is available at
+ * http://developer.catrobat.org/license_additional_term
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.catrobat.catroid.io;
+
+import android.content.Context;
+import android.util.Log;
+
+import org.catrobat.catroid.BuildConfig;
+import org.catrobat.catroid.common.Constants;
+import org.catrobat.catroid.content.Project;
+import org.catrobat.catroid.utils.Utils;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InvalidClassException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.util.zip.CRC32;
+
+/**
+ * Java serialized copy of a project, stored in the app's private cache directory and keyed by the path of its
+ * code.xml. Deserializing it skips XStream's reflection based unmarshalling, but it is only used as long as it
+ * belongs to exactly that code.xml and was written by the same build. The code.xml stays the only file that is
+ * uploaded or migrated.
+ *
+ * Snapshots never come from shared storage or a download, so other apps and programs can't supply one. On top of
+ * that only classes of the project model, of java.lang and of java.util are deserialized.
+ */
+public final class ProjectSnapshot {
+	public static final String DIRECTORY_NAME = "snapshots";
+
+	private static final String TAG = ProjectSnapshot.class.getSimpleName();
+
+	private static final int FILE_MAGIC = 0x43505331;
+	private static final int FORMAT_VERSION = 2;
+	private static final int MAX_PAYLOAD_LENGTH = 32 * 1024 * 1024;
+	private static final String SNAPSHOT_EXTENSION = ".snapshot";
+	private static final String[] ALLOWED_PACKAGES = { "org.catrobat.catroid.", "java.lang.", "java.util." };
+
+	private static File snapshotDirectory;
+
+	// Suppress default constructor for noninstantiability
+	private ProjectSnapshot() {
+		throw new AssertionError();
+	}
+
+	/**
+	 * Sets the private directory snapshots are kept in, e.g. a subdirectory of {@link Context#getCacheDir()}.
+	 * Without it no snapshots are read or written.
+	 */
+	public static synchronized void setSnapshotDirectory(File directory) {
+		snapshotDirectory = directory;
+	}
+
+	/**
+	 * @return null if no snapshot directory is set
+	 */
+	public static synchronized File getSnapshotFile(File codeFile) {
+		if (snapshotDirectory == null) {
+			return null;
+		}
+		return new File(snapshotDirectory, Utils.md5Checksum(codeFile.getAbsolutePath()) + SNAPSHOT_EXTENSION);
+	}
+
+	/**
+	 * @return null if there is no snapshot or it does not match the code file
+	 */
+	public static Project read(File codeFile) {
+		File snapshotFile = getSnapshotFile(codeFile);
+		if (snapshotFile == null || !snapshotFile.exists() || !codeFile.exists()) {
+			return null;
+		}
+
+		DataInputStream input = null;
+		try {
+			input = new DataInputStream(new BufferedInputStream(new FileInputStream(snapshotFile)));
+			if (input.readInt() != FILE_MAGIC || input.readInt() != FORMAT_VERSION
+					|| !input.readUTF().equals(BuildConfig.GIT_DESCRIBE)) {
+				return null;
+			}
+
+			long codeFileLength = input.readLong();
+			long codeFileLastModified = input.readLong();
+			String codeFileChecksum = input.readUTF();
+			if (codeFile.length() != codeFileLength) {
+				return null;
+			}
+			// a copied project keeps its content, but not its modification time
+			if (codeFile.lastModified() != codeFileLastModified
+					&& !codeFileChecksum.equals(Utils.md5Checksum(codeFile))) {
+				return null;
+			}
+
+			long payloadChecksum = input.readLong();
+			int payloadLength = input.readInt();
+			if (payloadLength < 0 || payloadLength > MAX_PAYLOAD_LENGTH || payloadLength > snapshotFile.length()) {
+				Log.w(TAG, "Snapshot " + snapshotFile.getAbsolutePath() + " has an invalid length");
+				return null;
+			}
+			byte[] payload = new byte[payloadLength];
+			input.readFully(payload);
+			CRC32 crc = new CRC32();
+			crc.update(payload);
+			if (crc.getValue() != payloadChecksum) {
+				Log.w(TAG, "Snapshot " + snapshotFile.getAbsolutePath() + " is corrupt");
+				return null;
+			}
+
+			ObjectInputStream objectInput = new ModelObjectInputStream(new ByteArrayInputStream(payload));
+			return (Project) objectInput.readObject();
+		} catch (Exception exception) {
+			Log.w(TAG, "Couldn't read snapshot " + snapshotFile.getAbsolutePath(), exception);
+			return null;
+		} finally {
+			if (input != null) {
+				try {
+					input.close();
+				} catch (IOException ioException) {
+					Log.w(TAG, "Couldn't close snapshot", ioException);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Must only be called while nobody else modifies the project. If the project cannot be serialized, an old
+	 * snapshot is removed.
+	 *
+	 * @param codeFileChecksum MD5 checksum of the code file the project was loaded from or saved to
+	 */
+	public static void write(File codeFile, String codeFileChecksum, Project project) {
+		deleteLegacySnapshot(codeFile);
+		File snapshotFile = getSnapshotFile(codeFile);
+		if (snapshotFile == null) {
+			return;
+		}
+		if (!snapshotFile.getParentFile().mkdirs() && !snapshotFile.getParentFile().isDirectory()) {
+			Log.e(TAG, "Could not create " + snapshotFile.getParent());
+			return;
+		}
+		File tmpSnapshotFile = new File(snapshotFile.getPath() + ".tmp");
+
+		DataOutputStream output = null;
+		try {
+			ByteArrayOutputStream payloadStream = new ByteArrayOutputStream(Constants.BUFFER_8K);
+			ObjectOutputStream objectOutput = new ObjectOutputStream(payloadStream);
+			objectOutput.writeObject(project);
+			objectOutput.close();
+			byte[] payload = payloadStream.toByteArray();
+			CRC32 crc = new CRC32();
+			crc.update(payload);
+
+			output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmpSnapshotFile)));
+			output.writeInt(FILE_MAGIC);
+			output.writeInt(FORMAT_VERSION);
+			output.writeUTF(BuildConfig.GIT_DESCRIBE);
+			output.writeLong(codeFile.length());
+			output.writeLong(codeFile.lastModified());
+			output.writeUTF(codeFileChecksum);
+			output.writeLong(crc.getValue());
+			output.writeInt(payload.length);
+			output.write(payload);
+			output.close();
+			output = null;
+
+			if (snapshotFile.exists() && !snapshotFile.delete()) {
+				Log.e(TAG, "Could not delete " + snapshotFile.getName());
+			}
+			if (!tmpSnapshotFile.renameTo(snapshotFile)) {
+				Log.e(TAG, "Could not rename " + tmpSnapshotFile.getName());
+			}
+		} catch (Exception exception) {
+			// e.g. a brick holding a value that cannot be serialized, the project is then always read from XML
+			Log.w(TAG, "Couldn't write snapshot of " + project.getName(), exception);
+			delete(codeFile);
+		} finally {
+			if (output != null) {
+				try {
+					output.close();
+				} catch (IOException ioException) {
+					Log.w(TAG, "Couldn't close snapshot", ioException);
+				}
+				tmpSnapshotFile.delete();
+			}
+		}
+	}
+
+	public static void delete(File codeFile) {
+		deleteLegacySnapshot(codeFile);
+		File snapshotFile = getSnapshotFile(codeFile);
+		if (snapshotFile != null && snapshotFile.exists() && !snapshotFile.delete()) {
+			Log.e(TAG, "Could not delete " + snapshotFile.getName());
+		}
+	}
+
+	/**
+	 * Removes a snapshot written next to the code file by older builds, it is never read.
+	 */
+	private static void deleteLegacySnapshot(File codeFile) {
+		File legacySnapshotFile = new File(codeFile.getParentFile(), Constants.PROJECTCODE_SNAPSHOT_NAME);
+		if (legacySnapshotFile.exists() && !legacySnapshotFile.delete()) {
+			Log.e(TAG, "Could not delete " + legacySnapshotFile.getAbsolutePath());
+		}
+	}
+
+	/**
+	 * Refuses to create instances of classes outside of the project model and the core java packages, and of
+	 * proxies.
+	 */
+	private static class ModelObjectInputStream extends ObjectInputStream {
+		ModelObjectInputStream(InputStream inputStream) throws IOException {
+			super(inputStream);
+		}
+
+		@Override
+		protected Class<?> resolveClass(ObjectStreamClass streamClass) throws IOException, ClassNotFoundException {
+			String className = streamClass.getName();
+			if (!isAllowedClass(className)) {
+				throw new InvalidClassException(className, "Not part of a project");
+			}
+			return super.resolveClass(streamClass);
+		}
+
+		@Override
+		protected Class<?> resolveProxyClass(String[] interfaces) throws IOException, ClassNotFoundException {
+			throw new InvalidClassException("Proxy", "Not part of a project");
+		}
+
+		private static boolean isAllowedClass(String className) {
+			if (className.startsWith("[")) {
+				// arrays are named like [Lpackage.Class; or [[I
+				String elementName = className.substring(className.lastIndexOf('[') + 1);
+				if (elementName.length() == 1) {
+					return true;
+				}
+				return elementName.startsWith("L") && isAllowedClass(elementName.substring(1));
+			}
+			for (String allowedPackage : ALLOWED_PACKAGES) {
+				if (className.startsWith(allowedPackage)) {
+					return true;
+				}
+			}
+			return false;
+		}
+	}
+}
@@ -22,15 +22,32 @@
  */
 package org.catrobat.catroid.io;
 
+import android.media.AudioManager;
 import android.media.MediaPlayer;
+import android.media.SoundPool;
 import android.util.Log;
 
+import org.catrobat.catroid.common.SoundInfo;
+
+import java.io.File;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * As long as both OpenGL render() and StageDialog access the SoundManager, the public methods have to stay
  * synchronized.
+ *
+ * Short sounds loaded by {@link #loadSounds(Collection)} are decoded once into a {@link SoundPool} and played from
+ * there, all other sounds are streamed by media players. Until {@link #unloadSounds()} is called,
+ * {@link #playSound(SoundInfo)} prepares streamed sounds on a background thread, so it never blocks the caller.
+ * If all voices are in use, the sound started first is stopped for the new one.
  */
 public class SoundManager {
 	public static final int MAX_MEDIA_PLAYERS = 7;
@@ -38,7 +55,20 @@ public class SoundManager {
 	private static final String TAG = SoundManager.class.getSimpleName();
 	private static final SoundManager INSTANCE = new SoundManager();
 
+	// compressed size, decoded samples of larger files would not fit into the buffer of the sound pool
+	private static final long MAX_SAMPLE_FILE_SIZE = 64 * 1024;
+	private static final int CHECKSUM_LENGTH = 32;
+
 	private final List<MediaPlayer> mediaPlayers = new ArrayList<MediaPlayer>(MAX_MEDIA_PLAYERS);
+	private final Set<MediaPlayer> preparingMediaPlayers = new HashSet<MediaPlayer>();
+	private final Map<String, Integer> sampleIds = new HashMap<String, Integer>();
+	private final Map<Integer, String> loadingSamples = new HashMap<Integer, String>();
+	private final List<Integer> sampleStreamIds = new ArrayList<Integer>();
+	private SoundPool soundPool;
+	private ExecutorService streamingExecutor;
+	private int maxVoices = MAX_MEDIA_PLAYERS;
+	// increased by pause and stop, sounds queued for streaming before are dropped instead of started
+	private int playbackGeneration;
 	private float volume = 70.0f;
 
 	protected SoundManager() {
@@ -48,6 +78,118 @@ public class SoundManager {
 		return INSTANCE;
 	}
 
+	/**
+	 * Limits the sounds played at the same time, for samples and for streamed sounds each. Samples use the new
+	 * limit after the next call of {@link #loadSounds(Collection)}.
+	 */
+	public synchronized void setMaxVoices(int maxVoices) {
+		this.maxVoices = Math.max(1, maxVoices);
+		while (mediaPlayers.size() > this.maxVoices) {
+			releaseMediaPlayer(mediaPlayers.remove(0));
+		}
+	}
+
+	public synchronized int getMaxVoices() {
+		return maxVoices;
+	}
+
+	/**
+	 * Decodes the short sounds into the sample pool, keyed by their checksum, and switches streaming to a background
+	 * thread. Decoding runs asynchronously, sounds are streamed until their samples are ready.
+	 */
+	public synchronized void loadSounds(Collection<SoundInfo> soundInfos) {
+		if (soundPool == null) {
+			soundPool = new SoundPool(maxVoices, AudioManager.STREAM_MUSIC, 0);
+			soundPool.setOnLoadCompleteListener(new SoundPool.OnLoadCompleteListener() {
+				@Override
+				public void onLoadComplete(SoundPool loadedSoundPool, int sampleId, int status) {
+					onSampleLoaded(loadedSoundPool, sampleId, status);
+				}
+			});
+		}
+		if (streamingExecutor == null) {
+			streamingExecutor = Executors.newSingleThreadExecutor();
+		}
+
+		for (SoundInfo soundInfo : soundInfos) {
+			String checksum = getSampleKey(soundInfo);
+			if (checksum == null || sampleIds.containsKey(checksum) || loadingSamples.containsValue(checksum)) {
+				continue;
+			}
+			File soundFile = new File(soundInfo.getAbsolutePath());
+			if (soundFile.length() > 0 && soundFile.length() <= MAX_SAMPLE_FILE_SIZE) {
+				loadingSamples.put(soundPool.load(soundFile.getAbsolutePath(), 1), checksum);
+			}
+		}
+	}
+
+	private synchronized void onSampleLoaded(SoundPool loadedSoundPool, int sampleId, int status) {
+		String checksum = loadingSamples.remove(sampleId);
+		if (loadedSoundPool != soundPool || checksum == null) {
+			return;
+		}
+		if (status == 0) {
+			sampleIds.put(checksum, sampleId);
+		} else {
+			Log.w(TAG, "Couldn't decode sound " + checksum + ", it will be streamed");
+		}
+	}
+
+	/**
+	 * Releases the sample pool and the streaming thread. Playback is synchronous again afterwards.
+	 */
+	public synchronized void unloadSounds() {
+		if (soundPool != null) {
+			soundPool.release();
+			soundPool = null;
+		}
+		sampleIds.clear();
+		loadingSamples.clear();
+		sampleStreamIds.clear();
+		playbackGeneration++;
+		if (streamingExecutor != null) {
+			streamingExecutor.shutdownNow();
+			streamingExecutor = null;
+		}
+	}
+
+	public synchronized void playSound(SoundInfo soundInfo) {
+		final String pathToSoundfile = soundInfo.getAbsolutePath();
+		if (!sampleIds.isEmpty()) {
+			Integer sampleId = sampleIds.get(getSampleKey(soundInfo));
+			if (sampleId != null) {
+				playSample(sampleId);
+				return;
+			}
+		}
+
+		if (streamingExecutor == null) {
+			playSoundFile(pathToSoundfile);
+			return;
+		}
+		final int generation = playbackGeneration;
+		streamingExecutor.execute(new Runnable() {
+			@Override
+			public void run() {
+				streamSoundFile(pathToSoundfile, generation);
+			}
+		});
+	}
+
+	private void playSample(int sampleId) {
+		float volumeScalar = volume * 0.01f;
+		int streamId = soundPool.play(sampleId, volumeScalar, volumeScalar, 1, 0, 1.0f);
+		if (streamId == 0) {
+			Log.d(TAG, "Couldn't play sample " + sampleId);
+			return;
+		}
+		sampleStreamIds.add(streamId);
+		// the sound pool already stopped the oldest stream
+		if (sampleStreamIds.size() > maxVoices) {
+			sampleStreamIds.remove(0);
+		}
+	}
+
 	public synchronized void playSoundFile(String pathToSoundfile) {
 		MediaPlayer mediaPlayer = getAvailableMediaPlayer();
 		if (mediaPlayer != null) {
@@ -61,22 +203,103 @@ public class SoundManager {
 		}
 	}
 
+	/**
+	 * Prepares the media player without holding the lock, so the render thread can still change the volume or
+	 * pause the stage meanwhile. The sound is dropped if playback was paused or stopped after it was queued.
+	 */
+	private void streamSoundFile(String pathToSoundfile, int generation) {
+		MediaPlayer mediaPlayer;
+		synchronized (this) {
+			if (generation != playbackGeneration) {
+				return;
+			}
+			mediaPlayer = getAvailableMediaPlayer();
+			if (mediaPlayer == null) {
+				return;
+			}
+			preparingMediaPlayers.add(mediaPlayer);
+		}
+
+		try {
+			mediaPlayer.setDataSource(pathToSoundfile);
+			mediaPlayer.prepare();
+			synchronized (this) {
+				if (!mediaPlayers.contains(mediaPlayer)) {
+					return;
+				}
+				if (generation == playbackGeneration) {
+					mediaPlayer.start();
+				} else {
+					mediaPlayer.reset();
+				}
+			}
+		} catch (Exception exception) {
+			Log.e(TAG, "Couldn't play sound file '" + pathToSoundfile + "'", exception);
+		} finally {
+			synchronized (this) {
+				preparingMediaPlayers.remove(mediaPlayer);
+				// dropped by clear() or setMaxVoices() while it was preparing
+				if (!mediaPlayers.contains(mediaPlayer)) {
+					mediaPlayer.release();
+				}
+			}
+		}
+	}
+
+	/**
+	 * A media player still preparing on the streaming thread must not be released under it, it is released there
+	 * as soon as prepare() returned.
+	 */
+	private void releaseMediaPlayer(MediaPlayer mediaPlayer) {
+		if (!preparingMediaPlayers.contains(mediaPlayer)) {
+			mediaPlayer.release();
+		}
+	}
+
 	private MediaPlayer getAvailableMediaPlayer() {
-		for (MediaPlayer mediaPlayer : mediaPlayers) {
-			if (!mediaPlayer.isPlaying()) {
-				mediaPlayer.reset();
-				return mediaPlayer;
+		MediaPlayer mediaPlayer = null;
+		for (MediaPlayer candidate : mediaPlayers) {
+			if (!candidate.isPlaying() && !preparingMediaPlayers.contains(candidate)) {
+				mediaPlayer = candidate;
+				break;
 			}
 		}
 
-		if (mediaPlayers.size() < MAX_MEDIA_PLAYERS) {
-			MediaPlayer mediaPlayer = new MediaPlayer();
+		if (mediaPlayer == null && mediaPlayers.size() < maxVoices) {
+			mediaPlayer = new MediaPlayer();
 			mediaPlayers.add(mediaPlayer);
 			setVolume(volume);
 			return mediaPlayer;
 		}
-		Log.d(TAG, "All MediaPlayer instances in use");
-		return null;
+
+		if (mediaPlayer == null) {
+			// players are kept in the order they were started in, so the first one plays the oldest sound
+			for (MediaPlayer candidate : mediaPlayers) {
+				if (!preparingMediaPlayers.contains(candidate)) {
+					Log.d(TAG, "All MediaPlayer instances in use, stop the oldest sound");
+					mediaPlayer = candidate;
+					break;
+				}
+			}
+			if (mediaPlayer == null) {
+				Log.d(TAG, "All MediaPlayer instances in use");
+				return null;
+			}
+		}
+
+		mediaPlayer.reset();
+		mediaPlayers.remove(mediaPlayer);
+		mediaPlayers.add(mediaPlayer);
+		return mediaPlayer;
+	}
+
+	private static String getSampleKey(SoundInfo soundInfo) {
+		String fileName = soundInfo.getSoundFileName();
+		// only files added to a project start with their checksum
+		if (fileName == null || fileName.length() <= CHECKSUM_LENGTH) {
+			return null;
+		}
+		return soundInfo.getChecksum();
 	}
 
 	public synchronized void setVolume(float volume) {
@@ -91,42 +314,70 @@ public class SoundManager {
 		for (MediaPlayer mediaPlayer : mediaPlayers) {
 			mediaPlayer.setVolume(volumeScalar, volumeScalar);
 		}
+		if (soundPool != null) {
+			for (int streamId : sampleStreamIds) {
+				soundPool.setVolume(streamId, volumeScalar, volumeScalar);
+			}
+		}
 	}
 
 	public synchronized float getVolume() {
 		return this.volume;
 	}
 
+	/**
+	 * Stops all sounds and releases the media players. Loaded samples are kept until {@link #unloadSounds()}.
+	 */
 	public synchronized void clear() {
+		playbackGeneration++;
 		for (MediaPlayer mediaPlayer : mediaPlayers) {
-			mediaPlayer.release();
+			releaseMediaPlayer(mediaPlayer);
 		}
 		mediaPlayers.clear();
+		stopSamples();
 	}
 
 	public synchronized void pause() {
+		playbackGeneration++;
 		for (MediaPlayer mediaPlayer : mediaPlayers) {
 			if (mediaPlayer.isPlaying()) {
 				mediaPlayer.pause();
-			} else {
+			} else if (!preparingMediaPlayers.contains(mediaPlayer)) {
 				mediaPlayer.reset();
 			}
 		}
+		if (soundPool != null) {
+			soundPool.autoPause();
+		}
 	}
 
 	public synchronized void resume() {
 		for (MediaPlayer mediaPlayer : mediaPlayers) {
-			if (!mediaPlayer.isPlaying()) {
+			if (!mediaPlayer.isPlaying() && !preparingMediaPlayers.contains(mediaPlayer)) {
 				mediaPlayer.start();
 			}
 		}
+		if (soundPool != null) {
+			soundPool.autoResume();
+		}
 	}
 
 	public synchronized void stopAllSounds() {
+		playbackGeneration++;
 		for (MediaPlayer mediaPlayer : mediaPlayers) {
 			if (mediaPlayer.isPlaying()) {
 				mediaPlayer.stop();
 			}
 		}
+		stopSamples();
+	}
+
+	private void stopSamples() {
+		if (soundPool != null) {
+			for (int streamId : sampleStreamIds) {
+				soundPool.stop(streamId);
+			}
+		}
+		sampleStreamIds.clear();
 	}
 }
@@ -27,7 +27,6 @@ import android.graphics.Bitmap.CompressFormat;
 import android.util.Log;
 
 import com.google.common.base.Charsets;
-import com.google.common.io.Files;
 import com.thoughtworks.xstream.converters.reflection.FieldDictionary;
 import com.thoughtworks.xstream.converters.reflection.PureJavaReflectionProvider;
 
@@ -35,6 +34,7 @@ import org.catrobat.catroid.ProjectManager;
 import org.catrobat.catroid.common.Constants;
 import org.catrobat.catroid.common.FileChecksumContainer;
 import org.catrobat.catroid.common.LookData;
+import org.catrobat.catroid.common.LookHitMask;
 import org.catrobat.catroid.common.SoundInfo;
 import org.catrobat.catroid.content.BroadcastScript;
 import org.catrobat.catroid.content.Project;
@@ -120,15 +120,23 @@ import org.catrobat.catroid.utils.ImageEditing;
 import org.catrobat.catroid.utils.UtilFile;
 import org.catrobat.catroid.utils.Utils;
 
+import java.io.BufferedOutputStream;
 import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
-import java.io.FileWriter;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
@@ -149,6 +157,11 @@ public final class StorageHandler {
 	private static final String TAG = StorageHandler.class.getSimpleName();
 	private static final String XML_HEADER = "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\" ?>\n";
 	private static final int JPG_COMPRESSION_SETTING = 95;
+	private static final String IMPORT_FILE_PREFIX = "import";
+	private static final int HEADER_PATCH_PREFIX_SIZE = 16 * 1024;
+	private static final String HEADER_END_TAG = "</header>";
+	private static final String PROGRAM_NAME_START_TAG = "<programName>";
+	private static final String PROGRAM_NAME_END_TAG = "</programName>";
 
 	private XStreamToSupportCatrobatLanguageVersion092AndBefore xstream;
 
@@ -156,6 +169,8 @@ public final class StorageHandler {
 	private FileInputStream fileInputStream;
 
 	private Lock loadSaveLock = new ReentrantLock();
+	private Map<String, CodeFileChecksum> codeFileChecksums = new HashMap<String, CodeFileChecksum>();
+	private ProjectIndex projectIndex = new ProjectIndex(new File(DEFAULT_ROOT));
 
 	// TODO: Since the StorageHandler constructor throws an exception, the member INSTANCE couldn't be assigned
 	// directly and therefore we need this static block. Should be refactored and removed in the future.
@@ -188,6 +203,10 @@ public final class StorageHandler {
 		return INSTANCE;
 	}
 
+	public ProjectIndex getProjectIndex() {
+		return projectIndex;
+	}
+
 	public static void saveBitmapToImageFile(File outputFile, Bitmap bitmap) throws FileNotFoundException {
 		FileOutputStream outputStream = new FileOutputStream(outputFile);
 		try {
@@ -318,7 +337,20 @@ public final class StorageHandler {
 			File projectCodeFile = new File(buildProjectPath(projectName), PROJECTCODE_NAME);
 			Log.d(TAG, "path: " + projectCodeFile.getAbsolutePath());
 			fileInputStream = new FileInputStream(projectCodeFile);
-			return (Project) xstream.getProjectFromXML(projectCodeFile);
+
+			Project project = ProjectSnapshot.read(projectCodeFile);
+			if (project != null) {
+				Log.d(TAG, "loaded " + projectName + " from snapshot");
+				project.setClean();
+				return project;
+			}
+
+			project = (Project) xstream.getProjectFromXML(projectCodeFile);
+			if (project != null) {
+				ProjectSnapshot.write(projectCodeFile, getCodeFileChecksum(projectCodeFile), project);
+				project.setClean();
+			}
+			return project;
 		} catch (Exception exception) {
 			Log.e(TAG, "Loading project " + projectName + " failed.", exception);
 			return null;
@@ -334,6 +366,133 @@ public final class StorageHandler {
 		}
 	}
 
+	/**
+	 * Reads only the header of the project, which is enough to check its language version.
+	 *
+	 * @return null if the project has no readable header
+	 */
+	public ProjectHeaderProbe probeProject(String projectName) {
+		codeFileSanityCheck(projectName);
+
+		loadSaveLock.lock();
+		try {
+			return ProjectHeaderProbe.probe(new File(buildProjectPath(projectName), PROJECTCODE_NAME));
+		} finally {
+			loadSaveLock.unlock();
+		}
+	}
+
+	/**
+	 * Writes the project name into the header of the project's code.xml without deserializing the project, e.g.
+	 * after the directory of another project was copied. The rest of the file is copied byte by byte.
+	 *
+	 * @return false if the header has no program name to replace
+	 */
+	public boolean patchProgramName(String projectName) throws IOException {
+		codeFileSanityCheck(projectName);
+
+		loadSaveLock.lock();
+		File codeFile = new File(buildProjectPath(projectName), PROJECTCODE_NAME);
+		File tmpCodeFile = new File(buildProjectPath(projectName), PROJECTCODE_NAME_TMP);
+		InputStream inputStream = null;
+		OutputStream outputStream = null;
+		try {
+			inputStream = new FileInputStream(codeFile);
+			byte[] prefix = new byte[HEADER_PATCH_PREFIX_SIZE];
+			int prefixLength = 0;
+			int length;
+			while (prefixLength < prefix.length
+					&& (length = inputStream.read(prefix, prefixLength, prefix.length - prefixLength)) != -1) {
+				prefixLength += length;
+			}
+
+			// latin-1 maps every byte to one char, so indices in the string are byte offsets
+			String prefixString = new String(prefix, 0, prefixLength, Charsets.ISO_8859_1);
+			int headerEnd = prefixString.indexOf(HEADER_END_TAG);
+			int nameStart = prefixString.indexOf(PROGRAM_NAME_START_TAG);
+			int nameEnd = prefixString.indexOf(PROGRAM_NAME_END_TAG);
+			if (headerEnd == -1 || nameStart == -1 || nameEnd < nameStart || nameEnd > headerEnd) {
+				Log.w(TAG, "No program name in the header of " + codeFile.getAbsolutePath());
+				return false;
+			}
+			nameStart += PROGRAM_NAME_START_TAG.length();
+
+			MessageDigest messageDigest = Utils.getMD5MessageDigest();
+			outputStream = new BufferedOutputStream(new DigestOutputStream(new FileOutputStream(tmpCodeFile),
+					messageDigest), Constants.BUFFER_8K);
+			outputStream.write(prefix, 0, nameStart);
+			outputStream.write(escapeXmlText(projectName).getBytes(Charsets.UTF_8));
+			outputStream.write(prefix, nameEnd, prefixLength - nameEnd);
+			byte[] buffer = new byte[Constants.BUFFER_8K];
+			while ((length = inputStream.read(buffer)) != -1) {
+				outputStream.write(buffer, 0, length);
+			}
+			outputStream.close();
+			outputStream = null;
+			inputStream.close();
+			inputStream = null;
+
+			if (!codeFile.delete() || !tmpCodeFile.renameTo(codeFile)) {
+				throw new IOException("Could not replace " + codeFile.getAbsolutePath());
+			}
+			codeFileChecksums.put(codeFile.getAbsolutePath(), new CodeFileChecksum(codeFile,
+					Utils.md5Checksum(messageDigest)));
+			ProjectSnapshot.delete(codeFile);
+			projectIndex.update(projectName, ProjectIndex.UNKNOWN_LANGUAGE_VERSION);
+			return true;
+		} finally {
+			if (inputStream != null) {
+				try {
+					inputStream.close();
+				} catch (IOException ioException) {
+					Log.e(TAG, "can't close fileStream.", ioException);
+				}
+			}
+			if (outputStream != null) {
+				try {
+					outputStream.close();
+				} catch (IOException ioException) {
+					Log.e(TAG, "Failed closing the output stream", ioException);
+				}
+				if (!tmpCodeFile.delete()) {
+					Log.e(TAG, "Could not delete " + tmpCodeFile.getName());
+				}
+			}
+			loadSaveLock.unlock();
+		}
+	}
+
+	private static String escapeXmlText(String text) {
+		StringBuilder escaped = new StringBuilder(text.length());
+		for (int index = 0; index < text.length(); index++) {
+			char character = text.charAt(index);
+			switch (character) {
+				case '&':
+					escaped.append("&amp;");
+					break;
+				case '<':
+					escaped.append("&lt;");
+					break;
+				case '>':
+					escaped.append("&gt;");
+					break;
+				case '"':
+					escaped.append("&quot;");
+					break;
+				case '\'':
+					escaped.append("&apos;");
+					break;
+				case '\r':
+					escaped.append("&#xd;");
+					break;
+				default:
+					escaped.append(character);
+					break;
+			}
+		}
+		return escaped.toString();
+	}
+
 	public boolean cancelLoadProject() {
 		if (fileInputStream != null) {
 			try {
@@ -348,7 +507,7 @@ public final class StorageHandler {
 
 
 	public boolean saveProject(Project project) {
-		BufferedWriter writer = null;
+		Writer writer = null;
 
 		if (project == null) {
 			Log.d(TAG, "project is null!");
@@ -361,64 +520,87 @@ public final class StorageHandler {
 
 		loadSaveLock.lock();
 
-		String projectXml;
 		File tmpCodeFile = null;
 		File currentCodeFile = null;
 
 		try {
-			projectXml = XML_HEADER.concat(xstream.toXML(project));
 			tmpCodeFile = new File(buildProjectPath(project.getName()), PROJECTCODE_NAME_TMP);
 			currentCodeFile = new File(buildProjectPath(project.getName()), PROJECTCODE_NAME);
 
-			if (currentCodeFile.exists()) {
-				try {
-					String oldProjectXml = Files.toString(currentCodeFile, Charsets.UTF_8);
-
-					if (oldProjectXml.equals(projectXml)) {
-						Log.d(TAG, "Project version is the same. Do not update " + currentCodeFile.getName());
-						return false;
-					}
-					Log.d(TAG, "Project version differ <" + oldProjectXml.length() + "> <"
-							+ projectXml.length() + ">. update " + currentCodeFile.getName());
-
-				} catch (Exception exception) {
-					Log.e(TAG, "Opening old project " + currentCodeFile.getName() + " failed.", exception);
-					return false;
-				}
+			if (currentCodeFile.exists() && !project.isDirty()) {
+				Log.d(TAG, "Project was not modified. Do not update " + currentCodeFile.getName());
+				return false;
 			}
+			// cleaned before serializing, so changes made in the meantime mark the project dirty again
+			project.setClean();
 
 			File projectDirectory = new File(buildProjectPath(project.getName()));
 			createProjectDataStructure(projectDirectory);
 
-			writer = new BufferedWriter(new FileWriter(tmpCodeFile), Constants.BUFFER_8K);
-			writer.write(projectXml);
-			writer.flush();
+			MessageDigest messageDigest = Utils.getMD5MessageDigest();
+			writer = new BufferedWriter(new OutputStreamWriter(new DigestOutputStream(new FileOutputStream(
+					tmpCodeFile), messageDigest), Charsets.UTF_8), Constants.BUFFER_8K);
+			writer.write(XML_HEADER);
+			xstream.toXML(project, writer);
+			writer.close();
+			writer = null;
+			String projectChecksum = Utils.md5Checksum(messageDigest);
+
+			if (currentCodeFile.exists() && projectChecksum.equals(getCodeFileChecksum(currentCodeFile))) {
+				Log.d(TAG, "Project version is the same. Do not update " + currentCodeFile.getName());
+				if (!tmpCodeFile.delete()) {
+					Log.e(TAG, "Could not delete " + tmpCodeFile.getName());
+				}
+				return false;
+			}
+
+			if (currentCodeFile.exists() && !currentCodeFile.delete()) {
+				Log.e(TAG, "Could not delete " + currentCodeFile.getName());
+			}
+			if (!tmpCodeFile.renameTo(currentCodeFile)) {
+				Log.e(TAG, "Could not rename " + currentCodeFile.getName());
+				project.setDirty();
+				return false;
+			}
+			codeFileChecksums.put(currentCodeFile.getAbsolutePath(), new CodeFileChecksum(currentCodeFile,
+					projectChecksum));
+			ProjectSnapshot.write(currentCodeFile, projectChecksum, project);
+			if (project.isDirty()) {
+				// modified while saving, the snapshot might not match the code file
+				ProjectSnapshot.delete(currentCodeFile);
+			}
+			projectIndex.update(project.getName(), project.getCatrobatLanguageVersion());
 			return true;
 		} catch (Exception exception) {
 			Log.e(TAG, "Saving project " + project.getName() + " failed.", exception);
+			project.setDirty();
 			return false;
 		} finally {
 			if (writer != null) {
 				try {
 					writer.close();
-
-					if (currentCodeFile.exists() && !currentCodeFile.delete()) {
-						Log.e(TAG, "Could not delete " + currentCodeFile.getName());
-					}
-
-					if (!tmpCodeFile.renameTo(currentCodeFile)) {
-						Log.e(TAG, "Could not rename " + currentCodeFile.getName());
-					}
-
 				} catch (IOException ioException) {
 					Log.e(TAG, "Failed closing the buffered writer", ioException);
 				}
+				// only reached if serializing failed, the incomplete file must not replace code.xml
+				if (!tmpCodeFile.delete()) {
+					Log.e(TAG, "Could not delete " + tmpCodeFile.getName());
+				}
 			}
 
 			loadSaveLock.unlock();
 		}
 	}
 
+	private String getCodeFileChecksum(File codeFile) {
+		CodeFileChecksum codeFileChecksum = codeFileChecksums.get(codeFile.getAbsolutePath());
+		if (codeFileChecksum == null || !codeFileChecksum.matches(codeFile)) {
+			codeFileChecksum = new CodeFileChecksum(codeFile, Utils.md5Checksum(codeFile));
+			codeFileChecksums.put(codeFile.getAbsolutePath(), codeFileChecksum);
+		}
+		return codeFileChecksum.checksum;
+	}
+
 	public void codeFileSanityCheck(String projectName) {
 		loadSaveLock.lock();
 
@@ -504,19 +686,14 @@ public final class StorageHandler {
 			throw new IllegalArgumentException("Project with name " + projectName + " does not exist");
 		}
 		success = UtilFile.deleteDirectory(new File(buildProjectPath(projectName)));
+		projectIndex.remove(projectName);
 		if (!success) {
 			throw new IOException("Error at deleting project " + projectName);
 		}
 	}
 
 	public boolean projectExists(String projectName) {
-		List<String> projectNameList = UtilFile.getProjectNames(new File(DEFAULT_ROOT));
-		for (String projectNameIterator : projectNameList) {
-			if ((projectNameIterator.equals(projectName))) {
-				return true;
-			}
-		}
-		return false;
+		return projectName != null && projectIndex.contains(projectName);
 	}
 
 	public File copySoundFile(String path) throws IOException, IllegalArgumentException {
@@ -527,17 +704,8 @@ public final class StorageHandler {
 		if (!inputFile.exists() || !inputFile.canRead()) {
 			throw new IllegalArgumentException("file " + path + " doesn`t exist or can`t be read");
 		}
-		String inputFileChecksum = Utils.md5Checksum(inputFile);
 
-		FileChecksumContainer fileChecksumContainer = ProjectManager.getInstance().getFileChecksumContainer();
-		if (fileChecksumContainer.containsChecksum(inputFileChecksum)) {
-			fileChecksumContainer.addChecksum(inputFileChecksum, null);
-			return new File(fileChecksumContainer.getPath(inputFileChecksum));
-		}
-		File outputFile = new File(buildPath(soundDirectory.getAbsolutePath(),
-				inputFileChecksum + "_" + inputFile.getName()));
-
-		return copyFileAddCheckSum(outputFile, inputFile);
+		return copyFileAddCheckSum(inputFile, soundDirectory, "", "_" + inputFile.getName(), true);
 	}
 
 	public File copySoundFileBackPack(SoundInfo selectedSoundInfo) throws IOException, IllegalArgumentException {
@@ -548,18 +716,15 @@ public final class StorageHandler {
 		if (!inputFile.exists() || !inputFile.canRead()) {
 			throw new IllegalArgumentException("file " + path + " doesn`t exist or can`t be read");
 		}
-		String inputFileChecksum = Utils.md5Checksum(inputFile);
 
 		String currentProject = ProjectManager.getInstance().getCurrentProject().getName();
+		File soundDirectory = new File(buildPath(DEFAULT_ROOT, BACKPACK_DIRECTORY, BACKPACK_SOUND_DIRECTORY));
 
-		File outputFile = new File(buildPath(DEFAULT_ROOT, BACKPACK_DIRECTORY, BACKPACK_SOUND_DIRECTORY, currentProject
-				+ "_" + selectedSoundInfo.getTitle() + "_" + inputFileChecksum));
-
-		return copyFileAddCheckSum(outputFile, inputFile);
+		return copyFileAddCheckSum(inputFile, soundDirectory,
+				currentProject + "_" + selectedSoundInfo.getTitle() + "_", "", false);
 	}
 
 	public File copyImage(String currentProjectName, String inputFilePath, String newName) throws IOException {
-		String newFilePath;
 		File imageDirectory = new File(buildPath(buildProjectPath(currentProjectName), IMAGE_DIRECTORY));
 
 		File inputFile = new File(inputFilePath);
@@ -569,7 +734,6 @@ public final class StorageHandler {
 
 		int[] imageDimensions = new int[2];
 		imageDimensions = ImageEditing.getImageDimensions(inputFilePath);
-		FileChecksumContainer checksumCont = ProjectManager.getInstance().getFileChecksumContainer();
 
 		File outputFileDirectory = new File(imageDirectory.getAbsolutePath());
 		if (outputFileDirectory.exists() == false) {
@@ -583,20 +747,10 @@ public final class StorageHandler {
 			File outputFile = new File(buildPath(imageDirectory.getAbsolutePath(), inputFile.getName()));
 			return copyAndResizeImage(outputFile, inputFile, imageDirectory);
 		} else {
-			String checksumSource = Utils.md5Checksum(inputFile);
-
 			if (newName != null) {
-				newFilePath = buildPath(imageDirectory.getAbsolutePath(), checksumSource + "_" + newName);
-			} else {
-				newFilePath = buildPath(imageDirectory.getAbsolutePath(), checksumSource + "_" + inputFile.getName());
-				if (checksumCont.containsChecksum(checksumSource)) {
-					checksumCont.addChecksum(checksumSource, newFilePath);
-					return new File(checksumCont.getPath(checksumSource));
-				}
+				return copyFileAddCheckSum(inputFile, imageDirectory, "", "_" + newName, false);
 			}
-
-			File outputFile = new File(newFilePath);
-			return copyFileAddCheckSum(outputFile, inputFile);
+			return copyFileAddCheckSum(inputFile, imageDirectory, "", "_" + inputFile.getName(), true);
 		}
 	}
 
@@ -660,6 +814,7 @@ public final class StorageHandler {
 			if (container.decrementUsage(filepath)) {
 				File toDelete = new File(filepath);
 				toDelete.delete();
+				LookHitMask.getMaskFile(toDelete).delete();
 			}
 		} catch (FileNotFoundException fileNotFoundException) {
 			Log.e(TAG, Log.getStackTraceString(fileNotFoundException));
@@ -699,17 +854,62 @@ public final class StorageHandler {
 		return xmlProject;
 	}
 
-	private File copyFileAddCheckSum(File destinationFile, File sourceFile) throws IOException {
-		File copiedFile = UtilFile.copyFile(destinationFile, sourceFile);
-		addChecksum(destinationFile, sourceFile);
+	/**
+	 * Copies the source file into the directory, the copy is named prefix + checksum + suffix. If reuseExistingFile
+	 * is set, the source is hashed first and a file with the same checksum that is already in the project is
+	 * returned without copying. Otherwise the checksum is computed while copying into a temporary file.
+	 */
+	private File copyFileAddCheckSum(File sourceFile, File directory, String fileNamePrefix, String fileNameSuffix,
+			boolean reuseExistingFile) throws IOException {
+		FileChecksumContainer fileChecksumContainer = ProjectManager.getInstance().getFileChecksumContainer();
+		if (reuseExistingFile) {
+			String checksumSource = Utils.md5Checksum(sourceFile);
+			File destinationFile = new File(directory, fileNamePrefix + checksumSource + fileNameSuffix);
+			if (fileChecksumContainer.containsChecksum(checksumSource)) {
+				fileChecksumContainer.addChecksum(checksumSource, destinationFile.getAbsolutePath());
+				return new File(fileChecksumContainer.getPath(checksumSource));
+			}
+			UtilFile.copyFile(destinationFile, sourceFile);
+			fileChecksumContainer.addChecksum(checksumSource, destinationFile.getAbsolutePath());
+			return destinationFile;
+		}
 
-		return copiedFile;
+		File temporaryFile = File.createTempFile(IMPORT_FILE_PREFIX, null, directory);
+		try {
+			String checksumSource = UtilFile.copyFileWithChecksum(temporaryFile, sourceFile);
+			File destinationFile = new File(directory, fileNamePrefix + checksumSource + fileNameSuffix);
+			if (destinationFile.exists() && !destinationFile.delete()) {
+				Log.e(TAG, "Could not delete " + destinationFile.getName());
+			}
+			if (!temporaryFile.renameTo(destinationFile)) {
+				throw new IOException("Could not rename copy of " + sourceFile.getName() + " to "
+						+ destinationFile.getName());
+			}
+			fileChecksumContainer.addChecksum(checksumSource, destinationFile.getAbsolutePath());
+			return destinationFile;
+		} finally {
+			if (temporaryFile.exists() && !temporaryFile.delete()) {
+				Log.e(TAG, "Could not delete " + temporaryFile.getName());
+			}
+		}
 	}
 
-	private void addChecksum(File destinationFile, File sourceFile) {
-		String checksumSource = Utils.md5Checksum(sourceFile);
-		FileChecksumContainer fileChecksumContainer = ProjectManager.getInstance().getFileChecksumContainer();
-		fileChecksumContainer.addChecksum(checksumSource, destinationFile.getAbsolutePath());
-	}
+	/**
+	 * Checksum of a code.xml, valid as long as the file was not touched since.
+	 */
+	private static class CodeFileChecksum {
+		private final String checksum;
+		private final long lastModified;
+		private final long length;
+
+		CodeFileChecksum(File codeFile, String checksum) {
+			this.checksum = checksum;
+			lastModified = codeFile.lastModified();
+			length = codeFile.length();
+		}
 
+		boolean matches(File codeFile) {
+			return codeFile.lastModified() == lastModified && codeFile.length() == length;
+		}
+	}
 }
@@ -0,0 +1,79 @@
+/*
+ * Catroid: An on-device visual programming system for Android devices
+ * Copyright (C) 2010-2014 The Catrobat Team
+ * (<http://developer.catrobat.org/credits>)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * An additional term exception under section 7 of the GNU Affero
+ * General Public License, version 3, is available at
+ * http://developer.catrobat.org/license_additional_term
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.catrobat.catroid.legonxt;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Frames LCP messages for the bluetooth connection: each message is preceded by its length as little endian
+ * unsigned 16 bit value.
+ */
+public class LCPFramer {
+	// direct and system commands of the NXT are never longer than this
+	private static final int MAX_MESSAGE_LENGTH = 64;
+	private static final int LENGTH_HEADER_SIZE = 2;
+
+	private byte[] frameBuffer = new byte[LENGTH_HEADER_SIZE + MAX_MESSAGE_LENGTH];
+
+	/**
+	 * Writes length and message with a single write call, so they leave in one bluetooth packet.
+	 */
+	public synchronized void writeFrame(OutputStream outputStream, byte[] message) throws IOException {
+		int messageLength = message.length;
+		if (LENGTH_HEADER_SIZE + messageLength > frameBuffer.length) {
+			frameBuffer = new byte[LENGTH_HEADER_SIZE + messageLength];
+		}
+		frameBuffer[0] = (byte) messageLength;
+		frameBuffer[1] = (byte) (messageLength >> 8);
+		System.arraycopy(message, 0, frameBuffer, LENGTH_HEADER_SIZE, messageLength);
+		outputStream.write(frameBuffer, 0, LENGTH_HEADER_SIZE + messageLength);
+		outputStream.flush();
+	}
+
+	/**
+	 * Reads one complete message, waiting for all of its bytes even if they arrive in several packets.
+	 *
+	 * @throws EOFException if the stream ends within the frame
+	 */
+	public static byte[] readFrame(InputStream inputStream) throws IOException {
+		int lowByte = inputStream.read();
+		int highByte = inputStream.read();
+		if (lowByte == -1 || highByte == -1) {
+			throw new EOFException("Connection closed while reading the message length");
+		}
+
+		byte[] message = new byte[(highByte << 8) + lowByte];
+		int offset = 0;
+		while (offset < message.length) {
+			int length = inputStream.read(message, offset, message.length - offset);
+			if (length == -1) {
+				throw new EOFException("Connection closed after " + offset + " of " + message.length + " bytes");
+			}
+			offset += length;
+		}
+		return message;
+	}
+}
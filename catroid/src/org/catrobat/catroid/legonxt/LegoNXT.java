@@ -37,9 +37,9 @@ import java.io.IOException;
 public class LegoNXT implements BTConnectable {
 
 	private static final int REQUEST_CONNECT_DEVICE = 1000;
-	private static final int TONE_COMMAND = 101;
 	private static final String TAG = LegoNXT.class.getSimpleName();
 	private static Handler btcHandler;
+	private static LegoNXTCommandSender commandSender;
 	private LegoNXTCommunicator myNXTCommunicator;
 	private boolean pairing;
 	private Handler recieverHandler;
@@ -51,19 +51,16 @@ public class LegoNXT implements BTConnectable {
 	}
 
 	public static synchronized void sendBTCPlayToneMessage(int frequency, int duration) {
-		Bundle myBundle = new Bundle();
-		myBundle.putInt("frequency", frequency);
-		myBundle.putInt("duration", duration);
-
-		Message myMessage = btcHandler.obtainMessage();
-		myMessage.setData(myBundle);
-		myMessage.what = TONE_COMMAND;
-
-		btcHandler.sendMessage(myMessage);
-
+		commandSender.queueTone(frequency, duration);
 	}
 
 	public static synchronized void sendBTCMotorMessage(int delay, int motor, int speed, int angle) {
+		if (delay == 0) {
+			btcHandler.removeMessages(motor);
+			commandSender.queueMotorCommand(motor, speed, angle);
+			return;
+		}
+
 		Bundle myBundle = new Bundle();
 		myBundle.putInt("motor", motor);
 		myBundle.putInt("speed", speed);
@@ -72,16 +69,8 @@ public class LegoNXT implements BTConnectable {
 		myMessage.setData(myBundle);
 		myMessage.what = motor;
 
-		if (delay == 0) {
-
-			btcHandler.removeMessages(motor);
-			btcHandler.sendMessage(myMessage);
-
-		} else {
-			//btcHandler.removeMessages(motor);
-			btcHandler.sendMessageDelayed(myMessage, delay);
-
-		}
+		//btcHandler.removeMessages(motor);
+		btcHandler.sendMessageDelayed(myMessage, delay);
 	}
 
 	public static Handler getBTCHandler() {
@@ -100,6 +89,7 @@ public class LegoNXT implements BTConnectable {
 
 		myNXTCommunicator = new LegoNXTBtCommunicator(recieverHandler, activity.getResources());
 		btcHandler = myNXTCommunicator.getHandler();
+		commandSender = myNXTCommunicator.getCommandSender();
 
 		((LegoNXTBtCommunicator) myNXTCommunicator).setMACAddress(macAddress);
 		myNXTCommunicator.start();
@@ -50,6 +50,7 @@ public class LegoNXTBtCommunicator extends LegoNXTCommunicator {
 	private BluetoothSocket bluetoothSocket = null;
 	private OutputStream nxtOutputStream = null;
 	private InputStream nxtInputStream = null;
+	private final LCPFramer framer = new LCPFramer();
 
 	private String macAddress;
 
@@ -121,6 +122,7 @@ public class LegoNXTBtCommunicator extends LegoNXTCommunicator {
 		nxtInputStream = bluetoothSocket.getInputStream();
 		nxtOutputStream = bluetoothSocket.getOutputStream();
 		connected = true;
+		commandSender.start();
 		sendState(STATE_CONNECTED);
 	}
 
@@ -133,6 +135,7 @@ public class LegoNXTBtCommunicator extends LegoNXTCommunicator {
 		if (connected) {
 			stopAllNXTMovement();
 		}
+		commandSender.quit();
 
 		try {
 			if (bluetoothSocket != null) {
@@ -156,9 +159,7 @@ public class LegoNXTBtCommunicator extends LegoNXTCommunicator {
 		myHandler.removeMessages(1);
 		myHandler.removeMessages(2);
 
-		moveMotor(0, 0, 0);
-		moveMotor(1, 0, 0);
-		moveMotor(2, 0, 0);
+		commandSender.stopAllMotors();
 	}
 
 	/**
@@ -169,17 +170,12 @@ public class LegoNXTBtCommunicator extends LegoNXTCommunicator {
 	 */
 	@Override
 	public void sendMessage(byte[] message) throws IOException {
-
-		if (nxtOutputStream == null) {
+		OutputStream outputStream = nxtOutputStream;
+		if (outputStream == null) {
 			throw new IOException("Outputstream was null");
 		}
 
-		// send message length
-		int messageLength = message.length;
-		nxtOutputStream.write(messageLength);
-		nxtOutputStream.write(messageLength >> 8);
-		nxtOutputStream.write(message, 0, message.length);
-		nxtOutputStream.flush();
+		framer.writeFrame(outputStream, message);
 	}
 
 	/**
@@ -189,16 +185,12 @@ public class LegoNXTBtCommunicator extends LegoNXTCommunicator {
 	 */
 	@Override
 	public byte[] receiveMessage() throws IOException {
-		if (nxtInputStream == null) {
+		InputStream inputStream = nxtInputStream;
+		if (inputStream == null) {
 			throw new IOException("Inputstream was null");
 		}
 
-		int length = nxtInputStream.read();
-		length = (nxtInputStream.read() << 8) + length;
-		byte[] returnMessage = new byte[length];
-		nxtInputStream.read(returnMessage);
-		//Log.i("bt", returnMessage.toString());
-		return returnMessage;
+		return LCPFramer.readFrame(inputStream);
 	}
 
 }
@@ -0,0 +1,184 @@
+/*
+ * Catroid: An on-device visual programming system for Android devices
+ * Copyright (C) 2010-2014 The Catrobat Team
+ * (<http://developer.catrobat.org/credits>)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * An additional term exception under section 7 of the GNU Affero
+ * General Public License, version 3, is available at
+ * http://developer.catrobat.org/license_additional_term
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.catrobat.catroid.legonxt;
+
+import android.util.Log;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Sends motor and tone commands to the NXT on its own thread, so callers like the stage never wait for the
+ * bluetooth connection. Commands that run a motor until the next command are coalesced: a queued one is replaced by
+ * a later one for the same motor, and a speed the motor already runs with is not sent again. Turns by an angle are
+ * always sent, in the order they were queued. If the connection can't keep up, the oldest queued commands are
+ * dropped.
+ */
+public class LegoNXTCommandSender extends Thread {
+	public static final int MAX_PENDING_COMMANDS = 32;
+	public static final int MAX_PENDING_TONES = 16;
+
+	private static final String TAG = LegoNXTCommandSender.class.getSimpleName();
+	private static final int MOTOR_COUNT = 3;
+
+	private final LegoNXTCommunicator communicator;
+	// held while commands are sent, so stopAllMotors can't be overtaken by an older command
+	private final Object sendLock = new Object();
+
+	// motor, speed and angle of each command, in the order they were queued
+	private List<int[]> pendingMotorCommands = new ArrayList<int[]>();
+	private List<int[]> pendingTones = new ArrayList<int[]>();
+	private final boolean[] sentSpeedKnown = new boolean[MOTOR_COUNT];
+	private final int[] sentSpeeds = new int[MOTOR_COUNT];
+	private boolean running = true;
+
+	// only used while holding sendLock, swapped with the pending lists
+	private List<int[]> motorCommandsToSend = new ArrayList<int[]>();
+	private List<int[]> tonesToSend = new ArrayList<int[]>();
+
+	public LegoNXTCommandSender(LegoNXTCommunicator communicator) {
+		super(LegoNXTCommandSender.class.getSimpleName());
+		this.communicator = communicator;
+	}
+
+	/**
+	 * Queues a motor command. A command with angle 0 replaces the last queued command for the same motor if that
+	 * one has angle 0 too.
+	 *
+	 * @param angle
+	 *            the tacho limit, 0 to run the motor until the next command
+	 */
+	public synchronized void queueMotorCommand(int motor, int speed, int angle) {
+		if (motor < 0 || motor >= MOTOR_COUNT) {
+			Log.w(TAG, "Ignore command for unknown motor " + motor);
+			return;
+		}
+		if (angle == 0) {
+			for (int index = pendingMotorCommands.size() - 1; index >= 0; index--) {
+				int[] command = pendingMotorCommands.get(index);
+				if (command[0] == motor) {
+					if (command[2] == 0) {
+						command[1] = speed;
+						return;
+					}
+					break;
+				}
+			}
+		}
+		addPending(pendingMotorCommands, new int[] { motor, speed, angle }, MAX_PENDING_COMMANDS);
+		notifyAll();
+	}
+
+	public synchronized void queueTone(int frequency, int duration) {
+		addPending(pendingTones, new int[] { frequency, duration }, MAX_PENDING_TONES);
+		notifyAll();
+	}
+
+	private static void addPending(List<int[]> pending, int[] command, int maxPending) {
+		if (pending.size() >= maxPending) {
+			Log.d(TAG, "Connection too slow, drop the oldest queued command");
+			pending.remove(0);
+		}
+		pending.add(command);
+	}
+
+	/**
+	 * Drops all queued motor commands and stops the motors on the calling thread.
+	 */
+	public void stopAllMotors() {
+		synchronized (sendLock) {
+			synchronized (this) {
+				pendingMotorCommands.clear();
+			}
+			for (int motor = 0; motor < MOTOR_COUNT; motor++) {
+				communicator.moveMotor(motor, 0, 0);
+				rememberSentSpeed(motor, 0, 0);
+			}
+		}
+	}
+
+	public synchronized void quit() {
+		running = false;
+		notifyAll();
+	}
+
+	@Override
+	public void run() {
+		while (waitForCommands()) {
+			sendPendingCommands();
+		}
+	}
+
+	private synchronized boolean waitForCommands() {
+		while (running && pendingTones.isEmpty() && pendingMotorCommands.isEmpty()) {
+			try {
+				wait();
+			} catch (InterruptedException interruptedException) {
+				return false;
+			}
+		}
+		return running;
+	}
+
+	/**
+	 * Sends all queued commands on the calling thread.
+	 */
+	public void sendPendingCommands() {
+		synchronized (sendLock) {
+			synchronized (this) {
+				List<int[]> swap = tonesToSend;
+				tonesToSend = pendingTones;
+				pendingTones = swap;
+				swap = motorCommandsToSend;
+				motorCommandsToSend = pendingMotorCommands;
+				pendingMotorCommands = swap;
+			}
+
+			for (int[] tone : tonesToSend) {
+				communicator.doBeep(tone[0], tone[1]);
+			}
+			tonesToSend.clear();
+			for (int[] command : motorCommandsToSend) {
+				int motor = command[0];
+				int speed = command[1];
+				int angle = command[2];
+				if (angle == 0 && isRunningWithSpeed(motor, speed)) {
+					continue;
+				}
+				communicator.moveMotor(motor, speed, angle);
+				rememberSentSpeed(motor, speed, angle);
+			}
+			motorCommandsToSend.clear();
+		}
+	}
+
+	private synchronized boolean isRunningWithSpeed(int motor, int speed) {
+		return sentSpeedKnown[motor] && sentSpeeds[motor] == speed;
+	}
+
+	private synchronized void rememberSentSpeed(int motor, int speed, int angle) {
+		// after a turn by an angle the motor stops by itself, its speed is unknown
+		sentSpeedKnown[motor] = angle == 0;
+		sentSpeeds[motor] = speed;
+	}
+}
@@ -80,7 +80,8 @@ public abstract class LegoNXTCommunicator extends Thread {
 
 			switch (myMessage.what) {
 				case TONE_COMMAND:
-					doBeep(myMessage.getData().getInt("frequency"), myMessage.getData().getInt("duration"));
+					commandSender.queueTone(myMessage.getData().getInt("frequency"),
+							myMessage.getData().getInt("duration"));
 					break;
 				case DISCONNECT:
 					break;
@@ -91,7 +92,7 @@ public abstract class LegoNXTCommunicator extends Thread {
 					motor = myMessage.getData().getInt("motor");
 					speed = myMessage.getData().getInt("speed");
 					angle = myMessage.getData().getInt("angle");
-					moveMotor(motor, speed, angle);
+					commandSender.queueMotorCommand(motor, speed, angle);
 
 					break;
 
@@ -99,6 +100,7 @@ public abstract class LegoNXTCommunicator extends Thread {
 		}
 	};
 	protected static ArrayList<byte[]> receivedMessages = new ArrayList<byte[]>();
+	protected final LegoNXTCommandSender commandSender = new LegoNXTCommandSender(this);
 	private static boolean requestConfirmFromDevice = false;
 	protected boolean connected = false;
 	protected Handler uiHandler;
@@ -122,6 +124,10 @@ public abstract class LegoNXTCommunicator extends Thread {
 		return myHandler;
 	}
 
+	public LegoNXTCommandSender getCommandSender() {
+		return commandSender;
+	}
+
 	public byte[] getReturnMessage() {
 
 		byte[] copy = new byte[returnMessage.length];
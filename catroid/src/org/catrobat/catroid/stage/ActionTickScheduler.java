@@ -0,0 +1,186 @@
+/*
+ * Catroid: An on-device visual programming system for Android devices
+ * Copyright (C) 2010-2014 The Catrobat Team
+ * (<http://developer.catrobat.org/credits>)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * An additional term exception under section 7 of the GNU Affero
+ * General Public License, version 3, is available at
+ * http://developer.catrobat.org/license_additional_term
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.catrobat.catroid.stage;
+
+/**
+ * Splits the time of a rendered frame into ticks of a fixed duration. Time that does not fill a whole tick is
+ * carried over to the next frame, so actions run at the same speed independent of the frame rate. If a frame took
+ * longer than the catch-up limit allows, the ticks of this frame are stretched to cover the whole frame time, so
+ * slow frames cost precision but never wall-clock time. The catch-up limit itself drops while acting takes longer
+ * than {@link #ACT_TIME_BUDGET_NANOS} per frame, so projects with expensive actions run fewer, longer ticks instead
+ * of falling further behind with every frame.
+ */
+public class ActionTickScheduler {
+
+	public static final int DEFAULT_TICKS_PER_SECOND = 120;
+	public static final int DEFAULT_MAXIMUM_TICKS_PER_FRAME = 8;
+	// half of a frame at 60 frames per second, the rest is left for drawing
+	public static final long ACT_TIME_BUDGET_NANOS = 8000000L;
+	// frame times are not exact multiples of the tick duration, a tick missing by less than this fraction still runs
+	private static final double TICK_TOLERANCE = 1e-4;
+
+	private float tickDuration;
+	private float frameTickDuration;
+	private int maximumTicksPerFrame;
+	private int tickLimit;
+	private double accumulatedTime = 0d;
+
+	private long frameCount = 0;
+	private long tickCount = 0;
+	private int ticksOfLastFrame = 0;
+	private long framesAtCatchUpLimit = 0;
+	private long framesOverBudget = 0;
+
+	public ActionTickScheduler() {
+		this(DEFAULT_TICKS_PER_SECOND, DEFAULT_MAXIMUM_TICKS_PER_FRAME);
+	}
+
+	public ActionTickScheduler(int ticksPerSecond, int maximumTicksPerFrame) {
+		setTicksPerSecond(ticksPerSecond);
+		setMaximumTicksPerFrame(maximumTicksPerFrame);
+	}
+
+	public void setTicksPerSecond(int ticksPerSecond) {
+		if (ticksPerSecond <= 0) {
+			throw new IllegalArgumentException("ticksPerSecond must be positive");
+		}
+		tickDuration = 1f / ticksPerSecond;
+		frameTickDuration = tickDuration;
+	}
+
+	public void setMaximumTicksPerFrame(int maximumTicksPerFrame) {
+		if (maximumTicksPerFrame <= 0) {
+			throw new IllegalArgumentException("maximumTicksPerFrame must be positive");
+		}
+		this.maximumTicksPerFrame = maximumTicksPerFrame;
+		tickLimit = maximumTicksPerFrame;
+	}
+
+	/**
+	 * @return the number of ticks of {@link #getFrameTickDuration()} seconds to run for a frame that took deltaTime
+	 *         seconds
+	 */
+	public int startFrame(float deltaTime) {
+		if (deltaTime > 0f) {
+			accumulatedTime += deltaTime;
+		}
+
+		int ticks = (int) (accumulatedTime / tickDuration + TICK_TOLERANCE);
+		if (ticks > tickLimit) {
+			ticks = tickLimit;
+			frameTickDuration = (float) (accumulatedTime / ticks);
+			framesAtCatchUpLimit++;
+			accumulatedTime = 0d;
+		} else {
+			frameTickDuration = tickDuration;
+			accumulatedTime = Math.max(0d, accumulatedTime - (double) ticks * tickDuration);
+		}
+
+		frameCount++;
+		tickCount += ticks;
+		ticksOfLastFrame = ticks;
+		return ticks;
+	}
+
+	/**
+	 * Halves the catch-up limit if the ticks of the frame took longer than {@link #ACT_TIME_BUDGET_NANOS}, and
+	 * raises it by one tick, up to {@link #getMaximumTicksPerFrame()}, while they take less than half of it.
+	 */
+	public void endFrame(long actTimeNanos) {
+		if (actTimeNanos > ACT_TIME_BUDGET_NANOS) {
+			tickLimit = Math.max(1, tickLimit / 2);
+			framesOverBudget++;
+		} else if (actTimeNanos < ACT_TIME_BUDGET_NANOS / 2 && tickLimit < maximumTicksPerFrame) {
+			tickLimit++;
+		}
+	}
+
+	public void reset() {
+		accumulatedTime = 0d;
+		frameCount = 0;
+		tickCount = 0;
+		ticksOfLastFrame = 0;
+		framesAtCatchUpLimit = 0;
+		framesOverBudget = 0;
+		tickLimit = maximumTicksPerFrame;
+		frameTickDuration = tickDuration;
+	}
+
+	public float getTickDuration() {
+		return tickDuration;
+	}
+
+	/**
+	 * @return the duration of the ticks of the last started frame, longer than {@link #getTickDuration()} if the
+	 *         frame was at the catch-up limit
+	 */
+	public float getFrameTickDuration() {
+		return frameTickDuration;
+	}
+
+	public int getMaximumTicksPerFrame() {
+		return maximumTicksPerFrame;
+	}
+
+	/**
+	 * @return the current catch-up limit, lower than {@link #getMaximumTicksPerFrame()} after frames over budget
+	 */
+	public int getTickLimit() {
+		return tickLimit;
+	}
+
+	public float getAccumulatedTime() {
+		return (float) accumulatedTime;
+	}
+
+	public long getFrameCount() {
+		return frameCount;
+	}
+
+	public long getTickCount() {
+		return tickCount;
+	}
+
+	public int getTicksOfLastFrame() {
+		return ticksOfLastFrame;
+	}
+
+	public float getAverageTicksPerFrame() {
+		return frameCount == 0 ? 0f : (float) tickCount / frameCount;
+	}
+
+	public long getFramesAtCatchUpLimit() {
+		return framesAtCatchUpLimit;
+	}
+
+	public long getFramesOverBudget() {
+		return framesOverBudget;
+	}
+
+	@Override
+	public String toString() {
+		return "frames: " + frameCount + ", ticks: " + tickCount + ", ticks/frame: " + getAverageTicksPerFrame()
+				+ ", frames at catch-up limit: " + framesAtCatchUpLimit + ", frames over budget: " + framesOverBudget
+				+ ", tick limit: " + tickLimit;
+	}
+}
@@ -0,0 +1,95 @@
+/*
+ * Catroid: An on-device visual programming system for Android devices
+ * Copyright (C) 2010-2014 The Catrobat Team
+ * (<http://developer.catrobat.org/credits>)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * An additional term exception under section 7 of the GNU Affero
+ * General Public License, version 3, is available at
+ * http://developer.catrobat.org/license_additional_term
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.catrobat.catroid.stage;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.glutils.ShaderProgram;
+
+/**
+ * Shader shared by all looks on the stage. The brightness of a look is passed in the red and green channel of the
+ * vertex color and its transparency in the alpha channel, so switching between looks does not flush the batch.
+ * Only looks may be drawn while this shader is set, see {@link #setBrightnessColor(Color, float)}.
+ */
+public class BrightnessShader extends ShaderProgram {
+
+	private static final int BRIGHTNESS_STEPS = 0xFFFF;
+	private static final float MAXIMUM_BRIGHTNESS = 2f;
+
+	private static final String VERTEX_SHADER = "attribute vec4 " + ShaderProgram.POSITION_ATTRIBUTE + ";\n"
+			+ "attribute vec4 " + ShaderProgram.COLOR_ATTRIBUTE + ";\n" + "attribute vec2 "
+			+ ShaderProgram.TEXCOORD_ATTRIBUTE + "0;\n" + "uniform mat4 u_projTrans;\n" + "varying float v_alpha;\n"
+			+ "varying float v_brightness;\n" + "varying vec2 v_texCoords;\n" + "\n" + "void main()\n" + "{\n"
+			+ " float brightnessHigh = floor(" + ShaderProgram.COLOR_ATTRIBUTE + ".r * 255.0 + 0.5);\n"
+			+ " float brightnessLow = floor(" + ShaderProgram.COLOR_ATTRIBUTE + ".g * 255.0 + 0.5);\n"
+			+ " v_brightness = (brightnessHigh * 256.0 + brightnessLow) * " + MAXIMUM_BRIGHTNESS + " / "
+			+ BRIGHTNESS_STEPS + ".0 - 1.0;\n" + " v_alpha = " + ShaderProgram.COLOR_ATTRIBUTE + ".a;\n"
+			+ " v_texCoords = " + ShaderProgram.TEXCOORD_ATTRIBUTE + "0;\n" + " gl_Position = u_projTrans * "
+			+ ShaderProgram.POSITION_ATTRIBUTE + ";\n" + "}\n";
+	private static final String FRAGMENT_SHADER = "#ifdef GL_ES\n" + "precision mediump float;\n" + "#endif\n"
+			+ "varying float v_alpha;\n" + "varying float v_brightness;\n" + "varying vec2 v_texCoords;\n"
+			+ "uniform sampler2D u_texture;\n" + "void main()\n" + "{\n"
+			+ " vec4 color = texture2D(u_texture, v_texCoords);\n" + " color.a *= v_alpha;\n"
+			+ " color.rgb += v_brightness * color.a;\n" //apply brightness
+			+ " gl_FragColor = color;\n" + "}";
+
+	private static boolean enabled = false;
+
+	public BrightnessShader() {
+		super(VERTEX_SHADER, FRAGMENT_SHADER);
+		ShaderProgram.pedantic = false;
+	}
+
+	/**
+	 * @return true while the stage draws looks with this shader, looks must not encode their brightness otherwise
+	 */
+	public static boolean isEnabled() {
+		return enabled;
+	}
+
+	public static void setEnabled(boolean enabled) {
+		BrightnessShader.enabled = enabled;
+	}
+
+	/**
+	 * Stores the brightness in the color the look is drawn with, the alpha channel is left untouched.
+	 *
+	 * @param brightness between 0 (black) and 2 (white), 1 leaves the image unchanged
+	 */
+	public static void setBrightnessColor(Color color, float brightness) {
+		float clampedBrightness = Math.max(0f, Math.min(MAXIMUM_BRIGHTNESS, brightness));
+		int encodedBrightness = Math.round(clampedBrightness / MAXIMUM_BRIGHTNESS * BRIGHTNESS_STEPS);
+		// the batch truncates every channel to 8 bits, the offset keeps the exact byte
+		color.r = ((encodedBrightness >> 8) + 0.5f) / 255f;
+		color.g = ((encodedBrightness & 0xFF) + 0.5f) / 255f;
+		color.b = 1f;
+	}
+
+	/**
+	 * @return the brightness the shader decodes from the color, after it was truncated to 8 bits per channel like
+	 *         the batch does
+	 */
+	public static float getBrightnessOfColor(Color color) {
+		int encodedBrightness = ((int) (255 * color.r) << 8) | (int) (255 * color.g);
+		return (float) encodedBrightness / BRIGHTNESS_STEPS * MAXIMUM_BRIGHTNESS;
+	}
+}
@@ -55,6 +55,8 @@ public class Passepartout extends Actor {
 
 	@Override
 	public void draw(SpriteBatch batch, float parentAlpha) {
+		batch.setShader(null);
+		batch.setColor(Color.WHITE);
 		if (Float.compare(passepartoutWidth, 0f) != 0) {
 			batch.draw(texture, -virtualScreenWidth / 2f, -virtualScreenHeight / 2f, -passepartoutWidth,
 					virtualScreenHeight);
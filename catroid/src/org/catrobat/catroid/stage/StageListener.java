@@ -25,7 +25,7 @@ package org.catrobat.catroid.stage;
 import android.content.Context;
 import android.graphics.Bitmap;
 import android.graphics.Bitmap.Config;
-import android.os.SystemClock;
+import android.util.Log;
 
 import com.badlogic.gdx.ApplicationListener;
 import com.badlogic.gdx.Gdx;
@@ -43,18 +43,21 @@ import com.badlogic.gdx.graphics.g2d.BitmapFont.TextBounds;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.scenes.scene2d.Stage;
 import com.badlogic.gdx.utils.ScreenUtils;
-import com.google.common.collect.Multimap;
 
 import org.catrobat.catroid.ProjectManager;
+import org.catrobat.catroid.common.BroadcastWaitSequenceMap;
 import org.catrobat.catroid.common.Constants;
 import org.catrobat.catroid.common.LookData;
+import org.catrobat.catroid.common.LookTextureCache;
 import org.catrobat.catroid.common.ScreenModes;
 import org.catrobat.catroid.common.ScreenValues;
-import org.catrobat.catroid.content.BroadcastHandler;
+import org.catrobat.catroid.common.SoundInfo;
+import org.catrobat.catroid.content.ActionRestartQueue;
 import org.catrobat.catroid.content.Project;
 import org.catrobat.catroid.content.Sprite;
 import org.catrobat.catroid.facedetection.FaceDetectionHandler;
 import org.catrobat.catroid.io.SoundManager;
+import org.catrobat.catroid.io.StorageHandler;
 import org.catrobat.catroid.ui.dialogs.StageDialog;
 import org.catrobat.catroid.utils.LedUtil;
 import org.catrobat.catroid.utils.Utils;
@@ -64,24 +67,21 @@ import java.io.File;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 public class StageListener implements ApplicationListener {
 
+	private static final String TAG = StageListener.class.getSimpleName();
 	private static final int AXIS_WIDTH = 4;
-	private static final float DELTA_ACTIONS_DIVIDER_MAXIMUM = 50f;
-	private static final int ACTIONS_COMPUTATION_TIME_MAXIMUM = 8;
 	private static final boolean DEBUG = false;
-	private static final java.lang.String SEQUENCE = "Sequence(";
-	public static final String BROADCAST_NOTIFY = ", BroadcastNotify)";
+	private static final int TURBO_MODE_STATISTICS_LOG_INTERVAL = 60;
 
 	// needed for UiTests - is disabled to fix crashes with EMMA coverage
 	// CHECKSTYLE DISABLE StaticVariableNameCheck FOR 1 LINES
 	private static boolean DYNAMIC_SAMPLING_RATE_FOR_ACTIONS = true;
 
-	private float deltaActionTimeDivisor = 10f;
+	private ActionTickScheduler actionTickScheduler = new ActionTickScheduler();
+	private final ActionRestartQueue actionRestartQueue = new ActionRestartQueue();
 	public static final String SCREENSHOT_AUTOMATIC_FILE_NAME = "automatic_screenshot"
 			+ Constants.IMAGE_STANDARD_EXTENTION;
 	public static final String SCREENSHOT_MANUAL_FILE_NAME = "manual_screenshot" + Constants.IMAGE_STANDARD_EXTENTION;
@@ -92,6 +92,7 @@ public class StageListener implements ApplicationListener {
 	private boolean finished = false;
 	private boolean firstStart = true;
 	private boolean reloadProject = false;
+	private boolean turboModeOverride = false;
 
 	private static boolean checkIfAutomaticScreenshotShouldBeTaken = true;
 	private boolean makeAutomaticScreenshot = false;
@@ -110,6 +111,7 @@ public class StageListener implements ApplicationListener {
 
 	private OrthographicCamera camera;
 	private SpriteBatch batch;
+	private BrightnessShader brightnessShader;
 	private BitmapFont font;
 	private Passepartout passepartout;
 
@@ -152,6 +154,13 @@ public class StageListener implements ApplicationListener {
 		project = ProjectManager.getInstance().getCurrentProject();
 		pathForScreenshot = Utils.buildProjectPath(project.getName()) + "/";
 
+		TurboModeScheduler.setEnabled(project.isTurboMode() || turboModeOverride);
+		// broadcast-waits of an earlier stage refer to receivers that are not registered anymore
+		project.getBroadcastReceiverRegistry().clear();
+		BroadcastWaitSequenceMap.clear();
+		BroadcastWaitSequenceMap.clearCurrentBroadcastEvent();
+		TurboModeScheduler.reset();
+
 		virtualWidth = project.getXmlHeader().virtualScreenWidth;
 		virtualHeight = project.getXmlHeader().virtualScreenHeight;
 
@@ -160,6 +169,13 @@ public class StageListener implements ApplicationListener {
 
 		stage = new Stage(virtualWidth, virtualHeight, true);
 		batch = stage.getSpriteBatch();
+		brightnessShader = new BrightnessShader();
+		if (!brightnessShader.isCompiled()) {
+			Log.e(TAG, "Brightness shader not compiled, looks are drawn without brightness: " + brightnessShader.getLog());
+			brightnessShader.dispose();
+			brightnessShader = null;
+		}
+		BrightnessShader.setEnabled(brightnessShader != null);
 
 		Gdx.gl.glViewport(0, 0, ScreenValues.SCREEN_WIDTH, ScreenValues.SCREEN_HEIGHT);
 		initScreenMode();
@@ -167,10 +183,16 @@ public class StageListener implements ApplicationListener {
 		sprites = project.getSpriteList();
 		for (Sprite sprite : sprites) {
 			sprite.resetSprite();
-			sprite.look.createBrightnessContrastShader();
+			sprite.look.setActionRestartQueue(actionRestartQueue);
 			stage.addActor(sprite.look);
 			sprite.resume();
 		}
+		LookTextureCache.getInstance().packLookData(sprites);
+		List<SoundInfo> soundInfos = new ArrayList<SoundInfo>();
+		for (Sprite sprite : sprites) {
+			soundInfos.addAll(sprite.getSoundList());
+		}
+		SoundManager.getInstance().loadSounds(soundInfos);
 
 		passepartout = new Passepartout(ScreenValues.SCREEN_WIDTH, ScreenValues.SCREEN_HEIGHT, maximizeViewPortWidth,
 				maximizeViewPortHeight, virtualWidth, virtualHeight);
@@ -275,7 +297,15 @@ public class StageListener implements ApplicationListener {
 
 	public void finish() {
 		finished = true;
+		if (DEBUG) {
+			for (Sprite sprite : sprites) {
+				Log.d(TAG, "When script action pool of " + sprite.getName() + ", " + sprite.getWhenActionPool());
+				Log.d(TAG, "Broadcast wait action pool of " + sprite.getName() + ", "
+						+ sprite.look.getBroadcastWaitActionPool());
+			}
+		}
 		SoundManager.getInstance().clear();
+		SoundManager.getInstance().unloadSounds();
 		if (thumbnail != null && !makeAutomaticScreenshot) {
 			saveScreenshot(thumbnail, SCREENSHOT_AUTOMATIC_FILE_NAME);
 		}
@@ -300,12 +330,15 @@ public class StageListener implements ApplicationListener {
 			for (int i = 0; i < spriteSize; i++) {
 				sprite = sprites.get(i);
 				sprite.resetSprite();
-				sprite.look.createBrightnessContrastShader();
+				sprite.look.setActionRestartQueue(actionRestartQueue);
 				stage.addActor(sprite.look);
 				sprite.pause();
 			}
 			stage.addActor(passepartout);
 
+			actionTickScheduler.reset();
+			TurboModeScheduler.reset();
+			actionRestartQueue.clear();
 			paused = true;
 			firstStart = true;
 			reloadProject = false;
@@ -321,26 +354,18 @@ public class StageListener implements ApplicationListener {
 			if (spriteSize > 0) {
 				sprites.get(0).look.setLookData(createWhiteBackgroundLookData());
 			}
-			Map<String, List<String>> scriptActions = new HashMap<String, List<String>>();
 			for (int currentSprite = 0; currentSprite < spriteSize; currentSprite++) {
 				Sprite sprite = sprites.get(currentSprite);
-				sprite.createStartScriptActionSequenceAndPutToMap(scriptActions);
+				sprite.createStartScriptActionSequenceAndPutToMap();
 				if (!sprite.getLookDataList().isEmpty()) {
 					sprite.look.setLookData(sprite.getLookDataList().get(0));
 				}
 			}
-
-			if (scriptActions.get(Constants.BROADCAST_SCRIPT) != null && !scriptActions.get(Constants.BROADCAST_SCRIPT).isEmpty()) {
-				List<String> broadcastWaitNotifyActions = reconstructNotifyActions(scriptActions);
-				Map<String, List<String>> notifyMap = new HashMap<String, List<String>>();
-				notifyMap.put(Constants.BROADCAST_NOTIFY_ACTION, broadcastWaitNotifyActions);
-				scriptActions.putAll(notifyMap);
-			}
-			precomputeActionsForBroadcastEvents(scriptActions);
 			firstStart = false;
 		}
 		if (!paused) {
 			float deltaTime = Gdx.graphics.getDeltaTime();
+			TurboModeScheduler.startFrame();
 
 			/*
 			 * Necessary for UiTests, when EMMA - code coverage is enabled.
@@ -352,27 +377,26 @@ public class StageListener implements ApplicationListener {
 			 * future EMMA - update will fix the bugs.
 			 */
 			if (DYNAMIC_SAMPLING_RATE_FOR_ACTIONS == false) {
+				actionRestartQueue.restartActions();
 				stage.act(deltaTime);
 			} else {
-				float optimizedDeltaTime = deltaTime / deltaActionTimeDivisor;
-				long timeBeforeActionsUpdate = SystemClock.uptimeMillis();
-				while (deltaTime > 0f) {
-					stage.act(optimizedDeltaTime);
-					deltaTime -= optimizedDeltaTime;
-				}
-				long executionTimeOfActionsUpdate = SystemClock.uptimeMillis() - timeBeforeActionsUpdate;
-				if (executionTimeOfActionsUpdate <= ACTIONS_COMPUTATION_TIME_MAXIMUM) {
-					deltaActionTimeDivisor += 1f;
-					deltaActionTimeDivisor = Math.min(DELTA_ACTIONS_DIVIDER_MAXIMUM, deltaActionTimeDivisor);
-				} else {
-					deltaActionTimeDivisor -= 1f;
-					deltaActionTimeDivisor = Math.max(1f, deltaActionTimeDivisor);
+				int ticks = actionTickScheduler.startFrame(deltaTime);
+				float tickDuration = actionTickScheduler.getFrameTickDuration();
+				long actStartTime = System.nanoTime();
+				for (int tick = 0; tick < ticks; tick++) {
+					actionRestartQueue.restartActions();
+					stage.act(tickDuration);
 				}
+				actionTickScheduler.endFrame(System.nanoTime() - actStartTime);
 			}
 		}
 
 		if (!finished) {
+			// all looks are drawn with the same shader, the passepartout switches back to the default shader, without a
+			// compiled brightness shader the default shader is used for everything
+			batch.setShader(brightnessShader);
 			stage.draw();
+			batch.setShader(null);
 		}
 
 		if (makeAutomaticScreenshot) {
@@ -397,6 +421,13 @@ public class StageListener implements ApplicationListener {
 
 		if (DEBUG) {
 			fpsLogger.log();
+			if (actionTickScheduler.getTicksOfLastFrame() == actionTickScheduler.getTickLimit()) {
+				Log.d(TAG, "Action ticks at catch-up limit, " + actionTickScheduler);
+			}
+			if (TurboModeScheduler.isEnabled()
+					&& TurboModeScheduler.getFrameCount() % TURBO_MODE_STATISTICS_LOG_INTERVAL == 0) {
+				Log.d(TAG, "Turbo mode loop iterations, " + TurboModeScheduler.getStatistics());
+			}
 		}
 
 		if (makeTestPixels) {
@@ -405,68 +436,6 @@ public class StageListener implements ApplicationListener {
 		}
 	}
 
-	private List<String> reconstructNotifyActions(Map<String, List<String>> actions) {
-		List<String> broadcastWaitNotifyActions = new ArrayList<String>();
-		for (String actionString : actions.get(Constants.BROADCAST_SCRIPT)) {
-			String broadcastNotifyString = SEQUENCE + actionString.substring(0, actionString.indexOf(Constants.ACTION_SPRITE_SEPARATOR)) + BROADCAST_NOTIFY + actionString.substring(actionString.indexOf(Constants.ACTION_SPRITE_SEPARATOR));
-			broadcastWaitNotifyActions.add(broadcastNotifyString);
-		}
-		return broadcastWaitNotifyActions;
-	}
-
-	public void precomputeActionsForBroadcastEvents(Map<String, List<String>> currentActions) {
-		Multimap<String, String> actionsToRestartMap = BroadcastHandler.getActionsToRestartMap();
-		if (!actionsToRestartMap.isEmpty()) {
-			return;
-		}
-		List<String> actions = new ArrayList<String>();
-		if (currentActions.get(Constants.START_SCRIPT) != null) {
-			actions.addAll(currentActions.get(Constants.START_SCRIPT));
-		}
-		if (currentActions.get(Constants.BROADCAST_SCRIPT) != null) {
-			actions.addAll(currentActions.get(Constants.BROADCAST_SCRIPT));
-		}
-		if (currentActions.get(Constants.BROADCAST_NOTIFY_ACTION) != null) {
-			actions.addAll(currentActions.get(Constants.BROADCAST_NOTIFY_ACTION));
-		}
-		for (String action : actions) {
-			for (String actionOfLook : actions) {
-				if (action.equals(actionOfLook)
-						|| isFirstSequenceActionAndEqualsSecond(action, actionOfLook)
-						|| isFirstSequenceActionAndEqualsSecond(actionOfLook, action)) {
-					if (!actionsToRestartMap.containsKey(action)) {
-						actionsToRestartMap.put(action, actionOfLook);
-					} else {
-						actionsToRestartMap.get(action).add(actionOfLook);
-					}
-				}
-			}
-		}
-	}
-
-	private static boolean isFirstSequenceActionAndEqualsSecond(String action1, String action2) {
-		String spriteOfAction1 = action1.substring(action1.indexOf(Constants.ACTION_SPRITE_SEPARATOR));
-		String spriteOfAction2 = action2.substring(action2.indexOf(Constants.ACTION_SPRITE_SEPARATOR));
-
-		if (!spriteOfAction1.equals(spriteOfAction2)) {
-			return false;
-		}
-
-		if (!action1.startsWith(SEQUENCE) || !action1.contains(BROADCAST_NOTIFY)) {
-			return false;
-		}
-
-		int startIndex1 = action1.indexOf(Constants.OPENING_BRACE) + 1;
-		int endIndex1 = action1.indexOf(BROADCAST_NOTIFY);
-		String innerAction1 = action1.substring(startIndex1, endIndex1);
-
-		String action2Sub = action2.substring(0, action2.indexOf(Constants.ACTION_SPRITE_SEPARATOR));
-		if (innerAction1.equals(action2Sub)) {
-			return true;
-		}
-		return false;
-	}
-
 	private void drawAxes() {
 		batch.setProjectionMatrix(camera.combined);
 		batch.begin();
@@ -493,9 +462,21 @@ public class StageListener implements ApplicationListener {
 			this.finish();
 		}
 		stage.dispose();
+		if (brightnessShader != null) {
+			brightnessShader.dispose();
+		}
+		BrightnessShader.setEnabled(false);
 		font.dispose();
 		axes.dispose();
 		disposeTextures();
+		TurboModeScheduler.setEnabled(false);
+	}
+
+	/**
+	 * Runs the stage in turbo mode even if the project does not enable it. The project itself is not changed.
+	 */
+	public void setTurboModeOverride(boolean turboModeOverride) {
+		this.turboModeOverride = turboModeOverride;
 	}
 
 	public boolean makeManualScreenshot() {
@@ -544,6 +525,7 @@ public class StageListener implements ApplicationListener {
 		} catch (IOException e) {
 			return false;
 		}
+		StorageHandler.getInstance().getProjectIndex().updateScreenshot(project.getName());
 		return true;
 	}
 
@@ -618,14 +600,13 @@ public class StageListener implements ApplicationListener {
 	private void disposeTextures() {
 		List<Sprite> sprites = project.getSpriteList();
 		int spriteSize = sprites.size();
-		for (int i = 0; i > spriteSize; i++) {
+		for (int i = 0; i < spriteSize; i++) {
 			List<LookData> data = sprites.get(i).getLookDataList();
 			int dataSize = data.size();
 			for (int j = 0; j < dataSize; j++) {
-				LookData lookData = data.get(j);
-				lookData.getPixmap().dispose();
-				lookData.getTextureRegion().getTexture().dispose();
+				data.get(j).resetLookData();
 			}
 		}
+		LookTextureCache.getInstance().clear();
 	}
 }
@@ -0,0 +1,142 @@
+/*
+ * Catroid: An on-device visual programming system for Android devices
+ * Copyright (C) 2010-2014 The Catrobat Team
+ * (<http://developer.catrobat.org/credits>)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * An additional term exception under section 7 of the GNU Affero
+ * General Public License, version 3, is available at
+ * http://developer.catrobat.org/license_additional_term
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.catrobat.catroid.stage;
+
+/**
+ * Time budget for loops running in turbo mode. A loop whose body neither moves a sprite nor waits may run further
+ * iterations within the same act call instead of waiting for the next one, as long as its share of the frame's
+ * budget lasts. The budget is split evenly between the loops that ran in turbo mode in the last frame, so a loop
+ * that acts first can't starve the others. Once its share is used up a loop runs at most one iteration per act
+ * call, so the stage keeps rendering.
+ */
+public final class TurboModeScheduler {
+
+	public static final long DEFAULT_TIME_BUDGET_PER_FRAME_NANOS = 8000000L;
+
+	private static boolean enabled = false;
+	private static long timeBudgetPerFrameNanos = DEFAULT_TIME_BUDGET_PER_FRAME_NANOS;
+	private static int loopsOfCurrentFrame = 0;
+	private static int loopsOfLastFrame = 0;
+
+	private static long frameCount = 0;
+	private static long iterationCount = 0;
+	private static int iterationsOfCurrentFrame = 0;
+	private static int iterationsOfLastFrame = 0;
+	private static int maximumIterationsPerFrame = 0;
+
+	private TurboModeScheduler() {
+		throw new AssertionError();
+	}
+
+	public static boolean isEnabled() {
+		return enabled;
+	}
+
+	public static void setEnabled(boolean enabled) {
+		TurboModeScheduler.enabled = enabled;
+	}
+
+	public static void setTimeBudgetPerFrameNanos(long timeBudgetPerFrameNanos) {
+		if (timeBudgetPerFrameNanos < 0) {
+			throw new IllegalArgumentException("timeBudgetPerFrameNanos must not be negative");
+		}
+		TurboModeScheduler.timeBudgetPerFrameNanos = timeBudgetPerFrameNanos;
+	}
+
+	public static void startFrame() {
+		if (frameCount > 0) {
+			iterationsOfLastFrame = iterationsOfCurrentFrame;
+			maximumIterationsPerFrame = Math.max(maximumIterationsPerFrame, iterationsOfCurrentFrame);
+		}
+		iterationsOfCurrentFrame = 0;
+		loopsOfLastFrame = loopsOfCurrentFrame;
+		loopsOfCurrentFrame = 0;
+		frameCount++;
+	}
+
+	/**
+	 * Called by a loop the first time it runs in turbo mode within the current frame.
+	 */
+	public static void registerLoop() {
+		loopsOfCurrentFrame++;
+	}
+
+	/**
+	 * @return the time each loop may run in turbo mode within the current frame, 0 before the first frame
+	 */
+	public static long getLoopTimeBudgetNanos() {
+		if (frameCount == 0) {
+			return 0L;
+		}
+		return timeBudgetPerFrameNanos / Math.max(1, Math.max(loopsOfLastFrame, loopsOfCurrentFrame));
+	}
+
+	public static boolean hasTimeLeft(long loopDeadlineNanos) {
+		return System.nanoTime() - loopDeadlineNanos < 0;
+	}
+
+	public static void countIteration() {
+		iterationsOfCurrentFrame++;
+		iterationCount++;
+	}
+
+	public static void reset() {
+		loopsOfCurrentFrame = 0;
+		loopsOfLastFrame = 0;
+		frameCount = 0;
+		iterationCount = 0;
+		iterationsOfCurrentFrame = 0;
+		iterationsOfLastFrame = 0;
+		maximumIterationsPerFrame = 0;
+	}
+
+	public static long getFrameCount() {
+		return frameCount;
+	}
+
+	public static long getIterationCount() {
+		return iterationCount;
+	}
+
+	public static int getIterationsOfCurrentFrame() {
+		return iterationsOfCurrentFrame;
+	}
+
+	public static int getIterationsOfLastFrame() {
+		return iterationsOfLastFrame;
+	}
+
+	public static int getMaximumIterationsPerFrame() {
+		return maximumIterationsPerFrame;
+	}
+
+	public static float getAverageIterationsPerFrame() {
+		return frameCount == 0 ? 0f : (float) iterationCount / frameCount;
+	}
+
+	public static String getStatistics() {
+		return "frames: " + frameCount + ", loop iterations: " + iterationCount + ", iterations/frame: "
+				+ getAverageIterationsPerFrame() + ", last frame: " + iterationsOfLastFrame + ", maximum: "
+				+ maximumIterationsPerFrame;
+	}
+}
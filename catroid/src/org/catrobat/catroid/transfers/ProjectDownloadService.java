@@ -33,8 +33,9 @@ import android.widget.Toast;
 
 import org.catrobat.catroid.R;
 import org.catrobat.catroid.common.Constants;
+import org.catrobat.catroid.io.ProjectIndex;
+import org.catrobat.catroid.io.StorageHandler;
 import org.catrobat.catroid.utils.DownloadUtil;
-import org.catrobat.catroid.utils.UtilZip;
 import org.catrobat.catroid.utils.Utils;
 import org.catrobat.catroid.web.ConnectionWrapper;
 import org.catrobat.catroid.web.ServerCalls;
@@ -49,7 +50,7 @@ public class ProjectDownloadService extends IntentService {
 	public static final String URL_TAG = "url";
 	public static final String ID_TAG = "notificationId";
 
-	private static final String DOWNLOAD_FILE_NAME = "down" + Constants.CATROBAT_EXTENSION;
+	private static final String DOWNLOAD_FILE_PREFIX = "down_";
 
 	private String projectName;
 	private String zipFileString;
@@ -80,14 +81,16 @@ public class ProjectDownloadService extends IntentService {
 		boolean result = false;
 
 		this.projectName = intent.getStringExtra(DOWNLOAD_NAME_TAG);
-		this.zipFileString = Utils.buildPath(Constants.TMP_PATH, DOWNLOAD_FILE_NAME);
 		this.url = intent.getStringExtra(URL_TAG);
+		// one file per url, so downloads cannot overwrite each other and an interrupted one can be resumed
+		this.zipFileString = Utils.buildPath(Constants.TMP_PATH, DOWNLOAD_FILE_PREFIX + Utils.md5Checksum(url)
+				+ Constants.CATROBAT_EXTENSION);
 		this.notificationId = intent.getIntExtra(ID_TAG, -1);
 
 		receiver = (ResultReceiver) intent.getParcelableExtra(RECEIVER_TAG);
 		try {
-			ServerCalls.getInstance().downloadProject(url, zipFileString, receiver, notificationId);
-			result = UtilZip.unZipFile(zipFileString, Utils.buildProjectPath(projectName));
+			result = ServerCalls.getInstance().downloadProject(url, zipFileString, Utils.buildProjectPath(projectName),
+					receiver, notificationId);
 			Log.v(TAG, "url: " + url + ", zip-file: " + zipFileString + ", notificationId: " + notificationId);
 		} catch (WebconnectionException webconnectionException) {
 			Log.e(TAG, Log.getStackTraceString(webconnectionException));
@@ -99,6 +102,7 @@ public class ProjectDownloadService extends IntentService {
 			showToast(R.string.error_project_download);
 			return;
 		}
+		StorageHandler.getInstance().getProjectIndex().update(projectName, ProjectIndex.UNKNOWN_LANGUAGE_VERSION);
 
 		showToast(R.string.notification_download_finished);
 	}
@@ -31,22 +31,18 @@ import android.widget.Toast;
 
 import org.catrobat.catroid.ProjectManager;
 import org.catrobat.catroid.R;
-import org.catrobat.catroid.common.Constants;
 import org.catrobat.catroid.io.StorageHandler;
 import org.catrobat.catroid.utils.StatusBarNotificationManager;
 import org.catrobat.catroid.utils.UtilDeviceInfo;
-import org.catrobat.catroid.utils.UtilZip;
 import org.catrobat.catroid.utils.Utils;
 import org.catrobat.catroid.web.ServerCalls;
 import org.catrobat.catroid.web.WebconnectionException;
 
 import java.io.File;
-import java.io.IOException;
 
 public class ProjectUploadService extends IntentService {
 
 	private static final String TAG = ProjectUploadService.class.getSimpleName();
-	private static final String UPLOAD_FILE_NAME = "upload" + Constants.CATROBAT_EXTENSION;
 
 	private String projectPath;
 	private String projectName;
@@ -102,30 +98,13 @@ public class ProjectUploadService extends IntentService {
 				paths[i] = Utils.buildPath(directoryPath.getAbsolutePath(), paths[i]);
 			}
 
-			String zipFileString = Utils.buildPath(Constants.TMP_PATH, UPLOAD_FILE_NAME);
-			File zipFile = new File(zipFileString);
-			if (!zipFile.exists()) {
-				zipFile.getParentFile().mkdirs();
-				zipFile.createNewFile();
-			}
-			if (!UtilZip.writeToZipFile(paths, zipFileString)) {
-				zipFile.delete();
-				result = false;
-				return;
-			}
-
 			//String deviceIMEI = UtilDeviceInfo.getDeviceIMEI(context);
 			String userEmail = UtilDeviceInfo.getUserEmail(this);
 			String language = UtilDeviceInfo.getUserLanguageCode(this);
 
 			Context context = getApplicationContext();
-			ServerCalls.getInstance().uploadProject(projectName, projectDescription, zipFileString, userEmail,
+			ServerCalls.getInstance().uploadProject(projectName, projectDescription, paths, userEmail,
 					language, token, username, receiver, notificationId, context);
-
-			zipFile.delete();
-		} catch (IOException ioException) {
-			Log.e(TAG, Log.getStackTraceString(ioException));
-			result = false;
 		} catch (WebconnectionException webconnectionException) {
 			serverAnswer = webconnectionException.getMessage();
 			Log.e(TAG, serverAnswer);
@@ -38,12 +38,17 @@ import com.actionbarsherlock.app.SherlockPreferenceActivity;
 
 import org.catrobat.catroid.BuildConfig;
 import org.catrobat.catroid.R;
+import org.catrobat.catroid.io.SoundManager;
 
 public class SettingsActivity extends SherlockPreferenceActivity {
 
+	private static final String TAG = SettingsActivity.class.getSimpleName();
+
 	public static final String SETTINGS_SHOW_LEGO_NXT_BRICKS = "setting_mindstorm_bricks";
 	public static final String SETTINGS_SHOW_PARROT_AR_DRONE_BRICKS = "setting_parrot_ar_drone_bricks";
 	public static final String SETTINGS_PARROT_AR_DRONE_CATROBAT_TERMS_OF_SERVICE_ACCEPTED_PERMANENTLY = "setting_parrot_ar_drone_catrobat_terms_of_service_accepted_permanently";
+	public static final String SETTINGS_MAX_SOUND_VOICES = "setting_max_sound_voices";
+	public static final String SETTINGS_TURBO_MODE = "setting_turbo_mode";
 	PreferenceScreen screen = null;
 
 	@SuppressWarnings("deprecation")
@@ -110,6 +115,23 @@ public class SettingsActivity extends SherlockPreferenceActivity {
 				SETTINGS_PARROT_AR_DRONE_CATROBAT_TERMS_OF_SERVICE_ACCEPTED_PERMANENTLY, context);
 	}
 
+	public static boolean isTurboModeEnabled(Context context) {
+		return getBooleanSharedPreference(false, SETTINGS_TURBO_MODE, context);
+	}
+
+	public static int getMaxSoundVoices(Context context) {
+		String maxVoices = getSharedPreferences(context).getString(SETTINGS_MAX_SOUND_VOICES, null);
+		if (maxVoices == null) {
+			return SoundManager.MAX_MEDIA_PLAYERS;
+		}
+		try {
+			return Math.min(Integer.parseInt(maxVoices), SoundManager.MAX_MEDIA_PLAYERS);
+		} catch (NumberFormatException numberFormatException) {
+			Log.e(TAG, "Invalid number of sounds: " + maxVoices, numberFormatException);
+			return SoundManager.MAX_MEDIA_PLAYERS;
+		}
+	}
+
 	private static void setBooleanSharedPreference(boolean value, String settingsString, Context context) {
 		getSharedPreferences(context).edit().putBoolean(settingsString, value).commit();
 
@@ -22,7 +22,6 @@
  */
 package org.catrobat.catroid.ui.adapter;
 
-import android.annotation.SuppressLint;
 import android.app.AlertDialog;
 import android.content.Context;
 import android.content.DialogInterface;
@@ -40,7 +39,6 @@ import android.view.animation.AnimationUtils;
 import android.widget.BaseAdapter;
 import android.widget.CheckBox;
 import android.widget.ImageView;
-import android.widget.LinearLayout;
 import android.widget.ListView;
 
 import org.catrobat.catroid.ProjectManager;
@@ -68,6 +66,7 @@ import org.catrobat.catroid.ui.fragment.FormulaEditorFragment;
 import org.catrobat.catroid.ui.fragment.ScriptFragment;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Set;
 import java.util.concurrent.locks.Lock;
@@ -78,6 +77,7 @@ public class BrickAdapter extends BaseAdapter implements DragAndDropListener, On
 	private static final String TAG = BrickAdapter.class.getSimpleName();
 	public static final int ALPHA_FULL = 255;
 	private static final int ALPHA_GREYED = 100;
+	private static final int VIEW_TYPE_WRAPPED_BRICK = 0;
 	private Context context;
 
 	public Context getContext() {
@@ -103,6 +103,8 @@ public class BrickAdapter extends BaseAdapter implements DragAndDropListener, On
 	private boolean showDetails = false;
 
 	private List<Brick> brickList;
+	// position of each script brick of the sprite in the list, rebuilt lazily after the project has changed
+	private int[] scriptStartPositions;
 
 	private List<Brick> animatedBricks;
 	private List<Brick> checkedBricks = new ArrayList<Brick>();
@@ -135,6 +137,7 @@ public class BrickAdapter extends BaseAdapter implements DragAndDropListener, On
 
 	public void initBrickList() {
 		brickList = new ArrayList<Brick>();
+		scriptStartPositions = null;
 
 		if (userBrick != null) {
 			initBrickListUserScript();
@@ -457,6 +460,7 @@ public class BrickAdapter extends BaseAdapter implements DragAndDropListener, On
 				newScript.addBrick(brick);
 			}
 		}
+		scriptStartPositions = null;
 		ProjectManager.getInstance().setCurrentScript(newScript);
 	}
 
@@ -481,6 +485,7 @@ public class BrickAdapter extends BaseAdapter implements DragAndDropListener, On
 			return;
 		}
 		fromScript.removeBrick(brick);
+		scriptStartPositions = null;
 
 		int[] tempTo = getScriptAndBrickIndexFromProject(to);
 		int scriptPositionTo = tempTo[0];
@@ -489,6 +494,7 @@ public class BrickAdapter extends BaseAdapter implements DragAndDropListener, On
 		Script toScript = currentSprite.getScript(scriptPositionTo);
 
 		toScript.addBrick(brickPositionTo, brick);
+		scriptStartPositions = null;
 	}
 
 	private void addBrickToPositionInProject(int position, Brick brick) {
@@ -515,9 +521,11 @@ public class BrickAdapter extends BaseAdapter implements DragAndDropListener, On
 				} else {
 					script.addBrick(brickPosition + i, (Brick) nestingBrickList.get(i));
 				}
+				scriptStartPositions = null;
 			}
 		} else {
 			script.addBrick(brickPosition, brick);
+			scriptStartPositions = null;
 		}
 	}
 
@@ -586,55 +594,44 @@ public class BrickAdapter extends BaseAdapter implements DragAndDropListener, On
 
 	private int[] getScriptAndBrickIndexFromProject(int position) {
 		int[] returnValue = new int[2];
+		int numberOfScripts = sprite.getNumberOfScripts();
+		if (numberOfScripts == 0) {
+			return returnValue;
+		}
 
 		if (position >= brickList.size()) {
-
-			returnValue[0] = sprite.getNumberOfScripts() - 1;
-			if (returnValue[0] < 0) {
-				returnValue[0] = 0;
-				returnValue[1] = 0;
-			} else {
-				Script script = sprite.getScript(returnValue[0]);
-				if (script != null) {
-					returnValue[1] = script.getBrickList().size();
-				} else {
-					returnValue[1] = 0;
-				}
-			}
-
+			returnValue[0] = numberOfScripts - 1;
+			returnValue[1] = sprite.getScript(returnValue[0]).getBrickList().size();
 			return returnValue;
 		}
 
-		int scriptPosition = 0;
-		int scriptOffset;
-		for (scriptOffset = 0; scriptOffset < position; ) {
-			scriptOffset += sprite.getScript(scriptPosition).getBrickList().size() + 1;
-			if (scriptOffset < position) {
-				scriptPosition++;
-			}
+		int scriptPosition = getScriptIndexFromProject(position);
+		int scriptStartPosition = getScriptStartPositions()[scriptPosition];
+		if (position == scriptStartPosition && scriptPosition > 0) {
+			// the position of a script brick belongs to the end of the previous script
+			returnValue[0] = scriptPosition - 1;
+			returnValue[1] = sprite.getScript(scriptPosition - 1).getBrickList().size();
+			return returnValue;
 		}
-		scriptOffset -= sprite.getScript(scriptPosition).getBrickList().size();
 
+		int numberOfBricks = sprite.getScript(scriptPosition).getBrickList().size();
+		int brickPosition = Math.max(position - scriptStartPosition - 1, 0);
 		returnValue[0] = scriptPosition;
-		List<Brick> brickListFromProject = sprite.getScript(scriptPosition).getBrickList();
-		int brickPosition = position;
-		if (scriptOffset > 0) {
-			brickPosition -= scriptOffset;
-		}
-
-		Brick brickFromProject;
-		if (brickListFromProject.size() != 0 && brickPosition < brickListFromProject.size()) {
-			brickFromProject = brickListFromProject.get(brickPosition);
-		} else {
-			brickFromProject = null;
-		}
+		returnValue[1] = Math.min(brickPosition, numberOfBricks);
+		return returnValue;
+	}
 
-		returnValue[1] = sprite.getScript(scriptPosition).getBrickList().indexOf(brickFromProject);
-		if (returnValue[1] < 0) {
-			returnValue[1] = sprite.getScript(scriptPosition).getBrickList().size();
+	private int[] getScriptStartPositions() {
+		if (scriptStartPositions == null) {
+			int numberOfScripts = sprite.getNumberOfScripts();
+			scriptStartPositions = new int[numberOfScripts];
+			int position = 0;
+			for (int scriptPosition = 0; scriptPosition < numberOfScripts; scriptPosition++) {
+				scriptStartPositions[scriptPosition] = position;
+				position += sprite.getScript(scriptPosition).getBrickList().size() + 1;
+			}
 		}
-
-		return returnValue;
+		return scriptStartPositions;
 	}
 
 	private void scrollToPosition(final int position) {
@@ -698,6 +695,7 @@ public class BrickAdapter extends BaseAdapter implements DragAndDropListener, On
 		if (scriptCount == 0 && userBrick == null) {
 			Script script = new StartScript();
 			currentSprite.addScript(script);
+			scriptStartPositions = null;
 			brickList.add(0, script.getScriptBrick());
 			ProjectManager.getInstance().setCurrentScript(script);
 			clearCheckedItems();
@@ -757,39 +755,35 @@ public class BrickAdapter extends BaseAdapter implements DragAndDropListener, On
 			int[] temp = getScriptAndBrickIndexFromProject(index);
 			Script script = ProjectManager.getInstance().getCurrentSprite().getScript(temp[0]);
 			if (script != null) {
-
-				Brick brick = script.getBrick(temp[1]);
-				if (brick instanceof NestingBrick) {
-					for (NestingBrick tempBrick : ((NestingBrick) brick).getAllNestingBrickParts(true)) {
-						script.removeBrick((Brick) tempBrick);
-					}
-				} else {
-					script.removeBrick(brick);
-				}
+				removeBrickFromScriptAndBrickList(script, script.getBrick(temp[1]));
 				if (removeScript) {
 					brickList.remove(script);
 				}
 			}
 		} else {
-
-			Brick brick = script.getBrick(getPositionInUserScript(index));
-			if (brick instanceof NestingBrick) {
-				for (NestingBrick tempBrick : ((NestingBrick) brick).getAllNestingBrickParts(true)) {
-					script.removeBrick((Brick) tempBrick);
-				}
-			} else {
-				script.removeBrick(brick);
-			}
+			removeBrickFromScriptAndBrickList(script, script.getBrick(getPositionInUserScript(index)));
 		}
 
 		firstDrag = true;
 		draggedBrick = null;
 		addingNewBrick = false;
 
-		initBrickList();
 		notifyDataSetChanged();
 	}
 
+	private void removeBrickFromScriptAndBrickList(Script script, Brick brick) {
+		if (brick instanceof NestingBrick) {
+			for (NestingBrick tempBrick : ((NestingBrick) brick).getAllNestingBrickParts(true)) {
+				script.removeBrick((Brick) tempBrick);
+				brickList.remove(tempBrick);
+			}
+		} else {
+			script.removeBrick(brick);
+			brickList.remove(brick);
+		}
+		scriptStartPositions = null;
+	}
+
 	public void removeDraggedBrick() {
 		if (!addingNewBrick) {
 			draggedBrick = null;
@@ -805,7 +799,6 @@ public class BrickAdapter extends BaseAdapter implements DragAndDropListener, On
 		draggedBrick = null;
 		addingNewBrick = false;
 
-		initBrickList();
 		notifyDataSetChanged();
 	}
 
@@ -831,6 +824,17 @@ public class BrickAdapter extends BaseAdapter implements DragAndDropListener, On
 		return index;
 	}
 
+	@Override
+	public int getItemViewType(int position) {
+		// script bricks and the insertion view are not wrapped, so only wrapped bricks are recycled
+		if ((draggedBrick != null && dragTargetPosition == position)
+				|| (initInsertedBrick && position == positionOfInsertedBrick)
+				|| getItem(position) instanceof ScriptBrick) {
+			return IGNORE_ITEM_VIEW_TYPE;
+		}
+		return VIEW_TYPE_WRAPPED_BRICK;
+	}
+
 	@Override
 	public View getView(int position, View convertView, ViewGroup parent) {
 		if (draggedBrick != null && dragTargetPosition == position) {
@@ -848,6 +852,11 @@ public class BrickAdapter extends BaseAdapter implements DragAndDropListener, On
 			return scriptBrickView;
 		}
 
+		// Hack!!!
+		// if wrapper isn't used the longClick event won't be triggered
+		// the wrapper is emptied before the brick binds its view, so the brick can reuse the view it had before
+		ViewGroup wrapper = getRecycledBrickWrapper(convertView);
+
 		View currentBrickView;
 		// dirty HACK
 		// without the footer, position can be 0, and list.get(-1) caused an Indexoutofboundsexception
@@ -869,14 +878,10 @@ public class BrickAdapter extends BaseAdapter implements DragAndDropListener, On
 		// this one is working but causes null pointer exceptions on movement and control bricks?!
 		//		currentBrickView.setOnLongClickListener(longClickListener);
 
-		// Hack!!!
-		// if wrapper isn't used the longClick event won't be triggered
-		@SuppressLint("ViewHolder") ViewGroup wrapper = (ViewGroup) View.inflate(context, R.layout.brick_wrapper, null);
 		if (currentBrickView.getParent() != null) {
 			((ViewGroup) currentBrickView.getParent()).removeView(currentBrickView);
 		}
 
-		LinearLayout brickElement = (LinearLayout) currentBrickView;
 		final CheckBox checkbox = ((Brick) getItem(position)).getCheckBox();
 
 		wrapper.addView(currentBrickView);
@@ -887,7 +892,7 @@ public class BrickAdapter extends BaseAdapter implements DragAndDropListener, On
 					wrapper.setOnLongClickListener(dragAndDropListView);
 				}
 			} else {
-				brickElement.setOnClickListener(new View.OnClickListener() {
+				wrapper.setOnClickListener(new View.OnClickListener() {
 					@Override
 					public void onClick(View view) {
 						checkbox.setChecked(!checkbox.isChecked());
@@ -915,6 +920,20 @@ public class BrickAdapter extends BaseAdapter implements DragAndDropListener, On
 		return wrapper;
 	}
 
+	private ViewGroup getRecycledBrickWrapper(View convertView) {
+		if (convertView == null || convertView.getId() != R.id.brick_wrapper) {
+			return (ViewGroup) View.inflate(context, R.layout.brick_wrapper, null);
+		}
+		ViewGroup wrapper = (ViewGroup) convertView;
+		wrapper.removeAllViews();
+		wrapper.clearAnimation();
+		wrapper.setOnClickListener(null);
+		wrapper.setOnLongClickListener(null);
+		wrapper.setClickable(false);
+		wrapper.setLongClickable(false);
+		return wrapper;
+	}
+
 	public void updateProjectBrickList() {
 		initBrickList();
 		notifyDataSetChanged();
@@ -930,16 +949,13 @@ public class BrickAdapter extends BaseAdapter implements DragAndDropListener, On
 	}
 
 	private int getScriptIndexFromProject(int index) {
-		int scriptIndex = 0;
-		for (int i = 0; i < index; ) {
-
-			i += sprite.getScript(scriptIndex).getBrickList().size() + 1;
-			if (i <= index) {
-				scriptIndex++;
-			}
+		int[] startPositions = getScriptStartPositions();
+		int scriptIndex = Arrays.binarySearch(startPositions, index);
+		if (scriptIndex < 0) {
+			// the script brick in front of the insertion point
+			scriptIndex = -scriptIndex - 2;
 		}
-
-		return scriptIndex;
+		return Math.max(scriptIndex, 0);
 	}
 
 	public int getChildCountFromLastGroup() {
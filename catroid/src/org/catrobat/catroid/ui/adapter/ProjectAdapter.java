@@ -42,9 +42,7 @@ import org.catrobat.catroid.R;
 import org.catrobat.catroid.common.ProjectData;
 import org.catrobat.catroid.io.ProjectScreenshotLoader;
 import org.catrobat.catroid.utils.UtilFile;
-import org.catrobat.catroid.utils.Utils;
 
-import java.io.File;
 import java.text.DateFormat;
 import java.util.Calendar;
 import java.util.Date;
@@ -148,7 +146,7 @@ public class ProjectAdapter extends ArrayAdapter<ProjectData> {
 		holder.projectName.setText(projectName);
 
 		// set size of project:
-		holder.size.setText(UtilFile.getSizeAsString(new File(Utils.buildProjectPath(projectName))));
+		holder.size.setText(UtilFile.getSizeAsString(projectData.size));
 
 		//set last changed:
 		Date projectLastModificationDate = new Date(projectData.lastUsed);
@@ -179,7 +177,7 @@ public class ProjectAdapter extends ArrayAdapter<ProjectData> {
 		holder.dateChanged.setText(projectLastModificationDateString);
 
 		//set project image (threaded):
-		screenshotLoader.loadAndShowScreenshot(projectName, holder.image);
+		screenshotLoader.loadAndShowScreenshot(projectName, projectData.screenshotPath, holder.image);
 
 		if (!showDetails) {
 			holder.projectDetails.setVisibility(View.GONE);
@@ -223,6 +223,7 @@ public final class LookController {
 		lookData.setLookFilename(fileName);
 		lookData.setLookName(name);
 		lookDataList.add(lookData);
+		ProjectManager.getInstance().getCurrentSprite().setDirty();
 
 		fragment.updateLookAdapter(lookData);
 	}
@@ -334,6 +335,7 @@ public final class LookController {
 				StorageHandler.getInstance().deleteFile(selectedLookData.getAbsolutePath()); //reduce usage in container or delete it
 
 				selectedLookData.setLookFilename(newLookFile.getName());
+				ProjectManager.getInstance().getCurrentSprite().setDirty();
 				selectedLookData.resetThumbnailBitmap();
 			} catch (IOException ioException) {
 				Log.e(TAG, Log.getStackTraceString(ioException));
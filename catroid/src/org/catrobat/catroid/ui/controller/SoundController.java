@@ -449,6 +449,7 @@ public final class SoundController {
 		newSoundInfo.setTitle(title);
 		newSoundInfo.setSoundFileName(fileName);
 		soundInfoList.add(newSoundInfo);
+		ProjectManager.getInstance().getCurrentSprite().setDirty();
 
 		adapter.notifyDataSetChanged();
 		return newSoundInfo;
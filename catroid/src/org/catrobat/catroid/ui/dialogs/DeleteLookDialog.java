@@ -79,6 +79,7 @@ public class DeleteLookDialog extends DialogFragment {
 
 		StorageHandler.getInstance().deleteFile(lookDataList.get(position).getAbsolutePath());
 		lookDataList.remove(position);
+		ProjectManager.getInstance().getCurrentSprite().setDirty();
 
 		getActivity().sendBroadcast(new Intent(ScriptActivity.ACTION_LOOK_DELETED));
 	}
@@ -32,8 +32,8 @@ import android.widget.Button;
 import android.widget.ImageButton;
 import android.widget.Toast;
 
+import org.catrobat.catroid.ProjectManager;
 import org.catrobat.catroid.R;
-import org.catrobat.catroid.common.BroadcastSequenceMap;
 import org.catrobat.catroid.common.BroadcastWaitSequenceMap;
 import org.catrobat.catroid.stage.StageActivity;
 import org.catrobat.catroid.stage.StageListener;
@@ -148,7 +148,7 @@ public class StageDialog extends Dialog implements View.OnClickListener {
 	}
 
 	private void clearBroadcastMaps() {
-		BroadcastSequenceMap.clear();
+		ProjectManager.getInstance().getCurrentProject().getBroadcastReceiverRegistry().clear();
 		BroadcastWaitSequenceMap.clear();
 		BroadcastWaitSequenceMap.clearCurrentBroadcastEvent();
 	}
@@ -881,6 +881,7 @@ public class LookFragment extends ScriptActivityFragment implements OnLookEditLi
 
 				if (newLookName != null && !newLookName.equalsIgnoreCase("")) {
 					selectedLookData.setLookName(newLookName);
+					ProjectManager.getInstance().getCurrentSprite().setDirty();
 					adapter.notifyDataSetChanged();
 				}
 			}
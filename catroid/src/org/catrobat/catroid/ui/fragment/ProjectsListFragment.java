@@ -58,6 +58,7 @@ import org.catrobat.catroid.content.Project;
 import org.catrobat.catroid.exceptions.CompatibilityProjectException;
 import org.catrobat.catroid.exceptions.LoadingProjectException;
 import org.catrobat.catroid.exceptions.OutdatedVersionProjectException;
+import org.catrobat.catroid.io.StorageHandler;
 import org.catrobat.catroid.ui.BottomBar;
 import org.catrobat.catroid.ui.MyProjectsActivity;
 import org.catrobat.catroid.ui.ProjectActivity;
@@ -70,12 +71,9 @@ import org.catrobat.catroid.ui.dialogs.RenameProjectDialog;
 import org.catrobat.catroid.ui.dialogs.RenameProjectDialog.OnProjectRenameListener;
 import org.catrobat.catroid.ui.dialogs.SetDescriptionDialog;
 import org.catrobat.catroid.ui.dialogs.SetDescriptionDialog.OnUpdateProjectDescriptionListener;
-import org.catrobat.catroid.utils.UtilFile;
 import org.catrobat.catroid.utils.Utils;
 
-import java.io.File;
 import java.io.IOException;
-import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.Iterator;
@@ -316,13 +314,7 @@ public class ProjectsListFragment extends SherlockListFragment implements OnProj
 	}
 
 	private void initAdapter() {
-		File rootDirectory = new File(Constants.DEFAULT_ROOT);
-		File projectCodeFile;
-		projectList = new ArrayList<ProjectData>();
-		for (String projectName : UtilFile.getProjectNames(rootDirectory)) {
-			projectCodeFile = new File(Utils.buildPath(Utils.buildProjectPath(projectName), Constants.PROJECTCODE_NAME));
-			projectList.add(new ProjectData(projectName, projectCodeFile.lastModified()));
-		}
+		projectList = StorageHandler.getInstance().getProjectIndex().getProjectDataList();
 		Collections.sort(projectList, new Comparator<ProjectData>() {
 			@Override
 			public int compare(ProjectData project1, ProjectData project2) {
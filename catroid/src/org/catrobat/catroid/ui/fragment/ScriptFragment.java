@@ -57,6 +57,7 @@ import org.catrobat.catroid.content.bricks.DeadEndBrick;
 import org.catrobat.catroid.content.bricks.NestingBrick;
 import org.catrobat.catroid.content.bricks.ScriptBrick;
 import org.catrobat.catroid.content.bricks.UserBrick;
+import org.catrobat.catroid.formulaeditor.PrepareFormulaDisplayStringsTask;
 import org.catrobat.catroid.ui.BottomBar;
 import org.catrobat.catroid.ui.ScriptActivity;
 import org.catrobat.catroid.ui.ViewSwitchLock;
@@ -91,6 +92,7 @@ public class ScriptFragment extends ScriptActivityFragment implements OnCategory
 	private Script scriptToEdit;
 
 	private BrickListChangedReceiver brickListChangedReceiver;
+	private PrepareFormulaDisplayStringsTask prepareFormulaDisplayStringsTask;
 
 	private Lock viewSwitchLock = new ViewSwitchLock();
 
@@ -140,6 +142,20 @@ public class ScriptFragment extends ScriptActivityFragment implements OnCategory
 		super.onStart();
 		BottomBar.showBottomBar(getActivity());
 		initListeners();
+
+		if (sprite != null) {
+			prepareFormulaDisplayStringsTask = new PrepareFormulaDisplayStringsTask(getActivity(), sprite);
+			prepareFormulaDisplayStringsTask.execute();
+		}
+	}
+
+	@Override
+	public void onStop() {
+		super.onStop();
+		if (prepareFormulaDisplayStringsTask != null) {
+			prepareFormulaDisplayStringsTask.cancel(false);
+			prepareFormulaDisplayStringsTask = null;
+		}
 	}
 
 	@Override
@@ -607,6 +607,7 @@ public class SoundFragment extends ScriptActivityFragment implements SoundBaseAd
 
 				if (newSoundTitle != null && !newSoundTitle.equalsIgnoreCase("")) {
 					selectedSoundInfo.setTitle(newSoundTitle);
+					ProjectManager.getInstance().getCurrentSprite().setDirty();
 					adapter.notifyDataSetChanged();
 				}
 			}
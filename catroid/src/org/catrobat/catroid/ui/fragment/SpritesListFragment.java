@@ -442,7 +442,7 @@ public class SpritesListFragment extends SherlockListFragment implements OnSprit
 		if (projectManager.getCurrentSprite() != null && projectManager.getCurrentSprite().equals(spriteToEdit)) {
 			projectManager.setCurrentSprite(null);
 		}
-		projectManager.getCurrentProject().getSpriteList().remove(spriteToEdit);
+		projectManager.getCurrentProject().removeSprite(spriteToEdit);
 	}
 
 	private void deleteCheckedSprites() {
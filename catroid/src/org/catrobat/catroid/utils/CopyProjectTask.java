@@ -27,17 +27,20 @@ import android.util.Log;
 import android.widget.Toast;
 
 import org.catrobat.catroid.R;
+import org.catrobat.catroid.common.Constants;
 import org.catrobat.catroid.content.Project;
 import org.catrobat.catroid.io.StorageHandler;
 import org.catrobat.catroid.ui.fragment.ProjectsListFragment;
 
 import java.io.File;
+import java.io.FileFilter;
 import java.io.IOException;
 
 public class CopyProjectTask extends AsyncTask<String, Long, Boolean> {
 
 	private ProjectsListFragment parentFragment;
 	private String newName;
+	private int notificationId;
 
 	public CopyProjectTask(ProjectsListFragment parentActivity) {
 		this.parentFragment = parentActivity;
@@ -47,7 +50,7 @@ public class CopyProjectTask extends AsyncTask<String, Long, Boolean> {
 	protected Boolean doInBackground(String... projectNameArray) {
 		String newProjectName = projectNameArray[0];
 		newName = newProjectName;
-		int notificationId = StatusBarNotificationManager.getInstance().createCopyNotification(
+		notificationId = StatusBarNotificationManager.getInstance().createCopyNotification(
 				parentFragment.getActivity(), newProjectName);
 		String oldProjectName = projectNameArray[1];
 
@@ -55,11 +58,31 @@ public class CopyProjectTask extends AsyncTask<String, Long, Boolean> {
 			File oldProjectRootDirectory = new File(Utils.buildProjectPath(oldProjectName));
 			File newProjectRootDirectory = new File(Utils.buildProjectPath(newProjectName));
 
-			copyDirectory(newProjectRootDirectory, oldProjectRootDirectory);
-
-			Project copiedProject = StorageHandler.getInstance().loadProject(newProjectName);
-			copiedProject.setName(newProjectName);
-			StorageHandler.getInstance().saveProject(copiedProject);
+			UtilFile.copyDirectory(newProjectRootDirectory, oldProjectRootDirectory, new FileFilter() {
+				@Override
+				public boolean accept(File file) {
+					// only valid for the code.xml it was written for, the patched copy gets a new one on load
+					return !file.getName().equals(Constants.PROJECTCODE_SNAPSHOT_NAME);
+				}
+			}, new UtilFile.CopyProgressListener() {
+				private long lastProgress = -1;
+
+				@Override
+				public synchronized void onBytesCopied(long copiedBytes, long totalBytes) {
+					// 100 percent marks the notification as done, which is only the case after the rename
+					long progress = totalBytes == 0 ? 0 : Math.min(99, copiedBytes * 100 / totalBytes);
+					if (progress != lastProgress) {
+						lastProgress = progress;
+						publishProgress(progress);
+					}
+				}
+			});
+
+			if (!StorageHandler.getInstance().patchProgramName(newProjectName)) {
+				Project copiedProject = StorageHandler.getInstance().loadProject(newProjectName);
+				copiedProject.setName(newProjectName);
+				StorageHandler.getInstance().saveProject(copiedProject);
+			}
 
 		} catch (IOException exception) {
 			UtilFile.deleteDirectory(new File(Utils.buildProjectPath(newProjectName)));
@@ -68,14 +91,24 @@ public class CopyProjectTask extends AsyncTask<String, Long, Boolean> {
 
 			return false;
 		}
-		StatusBarNotificationManager.getInstance().showOrUpdateNotification(notificationId, 100);
 		return true;
 	}
 
+	@Override
+	protected void onProgressUpdate(Long... progress) {
+		StatusBarNotificationManager.getInstance().showOrUpdateNotification(notificationId,
+				progress[0].intValue());
+	}
+
 	@Override
 	protected void onPostExecute(Boolean result) {
 		super.onPostExecute(result);
 
+		// posted after all progress updates, so the finished notification is not replaced by a progress bar again
+		if (result) {
+			StatusBarNotificationManager.getInstance().showOrUpdateNotification(notificationId, 100);
+		}
+
 		//quickfix: if fragment is not attached an instrumentation fault occurs
 		//return if fragment is detached
 		if (!parentFragment.isAdded()) {
@@ -94,16 +127,4 @@ public class CopyProjectTask extends AsyncTask<String, Long, Boolean> {
 						+ parentFragment.getString(R.string.copy_project_finished), Toast.LENGTH_SHORT).show();
 		parentFragment.onCopyProject();
 	}
-
-	private void copyDirectory(File destinationFile, File sourceFile) throws IOException {
-		if (sourceFile.isDirectory()) {
-
-			destinationFile.mkdirs();
-			for (String subDirectoryName : sourceFile.list()) {
-				copyDirectory(new File(destinationFile, subDirectoryName), new File(sourceFile, subDirectoryName));
-			}
-		} else {
-			UtilFile.copyFile(destinationFile, sourceFile);
-		}
-	}
 }
@@ -34,26 +34,38 @@ import org.catrobat.catroid.soundrecorder.SoundRecorder;
 import java.io.BufferedInputStream;
 import java.io.BufferedOutputStream;
 import java.io.File;
+import java.io.FileFilter;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.FilenameFilter;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
 import java.nio.channels.FileChannel;
+import java.security.MessageDigest;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
 
 public final class UtilFile {
 	private static final String TAG = UtilFile.class.getSimpleName();
+	private static final int COPY_BUFFER_SIZE = 8 * Constants.BUFFER_8K;
+	private static final long COPY_CHUNK_SIZE = 256 * 1024;
+	private static final int COPY_THREAD_COUNT = 4;
 
 	// Suppress default constructor for noninstantiability
 	private UtilFile() {
 		throw new AssertionError();
 	}
 
-	private static long getSizeOfFileOrDirectoryInByte(File fileOrDirectory) {
+	public static long getSizeOfFileOrDirectoryInByte(File fileOrDirectory) {
 		if (!fileOrDirectory.exists()) {
 			return 0;
 		}
@@ -63,6 +75,9 @@ public final class UtilFile {
 
 		File[] contents = fileOrDirectory.listFiles();
 		long size = 0;
+		if (contents == null) {
+			return size;
+		}
 		for (File file : contents) {
 			size += file.isDirectory() ? getSizeOfFileOrDirectoryInByte(file) : file.length();
 		}
@@ -79,8 +94,11 @@ public final class UtilFile {
 	}
 
 	public static String getSizeAsString(File fileOrDirectory) {
+		return getSizeAsString(UtilFile.getSizeOfFileOrDirectoryInByte(fileOrDirectory));
+	}
+
+	public static String getSizeAsString(long bytes) {
 		final int unit = 1024;
-		long bytes = UtilFile.getSizeOfFileOrDirectoryInByte(fileOrDirectory);
 
 		if (bytes < unit) {
 			return bytes + " Byte";
@@ -132,6 +150,38 @@ public final class UtilFile {
 		return fileOrDirectory.delete();
 	}
 
+	/**
+	 * Moves everything below source into target by renaming, replacing files that already exist there. If target
+	 * does not exist yet, source is simply renamed.
+	 */
+	public static boolean moveDirectoryContents(File source, File target) {
+		if (!target.exists()) {
+			target.getParentFile().mkdirs();
+			return source.renameTo(target);
+		}
+
+		File[] files = source.listFiles();
+		if (files == null) {
+			return false;
+		}
+		for (File child : files) {
+			File targetChild = new File(target, child.getName());
+			if (child.isDirectory() && targetChild.isDirectory()) {
+				if (!moveDirectoryContents(child, targetChild)) {
+					return false;
+				}
+				continue;
+			}
+			if (targetChild.exists() && !deleteDirectory(targetChild)) {
+				return false;
+			}
+			if (!child.renameTo(targetChild)) {
+				return false;
+			}
+		}
+		return deleteDirectory(source);
+	}
+
 	public static File saveFileToProject(String project, String name, int fileID, Context context, FileType type) {
 
 		String filePath;
@@ -249,6 +299,135 @@ public final class UtilFile {
 		}
 	}
 
+	/**
+	 * Copies the file and computes its MD5 checksum from the same bytes, so the source is read only once.
+	 *
+	 * @return the checksum in the format of {@link Utils#md5Checksum(File)}
+	 */
+	public static String copyFileWithChecksum(File destinationFile, File sourceFile) throws IOException {
+		MessageDigest messageDigest = Utils.getMD5MessageDigest();
+		FileInputStream inputStream = new FileInputStream(sourceFile);
+		try {
+			FileOutputStream outputStream = new FileOutputStream(destinationFile);
+			try {
+				FileChannel inputChannel = inputStream.getChannel();
+				FileChannel outputChannel = outputStream.getChannel();
+				ByteBuffer buffer = ByteBuffer.allocateDirect(COPY_BUFFER_SIZE);
+				while (inputChannel.read(buffer) != -1) {
+					buffer.flip();
+					messageDigest.update(buffer.duplicate());
+					while (buffer.hasRemaining()) {
+						outputChannel.write(buffer);
+					}
+					buffer.clear();
+				}
+				return Utils.md5Checksum(messageDigest);
+			} finally {
+				outputStream.close();
+			}
+		} finally {
+			inputStream.close();
+		}
+	}
+
+	/**
+	 * Copies a directory tree. Directories are created up front, the files are then copied by a small pool of
+	 * threads. The listener is called from these threads whenever another chunk was written.
+	 *
+	 * @param fileFilter decides which files are copied, directories are always copied; may be null
+	 * @param progressListener may be null
+	 */
+	public static void copyDirectory(File destinationDirectory, File sourceDirectory, FileFilter fileFilter,
+			final CopyProgressListener progressListener) throws IOException {
+		final List<File[]> filesToCopy = new ArrayList<File[]>();
+		long totalBytes = collectFilesToCopy(destinationDirectory, sourceDirectory, fileFilter, filesToCopy);
+
+		final AtomicLong copiedBytes = new AtomicLong();
+		final long bytesToCopy = totalBytes;
+		int threadCount = Math.max(1, Math.min(Math.min(COPY_THREAD_COUNT, filesToCopy.size()),
+				Runtime.getRuntime().availableProcessors()));
+		ExecutorService executorService = Executors.newFixedThreadPool(threadCount);
+		try {
+			List<Future<Void>> futures = new ArrayList<Future<Void>>(filesToCopy.size());
+			for (final File[] copyPair : filesToCopy) {
+				futures.add(executorService.submit(new Callable<Void>() {
+					@Override
+					public Void call() throws IOException {
+						copyFileInChunks(copyPair[0], copyPair[1], copiedBytes, bytesToCopy, progressListener);
+						return null;
+					}
+				}));
+			}
+			for (Future<Void> future : futures) {
+				future.get();
+			}
+		} catch (ExecutionException executionException) {
+			Throwable cause = executionException.getCause();
+			if (cause instanceof IOException) {
+				throw (IOException) cause;
+			}
+			throw new IOException("Copying " + sourceDirectory.getAbsolutePath() + " failed: " + cause);
+		} catch (InterruptedException interruptedException) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Copying " + sourceDirectory.getAbsolutePath() + " was interrupted");
+		} finally {
+			executorService.shutdownNow();
+		}
+	}
+
+	private static long collectFilesToCopy(File destination, File source, FileFilter fileFilter,
+			List<File[]> filesToCopy) throws IOException {
+		if (!source.isDirectory()) {
+			filesToCopy.add(new File[] { destination, source });
+			return source.length();
+		}
+
+		if (!destination.isDirectory() && !destination.mkdirs()) {
+			throw new IOException("Could not create directory " + destination.getAbsolutePath());
+		}
+		File[] children = source.listFiles();
+		if (children == null) {
+			throw new IOException("Could not list " + source.getAbsolutePath());
+		}
+		long size = 0;
+		for (File child : children) {
+			if (child.isDirectory() || fileFilter == null || fileFilter.accept(child)) {
+				size += collectFilesToCopy(new File(destination, child.getName()), child, fileFilter, filesToCopy);
+			}
+		}
+		return size;
+	}
+
+	private static void copyFileInChunks(File destinationFile, File sourceFile, AtomicLong copiedBytes,
+			long totalBytes, CopyProgressListener progressListener) throws IOException {
+		FileInputStream inputStream = new FileInputStream(sourceFile);
+		try {
+			FileOutputStream outputStream = new FileOutputStream(destinationFile);
+			try {
+				FileChannel inputChannel = inputStream.getChannel();
+				FileChannel outputChannel = outputStream.getChannel();
+				long size = inputChannel.size();
+				long position = 0;
+				while (position < size) {
+					long transferred = inputChannel.transferTo(position, Math.min(COPY_CHUNK_SIZE, size - position),
+							outputChannel);
+					if (transferred <= 0) {
+						throw new IOException("Could not copy " + sourceFile.getAbsolutePath());
+					}
+					position += transferred;
+					long copied = copiedBytes.addAndGet(transferred);
+					if (progressListener != null) {
+						progressListener.onBytesCopied(copied, totalBytes);
+					}
+				}
+			} finally {
+				outputStream.close();
+			}
+		} finally {
+			inputStream.close();
+		}
+	}
+
 	public static File copyFromResourceIntoProject(String projectName, String directoryInProject,
 			String outputFilename, int resourceId, Context context, boolean prependMd5ToFilename) throws IOException {
 		String directoryPath = Utils.buildPath(Utils.buildProjectPath(projectName), directoryInProject);
@@ -352,6 +531,10 @@ public final class UtilFile {
 		return projectName;
 	}
 
+	public interface CopyProgressListener {
+		void onBytesCopied(long copiedBytes, long totalBytes);
+	}
+
 	public enum FileType {
 		TYPE_IMAGE_FILE, TYPE_SOUND_FILE
 	}
@@ -33,6 +33,8 @@ import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipInputStream;
 import java.util.zip.ZipOutputStream;
@@ -44,35 +46,23 @@ public final class UtilZip {
 	private static final String ERROR_FOLDER_NOT_CREATED = "Folder not created";
 	private static final String ERROR_CLOSING_STREAM = "Error closing stream";
 
-	private static ZipOutputStream zipOutputStream;
-
 	// Suppress default constructor for noninstantiability
 	private UtilZip() {
 		throw new AssertionError();
 	}
 
 	public static boolean writeToZipFile(String[] filePaths, String zipFile) {
+		FileOutputStream fileOutputStream = null;
 		try {
-			FileOutputStream fileOutputStream = new FileOutputStream(zipFile);
-			zipOutputStream = new ZipOutputStream(fileOutputStream);
-			zipOutputStream.setLevel(QUICKEST_COMPRESSION);
-
-			for (String filePath : filePaths) {
-				File file = new File(filePath);
-				if (file.isDirectory()) {
-					writeDirToZip(file, file.getName() + "/");
-				} else {
-					writeFileToZip(file, "");
-				}
-			}
-
+			fileOutputStream = new FileOutputStream(zipFile);
+			writeToZipStream(filePaths, new BufferedOutputStream(fileOutputStream, Constants.BUFFER_8K));
 			return true;
 		} catch (IOException ioException) {
 			Log.e(TAG, ioException.getMessage(), ioException);
 		} finally {
 			try {
-				if (zipOutputStream != null) {
-					zipOutputStream.close();
+				if (fileOutputStream != null) {
+					fileOutputStream.close();
 				}
 			} catch (IOException ignoredException) {
 				Log.e(TAG, ERROR_CLOSING_STREAM, ignoredException);
@@ -82,71 +72,75 @@ public final class UtilZip {
 		return false;
 	}
 
-	private static void writeDirToZip(File dir, String zipEntryPath) throws IOException {
+	/**
+	 * Zips the given files and directories into the given stream. Every call works on its own
+	 * {@link ZipOutputStream}, so several threads may zip at the same time. The archive is finished and flushed, but
+	 * the stream itself is left open for the caller to close.
+	 */
+	public static void writeToZipStream(String[] filePaths, OutputStream outputStream) throws IOException {
+		ZipOutputStream zipOutputStream = new ZipOutputStream(outputStream);
+		zipOutputStream.setLevel(QUICKEST_COMPRESSION);
+		byte[] readBuffer = new byte[Constants.BUFFER_8K];
+
+		for (String filePath : filePaths) {
+			File file = new File(filePath);
+			if (file.isDirectory()) {
+				writeDirToZip(zipOutputStream, file, file.getName() + "/", readBuffer);
+			} else if (!isLocalCacheFile(file)) {
+				writeFileToZip(zipOutputStream, file, "", readBuffer);
+			}
+		}
+
+		zipOutputStream.finish();
+		zipOutputStream.flush();
+	}
+
+	private static void writeDirToZip(ZipOutputStream zipOutputStream, File dir, String zipEntryPath,
+			byte[] readBuffer) throws IOException {
 		for (String dirListEntry : dir.list()) {
 			File file = new File(dir, dirListEntry);
 			if (file.isDirectory()) {
-				writeDirToZip(file, zipEntryPath + file.getName() + "/");
+				writeDirToZip(zipOutputStream, file, zipEntryPath + file.getName() + "/", readBuffer);
+				continue;
+			}
+			if (isLocalCacheFile(file)) {
 				continue;
 			}
-			writeFileToZip(file, zipEntryPath);
+			writeFileToZip(zipOutputStream, file, zipEntryPath, readBuffer);
 		}
 	}
 
-	private static void writeFileToZip(File file, String zipEntryPath) throws IOException {
-		byte[] readBuffer = new byte[Constants.BUFFER_8K];
+	/**
+	 * Hit masks and project snapshots are rebuilt on every device, so they are not shared.
+	 */
+	private static boolean isLocalCacheFile(File file) {
+		return file.getName().endsWith(Constants.HIT_MASK_EXTENSION)
+				|| file.getName().equals(Constants.PROJECTCODE_SNAPSHOT_NAME);
+	}
+
+	private static void writeFileToZip(ZipOutputStream zipOutputStream, File file, String zipEntryPath,
+			byte[] readBuffer) throws IOException {
 		int bytesIn;
 
 		FileInputStream fileInputStream = new FileInputStream(file);
-		ZipEntry zipEntry = new ZipEntry(zipEntryPath + file.getName());
-		zipOutputStream.putNextEntry(zipEntry);
+		try {
+			ZipEntry zipEntry = new ZipEntry(zipEntryPath + file.getName());
+			zipOutputStream.putNextEntry(zipEntry);
 
-		while ((bytesIn = fileInputStream.read(readBuffer)) != -1) {
-			zipOutputStream.write(readBuffer, 0, bytesIn);
+			while ((bytesIn = fileInputStream.read(readBuffer)) != -1) {
+				zipOutputStream.write(readBuffer, 0, bytesIn);
+			}
+			zipOutputStream.closeEntry();
+		} finally {
+			fileInputStream.close();
 		}
-		zipOutputStream.closeEntry();
-		fileInputStream.close();
 	}
 
 	public static boolean unZipFile(String zipFileName, String outDirectory) {
-		File file;
-		BufferedOutputStream destinationOutputStream = null;
-		ZipInputStream zipInputStream = null;
+		InputStream inputStream = null;
 		try {
-			byte[] data = new byte[Constants.BUFFER_8K];
-			file = new File(zipFileName);
-			zipInputStream = new ZipInputStream(new BufferedInputStream(new FileInputStream(file)));
-
-			ZipEntry zipEntry;
-
-			while ((zipEntry = zipInputStream.getNextEntry()) != null) {
-				if (zipEntry.getName().contains(DIRECTORY_LEVEL_UP)) {
-					Log.d(TAG, "Path traversal attack prevented");
-					continue;
-				}
-
-				if (zipEntry.isDirectory()) {
-					File entryFile = new File(Utils.buildPath(outDirectory, zipEntry.getName()));
-					if (!entryFile.mkdir() && !entryFile.isDirectory()) {
-						zipInputStream.close();
-						throw new IOException(ERROR_FOLDER_NOT_CREATED);
-					}
-					continue;
-				}
-
-				File entryFile = new File(Utils.buildPath(outDirectory, zipEntry.getName()));
-				if (!entryFile.getParentFile().mkdirs() && !entryFile.getParentFile().isDirectory()) {
-					zipInputStream.close();
-					throw new IOException(ERROR_FOLDER_NOT_CREATED);
-				}
-				FileOutputStream fileOutputStream = new FileOutputStream(entryFile);
-				int count;
-				destinationOutputStream = new BufferedOutputStream(fileOutputStream, Constants.BUFFER_8K);
-				while ((count = zipInputStream.read(data, 0, Constants.BUFFER_8K)) != -1) {
-					destinationOutputStream.write(data, 0, count);
-				}
-				destinationOutputStream.flush();
-			}
+			inputStream = new BufferedInputStream(new FileInputStream(zipFileName), Constants.BUFFER_8K);
+			unZipStream(inputStream, outDirectory);
 			return true;
 		} catch (FileNotFoundException fileNotFoundException) {
 			Log.e(TAG, fileNotFoundException.getMessage(), fileNotFoundException);
@@ -154,11 +148,8 @@ public final class UtilZip {
 			Log.e(TAG, ioException.getMessage(), ioException);
 		} finally {
 			try {
-				if (destinationOutputStream != null) {
-					destinationOutputStream.close();
-				}
-				if (zipInputStream != null) {
-					zipInputStream.close();
+				if (inputStream != null) {
+					inputStream.close();
 				}
 			} catch (IOException ignoredException) {
 				Log.e(TAG, ERROR_CLOSING_STREAM, ignoredException);
@@ -166,4 +157,48 @@ public final class UtilZip {
 		}
 		return false;
 	}
+
+	/**
+	 * Extracts a zip archive while it is read from the given stream, so it can be fed directly by a download. Entries
+	 * pointing outside of outDirectory and local cache files like hit masks are skipped. The stream is left open for
+	 * the caller to close.
+	 */
+	public static void unZipStream(InputStream inputStream, String outDirectory) throws IOException {
+		byte[] data = new byte[Constants.BUFFER_8K];
+		ZipInputStream zipInputStream = new ZipInputStream(inputStream);
+		ZipEntry zipEntry;
+
+		while ((zipEntry = zipInputStream.getNextEntry()) != null) {
+			if (zipEntry.getName().contains(DIRECTORY_LEVEL_UP)) {
+				Log.d(TAG, "Path traversal attack prevented");
+				continue;
+			}
+
+			File entryFile = new File(Utils.buildPath(outDirectory, zipEntry.getName()));
+			if (!zipEntry.isDirectory() && isLocalCacheFile(entryFile)) {
+				Log.d(TAG, "Skipped local cache file " + zipEntry.getName());
+				continue;
+			}
+			if (zipEntry.isDirectory()) {
+				if (!entryFile.mkdirs() && !entryFile.isDirectory()) {
+					throw new IOException(ERROR_FOLDER_NOT_CREATED);
+				}
+				continue;
+			}
+
+			if (!entryFile.getParentFile().mkdirs() && !entryFile.getParentFile().isDirectory()) {
+				throw new IOException(ERROR_FOLDER_NOT_CREATED);
+			}
+			OutputStream destinationOutputStream = new BufferedOutputStream(new FileOutputStream(entryFile),
+					Constants.BUFFER_8K);
+			try {
+				int count;
+				while ((count = zipInputStream.read(data, 0, Constants.BUFFER_8K)) != -1) {
+					destinationOutputStream.write(data, 0, count);
+				}
+			} finally {
+				destinationOutputStream.close();
+			}
+		}
+	}
 }
@@ -62,11 +62,14 @@ import org.catrobat.catroid.ProjectManager;
 import org.catrobat.catroid.R;
 import org.catrobat.catroid.common.Constants;
 import org.catrobat.catroid.common.LookData;
+import org.catrobat.catroid.common.ProjectData;
 import org.catrobat.catroid.common.ScreenValues;
 import org.catrobat.catroid.common.SoundInfo;
 import org.catrobat.catroid.common.StandardProjectHandler;
 import org.catrobat.catroid.content.Project;
 import org.catrobat.catroid.exceptions.ProjectException;
+import org.catrobat.catroid.io.ProjectHeaderProbe;
+import org.catrobat.catroid.io.ProjectIndex;
 import org.catrobat.catroid.io.StorageHandler;
 import org.catrobat.catroid.ui.dialogs.CustomAlertDialogBuilder;
 
@@ -234,6 +237,14 @@ public final class Utils {
 		return toHex(messageDigest.digest()).toLowerCase(Locale.US);
 	}
 
+	/**
+	 * Completes the given MD5 digest, which resets it, and returns the checksum in the same format as
+	 * {@link #md5Checksum(File)}.
+	 */
+	public static String md5Checksum(MessageDigest messageDigest) {
+		return toHex(messageDigest.digest()).toLowerCase(Locale.US);
+	}
+
 	private static String toHex(byte[] messageDigest) {
 		final char[] hexChars = "0123456789ABCDEF".toCharArray();
 
@@ -246,7 +257,7 @@ public final class Utils {
 		return String.valueOf(hexBuffer);
 	}
 
-	private static MessageDigest getMD5MessageDigest() {
+	public static MessageDigest getMD5MessageDigest() {
 		MessageDigest messageDigest = null;
 
 		try {
@@ -375,9 +386,21 @@ public final class Utils {
 	public static Project findValidProject() {
 		Project loadableProject = null;
 
-		List<String> projectNameList = UtilFile.getProjectNames(new File(Constants.DEFAULT_ROOT));
-		for (String projectName : projectNameList) {
-			loadableProject = StorageHandler.getInstance().loadProject(projectName);
+		StorageHandler storageHandler = StorageHandler.getInstance();
+		for (ProjectData projectData : storageHandler.getProjectIndex().getProjectDataList()) {
+			// only projects with a header of a supported version are worth deserializing
+			float catrobatLanguageVersion = projectData.catrobatLanguageVersion;
+			if (catrobatLanguageVersion == ProjectIndex.UNKNOWN_LANGUAGE_VERSION) {
+				ProjectHeaderProbe header = storageHandler.probeProject(projectData.projectName);
+				if (header == null) {
+					continue;
+				}
+				catrobatLanguageVersion = header.getCatrobatLanguageVersion();
+			}
+			if (catrobatLanguageVersion > Constants.CURRENT_CATROBAT_LANGUAGE_VERSION) {
+				continue;
+			}
+			loadableProject = storageHandler.loadProject(projectData.projectName);
 			if (loadableProject != null) {
 				break;
 			}
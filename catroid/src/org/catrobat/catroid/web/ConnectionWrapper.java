@@ -29,15 +29,26 @@ import com.github.kevinsawicki.http.HttpRequest;
 import com.github.kevinsawicki.http.HttpRequest.HttpRequestException;
 import com.squareup.okhttp.OkHttpClient;
 
+import org.catrobat.catroid.common.Constants;
 import org.catrobat.catroid.utils.StatusBarNotificationManager;
+import org.catrobat.catroid.utils.UtilZip;
+import org.catrobat.catroid.utils.Utils;
 
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.HttpURLConnection;
 import java.net.Proxy;
 import java.net.URL;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
 import java.util.Arrays;
 import java.util.HashMap;
 
@@ -54,61 +65,264 @@ public class ConnectionWrapper {
 	public static final String TAG_PROJECT_NAME = "projectName";
 	public static final String TAG_PROJECT_TITLE = "projectTitle";
 
+	public static final int MAXIMUM_DOWNLOAD_ATTEMPTS = 3;
+
+	private static final String UPLOAD_FILE_PREFIX = "upload";
+	private static final String HEADER_RANGE = "Range";
+	private static final String HEADER_IF_RANGE = "If-Range";
+	private static final String HEADER_CONTENT_RANGE = "Content-Range";
+	private static final String HEADER_ETAG = "ETag";
+	private static final String HEADER_LAST_MODIFIED = "Last-Modified";
+	private static final String WEAK_ETAG_PREFIX = "W/";
+	private static final String UNSATISFIED_RANGE_PREFIX = "bytes */";
+	private static final String VALIDATOR_FILE_SUFFIX = ".validator";
+	private static final int HTTP_RANGE_NOT_SATISFIABLE = 416;
+
+	/**
+	 * Uploads the given project files as one zip archive. The archive is written to a temporary file through a
+	 * {@link DigestOutputStream}, so it is hashed while it is zipped and its checksum can be sent under checksumTag
+	 * before the file part.
+	 */
 	public String doHttpsPostFileUpload(String urlString, HashMap<String, String> postValues, String fileTag,
-			String filePath, ResultReceiver receiver, Integer notificationId) throws IOException,
-			WebconnectionException {
+			String[] filePaths, String checksumTag, ResultReceiver receiver, Integer notificationId)
+			throws IOException, WebconnectionException {
 
 		String answer = "";
 		String fileName = postValues.get(TAG_PROJECT_TITLE);
 
-		if (filePath != null) {
-			OkHttpClient okHttpClient = new OkHttpClient();
-			okHttpClient.setTransports(Arrays.asList("http/1.1"));
-			HttpRequest.setConnectionFactory(new OkConnectionFactory(okHttpClient));
-			HttpRequest uploadRequest = HttpRequest.post(urlString).chunk(0);
+		if (filePaths != null) {
+			File tmpDirectory = new File(Constants.TMP_PATH);
+			if (!(tmpDirectory.mkdirs() || tmpDirectory.isDirectory())) {
+				throw (new IOException("Folder not created"));
+			}
+			File zipFile = File.createTempFile(UPLOAD_FILE_PREFIX, Constants.CATROBAT_EXTENSION, tmpDirectory);
+			try {
+				String md5Checksum = writeProjectZipFile(filePaths, zipFile);
+				answer = uploadProjectZipFile(urlString, postValues, fileTag, fileName, zipFile, checksumTag,
+						md5Checksum, notificationId);
+			} finally {
+				if (!zipFile.delete()) {
+					Log.w(TAG, "Could not delete " + zipFile.getAbsolutePath());
+				}
+			}
+		}
+		return answer;
+	}
 
+	private String writeProjectZipFile(String[] filePaths, File zipFile) throws IOException {
+		MessageDigest messageDigest = Utils.getMD5MessageDigest();
+		if (messageDigest == null) {
+			throw new IOException("MD5 is not available");
+		}
+		OutputStream outputStream = new BufferedOutputStream(new DigestOutputStream(new FileOutputStream(zipFile),
+				messageDigest), Constants.BUFFER_8K);
+		try {
+			UtilZip.writeToZipStream(filePaths, outputStream);
+		} finally {
+			outputStream.close();
+		}
+		return Utils.md5Checksum(messageDigest);
+	}
+
+	private String uploadProjectZipFile(String urlString, HashMap<String, String> postValues, String fileTag,
+			String fileName, File zipFile, String checksumTag, String md5Checksum, Integer notificationId)
+			throws IOException, WebconnectionException {
+		OkHttpClient okHttpClient = new OkHttpClient();
+		okHttpClient.setTransports(Arrays.asList("http/1.1"));
+		HttpRequest.setConnectionFactory(new OkConnectionFactory(okHttpClient));
+
+		InputStream fileInputStream = new ProgressInputStream(new FileInputStream(zipFile), zipFile.length(),
+				notificationId);
+		try {
+			HttpRequest uploadRequest = HttpRequest.post(urlString).chunk(0);
+			uploadRequest.part(checksumTag, md5Checksum);
 			for (HashMap.Entry<String, String> entry : postValues.entrySet()) {
 				uploadRequest.part(entry.getKey(), entry.getValue());
 			}
-			File file = new File(filePath);
-			uploadRequest.part(fileTag, fileName, file);
-
-			try {
-				int responseCode = uploadRequest.code();
-				if (!(responseCode == 200 || responseCode == 201)) {
-					throw new WebconnectionException(responseCode, "Error response code should be 200 or 201!");
-				}
-				if (!uploadRequest.ok()) {
-					Log.v(TAG, "Upload not successful");
-					StatusBarNotificationManager.getInstance().cancelNotification(notificationId);
-				} else {
-					StatusBarNotificationManager.getInstance().showOrUpdateNotification(notificationId, 100);
-				}
+			uploadRequest.part(fileTag, fileName, null, fileInputStream);
 
-				answer = uploadRequest.body();
-				Log.v(TAG, "Upload response is: " + answer);
-			} catch (HttpRequest.HttpRequestException exception) {
-				Log.e(TAG, "OkHttpError", exception);
-				throw new WebconnectionException(WebconnectionException.ERROR_NETWORK, "OkHttp threw an exception");
+			int responseCode = uploadRequest.code();
+			if (!(responseCode == 200 || responseCode == 201)) {
+				throw new WebconnectionException(responseCode, "Error response code should be 200 or 201!");
 			}
+			if (!uploadRequest.ok()) {
+				Log.v(TAG, "Upload not successful");
+				StatusBarNotificationManager.getInstance().cancelNotification(notificationId);
+			} else {
+				StatusBarNotificationManager.getInstance().showOrUpdateNotification(notificationId, 100);
+			}
+
+			String answer = uploadRequest.body();
+			Log.v(TAG, "Upload response is: " + answer);
+			return answer;
+		} catch (HttpRequest.HttpRequestException exception) {
+			Log.e(TAG, "OkHttpError", exception);
+			throw new WebconnectionException(WebconnectionException.ERROR_NETWORK, "OkHttp threw an exception");
+		} finally {
+			fileInputStream.close();
 		}
-		return answer;
 	}
 
-	public void doHttpPostFileDownload(String urlString, HashMap<String, String> postValues, String filePath,
+	/**
+	 * Downloads into the given file. If the file already holds the beginning of the download, only the missing bytes
+	 * are requested with a Range header, and a connection dropped in the middle is resumed the same way up to
+	 * {@link #MAXIMUM_DOWNLOAD_ATTEMPTS} times. Servers ignore Range on POST requests, so these resume requests are
+	 * sent as GET with postValues in the query. The ETag or Last-Modified of the first response is kept next to the
+	 * file and sent as If-Range, so a file that changed on the server in the meantime is downloaded again as a whole.
+	 * A partial file without such a validator is never resumed. Use {@link #deleteDownload(String)} to remove the
+	 * file once it is not needed anymore.
+	 *
+	 * @return false if the server ignored a Range request and the file had to be written again from the start
+	 */
+	public boolean doHttpPostFileDownload(String urlString, HashMap<String, String> postValues, String filePath,
 			ResultReceiver receiver, Integer notificationId) throws IOException {
-		HttpRequest request = HttpRequest.post(urlString);
+		return doHttpPostFileDownload(urlString, postValues, filePath, null, receiver, notificationId);
+	}
+
+	/**
+	 * @param fileReader reader of the file that is still running, e.g. a streaming unzip; it is aborted before the
+	 *            file is written again from the start, so it never reads a truncated file
+	 * @see #doHttpPostFileDownload(String, HashMap, String, ResultReceiver, Integer)
+	 */
+	public boolean doHttpPostFileDownload(String urlString, HashMap<String, String> postValues, String filePath,
+			GrowingFileInputStream fileReader, ResultReceiver receiver, Integer notificationId) throws IOException {
 		File file = new File(filePath);
 		if (!(file.getParentFile().mkdirs() || file.getParentFile().isDirectory())) {
 			throw (new IOException("Folder not created"));
 		}
 
-		request = request.form(postValues).acceptGzipEncoding();
-		long fileSize = request.contentLength();
-		OutputStream stream = new ProgressBufferedOutputStream(new FileOutputStream(file), request.bufferSize(),
-				fileSize, receiver, notificationId);
-		request.receive(stream);
-		stream.close();
+		boolean writtenContinuously = true;
+		IOException lastException = null;
+		for (int attempt = 0; attempt < MAXIMUM_DOWNLOAD_ATTEMPTS; attempt++) {
+			try {
+				writtenContinuously &= downloadMissingBytes(urlString, postValues, file, fileReader, receiver,
+						notificationId);
+				return writtenContinuously;
+			} catch (HttpRequestException httpRequestException) {
+				lastException = httpRequestException.getCause();
+				Log.w(TAG, "Download interrupted after " + file.length() + " bytes", lastException);
+			} catch (EOFException eofException) {
+				lastException = eofException;
+				Log.w(TAG, "Download interrupted after " + file.length() + " bytes", lastException);
+			}
+		}
+		throw lastException;
+	}
+
+	/**
+	 * Deletes a file written by {@link #doHttpPostFileDownload(String, HashMap, String, ResultReceiver, Integer)}
+	 * together with the validator kept for resuming it.
+	 */
+	public static void deleteDownload(String filePath) {
+		new File(filePath).delete();
+		new File(filePath + VALIDATOR_FILE_SUFFIX).delete();
+	}
+
+	private boolean downloadMissingBytes(String urlString, HashMap<String, String> postValues, File file,
+			GrowingFileInputStream fileReader, ResultReceiver receiver, Integer notificationId) throws IOException {
+		File validatorFile = new File(file.getPath() + VALIDATOR_FILE_SUFFIX);
+		long existingLength = file.length();
+		String validator = existingLength > 0 ? readValidator(validatorFile) : null;
+		long offset = validator != null ? existingLength : 0;
+		HttpRequest request;
+		if (offset > 0) {
+			request = HttpRequest.get(urlString, postValues, true).header(HEADER_RANGE, "bytes=" + offset + "-")
+					.header(HEADER_IF_RANGE, validator).acceptGzipEncoding();
+		} else {
+			request = HttpRequest.post(urlString).acceptGzipEncoding().form(postValues);
+		}
+
+		int responseCode = request.code();
+		if (offset > 0 && responseCode == HTTP_RANGE_NOT_SATISFIABLE) {
+			if (getCompleteLength(request.header(HEADER_CONTENT_RANGE)) == offset) {
+				Log.v(TAG, "Download was already complete");
+				return true;
+			}
+			Log.w(TAG, "Partial " + file.getName() + " does not fit the download, downloading it again");
+			if (fileReader != null) {
+				fileReader.abort();
+			}
+			deleteDownload(file.getPath());
+			downloadMissingBytes(urlString, postValues, file, fileReader, receiver, notificationId);
+			return false;
+		}
+		boolean resumed = offset > 0 && responseCode == HttpURLConnection.HTTP_PARTIAL;
+		if (!resumed && responseCode != HttpURLConnection.HTTP_OK) {
+			throw new IOException("Unexpected response code " + responseCode);
+		}
+		if (existingLength > 0 && !resumed && fileReader != null) {
+			Log.w(TAG, "Partial download could not be resumed, downloading " + file.getName() + " again");
+			fileReader.abort();
+		}
+		if (!resumed) {
+			writeValidator(validatorFile, request);
+		}
+		long bytesAlreadyWritten = resumed ? offset : 0;
+
+		long fileSize = bytesAlreadyWritten + request.contentLength();
+		OutputStream stream = new ProgressBufferedOutputStream(new FileOutputStream(file, resumed),
+				request.bufferSize(), fileSize, bytesAlreadyWritten, receiver, notificationId);
+		try {
+			request.receive(stream);
+		} finally {
+			stream.close();
+		}
+		if (request.contentLength() >= 0 && file.length() < fileSize) {
+			throw new EOFException("Connection closed before the download was complete");
+		}
+		return existingLength == bytesAlreadyWritten;
+	}
+
+	private static String readValidator(File validatorFile) {
+		if (!validatorFile.exists()) {
+			return null;
+		}
+		try {
+			DataInputStream input = new DataInputStream(new FileInputStream(validatorFile));
+			try {
+				return input.readUTF();
+			} finally {
+				input.close();
+			}
+		} catch (IOException ioException) {
+			Log.w(TAG, "Could not read " + validatorFile.getName(), ioException);
+			return null;
+		}
+	}
+
+	/**
+	 * Keeps the strong ETag of the response, or its Last-Modified date if there is none, for the If-Range header of
+	 * later resume requests. Weak ETags are not allowed in If-Range.
+	 */
+	private static void writeValidator(File validatorFile, HttpRequest request) throws IOException {
+		String validator = request.header(HEADER_ETAG);
+		if (validator == null || validator.startsWith(WEAK_ETAG_PREFIX)) {
+			validator = request.header(HEADER_LAST_MODIFIED);
+		}
+		if (validator == null) {
+			validatorFile.delete();
+			return;
+		}
+		DataOutputStream output = new DataOutputStream(new FileOutputStream(validatorFile));
+		try {
+			output.writeUTF(validator);
+		} finally {
+			output.close();
+		}
+	}
+
+	/**
+	 * @return the complete length from the Content-Range header of a 416 response, or -1 if it is not given
+	 */
+	private static long getCompleteLength(String contentRange) {
+		if (contentRange == null || !contentRange.startsWith(UNSATISFIED_RANGE_PREFIX)) {
+			return -1;
+		}
+		try {
+			return Long.parseLong(contentRange.substring(UNSATISFIED_RANGE_PREFIX.length()).trim());
+		} catch (NumberFormatException numberFormatException) {
+			return -1;
+		}
 	}
 
 	public String doHttpPost(String urlString, HashMap<String, String> postValues) throws WebconnectionException {
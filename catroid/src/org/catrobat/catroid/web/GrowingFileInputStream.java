@@ -0,0 +1,114 @@
+/*
+ * Catroid: An on-device visual programming system for Android devices
+ * Copyright (C) 2010-2014 The Catrobat Team
+ * (<http://developer.catrobat.org/credits>)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * An additional term exception under section 7 of the GNU Affero
+ * General Public License, version 3, is available at
+ * http://developer.catrobat.org/license_additional_term
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.catrobat.catroid.web;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+
+/**
+ * Reads a file while another thread is still writing it, e.g. a running download. Reaching the current end of the
+ * file blocks until more bytes were written, {@link #setComplete()} marks the real end of the stream and
+ * {@link #abort()} makes all pending and further reads fail.
+ */
+public class GrowingFileInputStream extends InputStream {
+
+	private static final long POLL_INTERVAL_MILLIS = 50;
+
+	private final File file;
+	private RandomAccessFile randomAccessFile;
+	private long position;
+	private volatile boolean complete;
+	private volatile boolean aborted;
+
+	public GrowingFileInputStream(File file) {
+		this.file = file;
+	}
+
+	public synchronized void setComplete() {
+		complete = true;
+		notifyAll();
+	}
+
+	public synchronized void abort() {
+		aborted = true;
+		notifyAll();
+	}
+
+	@Override
+	public int read() throws IOException {
+		byte[] singleByte = new byte[1];
+		return read(singleByte, 0, 1) == -1 ? -1 : singleByte[0] & 0xFF;
+	}
+
+	@Override
+	public int read(byte[] buffer, int offset, int length) throws IOException {
+		if (length == 0) {
+			return 0;
+		}
+
+		while (true) {
+			if (aborted) {
+				throw new IOException("Reading " + file.getName() + " was aborted");
+			}
+			// read the flag before the file so no bytes written right before completion get lost
+			boolean wasComplete = complete;
+			if (randomAccessFile == null && file.exists()) {
+				randomAccessFile = new RandomAccessFile(file, "r");
+			}
+			if (randomAccessFile != null && position < randomAccessFile.length()) {
+				randomAccessFile.seek(position);
+				int count = randomAccessFile.read(buffer, offset, length);
+				if (count > 0) {
+					position += count;
+					return count;
+				}
+			}
+			if (wasComplete) {
+				return -1;
+			}
+			waitForData();
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		abort();
+		if (randomAccessFile != null) {
+			randomAccessFile.close();
+		}
+	}
+
+	private synchronized void waitForData() throws IOException {
+		if (complete || aborted) {
+			return;
+		}
+		try {
+			wait(POLL_INTERVAL_MILLIS);
+		} catch (InterruptedException interruptedException) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Interrupted while waiting for " + file.getName());
+		}
+	}
+}
@@ -47,12 +47,20 @@ public class ProgressBufferedOutputStream extends BufferedOutputStream {
 
 	public ProgressBufferedOutputStream(OutputStream out, int size, long fileSize, ResultReceiver receiver,
 			Integer notificationId) throws IOException {
+		this(out, size, fileSize, 0, receiver, notificationId);
+	}
+
+	/**
+	 * @param bytesAlreadyWritten size of the part of the file that was written before, when a download is resumed
+	 */
+	public ProgressBufferedOutputStream(OutputStream out, int size, long fileSize, long bytesAlreadyWritten,
+			ResultReceiver receiver, Integer notificationId) throws IOException {
 		super(out, size);
 
 		this.fileSize = fileSize;
 		this.receiver = receiver;
 		this.notificationId = notificationId;
-		currentFileStatus = 0;
+		currentFileStatus = bytesAlreadyWritten;
 	}
 
 	@Override
@@ -73,10 +81,15 @@ public class ProgressBufferedOutputStream extends BufferedOutputStream {
 	public void close() throws IOException {
 		super.close();
 
-		sendUpdateIntent(100, true);
+		if (currentFileStatus >= fileSize) {
+			sendUpdateIntent(100, true);
+		}
 	}
 
 	private void sendUpdateIntent(long progress, boolean endOfFileReached) {
+		if (receiver == null) {
+			return;
+		}
 		Bundle progressBundle = new Bundle();
 		progressBundle.putLong(TAG_PROGRESS, progress);
 		progressBundle.putBoolean(TAG_ENDOFFILE, endOfFileReached);
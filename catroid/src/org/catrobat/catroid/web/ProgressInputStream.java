@@ -0,0 +1,86 @@
+/*
+ * Catroid: An on-device visual programming system for Android devices
+ * Copyright (C) 2010-2014 The Catrobat Team
+ * (<http://developer.catrobat.org/credits>)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * An additional term exception under section 7 of the GNU Affero
+ * General Public License, version 3, is available at
+ * http://developer.catrobat.org/license_additional_term
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.catrobat.catroid.web;
+
+import org.catrobat.catroid.utils.StatusBarNotificationManager;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Updates the progress notification of an upload while the uploaded stream is read. 100 percent is left to the
+ * caller, because the notification shows the upload as done then.
+ */
+public class ProgressInputStream extends FilterInputStream {
+
+	private final long streamSize;
+	private final Integer notificationId;
+
+	private long bytesRead;
+	private int lastProgress;
+
+	public ProgressInputStream(InputStream in, long streamSize, Integer notificationId) {
+		super(in);
+		this.streamSize = streamSize;
+		this.notificationId = notificationId;
+	}
+
+	@Override
+	public int read() throws IOException {
+		int value = super.read();
+		if (value != -1) {
+			updateProgress(1);
+		}
+		return value;
+	}
+
+	@Override
+	public int read(byte[] buffer, int offset, int length) throws IOException {
+		int count = super.read(buffer, offset, length);
+		if (count > 0) {
+			updateProgress(count);
+		}
+		return count;
+	}
+
+	@Override
+	public long skip(long byteCount) throws IOException {
+		long skipped = super.skip(byteCount);
+		updateProgress(skipped);
+		return skipped;
+	}
+
+	private void updateProgress(long count) {
+		bytesRead += count;
+		if (notificationId == null || streamSize <= 0) {
+			return;
+		}
+		int progress = (int) Math.min(StatusBarNotificationManager.MAXIMUM_PERCENT - 1, (100 * bytesRead)
+				/ streamSize);
+		if (progress > lastProgress) {
+			lastProgress = progress;
+			StatusBarNotificationManager.getInstance().showOrUpdateNotification(notificationId, progress);
+		}
+	}
+}
@@ -29,10 +29,12 @@ import android.preference.PreferenceManager;
 import android.util.Log;
 
 import org.catrobat.catroid.common.Constants;
-import org.catrobat.catroid.utils.Utils;
+import org.catrobat.catroid.utils.UtilFile;
+import org.catrobat.catroid.utils.UtilZip;
 import org.json.JSONException;
 import org.json.JSONObject;
 
+import java.io.BufferedInputStream;
 import java.io.File;
 import java.io.IOException;
 import java.net.MalformedURLException;
@@ -78,6 +80,8 @@ public final class ServerCalls {
 	private static final String JSON_ANSWER = "answer";
 	private static final String JSON_TOKEN = "token";
 
+	private static final String EXTRACT_DIRECTORY_SUFFIX = "_extracted";
+
 	private static final ServerCalls INSTANCE = new ServerCalls();
 
 	public static boolean useTestUrl = false;
@@ -99,7 +103,7 @@ public final class ServerCalls {
 		this.connection = connection;
 	}
 
-	public void uploadProject(String projectName, String projectDescription, String zipFileString, String userEmail,
+	public void uploadProject(String projectName, String projectDescription, String[] filePaths, String userEmail,
 			String language, String token, String username, ResultReceiver receiver, Integer notificationId,
 			Context context) throws WebconnectionException {
 		if (emailForUiTests != null) {
@@ -107,13 +111,10 @@ public final class ServerCalls {
 		}
 
 		try {
-			String md5Checksum = Utils.md5Checksum(new File(zipFileString));
-
 			HashMap<String, String> postValues = new HashMap<String, String>();
 			postValues.put(PROJECT_NAME_TAG, projectName);
 			postValues.put(PROJECT_DESCRIPTION_TAG, projectDescription);
 			postValues.put(USER_EMAIL, userEmail == null ? "" : userEmail);
-			postValues.put(PROJECT_CHECKSUM_TAG, md5Checksum);
 			postValues.put(Constants.TOKEN, token);
 			postValues.put(Constants.USERNAME, username);
 
@@ -125,8 +126,8 @@ public final class ServerCalls {
 
 			Log.v(TAG, "url to upload: " + serverUrl);
 
-			String answer = connection.doHttpsPostFileUpload(serverUrl, postValues, FILE_UPLOAD_TAG, zipFileString,
-					receiver, notificationId);
+			String answer = connection.doHttpsPostFileUpload(serverUrl, postValues, FILE_UPLOAD_TAG, filePaths,
+					PROJECT_CHECKSUM_TAG, receiver, notificationId);
 			if (answer != null && !answer.isEmpty()) {
 				// check statusCode from Webserver
 				JSONObject jsonObject = null;
@@ -164,20 +165,52 @@ public final class ServerCalls {
 		}
 	}
 
-	public void downloadProject(String downloadUrl, String zipFileString, ResultReceiver receiver,
-			Integer notificationId) throws WebconnectionException {
-
+	/**
+	 * Downloads the project archive to zipFileString and extracts it into projectPath. Extraction runs while the
+	 * archive is still arriving, into a staging directory next to the archive, and the project only replaces
+	 * projectPath once everything was extracted. A partial archive left behind by a failed download is resumed by
+	 * the next call with the same zipFileString. Once the download is complete the archive is deleted, whether it
+	 * could be extracted or not, so a broken archive is never resumed.
+	 *
+	 * @return true if the project was downloaded and extracted
+	 */
+	public boolean downloadProject(String downloadUrl, String zipFileString, String projectPath,
+			ResultReceiver receiver, Integer notificationId) throws WebconnectionException {
+		File zipFile = new File(zipFileString);
+		File extractDirectory = new File(zipFileString + EXTRACT_DIRECTORY_SUFFIX);
+		UtilFile.deleteDirectory(extractDirectory);
+
+		GrowingFileInputStream zipInputStream = new GrowingFileInputStream(zipFile);
+		StreamingUnzipThread unzipThread = new StreamingUnzipThread(zipInputStream, extractDirectory.getPath());
+		unzipThread.start();
+
+		boolean writtenContinuously;
 		try {
-			connection.doHttpPostFileDownload(downloadUrl, new HashMap<String, String>(), zipFileString, receiver,
-					notificationId);
+			writtenContinuously = connection.doHttpPostFileDownload(downloadUrl, new HashMap<String, String>(),
+					zipFileString, zipInputStream, receiver, notificationId);
+			zipInputStream.setComplete();
 		} catch (MalformedURLException malformedURLException) {
 			Log.e(TAG, Log.getStackTraceString(malformedURLException));
+			zipInputStream.abort();
 			throw new WebconnectionException(WebconnectionException.ERROR_NETWORK, "Malformed URL");
 		} catch (IOException ioException) {
 			Log.e(TAG, Log.getStackTraceString(ioException));
+			zipInputStream.abort();
 			throw new WebconnectionException(WebconnectionException.ERROR_NETWORK, "IO-Exception");
 		}
 
+		boolean extracted = unzipThread.waitForResult() && writtenContinuously;
+		if (!extracted) {
+			Log.w(TAG, "Streaming extraction failed, extracting the complete archive instead");
+			UtilFile.deleteDirectory(extractDirectory);
+			extracted = UtilZip.unZipFile(zipFileString, extractDirectory.getPath());
+		}
+		extracted = extracted && UtilFile.moveDirectoryContents(extractDirectory, new File(projectPath));
+		ConnectionWrapper.deleteDownload(zipFileString);
+		if (!extracted) {
+			UtilFile.deleteDirectory(extractDirectory);
+		}
+		return extracted;
 	}
 
 	public boolean checkToken(String token, String username) throws WebconnectionException {
@@ -274,4 +307,43 @@ public final class ServerCalls {
 			throw new WebconnectionException(WebconnectionException.ERROR_JSON, "JSON-Error");
 		}
 	}
+
+	private static class StreamingUnzipThread extends Thread {
+		private final GrowingFileInputStream inputStream;
+		private final String outDirectory;
+		private boolean success;
+
+		StreamingUnzipThread(GrowingFileInputStream inputStream, String outDirectory) {
+			super(StreamingUnzipThread.class.getSimpleName());
+			this.inputStream = inputStream;
+			this.outDirectory = outDirectory;
+		}
+
+		@Override
+		public void run() {
+			try {
+				UtilZip.unZipStream(new BufferedInputStream(inputStream, Constants.BUFFER_8K), outDirectory);
+				success = true;
+			} catch (IOException ioException) {
+				Log.w(TAG, "Streaming extraction stopped", ioException);
+			} finally {
+				try {
+					inputStream.close();
+				} catch (IOException ioException) {
+					Log.e(TAG, "Error closing download stream", ioException);
+				}
+			}
+		}
+
+		boolean waitForResult() {
+			try {
+				join();
+			} catch (InterruptedException interruptedException) {
+				inputStream.abort();
+				Thread.currentThread().interrupt();
+				return false;
+			}
+			return success;
+		}
+	}
 }
@@ -80,7 +80,14 @@ public class BTClientHandler extends Thread
 				BTServer.writeMessage("Received message, length (byte): " + messageLength + "\n");
 				char[] buf = new char[messageLength];
 				byte[] reply = (byte[])null;
-				bReader.read(buf);
+				int offset = 0;
+				while (offset < messageLength) {
+					int length = bReader.read(buf, offset, messageLength - offset);
+					if (length == -1) {
+						break;
+					}
+					offset += length;
+				}
 
 				if ((messageLength == 3) && (buf[0] == DIRECT_COMMAND_REPLY) && (buf[1] == '\006')) {
 					reply = getLegoNXTReplyMessage(lastMessage);
@@ -28,6 +28,7 @@ import org.catrobat.catroid.ProjectManager;
 import org.catrobat.catroid.common.Constants;
 import org.catrobat.catroid.content.Project;
 import org.catrobat.catroid.exceptions.CompatibilityProjectException;
+import org.catrobat.catroid.exceptions.OutdatedVersionProjectException;
 import org.catrobat.catroid.exceptions.ProjectException;
 import org.catrobat.catroid.test.utils.TestUtils;
 import org.catrobat.catroid.utils.Utils;
@@ -113,6 +114,29 @@ public class ProjectManagerTest extends AndroidTestCase {
 		TestUtils.deleteTestProjects(OLD_PROJECT, NEW_PROJECT);
 	}
 
+	public void testShouldKeepExistingProjectIfNewProjectIsOutdated() {
+		TestUtils.createTestProjectOnLocalStorageWithCatrobatLanguageVersionAndName(
+				Constants.CURRENT_CATROBAT_LANGUAGE_VERSION, OLD_PROJECT);
+		TestUtils.createTestProjectOnLocalStorageWithCatrobatLanguageVersionAndName(
+				Constants.CURRENT_CATROBAT_LANGUAGE_VERSION + 1, NEW_PROJECT);
+
+		try {
+			projectManager.loadProject(OLD_PROJECT, getContext());
+		} catch (ProjectException projectException) {
+			fail("Could not load project.");
+		}
+
+		assertFalse("Outdated project can be loaded", projectManager.canLoadProject(NEW_PROJECT));
+		try {
+			projectManager.loadProject(NEW_PROJECT, getContext());
+			fail("Project shouldn't be loaded by an outdated version");
+		} catch (OutdatedVersionProjectException outdatedVersionProjectException) {
+			assertEquals("Didn't keep old project.", OLD_PROJECT, projectManager.getCurrentProject().getName());
+		} catch (ProjectException projectException) {
+			fail("Failed to identify outdated project");
+		}
+	}
+
 	public void testShouldLoadAnotherProjectIfCannotLoadSpecificProject() throws Exception {
 		assertNull("Current project not null.", projectManager.getCurrentProject());
 
@@ -0,0 +1,95 @@
+/*
+ * Catroid: An on-device visual programming system for Android devices
+ * Copyright (C) 2010-2014 The Catrobat Team
+ * (<http://developer.catrobat.org/credits>)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * An additional term exception under section 7 of the GNU Affero
+ * General Public License, version 3, is available at
+ * http://developer.catrobat.org/license_additional_term
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.catrobat.catroid.test.content;
+
+import android.test.AndroidTestCase;
+
+import com.badlogic.gdx.scenes.scene2d.Action;
+
+import org.catrobat.catroid.content.ActionRestartQueue;
+
+public class ActionRestartQueueTest extends AndroidTestCase {
+
+	private ActionRestartQueue queue;
+
+	@Override
+	protected void setUp() {
+		queue = new ActionRestartQueue();
+	}
+
+	public void testActionIsQueuedOnce() {
+		CountingAction action = new CountingAction();
+		assertTrue("Action not queued", queue.add(action));
+		assertFalse("Action queued twice", queue.add(action));
+		assertTrue("Queued action not found", queue.contains(action));
+		assertEquals("Wrong queue size", 1, queue.size());
+
+		queue.restartActions();
+		assertEquals("Action not restarted exactly once", 1, action.restartCount);
+		assertTrue("Queue not drained", queue.isEmpty());
+		assertFalse("Restarted action still queued", queue.contains(action));
+	}
+
+	public void testRestartRequestedWhileDraining() {
+		final CountingAction secondAction = new CountingAction();
+		CountingAction firstAction = new CountingAction() {
+			@Override
+			public void restart() {
+				super.restart();
+				queue.add(secondAction);
+			}
+		};
+		queue.add(firstAction);
+
+		queue.restartActions();
+		assertEquals("First action not restarted", 1, firstAction.restartCount);
+		assertEquals("Action queued while draining restarted too early", 0, secondAction.restartCount);
+		assertTrue("Action queued while draining got lost", queue.contains(secondAction));
+
+		queue.restartActions();
+		assertEquals("Second action not restarted in next drain", 1, secondAction.restartCount);
+	}
+
+	public void testClear() {
+		CountingAction action = new CountingAction();
+		queue.add(action);
+		queue.clear();
+		queue.restartActions();
+		assertEquals("Cleared action restarted", 0, action.restartCount);
+		assertTrue("Cleared action not queueable", queue.add(action));
+	}
+
+	private static class CountingAction extends Action {
+		private int restartCount = 0;
+
+		@Override
+		public boolean act(float delta) {
+			return true;
+		}
+
+		@Override
+		public void restart() {
+			restartCount++;
+		}
+	}
+}
@@ -0,0 +1,74 @@
+/*
+ * Catroid: An on-device visual programming system for Android devices
+ * Copyright (C) 2010-2014 The Catrobat Team
+ * (<http://developer.catrobat.org/credits>)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * An additional term exception under section 7 of the GNU Affero
+ * General Public License, version 3, is available at
+ * http://developer.catrobat.org/license_additional_term
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.catrobat.catroid.test.content;
+
+import android.test.AndroidTestCase;
+
+import com.badlogic.gdx.scenes.scene2d.actions.SequenceAction;
+
+import org.catrobat.catroid.content.ActionTreePool;
+import org.catrobat.catroid.content.actions.ExtendedActions;
+
+public class ActionTreePoolTest extends AndroidTestCase {
+
+	private static final String KEY = "tapped";
+	private static final float DELTA = 1e-5f;
+
+	private ActionTreePool<String, SequenceAction> pool;
+
+	@Override
+	protected void setUp() {
+		pool = new ActionTreePool<String, SequenceAction>();
+	}
+
+	public void testObtainPooledAction() {
+		assertNull("Action found in empty pool", pool.obtain(KEY));
+
+		SequenceAction action = ExtendedActions.sequence();
+		pool.put(KEY, action);
+		assertTrue("Pooled action not found", pool.contains(KEY));
+		assertSame("Wrong action obtained", action, pool.obtain(KEY));
+		assertSame("Pooled action not kept", action, pool.obtain(KEY));
+	}
+
+	public void testStatistics() {
+		pool.obtain(KEY);
+		pool.put(KEY, ExtendedActions.sequence());
+		pool.obtain(KEY);
+		pool.obtain(KEY);
+		pool.contains(KEY);
+
+		assertEquals("Wrong number of misses", 1, pool.getMissCount());
+		assertEquals("Wrong number of hits", 2, pool.getHitCount());
+		assertEquals("Wrong hit rate", 2f / 3, pool.getHitRate(), DELTA);
+
+		pool.clear();
+		assertEquals("Pool not cleared", 0, pool.size());
+		assertEquals("Statistics reset by clear", 2, pool.getHitCount());
+
+		pool.resetStatistics();
+		assertEquals("Hits not reset", 0, pool.getHitCount());
+		assertEquals("Misses not reset", 0, pool.getMissCount());
+		assertEquals("Wrong hit rate without requests", 0f, pool.getHitRate(), DELTA);
+	}
+}
@@ -35,6 +35,7 @@ import org.catrobat.catroid.utils.Utils;
 
 import java.io.BufferedOutputStream;
 import java.io.File;
+import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
@@ -170,4 +171,37 @@ public class FileChecksumContainerTest extends InstrumentationTestCase {
 
 		assertEquals("Wrong amount of files in folder", 1, filesSound.length);
 	}
+
+	public void testCopyImageWithNewName() throws IOException {
+		File newTestImage = storageHandler.copyImage(currentProjectName, testImage.getAbsolutePath(), "renamed.png");
+		String checksumImage = Utils.md5Checksum(testImage);
+		assertEquals("Wrong file name", checksumImage + "_renamed.png", newTestImage.getName());
+		assertEquals("Wrong path in container", newTestImage.getAbsolutePath(),
+				projectManager.getFileChecksumContainer().getPath(checksumImage));
+
+		File imageDirectory = new File(Constants.DEFAULT_ROOT + "/" + currentProjectName + "/"
+				+ Constants.IMAGE_DIRECTORY);
+		//nomedia file is also in images folder, the temporary copy must be gone
+		assertEquals("Wrong amount of files in folder", 2, imageDirectory.listFiles().length);
+	}
+
+	public void testLookupByPath() throws FileNotFoundException {
+		FileChecksumContainer container = new FileChecksumContainer();
+		container.addChecksum("checksum", "/images/Checksum_Image.png");
+		assertEquals("Checksum not found by path", "checksum", container.getChecksum("/images/Checksum_Image.png"));
+		assertEquals("Path lookup should ignore case", "checksum", container.getChecksum("/IMAGES/checksum_image.PNG"));
+		assertNull("Unknown path found", container.getChecksum("/images/other.png"));
+
+		container.incrementUsage("/images/checksum_image.png");
+		assertEquals("Usage not incremented", 2, container.getUsage("checksum"));
+		assertFalse("File released too early", container.decrementUsage("/images/Checksum_Image.png"));
+		assertTrue("File not released", container.decrementUsage("/images/Checksum_Image.png"));
+		assertNull("Path of released file still found", container.getChecksum("/images/Checksum_Image.png"));
+
+		try {
+			container.decrementUsage("/images/Checksum_Image.png");
+			fail("Released file still in container");
+		} catch (FileNotFoundException expected) {
+		}
+	}
 }
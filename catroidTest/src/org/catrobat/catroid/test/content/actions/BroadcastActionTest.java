@@ -24,12 +24,19 @@ package org.catrobat.catroid.test.content.actions;
 
 import android.test.AndroidTestCase;
 
+import com.badlogic.gdx.scenes.scene2d.Action;
+import com.badlogic.gdx.scenes.scene2d.actions.SequenceAction;
+import com.badlogic.gdx.utils.Array;
+
 import org.catrobat.catroid.ProjectManager;
+import org.catrobat.catroid.content.ActionRestartQueue;
+import org.catrobat.catroid.content.BroadcastEvent;
 import org.catrobat.catroid.content.BroadcastScript;
 import org.catrobat.catroid.content.Project;
 import org.catrobat.catroid.content.Script;
 import org.catrobat.catroid.content.Sprite;
 import org.catrobat.catroid.content.StartScript;
+import org.catrobat.catroid.content.actions.BroadcastNotifyAction;
 import org.catrobat.catroid.content.bricks.BroadcastBrick;
 import org.catrobat.catroid.content.bricks.BroadcastWaitBrick;
 import org.catrobat.catroid.content.bricks.ChangeXByNBrick;
@@ -37,11 +44,13 @@ import org.catrobat.catroid.content.bricks.SetXBrick;
 import org.catrobat.catroid.content.bricks.WaitBrick;
 import org.catrobat.catroid.uitest.util.UiTestUtils;
 
-import java.util.HashMap;
-import java.util.List;
+import java.util.HashSet;
+import java.util.Set;
 
 public class BroadcastActionTest extends AndroidTestCase {
 
+	private final ActionRestartQueue restartQueue = new ActionRestartQueue();
+
 	public void testBroadcast() {
 		Sprite sprite = new Sprite("testSprite");
 		Script script = new StartScript();
@@ -59,18 +68,88 @@ public class BroadcastActionTest extends AndroidTestCase {
 		Project project = new Project(getContext(), UiTestUtils.DEFAULT_TEST_PROJECT_NAME);
 		project.addSprite(sprite);
 		ProjectManager.getInstance().setProject(project);
+		setRestartQueueOfAllLooks();
 
-		sprite.createStartScriptActionSequenceAndPutToMap(new HashMap<String, List<String>>());
+		sprite.createStartScriptActionSequenceAndPutToMap();
 
 		while (!allActionsOfAllSpritesAreFinished()) {
-			for (Sprite spriteOfList : ProjectManager.getInstance().getCurrentProject().getSpriteList()) {
-				spriteOfList.look.act(1.0f);
-			}
+			actAllLooks();
 		}
 
 		assertEquals("Simple broadcast failed", testPosition, (int) sprite.look.getXInUserInterfaceDimensionUnit());
 	}
 
+	public void testBroadcastOnlyReachesReceivers() {
+		String message = "receiverTest";
+		Sprite senderSprite = new Sprite("senderSprite");
+		Script startScript = new StartScript();
+		startScript.addBrick(new BroadcastWaitBrick(message));
+		senderSprite.addScript(startScript);
+
+		Sprite receiverSprite = new Sprite("receiverSprite");
+		BroadcastScript broadcastScript = new BroadcastScript(message);
+		int testPosition = 100;
+		broadcastScript.addBrick(new SetXBrick(testPosition));
+		receiverSprite.addScript(broadcastScript);
+
+		Sprite otherSprite = new Sprite("otherSprite");
+
+		Project project = new Project(getContext(), UiTestUtils.DEFAULT_TEST_PROJECT_NAME);
+		project.addSprite(senderSprite);
+		project.addSprite(otherSprite);
+		project.addSprite(receiverSprite);
+		ProjectManager.getInstance().setProject(project);
+		setRestartQueueOfAllLooks();
+
+		for (Sprite spriteOfList : project.getSpriteList()) {
+			spriteOfList.createStartScriptActionSequenceAndPutToMap();
+		}
+
+		int loopCounter = 0;
+		while (!allActionsOfAllSpritesAreFinished() && loopCounter++ < 20) {
+			actAllLooks();
+		}
+
+		assertTrue("Broadcast and wait did not finish", allActionsOfAllSpritesAreFinished());
+		assertEquals("Broadcast script not run", testPosition,
+				(int) receiverSprite.look.getXInUserInterfaceDimensionUnit());
+		assertEquals("Broadcast script not started on the look of its sprite", 1,
+				receiverSprite.look.getActions().size);
+		assertEquals("Sprite without receiver script got an action", 0, otherSprite.look.getActions().size);
+		assertEquals("Wrong number of registered receivers", 1,
+				project.getBroadcastReceiverRegistry().getReceivers(message).size());
+	}
+
+	public void testBroadcastWithoutRestartQueue() {
+		Sprite sprite = new Sprite("testSprite");
+		Script script = new StartScript();
+		String message = "noQueueTest";
+		script.addBrick(new BroadcastBrick(message));
+		sprite.addScript(script);
+
+		BroadcastScript broadcastScript = new BroadcastScript(message);
+		final int xMovement = 1;
+		broadcastScript.addBrick(new ChangeXByNBrick(xMovement));
+		broadcastScript.addBrick(new BroadcastBrick(message));
+		sprite.addScript(broadcastScript);
+
+		Project project = new Project(getContext(), UiTestUtils.DEFAULT_TEST_PROJECT_NAME);
+		project.addSprite(sprite);
+		ProjectManager.getInstance().setProject(project);
+		// like a clone that is not on the stage yet
+		sprite.look.setActionRestartQueue(null);
+
+		sprite.createStartScriptActionSequenceAndPutToMap();
+
+		int loopCounter = 0;
+		while (!allActionsOfAllSpritesAreFinished() && loopCounter++ < 20) {
+			actAllLooks();
+		}
+
+		assertTrue("Running receiver not restarted without restart queue",
+				(int) sprite.look.getXInUserInterfaceDimensionUnit() > xMovement);
+	}
+
 	public void testBroadcastWait() {
 		Sprite sprite = new Sprite("spriteOne");
 		Script scriptWait = new StartScript();
@@ -93,18 +172,92 @@ public class BroadcastActionTest extends AndroidTestCase {
 		Project project = new Project(getContext(), UiTestUtils.DEFAULT_TEST_PROJECT_NAME);
 		project.addSprite(sprite);
 		ProjectManager.getInstance().setProject(project);
+		setRestartQueueOfAllLooks();
 
-		sprite.createStartScriptActionSequenceAndPutToMap(new HashMap<String, List<String>>());
+		sprite.createStartScriptActionSequenceAndPutToMap();
 
 		while (!allActionsOfAllSpritesAreFinished()) {
-			for (Sprite spriteOfList : ProjectManager.getInstance().getCurrentProject().getSpriteList()) {
-				spriteOfList.look.act(1.0f);
-			}
+			actAllLooks();
 		}
 
 		assertEquals("Broadcast and wait failed", testPosition, (int) sprite.look.getXInUserInterfaceDimensionUnit());
 	}
 
+	public void testBroadcastWaitActionIsRestartedFromPool() {
+		Sprite sprite = new Sprite("spriteOne");
+		String message = "poolTest";
+		Script scriptWait = new StartScript();
+		scriptWait.addBrick(new BroadcastWaitBrick(message));
+		scriptWait.addBrick(new BroadcastWaitBrick(message));
+		sprite.addScript(scriptWait);
+
+		BroadcastScript broadcastScript = new BroadcastScript(message);
+		final int xMovement = 1;
+		broadcastScript.addBrick(new ChangeXByNBrick(xMovement));
+		sprite.addScript(broadcastScript);
+
+		Project project = new Project(getContext(), UiTestUtils.DEFAULT_TEST_PROJECT_NAME);
+		project.addSprite(sprite);
+		ProjectManager.getInstance().setProject(project);
+		setRestartQueueOfAllLooks();
+
+		sprite.look.getBroadcastWaitActionPool().resetStatistics();
+		sprite.createStartScriptActionSequenceAndPutToMap();
+
+		int loopCounter = 0;
+		while (!allActionsOfAllSpritesAreFinished() && loopCounter++ < 20) {
+			actAllLooks();
+		}
+
+		assertTrue("Broadcast and wait did not finish", allActionsOfAllSpritesAreFinished());
+		assertTrue("Broadcast script not run", (int) sprite.look.getXInUserInterfaceDimensionUnit() >= xMovement);
+		assertEquals("Broadcast wait action built although it was pooled", 0,
+				sprite.look.getBroadcastWaitActionPool().getMissCount());
+		assertEquals("Broadcast wait actions not taken from the pool", 2,
+				sprite.look.getBroadcastWaitActionPool().getHitCount());
+	}
+
+	public void testRunningBroadcastWaitActionIsNotReused() {
+		String message = "runningPoolTest";
+		Sprite firstSender = new Sprite("firstSender");
+		Script firstScript = new StartScript();
+		firstScript.addBrick(new BroadcastWaitBrick(message));
+		firstSender.addScript(firstScript);
+		Sprite secondSender = new Sprite("secondSender");
+		Script secondScript = new StartScript();
+		secondScript.addBrick(new BroadcastWaitBrick(message));
+		secondSender.addScript(secondScript);
+
+		Sprite receiverSprite = new Sprite("receiverSprite");
+		BroadcastScript broadcastScript = new BroadcastScript(message);
+		broadcastScript.addBrick(new WaitBrick(5000));
+		receiverSprite.addScript(broadcastScript);
+
+		Project project = new Project(getContext(), UiTestUtils.DEFAULT_TEST_PROJECT_NAME);
+		project.addSprite(firstSender);
+		project.addSprite(secondSender);
+		project.addSprite(receiverSprite);
+		ProjectManager.getInstance().setProject(project);
+		setRestartQueueOfAllLooks();
+
+		for (Sprite spriteOfList : project.getSpriteList()) {
+			spriteOfList.createStartScriptActionSequenceAndPutToMap();
+		}
+		actAllLooks();
+
+		Set<BroadcastEvent> notifiedEvents = new HashSet<BroadcastEvent>();
+		int broadcastWaitActionCount = 0;
+		for (Action action : receiverSprite.look.getActions()) {
+			Array<Action> childActions = ((SequenceAction) action).getActions();
+			if (childActions.size == 2 && childActions.get(1) instanceof BroadcastNotifyAction) {
+				broadcastWaitActionCount++;
+				notifiedEvents.add(((BroadcastNotifyAction) childActions.get(1)).getEvent());
+			}
+		}
+		assertEquals("Running broadcast wait action was reused", 2, broadcastWaitActionCount);
+		assertEquals("Running broadcast wait action notifies the new event", 2, notifiedEvents.size());
+	}
+
 	public void testWhenScriptRestartingItself() {
 		Sprite sprite = new Sprite("testSprite");
 		Script script = new StartScript();
@@ -128,14 +281,13 @@ public class BroadcastActionTest extends AndroidTestCase {
 		Project project = new Project(getContext(), UiTestUtils.DEFAULT_TEST_PROJECT_NAME);
 		project.addSprite(sprite);
 		ProjectManager.getInstance().setProject(project);
+		setRestartQueueOfAllLooks();
 
-		sprite.createStartScriptActionSequenceAndPutToMap(new HashMap<String, List<String>>());
+		sprite.createStartScriptActionSequenceAndPutToMap();
 
 		int loopCounter = 0;
 		while (!allActionsOfAllSpritesAreFinished() && loopCounter++ < 20) {
-			for (Sprite spriteOfList : ProjectManager.getInstance().getCurrentProject().getSpriteList()) {
-				spriteOfList.look.act(1.0f);
-			}
+			actAllLooks();
 		}
 
 		assertTrue("When script does not restart itself!",
@@ -170,20 +322,32 @@ public class BroadcastActionTest extends AndroidTestCase {
 		Project project = new Project(getContext(), UiTestUtils.DEFAULT_TEST_PROJECT_NAME);
 		project.addSprite(sprite);
 		ProjectManager.getInstance().setProject(project);
+		setRestartQueueOfAllLooks();
 
-		sprite.createStartScriptActionSequenceAndPutToMap(new HashMap<String, List<String>>());
+		sprite.createStartScriptActionSequenceAndPutToMap();
 
 		int loopCounter = 0;
 		while (!allActionsOfAllSpritesAreFinished() && loopCounter++ < 20) {
-			for (Sprite spriteOfList : ProjectManager.getInstance().getCurrentProject().getSpriteList()) {
-				spriteOfList.look.act(1.0f);
-			}
+			actAllLooks();
 		}
 
 		assertTrue("When script does not restart itself when a BroadcastWait is sent! ",
 				(int) sprite.look.getXInUserInterfaceDimensionUnit() > 5 * xMovement);
 	}
 
+	private void setRestartQueueOfAllLooks() {
+		for (Sprite spriteOfList : ProjectManager.getInstance().getCurrentProject().getSpriteList()) {
+			spriteOfList.look.setActionRestartQueue(restartQueue);
+		}
+	}
+
+	private void actAllLooks() {
+		restartQueue.restartActions();
+		for (Sprite spriteOfList : ProjectManager.getInstance().getCurrentProject().getSpriteList()) {
+			spriteOfList.look.act(1.0f);
+		}
+	}
+
 	public boolean allActionsOfAllSpritesAreFinished() {
 		for (Sprite spriteOfList : ProjectManager.getInstance().getCurrentProject().getSpriteList()) {
 			if (!spriteOfList.look.getAllActionsAreFinished()) {
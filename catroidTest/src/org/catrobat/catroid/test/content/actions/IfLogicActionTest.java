@@ -44,9 +44,6 @@ import org.catrobat.catroid.formulaeditor.Operators;
 import org.catrobat.catroid.formulaeditor.UserVariable;
 import org.catrobat.catroid.test.utils.Reflection;
 
-import java.util.HashMap;
-import java.util.List;
-
 public class IfLogicActionTest extends AndroidTestCase {
 
 	private static final int IF_TRUE_VALUE = 42;
@@ -111,7 +108,7 @@ public class IfLogicActionTest extends AndroidTestCase {
 		ProjectManager.getInstance().setCurrentSprite(testSprite);
 		ProjectManager.getInstance().setCurrentScript(testScript);
 
-		testSprite.createStartScriptActionSequenceAndPutToMap(new HashMap<String, List<String>>());
+		testSprite.createStartScriptActionSequenceAndPutToMap();
 		while (!testSprite.look.getAllActionsAreFinished()) {
 			testSprite.look.act(1f);
 		}
@@ -143,7 +140,7 @@ public class IfLogicActionTest extends AndroidTestCase {
 		project.addSprite(testSprite);
 		ProjectManager.getInstance().setCurrentSprite(testSprite);
 		ProjectManager.getInstance().setCurrentScript(testScript);
-		testSprite.createStartScriptActionSequenceAndPutToMap(new HashMap<String, List<String>>());
+		testSprite.createStartScriptActionSequenceAndPutToMap();
 		testSprite.look.act(100f);
 
 		userVariable = ProjectManager.getInstance().getCurrentProject().getUserVariables()
@@ -173,7 +170,7 @@ public class IfLogicActionTest extends AndroidTestCase {
 		project.addSprite(testSprite);
 		ProjectManager.getInstance().setCurrentSprite(testSprite);
 		ProjectManager.getInstance().setCurrentScript(testScript);
-		testSprite.createStartScriptActionSequenceAndPutToMap(new HashMap<String, List<String>>());
+		testSprite.createStartScriptActionSequenceAndPutToMap();
 		testSprite.look.act(100f);
 
 		userVariable = ProjectManager.getInstance().getCurrentProject().getUserVariables()
@@ -225,7 +222,7 @@ public class IfLogicActionTest extends AndroidTestCase {
 		project.addSprite(testSprite);
 		ProjectManager.getInstance().setCurrentSprite(testSprite);
 		ProjectManager.getInstance().setCurrentScript(testScript);
-		testSprite.createStartScriptActionSequenceAndPutToMap(new HashMap<String, List<String>>());
+		testSprite.createStartScriptActionSequenceAndPutToMap();
 		testSprite.look.act(1f);
 		userVariable = ProjectManager.getInstance().getCurrentProject().getUserVariables()
 				.getUserVariable(TEST_USERVARIABLE, null);
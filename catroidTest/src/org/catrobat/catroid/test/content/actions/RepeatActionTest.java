@@ -39,11 +39,9 @@ import org.catrobat.catroid.formulaeditor.Formula;
 import org.catrobat.catroid.formulaeditor.FormulaElement;
 import org.catrobat.catroid.formulaeditor.FormulaElement.ElementType;
 import org.catrobat.catroid.formulaeditor.Sensors;
+import org.catrobat.catroid.stage.TurboModeScheduler;
 import org.catrobat.catroid.test.utils.Reflection;
 
-import java.util.HashMap;
-import java.util.List;
-
 public class RepeatActionTest extends InstrumentationTestCase {
 
 	private static final int REPEAT_TIMES = 4;
@@ -51,6 +49,7 @@ public class RepeatActionTest extends InstrumentationTestCase {
 	private Sprite testSprite;
 	private Script testScript;
 	private int delta = 5;
+	private static final float DELTA = 0.0001f;
 
 	@Override
 	protected void setUp() throws Exception {
@@ -58,6 +57,14 @@ public class RepeatActionTest extends InstrumentationTestCase {
 		testScript = new StartScript();
 	}
 
+	@Override
+	protected void tearDown() throws Exception {
+		TurboModeScheduler.setEnabled(false);
+		TurboModeScheduler.setTimeBudgetPerFrameNanos(TurboModeScheduler.DEFAULT_TIME_BUDGET_PER_FRAME_NANOS);
+		TurboModeScheduler.reset();
+		super.tearDown();
+	}
+
 	public void testLoopDelay() throws InterruptedException {
 		final int deltaY = -10;
 		final float delta = 0.005f;
@@ -73,7 +80,7 @@ public class RepeatActionTest extends InstrumentationTestCase {
 		testScript.addBrick(new ChangeYByNBrick(150));
 
 		testSprite.addScript(testScript);
-		testSprite.createStartScriptActionSequenceAndPutToMap(new HashMap<String, List<String>>());
+		testSprite.createStartScriptActionSequenceAndPutToMap();
 
 		// http://code.google.com/p/catroid/issues/detail?id=28
 		for (int index = 0; index < REPEAT_TIMES; index++) {
@@ -86,6 +93,77 @@ public class RepeatActionTest extends InstrumentationTestCase {
 				(int) testSprite.look.getYInUserInterfaceDimensionUnit());
 	}
 
+	public void testTurboModeRunsLoopWithinOneAct() {
+		final int repeatTimes = 100;
+		final float initialSize = testSprite.look.getSizeInUserInterfaceDimensionUnit();
+		TurboModeScheduler.setEnabled(true);
+		TurboModeScheduler.setTimeBudgetPerFrameNanos(Long.MAX_VALUE / 2);
+		TurboModeScheduler.startFrame();
+
+		RepeatAction repeatAction = ExtendedActions.repeat(testSprite, new Formula(repeatTimes),
+				ExtendedActions.sequence(ExtendedActions.changeSizeByN(testSprite, new Formula(1))));
+
+		assertTrue("Loop not finished within one act", repeatAction.act(0.005f));
+		assertEquals("Executed the wrong number of times!", initialSize + repeatTimes,
+				testSprite.look.getSizeInUserInterfaceDimensionUnit(), DELTA);
+		assertEquals("Iterations not counted", repeatTimes, TurboModeScheduler.getIterationsOfCurrentFrame());
+	}
+
+	public void testTurboModeRespectsTimeBudget() {
+		final int repeatTimes = 100;
+		final float initialSize = testSprite.look.getSizeInUserInterfaceDimensionUnit();
+		TurboModeScheduler.setEnabled(true);
+		TurboModeScheduler.setTimeBudgetPerFrameNanos(0);
+		TurboModeScheduler.startFrame();
+
+		RepeatAction repeatAction = ExtendedActions.repeat(testSprite, new Formula(repeatTimes),
+				ExtendedActions.sequence(ExtendedActions.changeSizeByN(testSprite, new Formula(1))));
+
+		assertFalse("Loop finished although the time budget was used up", repeatAction.act(0.005f));
+		assertEquals("Loop ran more than one step without time budget", initialSize + 1,
+				testSprite.look.getSizeInUserInterfaceDimensionUnit(), DELTA);
+	}
+
+	public void testTurboModeLoopsHaveTheirOwnBudget() {
+		Sprite otherSprite = new Sprite("otherSprite");
+		TurboModeScheduler.setEnabled(true);
+		TurboModeScheduler.setTimeBudgetPerFrameNanos(4000000L);
+		TurboModeScheduler.startFrame();
+
+		RepeatAction firstLoop = ExtendedActions.forever(testSprite,
+				ExtendedActions.sequence(ExtendedActions.changeSizeByN(testSprite, new Formula(1))));
+		RepeatAction secondLoop = ExtendedActions.forever(otherSprite,
+				ExtendedActions.sequence(ExtendedActions.changeSizeByN(otherSprite, new Formula(1))));
+
+		firstLoop.act(0.005f);
+		int iterationsOfFirstLoop = TurboModeScheduler.getIterationsOfCurrentFrame();
+		firstLoop.act(0.005f);
+		assertEquals("Loop ran more than one step after its budget was used up", iterationsOfFirstLoop + 1,
+				TurboModeScheduler.getIterationsOfCurrentFrame());
+
+		secondLoop.act(0.005f);
+		assertTrue("Second loop was starved by the first one",
+				TurboModeScheduler.getIterationsOfCurrentFrame() > iterationsOfFirstLoop + 2);
+	}
+
+	public void testTurboModeKeepsLoopDelayForMotion() {
+		final int deltaY = -10;
+		TurboModeScheduler.setEnabled(true);
+		TurboModeScheduler.setTimeBudgetPerFrameNanos(Long.MAX_VALUE / 2);
+		TurboModeScheduler.startFrame();
+
+		RepeatAction repeatAction = ExtendedActions.repeat(testSprite, new Formula(REPEAT_TIMES),
+				ExtendedActions.sequence(ExtendedActions.changeYByN(testSprite, new Formula(deltaY))));
+
+		for (int index = 0; index < 3; index++) {
+			assertFalse("Loop with motion action ran without loop delay", repeatAction.act(0.005f));
+		}
+		assertEquals("Loop with motion action ran without loop delay", deltaY,
+				(int) testSprite.look.getYInUserInterfaceDimensionUnit());
+		assertEquals("Loop with motion action counted as turbo loop", 0,
+				TurboModeScheduler.getIterationsOfCurrentFrame());
+	}
+
 	public void testRepeatBrick() throws InterruptedException {
 
 		RepeatBrick repeatBrick = new RepeatBrick(REPEAT_TIMES);
@@ -100,7 +178,7 @@ public class RepeatActionTest extends InstrumentationTestCase {
 		testScript.addBrick(loopEndBrick);
 
 		testSprite.addScript(testScript);
-		testSprite.createStartScriptActionSequenceAndPutToMap(new HashMap<String, List<String>>());
+		testSprite.createStartScriptActionSequenceAndPutToMap();
 
 		while (!testSprite.look.getAllActionsAreFinished()) {
 			testSprite.look.act(1.0f);
@@ -127,7 +205,7 @@ public class RepeatActionTest extends InstrumentationTestCase {
 		testScript.addBrick(loopEndBrick);
 
 		testSprite.addScript(testScript);
-		testSprite.createStartScriptActionSequenceAndPutToMap(new HashMap<String, List<String>>());
+		testSprite.createStartScriptActionSequenceAndPutToMap();
 
 		while (!testSprite.look.getAllActionsAreFinished()) {
 			testSprite.look.act(1.0f);
@@ -157,7 +235,7 @@ public class RepeatActionTest extends InstrumentationTestCase {
 		testScript.addBrick(loopEndBrick);
 
 		testSprite.addScript(testScript);
-		testSprite.createStartScriptActionSequenceAndPutToMap(new HashMap<String, List<String>>());
+		testSprite.createStartScriptActionSequenceAndPutToMap();
 
 		float timePerActCycle = 0.5f;
 
@@ -235,7 +313,7 @@ public class RepeatActionTest extends InstrumentationTestCase {
 		testScript.addBrick(new ChangeYByNBrick(delta));
 		testScript.addBrick(loopEndBrick);
 		testSprite.addScript(testScript);
-		testSprite.createStartScriptActionSequenceAndPutToMap(new HashMap<String, List<String>>());
+		testSprite.createStartScriptActionSequenceAndPutToMap();
 
 		while (!testSprite.look.getAllActionsAreFinished()) {
 			testSprite.look.act(1.0f);
@@ -27,10 +27,13 @@ import android.test.AndroidTestCase;
 import org.catrobat.catroid.content.Sprite;
 import org.catrobat.catroid.content.WhenScript;
 import org.catrobat.catroid.content.bricks.Brick;
+import org.catrobat.catroid.content.bricks.ChangeXByNBrick;
 import org.catrobat.catroid.content.bricks.PlaceAtBrick;
 
 public class WhenActionTest extends AndroidTestCase {
 
+	private static final int X_MOVEMENT = 10;
+
 	public void testWhenBrick() throws InterruptedException {
 		int testPosition = 100;
 
@@ -48,4 +51,47 @@ public class WhenActionTest extends AndroidTestCase {
 
 		assertEquals("Simple broadcast failed", (float) testPosition, sprite.look.getX());
 	}
+
+	public void testWhenActionTreeIsRestartedFromPool() {
+		Sprite sprite = new Sprite("new sprite");
+		WhenScript whenScript = new WhenScript();
+		whenScript.addBrick(new ChangeXByNBrick(X_MOVEMENT));
+		sprite.addScript(whenScript);
+		sprite.createStartScriptActionSequenceAndPutToMap();
+		assertEquals("When script action tree not built at start", 1, sprite.getWhenActionPool().size());
+
+		sprite.createWhenScriptActionSequence(whenScript.getAction());
+		actUntilAllActionsAreFinished(sprite);
+		assertEquals("Pooled action tree not executed", (float) X_MOVEMENT, sprite.look.getX());
+
+		sprite.resetSprite();
+		sprite.createWhenScriptActionSequence(whenScript.getAction());
+		actUntilAllActionsAreFinished(sprite);
+		assertEquals("Pooled action tree not restarted", (float) X_MOVEMENT, sprite.look.getX());
+
+		assertEquals("Wrong number of pool hits", 2, sprite.getWhenActionPool().getHitCount());
+		assertEquals("Action tree built although it was pooled", 0, sprite.getWhenActionPool().getMissCount());
+	}
+
+	public void testWhenActionTreeIsPooledOnMiss() {
+		Sprite sprite = new Sprite("new sprite");
+		WhenScript whenScript = new WhenScript();
+		whenScript.addBrick(new ChangeXByNBrick(X_MOVEMENT));
+		sprite.addScript(whenScript);
+
+		sprite.createWhenScriptActionSequence(whenScript.getAction());
+		actUntilAllActionsAreFinished(sprite);
+		assertEquals("Wrong number of pool misses", 1, sprite.getWhenActionPool().getMissCount());
+		assertEquals("Built action tree not put to the pool", 1, sprite.getWhenActionPool().size());
+
+		sprite.resetSprite();
+		sprite.createWhenScriptActionSequence(whenScript.getAction());
+		assertEquals("Wrong number of pool hits", 1, sprite.getWhenActionPool().getHitCount());
+	}
+
+	private void actUntilAllActionsAreFinished(Sprite sprite) {
+		while (!sprite.look.getAllActionsAreFinished()) {
+			sprite.look.act(1.0f);
+		}
+	}
 }
@@ -24,6 +24,7 @@ package org.catrobat.catroid.test.content.bricks;
 
 import android.test.AndroidTestCase;
 import android.util.Log;
+import android.view.View;
 
 import org.catrobat.catroid.ProjectManager;
 import org.catrobat.catroid.content.Project;
@@ -177,6 +178,16 @@ public class BrickCloneTest extends AndroidTestCase {
 
 	}
 
+	public void testClonedBrickDoesNotShareView() throws CloneNotSupportedException {
+		Brick brick = new SetXBrick(BRICK_FORMULA_VALUE);
+		View view = brick.getView(getContext(), 0, null);
+		assertSame("Unused brick view not reused", view, brick.getView(getContext(), 0, null));
+
+		Brick clonedBrick = brick.clone();
+		assertNotSame("Cloned brick shares the view of its original", view,
+				clonedBrick.getView(getContext(), 0, null));
+	}
+
 	public void testVariableReferencesSetVariableBrick() throws Exception {
 		testVariableReferences(SetVariableBrick.class);
 	}
@@ -46,7 +46,6 @@ import org.catrobat.catroid.formulaeditor.InterpretationException;
 import org.catrobat.catroid.formulaeditor.UserVariable;
 import org.catrobat.catroid.test.utils.TestUtils;
 
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -325,7 +324,7 @@ public class SpriteTest extends AndroidTestCase {
 
 		testSprite.addScript(testScript);
 
-		testSprite.createStartScriptActionSequenceAndPutToMap(new HashMap<String, List<String>>());
+		testSprite.createStartScriptActionSequenceAndPutToMap();
 
 		testSprite.look.act(1.0f);
 
@@ -32,9 +32,6 @@ import org.catrobat.catroid.content.bricks.SetSizeToBrick;
 import org.catrobat.catroid.content.bricks.ShowBrick;
 import org.catrobat.catroid.content.bricks.WaitBrick;
 
-import java.util.HashMap;
-import java.util.List;
-
 public class StartResumeSpriteTest extends AndroidTestCase {
 
 	public void testStartThreads() throws InterruptedException {
@@ -48,7 +45,7 @@ public class StartResumeSpriteTest extends AndroidTestCase {
 		testScript.addBrick(setSizeToBrick);
 		testSprite.addScript(testScript);
 
-		testSprite.createStartScriptActionSequenceAndPutToMap(new HashMap<String, List<String>>());
+		testSprite.createStartScriptActionSequenceAndPutToMap();
 
 		while (!testSprite.look.getAllActionsAreFinished()) {
 			testSprite.look.act(1.0f);
@@ -71,7 +68,7 @@ public class StartResumeSpriteTest extends AndroidTestCase {
 		testScript.addBrick(showBrick);
 		testSprite.addScript(testScript);
 
-		testSprite.createStartScriptActionSequenceAndPutToMap(new HashMap<String, List<String>>());
+		testSprite.createStartScriptActionSequenceAndPutToMap();
 
 		testSprite.look.act(1.0f);
 		testSprite.look.act(1.0f);
@@ -86,7 +83,7 @@ public class StartResumeSpriteTest extends AndroidTestCase {
 
 		testScript.getBrickList().clear();
 		testScript.addBrick(hideBrick);
-		testSprite.createStartScriptActionSequenceAndPutToMap(new HashMap<String, List<String>>());
+		testSprite.createStartScriptActionSequenceAndPutToMap();
 
 		assertTrue("Sprite is hidden - this script shall not be execute", testSprite.look.visible);
 	}
@@ -0,0 +1,51 @@
+/*
+ * Catroid: An on-device visual programming system for Android devices
+ * Copyright (C) 2010-2014 The Catrobat Team
+ * (<http://developer.catrobat.org/credits>)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * An additional term exception under section 7 of the GNU Affero
+ * General Public License, version 3, is available at
+ * http://developer.catrobat.org/license_additional_term
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.catrobat.catroid.test.facedetection;
+
+import junit.framework.TestCase;
+
+import org.catrobat.catroid.facedetection.FrameStatistics;
+
+public class FrameStatisticsTest extends TestCase {
+
+	public void testCountsAndLatencies() {
+		FrameStatistics statistics = new FrameStatistics();
+		statistics.onFrameProcessed(10);
+		statistics.onFrameSkipped();
+		statistics.onFrameProcessed(30);
+		statistics.onFrameSkipped();
+		statistics.onFrameSkipped();
+
+		assertEquals("Wrong number of processed frames", 2, statistics.getProcessedFrames());
+		assertEquals("Wrong number of skipped frames", 3, statistics.getSkippedFrames());
+		assertEquals("Wrong last latency", 30, statistics.getLastLatencyMillis());
+		assertEquals("Wrong max latency", 30, statistics.getMaxLatencyMillis());
+		float averageLatency = statistics.getAverageLatencyMillis();
+		assertTrue("Average latency out of range", averageLatency > 10 && averageLatency < 30);
+
+		statistics.reset();
+		assertEquals("Processed frames not reset", 0, statistics.getProcessedFrames());
+		assertEquals("Skipped frames not reset", 0, statistics.getSkippedFrames());
+		assertEquals("Max latency not reset", 0, statistics.getMaxLatencyMillis());
+	}
+}
@@ -0,0 +1,140 @@
+/*
+ * Catroid: An on-device visual programming system for Android devices
+ * Copyright (C) 2010-2014 The Catrobat Team
+ * (<http://developer.catrobat.org/credits>)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * An additional term exception under section 7 of the GNU Affero
+ * General Public License, version 3, is available at
+ * http://developer.catrobat.org/license_additional_term
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.catrobat.catroid.test.facedetection;
+
+import junit.framework.TestCase;
+
+import org.catrobat.catroid.facedetection.LumaFrameConverter;
+
+public class LumaFrameConverterTest extends TestCase {
+
+	private static final int FRAME_WIDTH = 4;
+	private static final int FRAME_HEIGHT = 2;
+	// luma plane of a 4x2 NV21 frame, createFrame() appends a neutral chroma plane
+	private static final int[] FRAME_LUMA = { 0, 16, 32, 48, 64, 80, 96, 112 };
+
+	public void testConvertWithoutRotation() {
+		LumaFrameConverter converter = new LumaFrameConverter(FRAME_WIDTH);
+		converter.configure(FRAME_WIDTH, FRAME_HEIGHT, 0, false);
+		assertEquals("Wrong width", FRAME_WIDTH, converter.getWidth());
+		assertEquals("Wrong height", FRAME_HEIGHT, converter.getHeight());
+		assertLuma(new int[] { 0, 16, 32, 48, 64, 80, 96, 112 }, converter.convert(createFrame()));
+	}
+
+	public void testConvertWithRotation() {
+		LumaFrameConverter converter = new LumaFrameConverter(FRAME_WIDTH);
+
+		converter.configure(FRAME_WIDTH, FRAME_HEIGHT, 90, false);
+		assertEquals("Width and height not swapped", FRAME_HEIGHT, converter.getWidth());
+		assertEquals("Width and height not swapped", FRAME_WIDTH, converter.getHeight());
+		assertLuma(new int[] { 64, 0, 80, 16, 96, 32, 112, 48 }, converter.convert(createFrame()));
+
+		converter.configure(FRAME_WIDTH, FRAME_HEIGHT, 180, false);
+		assertLuma(new int[] { 112, 96, 80, 64, 48, 32, 16, 0 }, converter.convert(createFrame()));
+
+		converter.configure(FRAME_WIDTH, FRAME_HEIGHT, 270, false);
+		assertLuma(new int[] { 48, 112, 32, 96, 16, 80, 0, 64 }, converter.convert(createFrame()));
+	}
+
+	public void testConvertWithRotationAndMirror() {
+		LumaFrameConverter converter = new LumaFrameConverter(FRAME_WIDTH);
+
+		converter.configure(FRAME_WIDTH, FRAME_HEIGHT, 0, true);
+		assertLuma(new int[] { 48, 32, 16, 0, 112, 96, 80, 64 }, converter.convert(createFrame()));
+
+		converter.configure(FRAME_WIDTH, FRAME_HEIGHT, 90, true);
+		assertLuma(new int[] { 0, 64, 16, 80, 32, 96, 48, 112 }, converter.convert(createFrame()));
+	}
+
+	public void testDownscaleAveragesBlocks() {
+		byte[] frame = new byte[4 * 4 * 3 / 2];
+		int[] luma = { 0, 0, 200, 200, 0, 0, 200, 200, 100, 100, 10, 30, 100, 100, 50, 70 };
+		for (int index = 0; index < luma.length; index++) {
+			frame[index] = (byte) luma[index];
+		}
+
+		LumaFrameConverter converter = new LumaFrameConverter(2);
+		converter.configure(4, 4, 0, false);
+		assertEquals("Wrong scale", 2, converter.getScale());
+		assertEquals("Wrong width", 2, converter.getWidth());
+		assertEquals("Wrong height", 2, converter.getHeight());
+		assertLuma(new int[] { 0, 200, 100, 40 }, converter.convert(frame));
+	}
+
+	public void testScaledSizeIsEven() {
+		LumaFrameConverter converter = new LumaFrameConverter(320);
+		converter.configure(640, 480, 90, false);
+		assertEquals("Wrong width", 240, converter.getWidth());
+		assertEquals("Wrong height", 320, converter.getHeight());
+
+		converter.configure(650, 490, 0, false);
+		assertEquals("Width must be even", 0, converter.getWidth() % 2);
+		assertEquals("Height must be even", 0, converter.getHeight() % 2);
+		assertTrue("Frame not scaled down", converter.getWidth() <= 320);
+	}
+
+	public void testOutputArrayIsReused() {
+		LumaFrameConverter converter = new LumaFrameConverter(FRAME_WIDTH);
+		converter.configure(FRAME_WIDTH, FRAME_HEIGHT, 0, false);
+		short[] pixels = converter.convert(createFrame());
+		converter.configure(FRAME_WIDTH, FRAME_HEIGHT, 180, true);
+		assertSame("Output array not reused", pixels, converter.convert(createFrame()));
+		assertTrue("Configuration not recognized", converter.isConfiguredFor(FRAME_WIDTH, FRAME_HEIGHT, 180, true));
+		assertFalse("Other configuration not recognized", converter.isConfiguredFor(FRAME_WIDTH, FRAME_HEIGHT, 0,
+				true));
+	}
+
+	public void testTooShortFrameIsRejected() {
+		LumaFrameConverter converter = new LumaFrameConverter(FRAME_WIDTH);
+		converter.configure(FRAME_WIDTH, FRAME_HEIGHT, 0, false);
+		try {
+			converter.convert(new byte[FRAME_WIDTH]);
+			fail("Frame with too few bytes should be rejected");
+		} catch (IllegalArgumentException expected) {
+		}
+	}
+
+	public void testToRgb565() {
+		assertEquals("Black not converted", 0, LumaFrameConverter.toRgb565(0));
+		assertEquals("White not converted", (short) 0xFFFF, LumaFrameConverter.toRgb565(255));
+	}
+
+	private byte[] createFrame() {
+		byte[] frame = new byte[FRAME_WIDTH * FRAME_HEIGHT * 3 / 2];
+		for (int index = 0; index < FRAME_LUMA.length; index++) {
+			frame[index] = (byte) FRAME_LUMA[index];
+		}
+		for (int index = FRAME_LUMA.length; index < frame.length; index++) {
+			frame[index] = (byte) 128;
+		}
+		return frame;
+	}
+
+	private void assertLuma(int[] expectedLuma, short[] pixels) {
+		assertEquals("Wrong number of pixels", expectedLuma.length, pixels.length);
+		for (int index = 0; index < expectedLuma.length; index++) {
+			assertEquals("Wrong pixel at index " + index, LumaFrameConverter.toRgb565(expectedLuma[index]),
+					pixels[index]);
+		}
+	}
+}
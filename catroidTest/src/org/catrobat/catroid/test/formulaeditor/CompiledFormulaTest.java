@@ -0,0 +1,206 @@
+/*
+ * Catroid: An on-device visual programming system for Android devices
+ * Copyright (C) 2010-2014 The Catrobat Team
+ * (<http://developer.catrobat.org/credits>)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * An additional term exception under section 7 of the GNU Affero
+ * General Public License, version 3, is available at
+ * http://developer.catrobat.org/license_additional_term
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.catrobat.catroid.test.formulaeditor;
+
+import android.test.AndroidTestCase;
+
+import org.catrobat.catroid.ProjectManager;
+import org.catrobat.catroid.content.Project;
+import org.catrobat.catroid.content.Sprite;
+import org.catrobat.catroid.formulaeditor.Formula;
+import org.catrobat.catroid.formulaeditor.FormulaElement;
+import org.catrobat.catroid.formulaeditor.FormulaElement.ElementType;
+import org.catrobat.catroid.formulaeditor.Functions;
+import org.catrobat.catroid.formulaeditor.InternFormulaParser;
+import org.catrobat.catroid.formulaeditor.InternToken;
+import org.catrobat.catroid.formulaeditor.InternTokenType;
+import org.catrobat.catroid.formulaeditor.InterpretationException;
+import org.catrobat.catroid.formulaeditor.Operators;
+import org.catrobat.catroid.formulaeditor.Sensors;
+import org.catrobat.catroid.formulaeditor.UserVariablesContainer;
+
+import java.util.LinkedList;
+import java.util.List;
+
+public class CompiledFormulaTest extends AndroidTestCase {
+
+	private static final String NUMBER_VARIABLE = "numberVariable";
+	private static final String OTHER_NUMBER_VARIABLE = "otherNumberVariable";
+	private static final String STRING_VARIABLE = "stringVariable";
+	private static final double NUMBER_VARIABLE_VALUE = 21.5d;
+	private static final double OTHER_NUMBER_VARIABLE_VALUE = -3d;
+
+	private Sprite testSprite;
+
+	@Override
+	protected void setUp() {
+		Project project = new Project(null, "testProject");
+		testSprite = new Sprite("sprite");
+		testSprite.look.setXInUserInterfaceDimensionUnit(12.5f);
+		testSprite.look.setRotation(30.7f);
+		project.addSprite(testSprite);
+		ProjectManager.getInstance().setProject(project);
+		ProjectManager.getInstance().setCurrentSprite(testSprite);
+
+		UserVariablesContainer userVariables = project.getUserVariables();
+		userVariables.addProjectUserVariable(NUMBER_VARIABLE).setValue(NUMBER_VARIABLE_VALUE);
+		userVariables.addProjectUserVariable(OTHER_NUMBER_VARIABLE).setValue(OTHER_NUMBER_VARIABLE_VALUE);
+		userVariables.addProjectUserVariable(STRING_VARIABLE).setValue("12");
+	}
+
+	public void testCompiledResultMatchesInterpreter() throws InterpretationException {
+		assertSameResult(parse(number("1"), operator(Operators.PLUS), number("2"), operator(Operators.MULT),
+				number("3")));
+		assertSameResult(parse(operator(Operators.MINUS), number("5"), operator(Operators.POW), number("2")));
+		assertSameResult(parse(number("7"), operator(Operators.DIVIDE), number("0")));
+		assertSameResult(parse(number("3"), operator(Operators.GREATER_OR_EQUAL), number("3"),
+				operator(Operators.LOGICAL_AND), number("1"), operator(Operators.NOT_EQUAL), number("2")));
+		assertSameResult(parse(operator(Operators.LOGICAL_NOT), number("0"), operator(Operators.LOGICAL_OR),
+				number("0")));
+		assertSameResult(parse(function(Functions.SQRT), bracketOpen(), number("2"), bracketClose(),
+				operator(Operators.MULT), number("100")));
+		assertSameResult(parse(function(Functions.PI), operator(Operators.DIVIDE), number("4")));
+		assertSameResult(parse(function(Functions.MOD), bracketOpen(), operator(Operators.MINUS), number("7"),
+				delimiter(), number("3"), bracketClose()));
+		assertSameResult(parse(function(Functions.ROUND), bracketOpen(), number("2.5"), bracketClose(),
+				operator(Operators.PLUS), function(Functions.ARCTAN), bracketOpen(), number("1"), bracketClose()));
+		assertSameResult(parse(function(Functions.EXP), bracketOpen(), number("1000"), bracketClose()));
+		assertSameResult(parse(sensor(Sensors.OBJECT_X), operator(Operators.PLUS), sensor(Sensors.OBJECT_ROTATION)));
+		assertSameResult(parse(userVariable(NUMBER_VARIABLE), operator(Operators.MULT),
+				userVariable(OTHER_NUMBER_VARIABLE)));
+		assertSameResult(parse(userVariable("notExistingVariable"), operator(Operators.PLUS), number("1")));
+	}
+
+	public void testConstantFolding() throws InterpretationException {
+		Formula formula = new Formula(parse(function(Functions.SQRT), bracketOpen(), number("2"), bracketClose(),
+				operator(Operators.MULT), number("100")));
+		assertTrue("sqrt(2)*100 should be constant", formula.isConstant());
+		assertEquals("Wrong folded value", Math.sqrt(2) * 100, formula.interpretDouble(testSprite));
+
+		formula = new Formula(parse(function(Functions.PI), operator(Operators.DIVIDE), number("4")));
+		assertTrue("pi/4 should be constant", formula.isConstant());
+
+		formula = new Formula(parse(userVariable(NUMBER_VARIABLE), operator(Operators.PLUS), number("1")));
+		assertFalse("Formula with user variable must not be constant", formula.isConstant());
+
+		formula = new Formula(parse(sensor(Sensors.OBJECT_X), operator(Operators.PLUS), number("1")));
+		assertFalse("Formula with sensor must not be constant", formula.isConstant());
+
+		formula = new Formula(parse(function(Functions.RAND), bracketOpen(), number("1"), delimiter(), number("2"),
+				bracketClose()));
+		assertFalse("Formula with random numbers must not be constant", formula.isConstant());
+
+		formula = new Formula(parse(userVariable(STRING_VARIABLE), operator(Operators.PLUS), number("1")));
+		assertFalse("Formula with string variable must not be constant", formula.isConstant());
+	}
+
+	public void testCommonSubexpressions() throws InterpretationException {
+		FormulaElement root = parse(userVariable(NUMBER_VARIABLE), operator(Operators.MULT),
+				userVariable(OTHER_NUMBER_VARIABLE), operator(Operators.PLUS), userVariable(NUMBER_VARIABLE),
+				operator(Operators.MULT), userVariable(OTHER_NUMBER_VARIABLE));
+		assertSameResult(root);
+
+		Formula formula = new Formula(root);
+		assertEquals("Wrong interpretation", 2 * NUMBER_VARIABLE_VALUE * OTHER_NUMBER_VARIABLE_VALUE,
+				formula.interpretDouble(testSprite));
+		ProjectManager.getInstance().getCurrentProject().getUserVariables()
+				.getUserVariable(NUMBER_VARIABLE, testSprite).setValue(1d);
+		assertEquals("Shared subexpression not evaluated again", 2 * OTHER_NUMBER_VARIABLE_VALUE,
+				formula.interpretDouble(testSprite));
+	}
+
+	public void testUserVariableHoldingString() throws InterpretationException {
+		FormulaElement root = parse(userVariable(STRING_VARIABLE), operator(Operators.PLUS), number("1"));
+		Formula formula = new Formula(root);
+		assertEquals("String variable not interpreted as number", 13d, formula.interpretDouble(testSprite));
+
+		ProjectManager.getInstance().getCurrentProject().getUserVariables()
+				.getUserVariable(STRING_VARIABLE, testSprite).setValue(4d);
+		assertEquals("Changed variable value not used", 5d, formula.interpretDouble(testSprite));
+	}
+
+	public void testSetRootInvalidatesCompiledFormula() throws InterpretationException {
+		Formula formula = new Formula(1);
+		assertEquals("Wrong interpretation", 1d, formula.interpretDouble(testSprite));
+
+		formula.setRoot(new FormulaElement(ElementType.NUMBER, "2", null));
+		assertEquals("Compiled formula not invalidated by setRoot", 2d, formula.interpretDouble(testSprite));
+	}
+
+	public void testUpdateVariableReferencesInvalidatesCompiledFormula() throws InterpretationException {
+		Formula formula = new Formula(parse(userVariable(NUMBER_VARIABLE)));
+		assertEquals("Wrong interpretation", NUMBER_VARIABLE_VALUE, formula.interpretDouble(testSprite));
+
+		formula.updateVariableReferences(NUMBER_VARIABLE, OTHER_NUMBER_VARIABLE, getContext());
+		assertEquals("Compiled formula not invalidated by updateVariableReferences", OTHER_NUMBER_VARIABLE_VALUE,
+				formula.interpretDouble(testSprite));
+	}
+
+	private void assertSameResult(FormulaElement root) throws InterpretationException {
+		assertNotNull("Formula is not parsed correctly", root);
+		Object expected = root.interpretRecursive(testSprite);
+		Formula formula = new Formula(root);
+		assertEquals("Compiled formula differs from interpreter", expected, formula.interpretDouble(testSprite));
+		assertEquals("Second evaluation differs from interpreter", expected, formula.interpretDouble(testSprite));
+	}
+
+	private FormulaElement parse(InternToken... tokens) {
+		List<InternToken> internTokenList = new LinkedList<InternToken>();
+		for (InternToken token : tokens) {
+			internTokenList.add(token);
+		}
+		return new InternFormulaParser(internTokenList).parseFormula();
+	}
+
+	private InternToken number(String value) {
+		return new InternToken(InternTokenType.NUMBER, value);
+	}
+
+	private InternToken operator(Operators operator) {
+		return new InternToken(InternTokenType.OPERATOR, operator.name());
+	}
+
+	private InternToken function(Functions function) {
+		return new InternToken(InternTokenType.FUNCTION_NAME, function.name());
+	}
+
+	private InternToken sensor(Sensors sensor) {
+		return new InternToken(InternTokenType.SENSOR, sensor.name());
+	}
+
+	private InternToken userVariable(String name) {
+		return new InternToken(InternTokenType.USER_VARIABLE, name);
+	}
+
+	private InternToken bracketOpen() {
+		return new InternToken(InternTokenType.FUNCTION_PARAMETERS_BRACKET_OPEN);
+	}
+
+	private InternToken bracketClose() {
+		return new InternToken(InternTokenType.FUNCTION_PARAMETERS_BRACKET_CLOSE);
+	}
+
+	private InternToken delimiter() {
+		return new InternToken(InternTokenType.FUNCTION_PARAMETER_DELIMITER);
+	}
+}
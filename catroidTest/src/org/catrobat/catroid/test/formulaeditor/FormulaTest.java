@@ -23,6 +23,7 @@
 
 package org.catrobat.catroid.test.formulaeditor;
 
+import android.content.Context;
 import android.test.InstrumentationTestCase;
 
 import org.catrobat.catroid.content.bricks.Brick;
@@ -150,4 +151,24 @@ public class FormulaTest extends InstrumentationTestCase {
 		formula = new Formula(parseTree);
 		assertFalse("Should NOT be a single number formula", formula.isSingleNumberFormula());
 	}
+
+	public void testDisplayStringIsCachedUntilFormulaChanges() {
+		Context context = getInstrumentation().getTargetContext();
+		Formula formula = new Formula(new FormulaElement(ElementType.USER_VARIABLE, "oldName", null));
+
+		String displayString = formula.getDisplayString(context);
+		assertEquals("Wrong display string", "\"oldName\" ", displayString);
+		assertSame("Display string generated again", displayString, formula.getDisplayString(context));
+
+		formula.updateVariableReferences("oldName", "newName", context);
+		assertEquals("Display string not updated after renaming", "\"newName\" ", formula.getDisplayString(context));
+
+		formula.setRoot(new FormulaElement(ElementType.NUMBER, "2", null));
+		assertEquals("Display string not updated after setRoot", "2 ", formula.getDisplayString(context));
+
+		formula.setDisplayText("edited");
+		assertEquals("Display text of formula editor not preferred", "edited", formula.getDisplayString(context));
+		formula.setDisplayText(null);
+		assertEquals("Cached display string lost", "2 ", formula.getDisplayString(context));
+	}
 }
@@ -0,0 +1,143 @@
+/*
+ * Catroid: An on-device visual programming system for Android devices
+ * Copyright (C) 2010-2014 The Catrobat Team
+ * (<http://developer.catrobat.org/credits>)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * An additional term exception under section 7 of the GNU Affero
+ * General Public License, version 3, is available at
+ * http://developer.catrobat.org/license_additional_term
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.catrobat.catroid.test.formulaeditor;
+
+import android.test.AndroidTestCase;
+
+import org.catrobat.catroid.ProjectManager;
+import org.catrobat.catroid.content.Project;
+import org.catrobat.catroid.content.Sprite;
+import org.catrobat.catroid.formulaeditor.Formula;
+import org.catrobat.catroid.formulaeditor.FormulaElement;
+import org.catrobat.catroid.formulaeditor.FormulaElement.ElementType;
+import org.catrobat.catroid.formulaeditor.InterpretationException;
+import org.catrobat.catroid.formulaeditor.UserVariable;
+import org.catrobat.catroid.formulaeditor.UserVariablesContainer;
+
+public class UserVariablesContainerTest extends AndroidTestCase {
+
+	private static final String VARIABLE_NAME = "variable";
+
+	private Sprite firstSprite;
+	private Sprite secondSprite;
+	private UserVariablesContainer userVariables;
+
+	@Override
+	protected void setUp() {
+		Project project = new Project(null, "testProject");
+		firstSprite = new Sprite("firstSprite");
+		secondSprite = new Sprite("secondSprite");
+		project.addSprite(firstSprite);
+		project.addSprite(secondSprite);
+		ProjectManager.getInstance().setProject(project);
+		ProjectManager.getInstance().setCurrentSprite(firstSprite);
+		ProjectManager.getInstance().setCurrentUserBrick(null);
+		userVariables = project.getUserVariables();
+	}
+
+	public void testSpriteVariableHidesProjectVariable() {
+		UserVariable projectVariable = userVariables.addProjectUserVariable(VARIABLE_NAME);
+		UserVariable spriteVariable = userVariables.addSpriteUserVariableToSprite(firstSprite, VARIABLE_NAME);
+
+		assertSame("Sprite variable not preferred", spriteVariable,
+				userVariables.getUserVariable(VARIABLE_NAME, firstSprite));
+		assertSame("Project variable not found for other sprite", projectVariable,
+				userVariables.getUserVariable(VARIABLE_NAME, secondSprite));
+	}
+
+	public void testLookupAfterAddAndDelete() {
+		assertNull("Variable should not exist yet", userVariables.getUserVariable(VARIABLE_NAME, firstSprite));
+
+		UserVariable projectVariable = userVariables.addProjectUserVariable(VARIABLE_NAME);
+		assertSame("Added variable not found", projectVariable,
+				userVariables.getUserVariable(VARIABLE_NAME, firstSprite));
+
+		userVariables.deleteUserVariableByName(VARIABLE_NAME);
+		assertNull("Deleted variable still found", userVariables.getUserVariable(VARIABLE_NAME, firstSprite));
+	}
+
+	public void testLookupAfterCleanVariableListForSprite() {
+		userVariables.addSpriteUserVariableToSprite(secondSprite, VARIABLE_NAME);
+		assertNotNull("Sprite variable not found", userVariables.getUserVariable(VARIABLE_NAME, secondSprite));
+
+		userVariables.cleanVariableListForSprite(secondSprite);
+		assertNull("Variable of cleaned sprite still found", userVariables.getUserVariable(VARIABLE_NAME, secondSprite));
+	}
+
+	public void testLookupAfterRename() {
+		UserVariable projectVariable = userVariables.addProjectUserVariable(VARIABLE_NAME);
+		assertSame("Added variable not found", projectVariable,
+				userVariables.getUserVariable(VARIABLE_NAME, firstSprite));
+
+		userVariables.renameUserVariable(projectVariable, "renamed");
+		assertNull("Variable found by old name", userVariables.getUserVariable(VARIABLE_NAME, firstSprite));
+		assertSame("Variable not found by new name", projectVariable,
+				userVariables.getUserVariable("renamed", firstSprite));
+	}
+
+	public void testLookupOfNewNameFirstAfterRename() {
+		UserVariable projectVariable = userVariables.addProjectUserVariable(VARIABLE_NAME);
+		assertSame("Added variable not found", projectVariable,
+				userVariables.getUserVariable(VARIABLE_NAME, firstSprite));
+
+		userVariables.renameUserVariable(projectVariable, "renamed");
+		assertSame("Variable not found by new name", projectVariable,
+				userVariables.getUserVariable("renamed", firstSprite));
+		assertNull("Variable found by old name", userVariables.getUserVariable(VARIABLE_NAME, firstSprite));
+	}
+
+	public void testFormulaFollowsRename() throws InterpretationException {
+		Formula formula = new Formula(new FormulaElement(ElementType.USER_VARIABLE, "renamed", null));
+		UserVariable projectVariable = userVariables.addProjectUserVariable(VARIABLE_NAME);
+		projectVariable.setValue(3d);
+		assertEquals("Not existing variable not interpreted as 0", 0d, formula.interpretDouble(firstSprite));
+
+		userVariables.renameUserVariable(projectVariable, "renamed");
+		assertEquals("Renamed variable not used", 3d, formula.interpretDouble(firstSprite));
+	}
+
+	public void testRenameMarksContainerDirty() {
+		UserVariable projectVariable = userVariables.addProjectUserVariable(VARIABLE_NAME);
+		userVariables.setClean();
+
+		userVariables.renameUserVariable(projectVariable, VARIABLE_NAME);
+		assertFalse("Renaming to the same name marks container dirty", userVariables.isDirty());
+		userVariables.renameUserVariable(projectVariable, "renamed");
+		assertTrue("Rename does not mark container dirty", userVariables.isDirty());
+	}
+
+	public void testFormulaFollowsVariableChanges() throws InterpretationException {
+		Formula formula = new Formula(new FormulaElement(ElementType.USER_VARIABLE, VARIABLE_NAME, null));
+		assertEquals("Not existing variable not interpreted as 0", 0d, formula.interpretDouble(firstSprite));
+
+		userVariables.addProjectUserVariable(VARIABLE_NAME).setValue(3d);
+		assertEquals("Added project variable not used", 3d, formula.interpretDouble(firstSprite));
+
+		userVariables.addSpriteUserVariableToSprite(firstSprite, VARIABLE_NAME).setValue(5d);
+		assertEquals("Added sprite variable not used", 5d, formula.interpretDouble(firstSprite));
+		assertEquals("Project variable not used for other sprite", 3d, formula.interpretDouble(secondSprite));
+
+		userVariables.cleanVariableListForSprite(firstSprite);
+		assertEquals("Cleaned sprite variable still used", 3d, formula.interpretDouble(firstSprite));
+	}
+}
@@ -0,0 +1,90 @@
+/*
+ * Catroid: An on-device visual programming system for Android devices
+ * Copyright (C) 2010-2014 The Catrobat Team
+ * (<http://developer.catrobat.org/credits>)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * An additional term exception under section 7 of the GNU Affero
+ * General Public License, version 3, is available at
+ * http://developer.catrobat.org/license_additional_term
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.catrobat.catroid.test.io;
+
+import android.test.AndroidTestCase;
+
+import org.catrobat.catroid.common.Constants;
+import org.catrobat.catroid.content.Project;
+import org.catrobat.catroid.io.ProjectHeaderProbe;
+import org.catrobat.catroid.io.StorageHandler;
+import org.catrobat.catroid.test.utils.TestUtils;
+import org.catrobat.catroid.utils.Utils;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+
+public class ProjectHeaderProbeTest extends AndroidTestCase {
+	private static final float LANGUAGE_VERSION = 0.92f;
+
+	private final String projectName = TestUtils.DEFAULT_TEST_PROJECT_NAME;
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		TestUtils.deleteTestProjects();
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		TestUtils.deleteTestProjects();
+		super.tearDown();
+	}
+
+	public void testProbeSavedProject() {
+		Project project = TestUtils.createTestProjectOnLocalStorageWithCatrobatLanguageVersion(LANGUAGE_VERSION);
+		ProjectHeaderProbe header = StorageHandler.getInstance().probeProject(projectName);
+
+		assertNotNull("Header not found", header);
+		assertEquals("Wrong language version", LANGUAGE_VERSION, header.getCatrobatLanguageVersion());
+		assertEquals("Wrong program name", projectName, header.getProgramName());
+		assertEquals("Wrong screen width", project.getXmlHeader().virtualScreenWidth, header.getScreenWidth());
+		assertEquals("Wrong screen height", project.getXmlHeader().virtualScreenHeight, header.getScreenHeight());
+	}
+
+	public void testProbeStopsAfterHeader() throws IOException {
+		File projectDirectory = new File(Utils.buildProjectPath(projectName));
+		assertTrue("Could not create project directory", projectDirectory.mkdirs());
+		FileWriter writer = new FileWriter(new File(projectDirectory, Constants.PROJECTCODE_NAME));
+		writer.write("<program><header><catrobatLanguageVersion>" + LANGUAGE_VERSION
+				+ "</catrobatLanguageVersion></header><objectList><object><unclosed>");
+		writer.close();
+
+		ProjectHeaderProbe header = StorageHandler.getInstance().probeProject(projectName);
+		assertNotNull("Header of truncated file not read", header);
+		assertEquals("Wrong language version", LANGUAGE_VERSION, header.getCatrobatLanguageVersion());
+	}
+
+	public void testProbeInvalidProject() throws IOException {
+		assertNull("Header of not existing project found", StorageHandler.getInstance().probeProject(projectName));
+
+		File projectDirectory = new File(Utils.buildProjectPath(projectName));
+		assertTrue("Could not create project directory", projectDirectory.mkdirs());
+		FileWriter writer = new FileWriter(new File(projectDirectory, Constants.PROJECTCODE_NAME));
+		writer.write("<program><header><programName>no version</programName></header></program>");
+		writer.close();
+
+		assertNull("Header without language version accepted", StorageHandler.getInstance().probeProject(projectName));
+	}
+}
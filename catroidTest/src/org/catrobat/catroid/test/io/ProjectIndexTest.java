@@ -0,0 +1,155 @@
+/*
+ * Catroid: An on-device visual programming system for Android devices
+ * Copyright (C) 2010-2014 The Catrobat Team
+ * (<http://developer.catrobat.org/credits>)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * An additional term exception under section 7 of the GNU Affero
+ * General Public License, version 3, is available at
+ * http://developer.catrobat.org/license_additional_term
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.catrobat.catroid.test.io;
+
+import android.test.AndroidTestCase;
+
+import org.catrobat.catroid.common.Constants;
+import org.catrobat.catroid.common.ProjectData;
+import org.catrobat.catroid.io.ProjectIndex;
+import org.catrobat.catroid.io.StorageHandler;
+import org.catrobat.catroid.stage.StageListener;
+import org.catrobat.catroid.test.utils.TestUtils;
+import org.catrobat.catroid.utils.UtilFile;
+import org.catrobat.catroid.utils.Utils;
+
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Locale;
+
+public class ProjectIndexTest extends AndroidTestCase {
+	private static final float LANGUAGE_VERSION = 0.93f;
+	private static final String COPIED_PROJECT_NAME = "copied test project";
+
+	private final String projectName = TestUtils.DEFAULT_TEST_PROJECT_NAME;
+	private StorageHandler storageHandler;
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		TestUtils.deleteTestProjects(COPIED_PROJECT_NAME);
+		storageHandler = StorageHandler.getInstance();
+		TestUtils.createTestProjectOnLocalStorageWithCatrobatLanguageVersion(LANGUAGE_VERSION);
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		TestUtils.deleteTestProjects(COPIED_PROJECT_NAME);
+		super.tearDown();
+	}
+
+	public void testSavedProjectIsIndexed() {
+		File projectDirectory = new File(Utils.buildProjectPath(projectName));
+		ProjectData projectData = storageHandler.getProjectIndex().getProjectData(projectName);
+
+		assertNotNull("Saved project is not indexed", projectData);
+		assertEquals("Wrong size", UtilFile.getSizeOfFileOrDirectoryInByte(projectDirectory), projectData.size);
+		assertEquals("Wrong last change", new File(projectDirectory, Constants.PROJECTCODE_NAME).lastModified(),
+				projectData.lastUsed);
+		assertEquals("Wrong language version", LANGUAGE_VERSION, projectData.catrobatLanguageVersion);
+		assertTrue("Project does not exist", storageHandler.projectExists(projectName));
+		assertFalse("Project names must be case sensitive",
+				storageHandler.projectExists(projectName.toUpperCase(Locale.US)));
+	}
+
+	public void testDeletedProjectIsRemoved() throws IOException {
+		storageHandler.deleteProject(projectName);
+
+		assertNull("Deleted project is still indexed", storageHandler.getProjectIndex().getProjectData(projectName));
+		assertFalse("Deleted project still exists", storageHandler.projectExists(projectName));
+	}
+
+	public void testIndexFollowsChangesInRootDirectory() throws IOException {
+		File projectDirectory = new File(Utils.buildProjectPath(projectName));
+		File copiedProjectDirectory = new File(Utils.buildProjectPath(COPIED_PROJECT_NAME));
+		assertTrue("Could not create directory", copiedProjectDirectory.mkdirs());
+		UtilFile.copyFile(new File(copiedProjectDirectory, Constants.PROJECTCODE_NAME), new File(projectDirectory,
+				Constants.PROJECTCODE_NAME));
+
+		assertTrue("Project created in root directory not found", storageHandler.projectExists(COPIED_PROJECT_NAME));
+		assertTrue("Could not delete project", UtilFile.deleteDirectory(projectDirectory));
+		assertFalse("Project deleted from root directory still found", storageHandler.projectExists(projectName));
+
+		boolean copiedProjectListed = false;
+		for (ProjectData projectData : storageHandler.getProjectIndex().getProjectDataList()) {
+			assertFalse("Deleted project listed", projectData.projectName.equals(projectName));
+			copiedProjectListed |= projectData.projectName.equals(COPIED_PROJECT_NAME);
+		}
+		assertTrue("Project created in root directory not listed", copiedProjectListed);
+	}
+
+	public void testIndexIsPersisted() {
+		ProjectData projectData = storageHandler.getProjectIndex().getProjectData(projectName);
+		ProjectData persistedProjectData = new ProjectIndex(new File(Constants.DEFAULT_ROOT))
+				.getProjectData(projectName);
+
+		assertNotNull("Project not found in persisted index", persistedProjectData);
+		assertEquals("Wrong size", projectData.size, persistedProjectData.size);
+		assertEquals("Wrong last change", projectData.lastUsed, persistedProjectData.lastUsed);
+		assertEquals("Wrong screenshot", projectData.screenshotPath, persistedProjectData.screenshotPath);
+		assertEquals("Wrong language version", projectData.catrobatLanguageVersion,
+				persistedProjectData.catrobatLanguageVersion);
+	}
+
+	public void testSavedScreenshotIsIndexed() throws IOException {
+		File screenshot = new File(Utils.buildProjectPath(projectName), StageListener.SCREENSHOT_MANUAL_FILE_NAME);
+		FileOutputStream outputStream = new FileOutputStream(screenshot);
+		outputStream.write(new byte[] { 1, 2, 3 });
+		outputStream.close();
+
+		storageHandler.getProjectIndex().updateScreenshot(projectName);
+
+		assertEquals("Wrong screenshot", screenshot.getAbsolutePath(),
+				storageHandler.getProjectIndex().getProjectData(projectName).screenshotPath);
+	}
+
+	public void testUpdateOnlyTouchesSavedProject() throws IOException {
+		File rootDirectory = new File(Constants.TMP_PATH, "projectIndexTest");
+		UtilFile.deleteDirectory(rootDirectory);
+		createCodeFile(new File(rootDirectory, "first"));
+		createCodeFile(new File(rootDirectory, "second"));
+
+		new ProjectIndex(rootDirectory).update("first", LANGUAGE_VERSION);
+
+		DataInputStream input = new DataInputStream(new FileInputStream(new File(rootDirectory,
+				Constants.PROJECT_INDEX_FILE_NAME)));
+		try {
+			input.readInt();
+			assertEquals("Update scanned the root directory", 1, input.readInt());
+			assertEquals("Wrong project indexed", "first", input.readUTF());
+		} finally {
+			input.close();
+			UtilFile.deleteDirectory(rootDirectory);
+		}
+	}
+
+	private void createCodeFile(File projectDirectory) throws IOException {
+		assertTrue("Could not create directory", projectDirectory.mkdirs());
+		FileOutputStream outputStream = new FileOutputStream(new File(projectDirectory, Constants.PROJECTCODE_NAME));
+		outputStream.write("<program/>".getBytes("UTF-8"));
+		outputStream.close();
+	}
+}
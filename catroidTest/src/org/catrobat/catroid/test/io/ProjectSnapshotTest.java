@@ -0,0 +1,240 @@
+/*
+ * Catroid: An on-device visual programming system for Android devices
+ * Copyright (C) 2010-2014 The Catrobat Team
+ * (<http://developer.catrobat.org/credits>)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * An additional term exception under section 7 of the GNU Affero
+ * General Public License, version 3, is available at
+ * http://developer.catrobat.org/license_additional_term
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.catrobat.catroid.test.io;
+
+import android.test.AndroidTestCase;
+
+import org.catrobat.catroid.BuildConfig;
+import org.catrobat.catroid.common.Constants;
+import org.catrobat.catroid.content.Project;
+import org.catrobat.catroid.content.Sprite;
+import org.catrobat.catroid.content.StartScript;
+import org.catrobat.catroid.content.bricks.HideBrick;
+import org.catrobat.catroid.content.bricks.SetSizeToBrick;
+import org.catrobat.catroid.io.ProjectSnapshot;
+import org.catrobat.catroid.io.StorageHandler;
+import org.catrobat.catroid.test.utils.TestUtils;
+import org.catrobat.catroid.utils.UtilFile;
+import org.catrobat.catroid.utils.UtilZip;
+import org.catrobat.catroid.utils.Utils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.util.Enumeration;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
+
+public class ProjectSnapshotTest extends AndroidTestCase {
+	private static final String SPRITE_NAME = "snapshot sprite";
+	private static final int SNAPSHOT_FILE_MAGIC = 0x43505331;
+	private static final int SNAPSHOT_FORMAT_VERSION = 2;
+
+	private final String projectName = TestUtils.DEFAULT_TEST_PROJECT_NAME;
+	private StorageHandler storageHandler;
+	private File codeFile;
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		TestUtils.deleteTestProjects();
+		storageHandler = StorageHandler.getInstance();
+		ProjectSnapshot.setSnapshotDirectory(new File(getContext().getCacheDir(), ProjectSnapshot.DIRECTORY_NAME));
+		codeFile = new File(Utils.buildProjectPath(projectName), Constants.PROJECTCODE_NAME);
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		TestUtils.deleteTestProjects();
+		super.tearDown();
+	}
+
+	public void testSnapshotMatchesXml() {
+		saveProject();
+		assertTrue("Snapshot not written on save", ProjectSnapshot.getSnapshotFile(codeFile).exists());
+
+		Project snapshotProject = ProjectSnapshot.read(codeFile);
+		assertNotNull("Snapshot not readable", snapshotProject);
+		assertProjectContent(snapshotProject);
+
+		ProjectSnapshot.delete(codeFile);
+		Project xmlProject = storageHandler.loadProject(projectName);
+		assertProjectContent(xmlProject);
+		assertTrue("Snapshot not written on load", ProjectSnapshot.getSnapshotFile(codeFile).exists());
+	}
+
+	public void testChangedCodeFileInvalidatesSnapshot() throws IOException {
+		saveProject();
+		File snapshotFile = ProjectSnapshot.getSnapshotFile(codeFile);
+		File oldSnapshotFile = new File(snapshotFile.getPath() + ".old");
+		UtilFile.copyFile(oldSnapshotFile, snapshotFile);
+
+		Project project = storageHandler.loadProject(projectName);
+		project.getSpriteList().get(1).setName("renamed");
+		storageHandler.saveProject(project);
+		UtilFile.copyFile(snapshotFile, oldSnapshotFile);
+		assertTrue("Could not delete old snapshot", oldSnapshotFile.delete());
+
+		assertNull("Snapshot of old code file used", ProjectSnapshot.read(codeFile));
+		assertEquals("Project not loaded from code file", "renamed", storageHandler.loadProject(projectName)
+				.getSpriteList().get(1).getName());
+	}
+
+	public void testCorruptSnapshotIsIgnored() throws IOException {
+		saveProject();
+		File snapshotFile = ProjectSnapshot.getSnapshotFile(codeFile);
+		long length = snapshotFile.length();
+		FileOutputStream outputStream = new FileOutputStream(snapshotFile);
+		outputStream.write(new byte[(int) length]);
+		outputStream.close();
+
+		assertNull("Corrupt snapshot used", ProjectSnapshot.read(codeFile));
+		assertProjectContent(storageHandler.loadProject(projectName));
+		assertNotNull("Snapshot not rebuilt", ProjectSnapshot.read(codeFile));
+	}
+
+	public void testSnapshotIsNotZipped() throws IOException {
+		saveProject();
+		File projectDirectory = new File(Utils.buildProjectPath(projectName));
+		String[] paths = projectDirectory.list();
+		for (int index = 0; index < paths.length; index++) {
+			paths[index] = Utils.buildPath(projectDirectory.getAbsolutePath(), paths[index]);
+		}
+		File zipFile = new File(Constants.TMP_PATH, "snapshot_test" + Constants.CATROBAT_EXTENSION);
+		zipFile.getParentFile().mkdirs();
+		assertTrue("Could not zip project", UtilZip.writeToZipFile(paths, zipFile.getAbsolutePath()));
+
+		ZipFile zip = new ZipFile(zipFile);
+		try {
+			boolean codeFileZipped = false;
+			Enumeration<? extends ZipEntry> entries = zip.entries();
+			while (entries.hasMoreElements()) {
+				String entryName = entries.nextElement().getName();
+				assertFalse("Snapshot zipped", entryName.endsWith(Constants.PROJECTCODE_SNAPSHOT_NAME));
+				codeFileZipped |= entryName.equals(Constants.PROJECTCODE_NAME);
+			}
+			assertTrue("Code file not zipped", codeFileZipped);
+		} finally {
+			zip.close();
+			zipFile.delete();
+		}
+	}
+
+	public void testSnapshotIsPrivate() {
+		saveProject();
+		File snapshotFile = ProjectSnapshot.getSnapshotFile(codeFile);
+		assertTrue("Snapshot not written", snapshotFile.exists());
+		assertTrue("Snapshot not in the cache directory", snapshotFile.getAbsolutePath().startsWith(
+				getContext().getCacheDir().getAbsolutePath()));
+		assertFalse("Snapshot in the project directory", new File(codeFile.getParentFile(),
+				Constants.PROJECTCODE_SNAPSHOT_NAME).exists());
+	}
+
+	public void testCacheFilesAreNotExtracted() throws IOException {
+		ByteArrayOutputStream zipBytes = new ByteArrayOutputStream();
+		ZipOutputStream zipOutputStream = new ZipOutputStream(zipBytes);
+		String[] entryNames = { Constants.PROJECTCODE_NAME, Constants.PROJECTCODE_SNAPSHOT_NAME,
+				Constants.IMAGE_DIRECTORY + "/look.png" + Constants.HIT_MASK_EXTENSION };
+		for (String entryName : entryNames) {
+			zipOutputStream.putNextEntry(new ZipEntry(entryName));
+			zipOutputStream.write(1);
+			zipOutputStream.closeEntry();
+		}
+		zipOutputStream.close();
+
+		File extractDirectory = new File(Constants.TMP_PATH, "snapshot_unzip_test");
+		try {
+			UtilZip.unZipStream(new ByteArrayInputStream(zipBytes.toByteArray()), extractDirectory.getPath());
+			assertTrue("Code file not extracted", new File(extractDirectory, entryNames[0]).exists());
+			assertFalse("Snapshot extracted", new File(extractDirectory, entryNames[1]).exists());
+			assertFalse("Hit mask extracted", new File(extractDirectory, entryNames[2]).exists());
+		} finally {
+			UtilFile.deleteDirectory(extractDirectory);
+		}
+	}
+
+	public void testSnapshotWithForeignClassIsIgnored() throws IOException {
+		saveProject();
+		ByteArrayOutputStream payloadStream = new ByteArrayOutputStream();
+		ObjectOutputStream objectOutput = new ObjectOutputStream(payloadStream);
+		objectOutput.writeObject(new File("foreign"));
+		objectOutput.close();
+		byte[] payload = payloadStream.toByteArray();
+		writeSnapshot(payload, payload.length);
+
+		assertNull("Snapshot with a class outside the project model used", ProjectSnapshot.read(codeFile));
+	}
+
+	public void testSnapshotWithInvalidLengthIsIgnored() throws IOException {
+		saveProject();
+		writeSnapshot(new byte[0], Integer.MAX_VALUE);
+
+		assertNull("Snapshot with invalid length used", ProjectSnapshot.read(codeFile));
+	}
+
+	private void writeSnapshot(byte[] payload, int payloadLength) throws IOException {
+		CRC32 crc = new CRC32();
+		crc.update(payload);
+		DataOutputStream output = new DataOutputStream(new FileOutputStream(ProjectSnapshot.getSnapshotFile(
+				codeFile)));
+		try {
+			output.writeInt(SNAPSHOT_FILE_MAGIC);
+			output.writeInt(SNAPSHOT_FORMAT_VERSION);
+			output.writeUTF(BuildConfig.GIT_DESCRIBE);
+			output.writeLong(codeFile.length());
+			output.writeLong(codeFile.lastModified());
+			output.writeUTF(Utils.md5Checksum(codeFile));
+			output.writeLong(crc.getValue());
+			output.writeInt(payloadLength);
+			output.write(payload);
+		} finally {
+			output.close();
+		}
+	}
+
+	private void saveProject() {
+		Project project = new Project(getContext(), projectName);
+		Sprite sprite = new Sprite(SPRITE_NAME);
+		StartScript script = new StartScript();
+		script.addBrick(new HideBrick());
+		script.addBrick(new SetSizeToBrick(42));
+		sprite.addScript(script);
+		project.addSprite(sprite);
+		assertTrue("Project not saved", storageHandler.saveProject(project));
+	}
+
+	private void assertProjectContent(Project project) {
+		assertNotNull("Project not loaded", project);
+		assertEquals("Wrong project name", projectName, project.getName());
+		Sprite sprite = project.getSpriteList().get(1);
+		assertEquals("Wrong sprite name", SPRITE_NAME, sprite.getName());
+		assertNotNull("Look not initialized", sprite.look);
+		assertEquals("Wrong number of bricks", 2, sprite.getScript(0).getBrickList().size());
+	}
+}
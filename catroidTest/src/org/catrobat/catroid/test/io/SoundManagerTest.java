@@ -25,16 +25,22 @@ package org.catrobat.catroid.test.io;
 import android.media.MediaPlayer;
 import android.test.InstrumentationTestCase;
 
+import org.catrobat.catroid.ProjectManager;
 import org.catrobat.catroid.common.Constants;
+import org.catrobat.catroid.common.SoundInfo;
+import org.catrobat.catroid.content.Project;
 import org.catrobat.catroid.io.SoundManager;
+import org.catrobat.catroid.io.StorageHandler;
 import org.catrobat.catroid.test.R;
 import org.catrobat.catroid.test.utils.Reflection;
 import org.catrobat.catroid.test.utils.TestUtils;
 
 import java.io.File;
+import java.io.IOException;
 import java.lang.reflect.Constructor;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 public class SoundManagerTest extends InstrumentationTestCase {
 	private final SoundManager soundManager = SoundManager.getInstance();
@@ -146,6 +152,99 @@ public class SoundManagerTest extends InstrumentationTestCase {
 		}
 	}
 
+	public void testOldestSoundIsStoppedIfAllVoicesAreInUse() {
+		List<MediaPlayer> mediaPlayers = getMediaPlayers();
+		soundManager.setMaxVoices(2);
+		try {
+			soundManager.playSoundFile(soundFile.getAbsolutePath());
+			MediaPlayer oldestMediaPlayer = mediaPlayers.get(0);
+			soundManager.playSoundFile(soundFile.getAbsolutePath());
+			soundManager.playSoundFile(soundFile.getAbsolutePath());
+
+			assertEquals("Voice limit is exceeded", 2, mediaPlayers.size());
+			assertSame("Oldest sound wasn't replaced", oldestMediaPlayer, mediaPlayers.get(1));
+			assertTrue("Newest sound isn't playing", oldestMediaPlayer.isPlaying());
+		} finally {
+			soundManager.setMaxVoices(SoundManager.MAX_MEDIA_PLAYERS);
+		}
+	}
+
+	public void testShortSoundIsPlayedFromSamplePool() throws IOException, InterruptedException {
+		Project project = new Project(getInstrumentation().getTargetContext(), TestUtils.DEFAULT_TEST_PROJECT_NAME);
+		StorageHandler.getInstance().saveProject(project);
+		ProjectManager.getInstance().setProject(project);
+		try {
+			File projectSoundFile = StorageHandler.getInstance().copySoundFile(soundFile.getAbsolutePath());
+			SoundInfo soundInfo = new SoundInfo();
+			soundInfo.setSoundFileName(projectSoundFile.getName());
+
+			soundManager.loadSounds(Collections.singletonList(soundInfo));
+			Map<String, Integer> sampleIds = getSampleIds();
+			for (int retries = 0; retries < 50 && !sampleIds.containsKey(soundInfo.getChecksum()); retries++) {
+				Thread.sleep(100);
+			}
+			assertTrue("Sound wasn't decoded", sampleIds.containsKey(soundInfo.getChecksum()));
+
+			soundManager.playSound(soundInfo);
+			assertTrue("Short sound was streamed", getMediaPlayers().isEmpty());
+		} finally {
+			soundManager.unloadSounds();
+			TestUtils.deleteTestProjects();
+		}
+	}
+
+	public void testQueuedSoundIsDroppedAfterStop() throws IOException, InterruptedException {
+		Project project = new Project(getInstrumentation().getTargetContext(), TestUtils.DEFAULT_TEST_PROJECT_NAME);
+		StorageHandler.getInstance().saveProject(project);
+		ProjectManager.getInstance().setProject(project);
+		try {
+			File projectSoundFile = StorageHandler.getInstance().copySoundFile(soundFile.getAbsolutePath());
+			SoundInfo soundInfo = new SoundInfo();
+			soundInfo.setSoundFileName(projectSoundFile.getName());
+			// no samples are loaded, so the sound is streamed on the background thread
+			soundManager.loadSounds(Collections.<SoundInfo>emptyList());
+
+			soundManager.playSound(soundInfo);
+			soundManager.stopAllSounds();
+			// the sound is shorter than the time checked, so a late start would be seen
+			for (int checks = 0; checks < 50; checks++) {
+				synchronized (soundManager) {
+					for (MediaPlayer mediaPlayer : getMediaPlayers()) {
+						assertFalse("Sound queued before stop is playing", mediaPlayer.isPlaying());
+					}
+				}
+				Thread.sleep(20);
+			}
+		} finally {
+			soundManager.unloadSounds();
+			TestUtils.deleteTestProjects();
+		}
+	}
+
+	public void testPreparingMediaPlayerIsNotReusedAfterClear() throws IOException, InterruptedException {
+		Project project = new Project(getInstrumentation().getTargetContext(), TestUtils.DEFAULT_TEST_PROJECT_NAME);
+		StorageHandler.getInstance().saveProject(project);
+		ProjectManager.getInstance().setProject(project);
+		try {
+			File projectSoundFile = StorageHandler.getInstance().copySoundFile(soundFile.getAbsolutePath());
+			SoundInfo soundInfo = new SoundInfo();
+			soundInfo.setSoundFileName(projectSoundFile.getName());
+			soundManager.loadSounds(Collections.<SoundInfo>emptyList());
+
+			soundManager.playSound(soundInfo);
+			soundManager.clear();
+			for (int checks = 0; checks < 50; checks++) {
+				synchronized (soundManager) {
+					assertTrue("Media player dropped by clear is still in use", getMediaPlayers().isEmpty());
+				}
+				Thread.sleep(20);
+			}
+		} finally {
+			soundManager.unloadSounds();
+			TestUtils.deleteTestProjects();
+		}
+	}
+
 	/*
 	 * TODO: Since the SoundManager shouldn't be a Singleton, this is just a temporary solution.
 	 */
@@ -179,6 +278,11 @@ public class SoundManagerTest extends InstrumentationTestCase {
 		assertEquals("Wrong volume value", newVolume / 100f, mediaPlayerMock.rightVolume);
 	}
 
+	@SuppressWarnings("unchecked")
+	private Map<String, Integer> getSampleIds() {
+		return (Map<String, Integer>) Reflection.getPrivateField(soundManager, "sampleIds");
+	}
+
 	@SuppressWarnings("unchecked")
 	private List<MediaPlayer> getMediaPlayers() {
 		return (List<MediaPlayer>) Reflection.getPrivateField(soundManager, "mediaPlayers");
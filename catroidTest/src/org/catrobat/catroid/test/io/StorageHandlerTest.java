@@ -43,8 +43,11 @@ import org.catrobat.catroid.content.bricks.PlaceAtBrick;
 import org.catrobat.catroid.content.bricks.SetSizeToBrick;
 import org.catrobat.catroid.content.bricks.ShowBrick;
 import org.catrobat.catroid.formulaeditor.Formula;
+import org.catrobat.catroid.formulaeditor.FormulaElement;
+import org.catrobat.catroid.formulaeditor.FormulaElement.ElementType;
 import org.catrobat.catroid.formulaeditor.InterpretationException;
 import org.catrobat.catroid.io.StorageHandler;
+import org.catrobat.catroid.test.utils.Reflection;
 import org.catrobat.catroid.test.utils.TestUtils;
 import org.catrobat.catroid.utils.UtilFile;
 
@@ -274,6 +277,94 @@ public class StorageHandlerTest extends AndroidTestCase {
 		assertFalse("Sanity Check Failed. tmp file was not discarded.", tmpCodeFile.exists());
 	}
 
+	public void testSaveOnlyModifiedProject() {
+		Project project = new Project(getContext(), projectName);
+		Sprite sprite = new Sprite("sprite");
+		Script script = new StartScript();
+		sprite.addScript(script);
+		project.addSprite(sprite);
+
+		File currentCodeFile = new File(buildProjectPath(project.getName()), PROJECTCODE_NAME);
+		assertTrue("New project was not saved", storageHandler.saveProject(project));
+		assertFalse("Project is still dirty after saving", project.isDirty());
+		long lastModified = currentCodeFile.lastModified();
+
+		assertFalse("Unmodified project was saved again", storageHandler.saveProject(project));
+		assertEquals("Code file was rewritten", lastModified, currentCodeFile.lastModified());
+
+		project.setDirty();
+		assertFalse("Project with identical content was written", storageHandler.saveProject(project));
+		assertFalse("Tmp code file was not removed", new File(buildProjectPath(project.getName()),
+				PROJECTCODE_NAME_TMP).exists());
+
+		script.addBrick(new HideBrick());
+		assertTrue("Change in script does not mark project dirty", project.isDirty());
+		assertTrue("Modified project was not saved", storageHandler.saveProject(project));
+		assertFalse("Project is still dirty after saving", project.isDirty());
+
+		Project loadedProject = storageHandler.loadProject(projectName);
+		assertFalse("Loaded project is dirty", loadedProject.isDirty());
+		assertEquals("Added brick was not saved", 1, loadedProject.getSpriteList().get(1).getScript(0).getBrickList()
+				.size());
+	}
+
+	public void testEditsMarkProjectDirty() throws Exception {
+		Project project = new Project(getContext(), projectName);
+		Sprite sprite = new Sprite("sprite");
+		Script script = new StartScript();
+		SetSizeToBrick setSizeToBrick = new SetSizeToBrick(50);
+		script.addBrick(setSizeToBrick);
+		sprite.addScript(script);
+		project.addSprite(sprite);
+		assertTrue("New project was not saved", storageHandler.saveProject(project));
+
+		Formula formula = setSizeToBrick.getFormulaWithBrickField(Brick.BrickField.SIZE);
+		formula.setRoot(new FormulaElement(ElementType.NUMBER, "70", null));
+		assertTrue("Formula edit does not mark project dirty", project.isDirty());
+		assertTrue("Edited formula was not saved", storageHandler.saveProject(project));
+
+		project.getUserVariables().addProjectUserVariable("variable");
+		assertTrue("New variable does not mark project dirty", project.isDirty());
+		assertTrue("New variable was not saved", storageHandler.saveProject(project));
+
+		Reflection.setPrivateField(project.getXmlHeader(), "applicationVersion", "0.7.3beta");
+		assertTrue("Header change does not mark project dirty", project.isDirty());
+		assertTrue("Header change was not saved", storageHandler.saveProject(project));
+
+		project.setTurboMode(true);
+		assertTrue("Turbo mode does not mark project dirty", project.isDirty());
+		assertTrue("Turbo mode was not saved", storageHandler.saveProject(project));
+		assertTrue("Turbo mode was not loaded", storageHandler.loadProject(projectName).isTurboMode());
+
+		sprite.setName("sprite");
+		assertFalse("Setting the same name marks project dirty", project.isDirty());
+	}
+
+	public void testPatchProgramNameOfCopiedProject() throws IOException {
+		String copiedProjectName = "copy <of> \"" + projectName + "\" & more";
+		Project project = new Project(getContext(), projectName);
+		Sprite sprite = new Sprite("sprite");
+		sprite.addScript(new StartScript());
+		project.addSprite(sprite);
+		assertTrue("Project was not saved", storageHandler.saveProject(project));
+
+		try {
+			UtilFile.copyDirectory(new File(buildProjectPath(copiedProjectName)),
+					new File(buildProjectPath(projectName)), null, null);
+			assertTrue("Program name was not patched", storageHandler.patchProgramName(copiedProjectName));
+			assertFalse("Tmp code file was not removed", new File(buildProjectPath(copiedProjectName),
+					PROJECTCODE_NAME_TMP).exists());
+
+			Project copiedProject = storageHandler.loadProject(copiedProjectName);
+			assertEquals("Wrong program name in copied project", copiedProjectName, copiedProject.getName());
+			assertEquals("Sprites of copied project are missing", 1, copiedProject.getSpriteList().size());
+			assertEquals("Original project was renamed", projectName, storageHandler.loadProject(projectName)
+					.getName());
+		} finally {
+			TestUtils.deleteTestProjects(copiedProjectName);
+		}
+	}
+
 	// TODO: add XML header validation based on xsd
 
     private Float interpretFormula(Formula formula, Sprite sprite) {
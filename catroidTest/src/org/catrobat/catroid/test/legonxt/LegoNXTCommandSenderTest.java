@@ -0,0 +1,221 @@
+/*
+ * Catroid: An on-device visual programming system for Android devices
+ * Copyright (C) 2010-2014 The Catrobat Team
+ * (<http://developer.catrobat.org/credits>)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * An additional term exception under section 7 of the GNU Affero
+ * General Public License, version 3, is available at
+ * http://developer.catrobat.org/license_additional_term
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.catrobat.catroid.test.legonxt;
+
+import android.test.InstrumentationTestCase;
+
+import org.catrobat.catroid.legonxt.LCPFramer;
+import org.catrobat.catroid.legonxt.LCPMessage;
+import org.catrobat.catroid.legonxt.LegoNXTCommandSender;
+import org.catrobat.catroid.legonxt.LegoNXTCommunicator;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class LegoNXTCommandSenderTest extends InstrumentationTestCase {
+	private static final int MOTOR_A = 0;
+	private static final int MOTOR_B = 1;
+
+	private RecordingCommunicator communicator;
+	private LegoNXTCommandSender commandSender;
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		// the communicator creates its handler, which needs a looper
+		getInstrumentation().runOnMainSync(new Runnable() {
+			@Override
+			public void run() {
+				communicator = new RecordingCommunicator();
+			}
+		});
+		commandSender = communicator.getCommandSender();
+	}
+
+	public void testFramesSurviveShortReads() throws IOException {
+		byte[] motorMessage = LCPMessage.getMotorMessage(MOTOR_A, 50, 0);
+		byte[] toneMessage = LCPMessage.getBeepMessage(440, 100);
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		LCPFramer framer = new LCPFramer();
+		framer.writeFrame(outputStream, motorMessage);
+		framer.writeFrame(outputStream, toneMessage);
+
+		InputStream inputStream = new SingleByteInputStream(new ByteArrayInputStream(outputStream.toByteArray()));
+		assertTrue("Wrong first message", Arrays.equals(motorMessage, LCPFramer.readFrame(inputStream)));
+		assertTrue("Wrong second message", Arrays.equals(toneMessage, LCPFramer.readFrame(inputStream)));
+		try {
+			LCPFramer.readFrame(inputStream);
+			fail("Reading after the last frame should fail");
+		} catch (EOFException expected) {
+		}
+	}
+
+	public void testFramesThroughLoopback() throws Exception {
+		final PipedOutputStream outputStream = new PipedOutputStream();
+		PipedInputStream inputStream = new PipedInputStream(outputStream);
+		final byte[] longMessage = new byte[300];
+		for (int index = 0; index < longMessage.length; index++) {
+			longMessage[index] = (byte) index;
+		}
+
+		Thread writer = new Thread() {
+			@Override
+			public void run() {
+				try {
+					new LCPFramer().writeFrame(outputStream, longMessage);
+					outputStream.close();
+				} catch (IOException ioException) {
+					fail("Writing frame failed: " + ioException);
+				}
+			}
+		};
+		writer.start();
+
+		assertTrue("Message longer than the frame buffer is broken",
+				Arrays.equals(longMessage, LCPFramer.readFrame(inputStream)));
+		writer.join();
+	}
+
+	public void testMotorCommandsAreCoalesced() {
+		commandSender.queueMotorCommand(MOTOR_A, 10, 0);
+		commandSender.queueMotorCommand(MOTOR_A, 20, 0);
+		commandSender.queueMotorCommand(MOTOR_B, -30, 0);
+		commandSender.queueMotorCommand(MOTOR_A, 30, 0);
+		commandSender.sendPendingCommands();
+
+		assertEquals("Queued commands were not coalesced", 2, communicator.sentMessages.size());
+		assertTrue("Latest command for motor A not sent", Arrays.equals(LCPMessage.getMotorMessage(MOTOR_A, 30, 0),
+				communicator.sentMessages.get(0)));
+		assertTrue("Command for motor B not sent", Arrays.equals(LCPMessage.getMotorMessage(MOTOR_B, -30, 0),
+				communicator.sentMessages.get(1)));
+
+		communicator.sentMessages.clear();
+		commandSender.queueMotorCommand(MOTOR_A, 30, 0);
+		commandSender.sendPendingCommands();
+		assertTrue("Speed the motor already runs with was sent again", communicator.sentMessages.isEmpty());
+
+		commandSender.queueMotorCommand(MOTOR_A, 30, 90);
+		commandSender.sendPendingCommands();
+		commandSender.queueMotorCommand(MOTOR_A, 30, 90);
+		commandSender.sendPendingCommands();
+		assertEquals("Turns by an angle must always be sent", 2, communicator.sentMessages.size());
+	}
+
+	public void testTurnsAreSentInOrder() {
+		commandSender.queueMotorCommand(MOTOR_A, 30, 90);
+		commandSender.queueMotorCommand(MOTOR_A, -30, 180);
+		commandSender.queueMotorCommand(MOTOR_A, 50, 0);
+		commandSender.queueMotorCommand(MOTOR_A, 60, 0);
+		commandSender.sendPendingCommands();
+
+		assertEquals("Queued turns were coalesced", 3, communicator.sentMessages.size());
+		assertTrue("First turn not sent first", Arrays.equals(LCPMessage.getMotorMessage(MOTOR_A, 30, 90),
+				communicator.sentMessages.get(0)));
+		assertTrue("Second turn not sent second", Arrays.equals(LCPMessage.getMotorMessage(MOTOR_A, -30, 180),
+				communicator.sentMessages.get(1)));
+		assertTrue("Latest command after the turns not sent", Arrays.equals(
+				LCPMessage.getMotorMessage(MOTOR_A, 60, 0), communicator.sentMessages.get(2)));
+	}
+
+	public void testQueuedTonesAreLimited() {
+		for (int index = 0; index < LegoNXTCommandSender.MAX_PENDING_TONES + 5; index++) {
+			commandSender.queueTone(440 + index, 100);
+		}
+		commandSender.sendPendingCommands();
+
+		assertEquals("Queued tones are not limited", LegoNXTCommandSender.MAX_PENDING_TONES,
+				communicator.sentMessages.size());
+		assertTrue("Oldest tones were not dropped", Arrays.equals(LCPMessage.getBeepMessage(440 + 5, 100),
+				communicator.sentMessages.get(0)));
+	}
+
+	public void testStopAllMotorsDropsQueuedCommands() {
+		commandSender.queueMotorCommand(MOTOR_A, 50, 0);
+		commandSender.stopAllMotors();
+		commandSender.sendPendingCommands();
+
+		assertEquals("Wrong number of commands", 3, communicator.sentMessages.size());
+		for (byte[] message : communicator.sentMessages) {
+			assertEquals("Motor not stopped", 0, message[3]);
+		}
+
+		communicator.sentMessages.clear();
+		commandSender.queueMotorCommand(MOTOR_A, 50, 0);
+		commandSender.sendPendingCommands();
+		assertEquals("Command after stop was not sent", 1, communicator.sentMessages.size());
+	}
+
+	private static class SingleByteInputStream extends FilterInputStream {
+		SingleByteInputStream(InputStream inputStream) {
+			super(inputStream);
+		}
+
+		@Override
+		public int read(byte[] buffer, int offset, int length) throws IOException {
+			return super.read(buffer, offset, Math.min(1, length));
+		}
+	}
+
+	private static class RecordingCommunicator extends LegoNXTCommunicator {
+		private final List<byte[]> sentMessages = new ArrayList<byte[]>();
+
+		RecordingCommunicator() {
+			super(null, null);
+		}
+
+		@Override
+		public void run() {
+		}
+
+		@Override
+		public void createNXTconnection() {
+		}
+
+		@Override
+		public void destroyNXTconnection() {
+		}
+
+		@Override
+		public void sendMessage(byte[] message) {
+			sentMessages.add(message);
+		}
+
+		@Override
+		public byte[] receiveMessage() {
+			return new byte[0];
+		}
+
+		@Override
+		public void stopAllNXTMovement() {
+		}
+	}
+}
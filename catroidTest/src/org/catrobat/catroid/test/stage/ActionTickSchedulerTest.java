@@ -0,0 +1,110 @@
+/*
+ * Catroid: An on-device visual programming system for Android devices
+ * Copyright (C) 2010-2014 The Catrobat Team
+ * (<http://developer.catrobat.org/credits>)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * An additional term exception under section 7 of the GNU Affero
+ * General Public License, version 3, is available at
+ * http://developer.catrobat.org/license_additional_term
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.catrobat.catroid.test.stage;
+
+import android.test.AndroidTestCase;
+
+import org.catrobat.catroid.stage.ActionTickScheduler;
+
+public class ActionTickSchedulerTest extends AndroidTestCase {
+
+	private static final float DELTA = 1e-5f;
+
+	public void testFixedTicksPerFrame() {
+		ActionTickScheduler scheduler = new ActionTickScheduler(100, 50);
+		assertEquals("Wrong tick duration", 0.01f, scheduler.getTickDuration(), DELTA);
+		assertEquals("Wrong number of ticks", 5, scheduler.startFrame(0.05f));
+		assertEquals("Wrong number of ticks", 2, scheduler.startFrame(0.02f));
+	}
+
+	public void testRemainingTimeIsCarriedOver() {
+		ActionTickScheduler scheduler = new ActionTickScheduler(100, 50);
+		assertEquals("Tick started too early", 0, scheduler.startFrame(0.006f));
+		assertEquals("Remaining time not carried over", 0.006f, scheduler.getAccumulatedTime(), DELTA);
+		assertEquals("Remaining time not added to next frame", 1, scheduler.startFrame(0.006f));
+		assertEquals("Wrong remaining time", 0.002f, scheduler.getAccumulatedTime(), DELTA);
+	}
+
+	public void testCatchUpLimit() {
+		ActionTickScheduler scheduler = new ActionTickScheduler(100, 10);
+		assertEquals("Catch-up limit not applied", 10, scheduler.startFrame(1.005f));
+		assertEquals("Ticks not stretched to the frame time", 0.1005f, scheduler.getFrameTickDuration(), DELTA);
+		assertEquals("Stretched frame time carried over", 0f, scheduler.getAccumulatedTime(), DELTA);
+		assertEquals("Frame at catch-up limit not counted", 1, scheduler.getFramesAtCatchUpLimit());
+		assertEquals("Wrong number of ticks after slow frame", 1, scheduler.startFrame(0.01f));
+		assertEquals("Tick duration not restored", 0.01f, scheduler.getFrameTickDuration(), DELTA);
+	}
+
+	public void testTickLimitFollowsActTime() {
+		ActionTickScheduler scheduler = new ActionTickScheduler(100, 8);
+		scheduler.endFrame(ActionTickScheduler.ACT_TIME_BUDGET_NANOS + 1);
+		assertEquals("Tick limit not halved", 4, scheduler.getTickLimit());
+		assertEquals("Frame over budget not counted", 1, scheduler.getFramesOverBudget());
+		assertEquals("Lowered tick limit not applied", 4, scheduler.startFrame(0.08f));
+		assertEquals("Ticks not stretched to the frame time", 0.02f, scheduler.getFrameTickDuration(), DELTA);
+
+		for (int frame = 0; frame < 5; frame++) {
+			scheduler.endFrame(ActionTickScheduler.ACT_TIME_BUDGET_NANOS + 1);
+		}
+		assertEquals("Tick limit dropped below one tick", 1, scheduler.getTickLimit());
+
+		scheduler.endFrame(ActionTickScheduler.ACT_TIME_BUDGET_NANOS * 3 / 4);
+		assertEquals("Tick limit changed within budget", 1, scheduler.getTickLimit());
+		for (int frame = 0; frame < 10; frame++) {
+			scheduler.endFrame(0);
+		}
+		assertEquals("Tick limit not restored", 8, scheduler.getTickLimit());
+
+		scheduler.endFrame(ActionTickScheduler.ACT_TIME_BUDGET_NANOS + 1);
+		scheduler.reset();
+		assertEquals("Tick limit not reset", 8, scheduler.getTickLimit());
+	}
+
+	public void testStatistics() {
+		ActionTickScheduler scheduler = new ActionTickScheduler(100, 50);
+		scheduler.startFrame(0.04f);
+		scheduler.startFrame(0.02f);
+		assertEquals("Wrong frame count", 2, scheduler.getFrameCount());
+		assertEquals("Wrong tick count", 6, scheduler.getTickCount());
+		assertEquals("Wrong ticks of last frame", 2, scheduler.getTicksOfLastFrame());
+		assertEquals("Wrong average", 3f, scheduler.getAverageTicksPerFrame(), DELTA);
+
+		scheduler.reset();
+		assertEquals("Frame count not reset", 0, scheduler.getFrameCount());
+		assertEquals("Tick count not reset", 0, scheduler.getTickCount());
+		assertEquals("Accumulated time not reset", 0f, scheduler.getAccumulatedTime(), DELTA);
+	}
+
+	public void testInvalidConfiguration() {
+		try {
+			new ActionTickScheduler(0, 50);
+			fail("Tick rate of 0 accepted");
+		} catch (IllegalArgumentException expected) {
+		}
+		try {
+			new ActionTickScheduler(60, 0);
+			fail("Catch-up limit of 0 accepted");
+		} catch (IllegalArgumentException expected) {
+		}
+	}
+}
@@ -0,0 +1,58 @@
+/*
+ * Catroid: An on-device visual programming system for Android devices
+ * Copyright (C) 2010-2014 The Catrobat Team
+ * (<http://developer.catrobat.org/credits>)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * An additional term exception under section 7 of the GNU Affero
+ * General Public License, version 3, is available at
+ * http://developer.catrobat.org/license_additional_term
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.catrobat.catroid.test.stage;
+
+import android.test.AndroidTestCase;
+
+import com.badlogic.gdx.graphics.Color;
+
+import org.catrobat.catroid.stage.BrightnessShader;
+
+public class BrightnessShaderTest extends AndroidTestCase {
+
+	private static final float DELTA = 1e-4f;
+
+	public void testBrightnessSurvivesColorPacking() {
+		Color color = new Color(Color.WHITE);
+		for (int percent = 0; percent <= 200; percent++) {
+			float brightness = percent / 100f;
+			BrightnessShader.setBrightnessColor(color, brightness);
+			assertEquals("Wrong brightness after packing", brightness, BrightnessShader.getBrightnessOfColor(color),
+					DELTA);
+		}
+	}
+
+	public void testAlphaIsNotChanged() {
+		Color color = new Color(1f, 1f, 1f, 0.25f);
+		BrightnessShader.setBrightnessColor(color, 1.5f);
+		assertEquals("Alpha changed", 0.25f, color.a);
+	}
+
+	public void testBrightnessIsClamped() {
+		Color color = new Color(Color.WHITE);
+		BrightnessShader.setBrightnessColor(color, 3f);
+		assertEquals("Brightness not clamped", 2f, BrightnessShader.getBrightnessOfColor(color), DELTA);
+		BrightnessShader.setBrightnessColor(color, -1f);
+		assertEquals("Brightness not clamped", 0f, BrightnessShader.getBrightnessOfColor(color), DELTA);
+	}
+}
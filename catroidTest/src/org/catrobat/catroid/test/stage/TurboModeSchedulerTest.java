@@ -0,0 +1,117 @@
+/*
+ * Catroid: An on-device visual programming system for Android devices
+ * Copyright (C) 2010-2014 The Catrobat Team
+ * (<http://developer.catrobat.org/credits>)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * An additional term exception under section 7 of the GNU Affero
+ * General Public License, version 3, is available at
+ * http://developer.catrobat.org/license_additional_term
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.catrobat.catroid.test.stage;
+
+import android.test.AndroidTestCase;
+
+import org.catrobat.catroid.stage.TurboModeScheduler;
+
+public class TurboModeSchedulerTest extends AndroidTestCase {
+
+	private static final float DELTA = 1e-5f;
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		TurboModeScheduler.reset();
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		TurboModeScheduler.setTimeBudgetPerFrameNanos(TurboModeScheduler.DEFAULT_TIME_BUDGET_PER_FRAME_NANOS);
+		TurboModeScheduler.reset();
+		super.tearDown();
+	}
+
+	public void testTimeBudget() {
+		assertEquals("Time left before the first frame started", 0, TurboModeScheduler.getLoopTimeBudgetNanos());
+
+		TurboModeScheduler.setTimeBudgetPerFrameNanos(Long.MAX_VALUE / 2);
+		TurboModeScheduler.startFrame();
+		long deadlineNanos = System.nanoTime() + TurboModeScheduler.getLoopTimeBudgetNanos();
+		assertTrue("No time left in a new frame", TurboModeScheduler.hasTimeLeft(deadlineNanos));
+
+		TurboModeScheduler.setTimeBudgetPerFrameNanos(0);
+		TurboModeScheduler.startFrame();
+		deadlineNanos = System.nanoTime() + TurboModeScheduler.getLoopTimeBudgetNanos();
+		assertFalse("Time left although the budget is 0", TurboModeScheduler.hasTimeLeft(deadlineNanos));
+	}
+
+	public void testBudgetIsSplitBetweenLoops() {
+		long timeBudget = 9000000L;
+		TurboModeScheduler.setTimeBudgetPerFrameNanos(timeBudget);
+		TurboModeScheduler.startFrame();
+		TurboModeScheduler.registerLoop();
+		assertEquals("Single loop doesn't get the whole budget", timeBudget,
+				TurboModeScheduler.getLoopTimeBudgetNanos());
+		TurboModeScheduler.registerLoop();
+		TurboModeScheduler.registerLoop();
+		assertEquals("Budget not split between the loops of the frame", timeBudget / 3,
+				TurboModeScheduler.getLoopTimeBudgetNanos());
+
+		TurboModeScheduler.startFrame();
+		assertEquals("Loops of the last frame not considered", timeBudget / 3,
+				TurboModeScheduler.getLoopTimeBudgetNanos());
+		TurboModeScheduler.registerLoop();
+		TurboModeScheduler.startFrame();
+		assertEquals("Budget still split after loops finished", timeBudget,
+				TurboModeScheduler.getLoopTimeBudgetNanos());
+	}
+
+	public void testIterationsPerFrame() {
+		TurboModeScheduler.startFrame();
+		countIterations(30);
+		assertEquals("Wrong iterations of current frame", 30, TurboModeScheduler.getIterationsOfCurrentFrame());
+
+		TurboModeScheduler.startFrame();
+		countIterations(10);
+		assertEquals("Wrong iterations of last frame", 30, TurboModeScheduler.getIterationsOfLastFrame());
+		assertEquals("Wrong iterations of current frame", 10, TurboModeScheduler.getIterationsOfCurrentFrame());
+
+		TurboModeScheduler.startFrame();
+		assertEquals("Wrong iterations of last frame", 10, TurboModeScheduler.getIterationsOfLastFrame());
+		assertEquals("Wrong maximum", 30, TurboModeScheduler.getMaximumIterationsPerFrame());
+		assertEquals("Wrong frame count", 3, TurboModeScheduler.getFrameCount());
+		assertEquals("Wrong iteration count", 40, TurboModeScheduler.getIterationCount());
+		assertEquals("Wrong average", 40f / 3, TurboModeScheduler.getAverageIterationsPerFrame(), DELTA);
+
+		TurboModeScheduler.reset();
+		assertEquals("Frame count not reset", 0, TurboModeScheduler.getFrameCount());
+		assertEquals("Iteration count not reset", 0, TurboModeScheduler.getIterationCount());
+		assertEquals("Maximum not reset", 0, TurboModeScheduler.getMaximumIterationsPerFrame());
+	}
+
+	public void testInvalidTimeBudget() {
+		try {
+			TurboModeScheduler.setTimeBudgetPerFrameNanos(-1);
+			fail("Negative time budget accepted");
+		} catch (IllegalArgumentException expected) {
+		}
+	}
+
+	private void countIterations(int iterations) {
+		for (int iteration = 0; iteration < iterations; iteration++) {
+			TurboModeScheduler.countIteration();
+		}
+	}
+}
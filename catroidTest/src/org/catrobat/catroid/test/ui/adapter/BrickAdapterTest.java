@@ -0,0 +1,121 @@
+/*
+ * Catroid: An on-device visual programming system for Android devices
+ * Copyright (C) 2010-2014 The Catrobat Team
+ * (<http://developer.catrobat.org/credits>)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * An additional term exception under section 7 of the GNU Affero
+ * General Public License, version 3, is available at
+ * http://developer.catrobat.org/license_additional_term
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.catrobat.catroid.test.ui.adapter;
+
+import android.test.AndroidTestCase;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.Adapter;
+
+import org.catrobat.catroid.ProjectManager;
+import org.catrobat.catroid.content.Project;
+import org.catrobat.catroid.content.Script;
+import org.catrobat.catroid.content.Sprite;
+import org.catrobat.catroid.content.StartScript;
+import org.catrobat.catroid.content.bricks.HideBrick;
+import org.catrobat.catroid.content.bricks.SetXBrick;
+import org.catrobat.catroid.content.bricks.SetYBrick;
+import org.catrobat.catroid.content.bricks.ShowBrick;
+import org.catrobat.catroid.test.utils.Reflection;
+import org.catrobat.catroid.test.utils.Reflection.ParameterList;
+import org.catrobat.catroid.ui.adapter.BrickAdapter;
+import org.catrobat.catroid.ui.dragndrop.DragAndDropListView;
+
+public class BrickAdapterTest extends AndroidTestCase {
+
+	private Sprite sprite;
+	private DragAndDropListView listView;
+	private BrickAdapter adapter;
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		Project project = new Project(null, "testProject");
+		sprite = new Sprite("sprite");
+		project.addSprite(sprite);
+
+		// list positions: 0 script, 1-2 bricks, 3 empty script, 4 script, 5-7 bricks
+		Script firstScript = new StartScript();
+		firstScript.addBrick(new SetXBrick(1));
+		firstScript.addBrick(new SetYBrick(2));
+		sprite.addScript(firstScript);
+		sprite.addScript(new StartScript());
+		Script thirdScript = new StartScript();
+		thirdScript.addBrick(new HideBrick());
+		thirdScript.addBrick(new ShowBrick());
+		thirdScript.addBrick(new SetXBrick(3));
+		sprite.addScript(thirdScript);
+
+		ProjectManager.getInstance().setProject(project);
+		ProjectManager.getInstance().setCurrentSprite(sprite);
+
+		listView = new DragAndDropListView(getContext());
+		adapter = new BrickAdapter(getContext(), sprite, listView);
+	}
+
+	public void testScriptAndBrickIndexFromListPosition() {
+		assertEquals("Wrong number of list items", 8, adapter.getCount());
+
+		assertIndex(0, 0, 0);
+		assertIndex(1, 0, 0);
+		assertIndex(2, 0, 1);
+		assertIndex(3, 0, 2);
+		assertIndex(4, 1, 0);
+		assertIndex(5, 2, 0);
+		assertIndex(7, 2, 2);
+		assertIndex(8, 2, 3);
+	}
+
+	public void testRemoveUpdatesListAndIndex() {
+		adapter.removeFromBrickListAndProject(1, false);
+
+		assertEquals("Brick not removed from list", 7, adapter.getCount());
+		assertEquals("Brick not removed from project", 1, sprite.getScript(0).getBrickList().size());
+		assertTrue("Wrong brick removed", adapter.getItem(1) instanceof SetYBrick);
+		assertIndex(2, 0, 1);
+		assertIndex(4, 2, 0);
+	}
+
+	public void testBrickViewsAreRecycled() {
+		assertEquals("Script brick must not be recycled", Adapter.IGNORE_ITEM_VIEW_TYPE,
+				adapter.getItemViewType(0));
+		assertTrue("Brick should be recycled", adapter.getItemViewType(1) >= 0);
+
+		View wrapper = adapter.getView(1, null, listView);
+		View brickView = ((ViewGroup) wrapper).getChildAt(0);
+		assertSame("Wrapper not recycled", wrapper, adapter.getView(1, wrapper, listView));
+		assertSame("Brick view inflated again", brickView, ((ViewGroup) wrapper).getChildAt(0));
+
+		assertSame("Wrapper not recycled for other brick", wrapper, adapter.getView(2, wrapper, listView));
+		assertEquals("Recycled wrapper contains more than one brick", 1, ((ViewGroup) wrapper).getChildCount());
+		assertNotSame("Recycled wrapper still shows the previous brick", brickView,
+				((ViewGroup) wrapper).getChildAt(0));
+	}
+
+	private void assertIndex(int position, int expectedScriptIndex, int expectedBrickIndex) {
+		int[] index = (int[]) Reflection.invokeMethod(adapter, "getScriptAndBrickIndexFromProject",
+				new ParameterList(Integer.valueOf(position)));
+		assertEquals("Wrong script index for position " + position, expectedScriptIndex, index[0]);
+		assertEquals("Wrong brick index for position " + position, expectedBrickIndex, index[1]);
+	}
+}
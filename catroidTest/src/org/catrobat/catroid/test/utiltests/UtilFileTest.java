@@ -34,6 +34,7 @@ import org.catrobat.catroid.utils.UtilFile;
 import org.catrobat.catroid.utils.Utils;
 
 import java.io.File;
+import java.io.FileFilter;
 import java.io.IOException;
 import java.io.PrintWriter;
 import java.text.DecimalFormat;
@@ -124,6 +125,58 @@ public class UtilFileTest extends InstrumentationTestCase {
 		UtilFile.deleteDirectory(testDirectory);
 	}
 
+	public void testCopyFileWithChecksum() throws IOException {
+		writeToFile(file1, "catroid");
+		File copy = new File(testDirectory, "copy");
+
+		String checksum = UtilFile.copyFileWithChecksum(copy, file1);
+		assertEquals("Wrong checksum", Utils.md5Checksum(file1), checksum);
+		assertEquals("Copy differs from source", checksum, Utils.md5Checksum(copy));
+	}
+
+	public void testCopyDirectory() throws IOException {
+		writeToFile(file1, "catroid");
+		writeToFile(file2, "pocket code");
+		File skippedFile = new File(subDirectory, "skipped");
+		writeToFile(skippedFile, "skipped");
+		File copiedDirectory = new File(CATROID_DIRECTORY + "/testDirectoryCopy");
+		final long[] progress = new long[2];
+
+		try {
+			UtilFile.copyDirectory(copiedDirectory, testDirectory, new FileFilter() {
+				@Override
+				public boolean accept(File file) {
+					return !file.getName().equals("skipped");
+				}
+			}, new UtilFile.CopyProgressListener() {
+				@Override
+				public synchronized void onBytesCopied(long copiedBytes, long totalBytes) {
+					progress[0] = Math.max(progress[0], copiedBytes);
+					progress[1] = totalBytes;
+				}
+			});
+
+			File copiedFile1 = new File(copiedDirectory, file1.getName());
+			File copiedFile2 = new File(new File(copiedDirectory, subDirectory.getName()), file2.getName());
+			assertEquals("File not copied", Utils.md5Checksum(file1), Utils.md5Checksum(copiedFile1));
+			assertEquals("File in subdirectory not copied", Utils.md5Checksum(file2), Utils.md5Checksum(copiedFile2));
+			assertFalse("Filtered file copied", new File(copiedFile2.getParentFile(), "skipped").exists());
+			assertEquals("Wrong amount of bytes to copy", file1.length() + file2.length(), progress[1]);
+			assertEquals("Progress not reported up to the end", progress[1], progress[0]);
+		} finally {
+			UtilFile.deleteDirectory(copiedDirectory);
+		}
+	}
+
+	private void writeToFile(File file, String content) throws IOException {
+		PrintWriter printWriter = new PrintWriter(file);
+		try {
+			printWriter.print(content);
+		} finally {
+			printWriter.close();
+		}
+	}
+
 	public void testGetProjectNames() {
 		Project project = new Project(null, projectName);
 		ProjectManager.getInstance().setProject(project);
@@ -0,0 +1,293 @@
+/*
+ * Catroid: An on-device visual programming system for Android devices
+ * Copyright (C) 2010-2014 The Catrobat Team
+ * (<http://developer.catrobat.org/credits>)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * An additional term exception under section 7 of the GNU Affero
+ * General Public License, version 3, is available at
+ * http://developer.catrobat.org/license_additional_term
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.catrobat.catroid.test.web;
+
+import android.test.AndroidTestCase;
+
+import org.catrobat.catroid.common.Constants;
+import org.catrobat.catroid.utils.UtilFile;
+import org.catrobat.catroid.utils.UtilZip;
+import org.catrobat.catroid.utils.Utils;
+import org.catrobat.catroid.web.ConnectionWrapper;
+import org.catrobat.catroid.web.WebconnectionException;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.security.MessageDigest;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+public class ProjectUploadTest extends AndroidTestCase {
+
+	private static final String BOUNDARY = "--00content0boundary00";
+	private static final String CHARSET = "ISO-8859-1";
+	private static final String FILE_TAG = "upload";
+	private static final String CHECKSUM_TAG = "fileChecksum";
+	private static final String SERVER_ANSWER = "{\"statusCode\":200,\"answer\":\"ok\"}";
+
+	private File testDirectory;
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		testDirectory = new File(Constants.TMP_PATH, "projectUploadTest");
+		UtilFile.deleteDirectory(testDirectory);
+		createTestFile("first/images/image.png", 3 * Constants.BUFFER_8K + 17);
+		createTestFile("first/code.xml", 1000);
+		createTestFile("second/sounds/sound.mp3", 5 * Constants.BUFFER_8K);
+		createTestFile("second/code.xml", 10);
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		UtilFile.deleteDirectory(testDirectory);
+		super.tearDown();
+	}
+
+	public void testConcurrentZipping() throws Exception {
+		final ByteArrayOutputStream firstArchive = new ByteArrayOutputStream();
+		final ByteArrayOutputStream secondArchive = new ByteArrayOutputStream();
+		final IOException[] exceptions = new IOException[2];
+
+		Thread firstThread = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				try {
+					UtilZip.writeToZipStream(getPaths("first"), firstArchive);
+				} catch (IOException ioException) {
+					exceptions[0] = ioException;
+				}
+			}
+		});
+		Thread secondThread = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				try {
+					UtilZip.writeToZipStream(getPaths("second"), secondArchive);
+				} catch (IOException ioException) {
+					exceptions[1] = ioException;
+				}
+			}
+		});
+		firstThread.start();
+		secondThread.start();
+		firstThread.join();
+		secondThread.join();
+
+		assertNull("First zip failed", exceptions[0]);
+		assertNull("Second zip failed", exceptions[1]);
+		assertEquals("Wrong entries in first archive", createSet("images/image.png", "code.xml"),
+				getEntryNames(firstArchive.toByteArray()));
+		assertEquals("Wrong entries in second archive", createSet("sounds/sound.mp3", "code.xml"),
+				getEntryNames(secondArchive.toByteArray()));
+	}
+
+	public void testUploadSendsChecksumBeforeArchive() throws Exception {
+		final ServerSocket serverSocket = new ServerSocket(0);
+		final ByteArrayOutputStream requestBody = new ByteArrayOutputStream();
+		final IOException[] serverException = new IOException[1];
+		Thread serverThread = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				try {
+					Socket socket = serverSocket.accept();
+					receiveRequest(socket.getInputStream(), requestBody);
+					OutputStream response = socket.getOutputStream();
+					response.write(("HTTP/1.1 200 OK\r\nContent-Type: application/json\r\nContent-Length: "
+							+ SERVER_ANSWER.length() + "\r\nConnection: close\r\n\r\n" + SERVER_ANSWER)
+							.getBytes(CHARSET));
+					response.flush();
+					socket.close();
+				} catch (IOException ioException) {
+					serverException[0] = ioException;
+				}
+			}
+		});
+		serverThread.start();
+
+		HashMap<String, String> postValues = new HashMap<String, String>();
+		postValues.put(ConnectionWrapper.TAG_PROJECT_TITLE, "testProject");
+		String answer = new ConnectionWrapper().doHttpsPostFileUpload("http://127.0.0.1:" + serverSocket.getLocalPort()
+				+ "/upload", postValues, FILE_TAG, getPaths("first"), CHECKSUM_TAG, null, 0);
+		serverThread.join();
+		serverSocket.close();
+
+		assertNull("Local server failed", serverException[0]);
+		assertEquals("Wrong server answer", SERVER_ANSWER, answer);
+		Map<String, byte[]> parts = parseMultipart(requestBody.toByteArray());
+		byte[] archive = parts.get(FILE_TAG);
+		assertNotNull("Archive was not uploaded", archive);
+		assertEquals("Uploaded checksum does not match uploaded archive", md5Checksum(archive),
+				new String(parts.get(CHECKSUM_TAG), CHARSET));
+		assertEquals("Wrong zip entries", createSet("images/image.png", "code.xml"), getEntryNames(archive));
+		String body = new String(requestBody.toByteArray(), CHARSET);
+		assertTrue("Checksum must be sent before the archive",
+				body.indexOf("name=\"" + CHECKSUM_TAG + "\"") < body.indexOf("name=\"" + FILE_TAG + "\""));
+	}
+
+	public void testUploadDeletesTemporaryZipFile() throws Exception {
+		File tmpDirectory = new File(Constants.TMP_PATH);
+		tmpDirectory.mkdirs();
+		int filesBefore = tmpDirectory.list().length;
+		ServerSocket serverSocket = new ServerSocket(0);
+		serverSocket.close();
+
+		HashMap<String, String> postValues = new HashMap<String, String>();
+		postValues.put(ConnectionWrapper.TAG_PROJECT_TITLE, "testProject");
+		try {
+			new ConnectionWrapper().doHttpsPostFileUpload("http://127.0.0.1:" + serverSocket.getLocalPort()
+					+ "/upload", postValues, FILE_TAG, getPaths("first"), CHECKSUM_TAG, null, 0);
+			fail("Upload to a closed port must fail");
+		} catch (WebconnectionException expected) {
+		}
+		assertEquals("Temporary zip file was not deleted", filesBefore, tmpDirectory.list().length);
+	}
+
+	private void createTestFile(String path, int size) throws IOException {
+		File file = new File(testDirectory, path);
+		file.getParentFile().mkdirs();
+		byte[] content = new byte[size];
+		for (int i = 0; i < size; i++) {
+			content[i] = (byte) (i * 31 + path.length());
+		}
+		FileOutputStream outputStream = new FileOutputStream(file);
+		outputStream.write(content);
+		outputStream.close();
+	}
+
+	private String[] getPaths(String projectDirectory) {
+		File directory = new File(testDirectory, projectDirectory);
+		String[] paths = directory.list();
+		for (int i = 0; i < paths.length; i++) {
+			paths[i] = Utils.buildPath(directory.getAbsolutePath(), paths[i]);
+		}
+		return paths;
+	}
+
+	private Set<String> getEntryNames(byte[] archive) throws IOException {
+		Set<String> entryNames = new HashSet<String>();
+		ZipInputStream zipInputStream = new ZipInputStream(new ByteArrayInputStream(archive));
+		ZipEntry zipEntry;
+		while ((zipEntry = zipInputStream.getNextEntry()) != null) {
+			entryNames.add(zipEntry.getName());
+		}
+		zipInputStream.close();
+		return entryNames;
+	}
+
+	private Set<String> createSet(String... values) {
+		Set<String> set = new HashSet<String>();
+		for (String value : values) {
+			set.add(value);
+		}
+		return set;
+	}
+
+	private String md5Checksum(byte[] data) {
+		MessageDigest messageDigest = Utils.getMD5MessageDigest();
+		messageDigest.update(data);
+		return Utils.md5Checksum(messageDigest);
+	}
+
+	private void receiveRequest(InputStream inputStream, OutputStream body) throws IOException {
+		boolean chunked = false;
+		int contentLength = 0;
+		String line;
+		while ((line = readLine(inputStream)).length() > 0) {
+			String header = line.toLowerCase();
+			if (header.startsWith("transfer-encoding:") && header.contains("chunked")) {
+				chunked = true;
+			} else if (header.startsWith("content-length:")) {
+				contentLength = Integer.parseInt(line.substring(line.indexOf(':') + 1).trim());
+			}
+		}
+
+		if (!chunked) {
+			copy(inputStream, body, contentLength);
+			return;
+		}
+		int chunkSize;
+		while ((chunkSize = Integer.parseInt(readLine(inputStream).split(";")[0].trim(), 16)) > 0) {
+			copy(inputStream, body, chunkSize);
+			readLine(inputStream);
+		}
+		readLine(inputStream);
+	}
+
+	private String readLine(InputStream inputStream) throws IOException {
+		StringBuilder line = new StringBuilder();
+		int value;
+		while ((value = inputStream.read()) != -1 && value != '\n') {
+			if (value != '\r') {
+				line.append((char) value);
+			}
+		}
+		return line.toString();
+	}
+
+	private void copy(InputStream inputStream, OutputStream outputStream, int length) throws IOException {
+		byte[] buffer = new byte[Constants.BUFFER_8K];
+		while (length > 0) {
+			int count = inputStream.read(buffer, 0, Math.min(buffer.length, length));
+			if (count == -1) {
+				throw new IOException("Unexpected end of request");
+			}
+			outputStream.write(buffer, 0, count);
+			length -= count;
+		}
+	}
+
+	private Map<String, byte[]> parseMultipart(byte[] body) throws IOException {
+		Map<String, byte[]> parts = new HashMap<String, byte[]>();
+		Pattern namePattern = Pattern.compile("name=\"([^\"]*)\"");
+		for (String part : new String(body, CHARSET).split(BOUNDARY)) {
+			int contentStart = part.indexOf("\r\n\r\n");
+			if (contentStart == -1) {
+				continue;
+			}
+			Matcher nameMatcher = namePattern.matcher(part.substring(0, contentStart));
+			if (!nameMatcher.find()) {
+				continue;
+			}
+			String content = part.substring(contentStart + 4);
+			if (content.endsWith("\r\n")) {
+				content = content.substring(0, content.length() - 2);
+			}
+			parts.put(nameMatcher.group(1), content.getBytes(CHARSET));
+		}
+		return parts;
+	}
+}
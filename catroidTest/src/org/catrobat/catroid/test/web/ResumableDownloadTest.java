@@ -0,0 +1,325 @@
+/*
+ * Catroid: An on-device visual programming system for Android devices
+ * Copyright (C) 2010-2014 The Catrobat Team
+ * (<http://developer.catrobat.org/credits>)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * An additional term exception under section 7 of the GNU Affero
+ * General Public License, version 3, is available at
+ * http://developer.catrobat.org/license_additional_term
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.catrobat.catroid.test.web;
+
+import android.test.AndroidTestCase;
+
+import org.catrobat.catroid.common.Constants;
+import org.catrobat.catroid.utils.UtilFile;
+import org.catrobat.catroid.utils.UtilZip;
+import org.catrobat.catroid.web.ConnectionWrapper;
+import org.catrobat.catroid.web.ServerCalls;
+import org.catrobat.catroid.web.WebconnectionException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+public class ResumableDownloadTest extends AndroidTestCase {
+
+	private static final String CHARSET = "ISO-8859-1";
+	private static final int FILE_SIZE = 20 * Constants.BUFFER_8K;
+	private static final Pattern RANGE_PATTERN = Pattern.compile("range: bytes=(\\d+)-");
+	private static final String IF_RANGE_HEADER = "if-range:";
+	private static final String ETAG = "\"archive-1\"";
+	private static final String CHANGED_ETAG = "\"archive-2\"";
+
+	private File testDirectory;
+	private File projectDirectory;
+	private File zipFile;
+	private byte[] archive;
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		testDirectory = new File(Constants.TMP_PATH, "resumableDownloadTest");
+		UtilFile.deleteDirectory(testDirectory);
+		projectDirectory = new File(testDirectory, "project");
+		zipFile = new File(testDirectory, "download" + Constants.CATROBAT_EXTENSION);
+
+		File sourceDirectory = new File(testDirectory, "source");
+		File imageFile = new File(sourceDirectory, "images/image.png");
+		imageFile.getParentFile().mkdirs();
+		byte[] content = new byte[FILE_SIZE];
+		for (int i = 0; i < content.length; i++) {
+			content[i] = (byte) (i * 7);
+		}
+		FileOutputStream outputStream = new FileOutputStream(imageFile);
+		outputStream.write(content);
+		outputStream.close();
+
+		ByteArrayOutputStream archiveStream = new ByteArrayOutputStream();
+		UtilZip.writeToZipStream(new String[] { imageFile.getParentFile().getAbsolutePath() }, archiveStream);
+		archive = archiveStream.toByteArray();
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		UtilFile.deleteDirectory(testDirectory);
+		super.tearDown();
+	}
+
+	public void testDroppedDownloadIsResumedWithRange() throws Exception {
+		LocalDownloadServer server = new LocalDownloadServer(true, ETAG, archive.length / 3, 1);
+		boolean result = download(server);
+
+		assertTrue("Download failed", result);
+		assertEquals("Wrong number of requests", 2, server.requestedOffsets.size());
+		assertEquals("First request must start at the beginning", Long.valueOf(0), server.requestedOffsets.get(0));
+		assertEquals("Second request must resume where the first one stopped", Long.valueOf(archive.length / 3),
+				server.requestedOffsets.get(1));
+		assertEquals("Range must not be sent with POST", "GET", server.requestMethods.get(1));
+		assertEquals("Resume must be conditional on the ETag", ETAG, server.ifRangeHeaders.get(1));
+		assertProjectExtracted();
+	}
+
+	public void testServerIgnoringRangeRestartsDownload() throws Exception {
+		LocalDownloadServer server = new LocalDownloadServer(false, ETAG, archive.length / 2, 1);
+		boolean result = download(server);
+
+		assertTrue("Download failed", result);
+		assertEquals("Wrong number of requests", 2, server.requestedOffsets.size());
+		assertProjectExtracted();
+	}
+
+	public void testPartialFileOfEarlierDownloadIsResumed() throws Exception {
+		failDownload();
+		long existingBytes = zipFile.length();
+
+		LocalDownloadServer server = new LocalDownloadServer(true, ETAG, -1, 0);
+		boolean result = download(server);
+
+		assertTrue("Download failed", result);
+		assertEquals("Wrong number of requests", 1, server.requestedOffsets.size());
+		assertEquals("Existing bytes were requested again", Long.valueOf(existingBytes),
+				server.requestedOffsets.get(0));
+		assertProjectExtracted();
+	}
+
+	public void testPartialFileWithoutValidatorIsDownloadedAgain() throws Exception {
+		zipFile.getParentFile().mkdirs();
+		FileOutputStream outputStream = new FileOutputStream(zipFile);
+		outputStream.write(archive, 0, archive.length / 2);
+		outputStream.close();
+
+		LocalDownloadServer server = new LocalDownloadServer(true, ETAG, -1, 0);
+		boolean result = download(server);
+
+		assertTrue("Download failed", result);
+		assertEquals("Wrong number of requests", 1, server.requestedOffsets.size());
+		assertEquals("Partial file of unknown origin was resumed", Long.valueOf(0), server.requestedOffsets.get(0));
+		assertProjectExtracted();
+	}
+
+	public void testChangedArchiveIsDownloadedAgain() throws Exception {
+		failDownload();
+
+		LocalDownloadServer server = new LocalDownloadServer(true, CHANGED_ETAG, -1, 0);
+		boolean result = download(server);
+
+		assertTrue("Download failed", result);
+		assertEquals("Wrong number of requests", 1, server.requestedOffsets.size());
+		assertEquals("Resume must be conditional on the ETag", ETAG, server.ifRangeHeaders.get(0));
+		assertProjectExtracted();
+	}
+
+	public void testPartialFileLongerThanArchiveIsDownloadedAgain() throws Exception {
+		failDownload();
+		FileOutputStream outputStream = new FileOutputStream(zipFile, true);
+		outputStream.write(archive);
+		outputStream.close();
+
+		LocalDownloadServer server = new LocalDownloadServer(true, ETAG, -1, 0);
+		boolean result = download(server);
+
+		assertTrue("Download failed", result);
+		assertEquals("Wrong number of requests", 2, server.requestedOffsets.size());
+		assertEquals("Download must start again at the beginning", Long.valueOf(0), server.requestedOffsets.get(1));
+		assertProjectExtracted();
+	}
+
+	public void testBrokenArchiveIsDeleted() throws Exception {
+		archive = new byte[FILE_SIZE];
+		LocalDownloadServer server = new LocalDownloadServer(true, ETAG, -1, 0);
+		boolean result = download(server);
+
+		assertFalse("Broken archive was extracted", result);
+		assertDownloadRemoved();
+	}
+
+	private boolean download(LocalDownloadServer server) throws Exception {
+		server.start();
+		try {
+			return ServerCalls.getInstance().downloadProject(server.getUrl(), zipFile.getAbsolutePath(),
+					projectDirectory.getAbsolutePath(), null, 0);
+		} finally {
+			server.finish();
+		}
+	}
+
+	private void failDownload() throws Exception {
+		LocalDownloadServer server = new LocalDownloadServer(true, ETAG, archive.length / 6,
+				ConnectionWrapper.MAXIMUM_DOWNLOAD_ATTEMPTS);
+		try {
+			download(server);
+			fail("Download did not fail");
+		} catch (WebconnectionException expected) {
+		}
+		assertTrue("Partial archive was not kept", zipFile.length() > 0 && zipFile.length() < archive.length);
+	}
+
+	private void assertDownloadRemoved() {
+		assertFalse("Downloaded archive was not deleted", zipFile.exists());
+		assertFalse("Validator was not deleted", new File(zipFile.getPath() + ".validator").exists());
+		assertFalse("Staging directory was not removed", new File(zipFile.getPath() + "_extracted").exists());
+	}
+
+	private void assertProjectExtracted() throws IOException {
+		File imageFile = new File(projectDirectory, "images/image.png");
+		assertTrue("Image was not extracted", imageFile.exists());
+		assertEquals("Image has wrong size", FILE_SIZE, imageFile.length());
+		InputStream inputStream = new FileInputStream(imageFile);
+		try {
+			for (int i = 0; i < FILE_SIZE; i++) {
+				assertEquals("Image content differs at " + i, (byte) (i * 7), (byte) inputStream.read());
+			}
+		} finally {
+			inputStream.close();
+		}
+		assertDownloadRemoved();
+	}
+
+	private class LocalDownloadServer extends Thread {
+		private final ServerSocket serverSocket;
+		private final boolean supportsRange;
+		private final String eTag;
+		private final int dropResponsesAfter;
+		private final int droppedResponses;
+		private final List<Long> requestedOffsets = new ArrayList<Long>();
+		private final List<String> requestMethods = new ArrayList<String>();
+		private final List<String> ifRangeHeaders = new ArrayList<String>();
+		private IOException exception;
+
+		LocalDownloadServer(boolean supportsRange, String eTag, int dropResponsesAfter, int droppedResponses)
+				throws IOException {
+			this.supportsRange = supportsRange;
+			this.eTag = eTag;
+			this.dropResponsesAfter = dropResponsesAfter;
+			this.droppedResponses = droppedResponses;
+			serverSocket = new ServerSocket(0);
+		}
+
+		String getUrl() {
+			return "http://127.0.0.1:" + serverSocket.getLocalPort() + "/download";
+		}
+
+		void finish() throws Exception {
+			serverSocket.close();
+			join();
+			assertNull("Local server failed", exception);
+		}
+
+		@Override
+		public void run() {
+			try {
+				while (true) {
+					Socket socket = serverSocket.accept();
+					handleRequest(socket);
+					socket.close();
+				}
+			} catch (IOException ioException) {
+				if (!serverSocket.isClosed()) {
+					exception = ioException;
+				}
+			}
+		}
+
+		private void handleRequest(Socket socket) throws IOException {
+			InputStream inputStream = socket.getInputStream();
+			String method = readLine(inputStream).split(" ")[0];
+			long offset = 0;
+			int contentLength = 0;
+			String ifRange = null;
+			String line;
+			while ((line = readLine(inputStream)).length() > 0) {
+				String header = line.toLowerCase();
+				Matcher rangeMatcher = RANGE_PATTERN.matcher(header);
+				if (rangeMatcher.find()) {
+					offset = Long.parseLong(rangeMatcher.group(1));
+				} else if (header.startsWith(IF_RANGE_HEADER)) {
+					ifRange = line.substring(IF_RANGE_HEADER.length()).trim();
+				} else if (header.startsWith("content-length:")) {
+					contentLength = Integer.parseInt(header.substring(header.indexOf(':') + 1).trim());
+				}
+			}
+			for (int i = 0; i < contentLength; i++) {
+				inputStream.read();
+			}
+			requestedOffsets.add(offset);
+			requestMethods.add(method);
+			ifRangeHeaders.add(ifRange);
+
+			// like common servers, Range is only honored for GET requests and only while If-Range matches
+			boolean rangeHonored = supportsRange && offset > 0 && method.equals("GET") && eTag.equals(ifRange);
+			OutputStream outputStream = socket.getOutputStream();
+			if (rangeHonored && offset >= archive.length) {
+				outputStream.write(("HTTP/1.1 416 Requested Range Not Satisfiable\r\nContent-Range: bytes */"
+						+ archive.length + "\r\nContent-Length: 0\r\nConnection: close\r\n\r\n").getBytes(CHARSET));
+				outputStream.flush();
+				return;
+			}
+			int start = rangeHonored ? (int) offset : 0;
+			int length = archive.length - start;
+			String statusLine = rangeHonored ? "HTTP/1.1 206 Partial Content" : "HTTP/1.1 200 OK";
+			outputStream.write((statusLine + "\r\nContent-Type: application/zip\r\nContent-Length: " + length
+					+ "\r\nETag: " + eTag + "\r\nConnection: close\r\n\r\n").getBytes(CHARSET));
+			if (requestedOffsets.size() <= droppedResponses) {
+				outputStream.write(archive, start, Math.min(dropResponsesAfter, length));
+			} else {
+				outputStream.write(archive, start, length);
+			}
+			outputStream.flush();
+		}
+
+		private String readLine(InputStream inputStream) throws IOException {
+			StringBuilder line = new StringBuilder();
+			int value;
+			while ((value = inputStream.read()) != -1 && value != '\n') {
+				if (value != '\r') {
+					line.append((char) value);
+				}
+			}
+			return line.toString();
+		}
+	}
+}
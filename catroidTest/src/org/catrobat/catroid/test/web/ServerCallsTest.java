@@ -32,7 +32,6 @@ import org.catrobat.catroid.content.Project;
 import org.catrobat.catroid.io.StorageHandler;
 import org.catrobat.catroid.test.utils.Reflection;
 import org.catrobat.catroid.test.utils.TestUtils;
-import org.catrobat.catroid.utils.UtilZip;
 import org.catrobat.catroid.utils.Utils;
 import org.catrobat.catroid.web.ServerCalls;
 import org.catrobat.catroid.web.WebconnectionException;
@@ -270,7 +269,6 @@ public class ServerCallsTest extends AndroidTestCase {
 	}
 
 	public void testUploadWithExistingUserWithoutEmail() {
-		File zipFile = null;
 		try {
 			Project project = TestUtils
 					.createTestProjectOnLocalStorageWithCatrobatLanguageVersion(Constants.CURRENT_CATROBAT_LANGUAGE_VERSION);
@@ -287,15 +285,6 @@ public class ServerCallsTest extends AndroidTestCase {
 				paths[i] = Utils.buildPath(directoryPath.getAbsolutePath(), paths[i]);
 			}
 
-			String zipFileString = Utils.buildPath(Constants.TMP_PATH, "upload" + Constants.CATROBAT_EXTENSION);
-			zipFile = new File(zipFileString);
-			if (!zipFile.exists()) {
-				zipFile.getParentFile().mkdirs();
-				zipFile.createNewFile();
-			}
-
-			UtilZip.writeToZipFile(paths, zipFileString);
-
 			String testUser = "testUser" + System.currentTimeMillis();
 			String testPassword = "pwspws";
 			String testEmail = testUser + "@gmail.com";
@@ -305,16 +294,12 @@ public class ServerCallsTest extends AndroidTestCase {
 					getContext());
 			token = PreferenceManager.getDefaultSharedPreferences(getContext()).getString(Constants.TOKEN, "");
 			ServerCalls.useTestUrl = true;
-			ServerCalls.getInstance().uploadProject("test", "", zipFileString, null, "de", token, testUser, null, 0,
+			ServerCalls.getInstance().uploadProject("test", "", paths, null, "de", token, testUser, null, 0,
 					getContext());
 
 		} catch (Exception exception) {
 			Log.e(LOG_TAG, "testUploadWithExistingUserWithoutEmail: error", exception);
 			fail("Upload with existing user but without e-mail failed!");
-		} finally {
-			if (zipFile != null) {
-				zipFile.delete();
-			}
 		}
 
 	}